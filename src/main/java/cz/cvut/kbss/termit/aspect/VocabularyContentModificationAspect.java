@@ -1,12 +1,26 @@
 package cz.cvut.kbss.termit.aspect;
 
+import cz.cvut.kbss.termit.dto.TermInfo;
 import cz.cvut.kbss.termit.event.VocabularyContentModified;
+import cz.cvut.kbss.termit.model.AbstractTerm;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.dao.TermDao;
+import cz.cvut.kbss.termit.persistence.dao.util.VocabularyContentVersions;
+import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.After;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
 @Aspect
 public class VocabularyContentModificationAspect {
 
@@ -17,8 +31,45 @@ public class VocabularyContentModificationAspect {
     public void vocabularyContentModificationOperation() {
     }
 
+    /**
+     * Publishes the event, specifying the modified term and its vocabulary if they can be determined from the arguments
+     * of the modifying operation.
+     * <p>
+     * Terms passed in a map argument (e.g., terms whose relationships to the modified term were removed) are modified as
+     * well, so an event is published for each of them.
+     * <p>
+     * Also refreshes content version of all vocabularies affected by the operation.
+     */
     @After("vocabularyContentModificationOperation()")
-    public void vocabularyContentModified() {
-        eventPublisher.publishEvent(new VocabularyContentModified(this));
+    public void vocabularyContentModified(JoinPoint joinPoint) {
+        URI vocabularyIri = null;
+        URI termIri = null;
+        final Set<URI> affectedVocabularies = new HashSet<>();
+        final Map<URI, TermInfo> affectedTerms = new HashMap<>();
+        for (Object arg : joinPoint.getArgs()) {
+            if (arg instanceof Vocabulary) {
+                vocabularyIri = ((Vocabulary) arg).getUri();
+                affectedVocabularies.add(vocabularyIri);
+            } else if (arg instanceof AbstractTerm) {
+                termIri = ((AbstractTerm) arg).getUri();
+                if (vocabularyIri == null) {
+                    vocabularyIri = ((AbstractTerm) arg).getVocabulary();
+                }
+                affectedVocabularies.addAll(VocabularyContentVersions.resolveAffectedVocabularies((AbstractTerm) arg));
+            } else if (arg instanceof Map) {
+                ((Map<?, ?>) arg).values().stream().filter(Collection.class::isInstance)
+                                 .flatMap(v -> ((Collection<?>) v).stream())
+                                 .filter(TermInfo.class::isInstance)
+                                 .map(TermInfo.class::cast)
+                                 .forEach(t -> affectedTerms.putIfAbsent(t.getUri(), t));
+            }
+        }
+        affectedTerms.values().stream().map(TermInfo::getVocabulary).filter(Objects::nonNull)
+                     .forEach(affectedVocabularies::add);
+        ((TermDao) joinPoint.getTarget()).refreshContentVersion(affectedVocabularies);
+        eventPublisher.publishEvent(new VocabularyContentModified(this, vocabularyIri, termIri));
+        affectedTerms.remove(termIri);
+        affectedTerms.values().forEach(t -> eventPublisher.publishEvent(
+                new VocabularyContentModified(this, t.getVocabulary(), t.getUri())));
     }
 }
@@ -85,6 +85,7 @@ public class SecurityConfig extends KeycloakWebSecurityConfigurerAdapter {
         corsConfiguration.addExposedHeader(HttpHeaders.LOCATION);
         corsConfiguration.addExposedHeader(HttpHeaders.CONTENT_DISPOSITION);
         corsConfiguration.addExposedHeader(Constants.X_TOTAL_COUNT_HEADER);
+        corsConfiguration.addExposedHeader(Constants.X_NEXT_CURSOR_HEADER);
         corsConfiguration.setAllowCredentials(false);
         final UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", corsConfiguration);
@@ -37,6 +37,7 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -153,6 +154,7 @@ public class WebAppConfig implements WebMvcConfigurer {
         converters.add(createJsonLdMessageConverter());
         converters.add(createDefaultMessageConverter());
         converters.add(new ResourceHttpMessageConverter());
+        converters.add(new ResourceRegionHttpMessageConverter());
     }
 
     private HttpMessageConverter<?> createJsonLdMessageConverter() {
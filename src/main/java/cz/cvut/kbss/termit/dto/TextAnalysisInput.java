@@ -17,6 +17,10 @@
  */
 package cz.cvut.kbss.termit.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import cz.cvut.kbss.termit.util.json.TextAnalysisInputSerializer;
+import org.springframework.core.io.InputStreamSource;
+
 import java.net.URI;
 import java.util.HashSet;
 import java.util.Set;
@@ -26,7 +30,11 @@ import java.util.Set;
  * <p>
  * Mainly contains the content to analyze and identification of the vocabularies whose terms will be used in the text
  * analysis.
+ * <p>
+ * The content can be provided either directly or as a source from which it is streamed when needed, so that large
+ * documents need not be held in memory.
  */
+@JsonSerialize(using = TextAnalysisInputSerializer.class)
 public class TextAnalysisInput {
 
     /**
@@ -34,6 +42,11 @@ public class TextAnalysisInput {
      */
     private String content;
 
+    /**
+     * Source of UTF-8 encoded text content to analyze. Takes precedence over {@link #content}.
+     */
+    private InputStreamSource contentSource;
+
     /**
      * Language of the text content.
      */
@@ -68,6 +81,14 @@ public class TextAnalysisInput {
         this.content = content;
     }
 
+    public InputStreamSource getContentSource() {
+        return contentSource;
+    }
+
+    public void setContentSource(InputStreamSource contentSource) {
+        this.contentSource = contentSource;
+    }
+
     public String getLanguage() {
         return language;
     }
@@ -101,9 +122,11 @@ public class TextAnalysisInput {
 
     @Override
     public String toString() {
-        assert content != null;
+        assert content != null || contentSource != null;
         return "TextAnalysisInput{" +
-                "content='" + (content.length() > 50 ? content.substring(0, 50) + "..." : content) + '\'' +
+                (content != null ?
+                 "content='" + (content.length() > 50 ? content.substring(0, 50) + "..." : content) + '\'' :
+                 "contentSource=" + contentSource) +
                 ", vocabularyRepository=" + vocabularyRepository +
                 ", vocabularyContexts=" + vocabularyContexts +
                 ", language=" + language +
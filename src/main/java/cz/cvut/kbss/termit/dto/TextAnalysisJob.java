@@ -0,0 +1,149 @@
+package cz.cvut.kbss.termit.dto;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State of a background text analysis job analyzing multiple files.
+ * <p>
+ * Each file is analyzed separately, so a job may finish with some files analyzed successfully and others failed.
+ */
+public class TextAnalysisJob {
+
+    public enum Status {
+        QUEUED, RUNNING, FINISHED, FAILED
+    }
+
+    private final String id;
+
+    /**
+     * Identifier of the asset (document, file or vocabulary) whose analysis was requested.
+     */
+    private final URI target;
+
+    private final int totalFiles;
+
+    private final Instant submitted;
+
+    private final AtomicInteger analyzedFiles = new AtomicInteger();
+
+    private final AtomicInteger processedFiles = new AtomicInteger();
+
+    /**
+     * Files whose analysis failed mapped to description of the failure.
+     */
+    private final Map<URI, String> failedFiles = new ConcurrentHashMap<>();
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile Instant started;
+
+    private volatile Instant finished;
+
+    public TextAnalysisJob(String id, URI target, int totalFiles) {
+        this.id = Objects.requireNonNull(id);
+        this.target = target;
+        this.totalFiles = totalFiles;
+        this.submitted = Instant.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public URI getTarget() {
+        return target;
+    }
+
+    public int getTotalFiles() {
+        return totalFiles;
+    }
+
+    public int getAnalyzedFiles() {
+        return analyzedFiles.get();
+    }
+
+    public Map<URI, String> getFailedFiles() {
+        return failedFiles;
+    }
+
+    public Instant getSubmitted() {
+        return submitted;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStarted() {
+        return started;
+    }
+
+    public Instant getFinished() {
+        return finished;
+    }
+
+    /**
+     * Marks this job as running, unless it is already running.
+     */
+    public synchronized void start() {
+        if (status == Status.QUEUED) {
+            this.started = Instant.now();
+            this.status = Status.RUNNING;
+        }
+    }
+
+    /**
+     * Records successful analysis of a file.
+     *
+     * @return {@code true} if this was the last file of the job
+     */
+    public boolean fileAnalyzed() {
+        analyzedFiles.incrementAndGet();
+        return processedFiles.incrementAndGet() == totalFiles;
+    }
+
+    /**
+     * Records failed analysis of a file.
+     *
+     * @param file  Identifier of the file
+     * @param error Description of the failure
+     * @return {@code true} if this was the last file of the job
+     */
+    public boolean fileFailed(URI file, String error) {
+        failedFiles.put(file, error != null ? error : "Unknown error.");
+        return processedFiles.incrementAndGet() == totalFiles;
+    }
+
+    /**
+     * Marks this job as finished, or failed if analysis of any of its files failed.
+     */
+    public void finish() {
+        this.finished = Instant.now();
+        this.status = failedFiles.isEmpty() ? Status.FINISHED : Status.FAILED;
+    }
+
+    /**
+     * Whether this job has either finished or failed.
+     *
+     * @return {@code true} if the job is done, {@code false} if it is queued or running
+     */
+    public boolean isDone() {
+        final Status s = status;
+        return s == Status.FINISHED || s == Status.FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return "TextAnalysisJob{" +
+                "id='" + id + '\'' +
+                ", target=" + target +
+                ", status=" + status +
+                ", analyzed=" + analyzedFiles + "/" + totalFiles +
+                '}';
+    }
+}
@@ -5,6 +5,7 @@ import cz.cvut.kbss.jopa.vocabulary.RDFS;
 
 import java.io.Serializable;
 import java.net.URI;
+import java.time.Instant;
 import java.util.Objects;
 
 @SparqlResultSetMapping(name = "TermFrequencyDto", classes = {
@@ -26,6 +27,12 @@ public class TermFrequencyDto implements Serializable {
     @OWLDataProperty(iri = RDFS.LABEL)
     private String label;
 
+    /**
+     * When the statistic was computed. Indicates how fresh the count is.
+     */
+    @OWLDataProperty(iri = "http://onto.fel.cvut.cz/ontologies/application/termit/pojem/computed-at")
+    private Instant computedAt;
+
     public TermFrequencyDto() {
         // Default constructor for Jackson
     }
@@ -36,6 +43,13 @@ public class TermFrequencyDto implements Serializable {
         this.label = label;
     }
 
+    public TermFrequencyDto(TermFrequencyDto other) {
+        this.id = other.id;
+        this.count = other.count;
+        this.label = other.label;
+        this.computedAt = other.computedAt;
+    }
+
     public URI getId() {
         return id;
     }
@@ -60,6 +74,14 @@ public class TermFrequencyDto implements Serializable {
         this.label = label;
     }
 
+    public Instant getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(Instant computedAt) {
+        this.computedAt = computedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
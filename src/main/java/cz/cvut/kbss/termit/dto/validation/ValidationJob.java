@@ -0,0 +1,117 @@
+package cz.cvut.kbss.termit.dto.validation;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * State of a background vocabulary validation job.
+ * <p>
+ * Results of the validation are retrieved separately once the job is {@link Status#FINISHED}.
+ */
+public class ValidationJob {
+
+    public enum Status {
+        QUEUED, RUNNING, FINISHED, FAILED
+    }
+
+    private final String id;
+
+    /**
+     * Identifier of the vocabulary the validation was requested for.
+     */
+    private final URI vocabulary;
+
+    private final Instant submitted;
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile Instant started;
+
+    private volatile Instant finished;
+
+    /**
+     * Error message in case the validation failed.
+     */
+    private volatile String error;
+
+    public ValidationJob(String id, URI vocabulary) {
+        this.id = Objects.requireNonNull(id);
+        this.vocabulary = vocabulary;
+        this.submitted = Instant.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public URI getVocabulary() {
+        return vocabulary;
+    }
+
+    public Instant getSubmitted() {
+        return submitted;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStarted() {
+        return started;
+    }
+
+    public Instant getFinished() {
+        return finished;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Marks this job as running.
+     */
+    public void start() {
+        this.started = Instant.now();
+        this.status = Status.RUNNING;
+    }
+
+    /**
+     * Marks this job as successfully finished.
+     */
+    public void finish() {
+        this.finished = Instant.now();
+        this.status = Status.FINISHED;
+    }
+
+    /**
+     * Marks this job as failed.
+     *
+     * @param error Description of the failure
+     */
+    public void fail(String error) {
+        this.error = error;
+        this.finished = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    /**
+     * Whether this job has either finished or failed.
+     *
+     * @return {@code true} if the job is done, {@code false} if it is queued or running
+     */
+    public boolean isDone() {
+        final Status s = status;
+        return s == Status.FINISHED || s == Status.FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationJob{" +
+                "id='" + id + '\'' +
+                ", vocabulary=" + vocabulary +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package cz.cvut.kbss.termit.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.net.URI;
+
+/**
+ * Represents an event of modification (addition, update or removal) of an asset.
+ */
+public class AssetModifiedEvent extends ApplicationEvent {
+
+    private final URI assetIri;
+
+    public AssetModifiedEvent(Object source, URI assetIri) {
+        super(source);
+        this.assetIri = assetIri;
+    }
+
+    /**
+     * Gets identifier of the modified asset.
+     *
+     * @return Asset identifier
+     */
+    public URI getAssetIri() {
+        return assetIri;
+    }
+}
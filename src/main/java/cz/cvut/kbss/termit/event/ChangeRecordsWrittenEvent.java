@@ -0,0 +1,16 @@
+package cz.cvut.kbss.termit.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Represents an event of a batch of change records being written into the repository.
+ * <p>
+ * Change records are written asynchronously, after the transaction in which the changes were made commits. Components
+ * keeping data derived from change records in memory can use this event to discard them.
+ */
+public class ChangeRecordsWrittenEvent extends ApplicationEvent {
+
+    public ChangeRecordsWrittenEvent(Object source) {
+        super(source);
+    }
+}
@@ -0,0 +1,47 @@
+package cz.cvut.kbss.termit.event;
+
+import cz.cvut.kbss.termit.model.comment.Comment;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Objects;
+
+/**
+ * Represents an event of addition, update or removal of a comment.
+ */
+public class CommentModifiedEvent extends ApplicationEvent {
+
+    /**
+     * Kind of the comment modification.
+     */
+    public enum Type {
+        ADDED, UPDATED, REMOVED
+    }
+
+    private final Comment comment;
+
+    private final Type type;
+
+    public CommentModifiedEvent(Object source, Comment comment, Type type) {
+        super(source);
+        this.comment = Objects.requireNonNull(comment);
+        this.type = Objects.requireNonNull(type);
+    }
+
+    /**
+     * Gets the modified comment.
+     *
+     * @return Comment
+     */
+    public Comment getComment() {
+        return comment;
+    }
+
+    /**
+     * Gets the kind of the modification.
+     *
+     * @return Modification type
+     */
+    public Type getType() {
+        return type;
+    }
+}
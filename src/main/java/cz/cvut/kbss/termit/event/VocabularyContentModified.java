@@ -2,14 +2,47 @@ package cz.cvut.kbss.termit.event;
 
 import org.springframework.context.ApplicationEvent;
 
+import java.net.URI;
+
 /**
  * Represents an event of modification of the content of a vocabulary.
  * <p>
  * This typically means a term is added, removed or modified. Modification of vocabulary metadata themselves is not considered here.
+ * <p>
+ * The event may specify the affected vocabulary and term. If the vocabulary is not specified, content of any vocabulary
+ * may have been modified.
  */
 public class VocabularyContentModified extends ApplicationEvent {
 
+    private final URI vocabularyIri;
+
+    private final URI termIri;
+
     public VocabularyContentModified(Object source) {
+        this(source, null, null);
+    }
+
+    public VocabularyContentModified(Object source, URI vocabularyIri, URI termIri) {
         super(source);
+        this.vocabularyIri = vocabularyIri;
+        this.termIri = termIri;
+    }
+
+    /**
+     * Gets identifier of the vocabulary whose content was modified.
+     *
+     * @return Vocabulary identifier, {@code null} if it is not known
+     */
+    public URI getVocabularyIri() {
+        return vocabularyIri;
+    }
+
+    /**
+     * Gets identifier of the modified term.
+     *
+     * @return Term identifier, {@code null} if it is not known
+     */
+    public URI getTermIri() {
+        return termIri;
     }
 }
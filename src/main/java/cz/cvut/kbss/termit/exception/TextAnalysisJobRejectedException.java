@@ -0,0 +1,12 @@
+package cz.cvut.kbss.termit.exception;
+
+/**
+ * Indicates that a text analysis job could not be accepted because too many files are waiting for analysis.
+ */
+@SuppressibleLogging
+public class TextAnalysisJobRejectedException extends TermItException {
+
+    public TextAnalysisJobRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package cz.cvut.kbss.termit.exception;
+
+/**
+ * Indicates that results of a vocabulary validation job were requested, but the job has not finished successfully.
+ */
+@SuppressibleLogging
+public class ValidationJobNotFinishedException extends TermItException {
+
+    public ValidationJobNotFinishedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package cz.cvut.kbss.termit.exception;
+
+/**
+ * Indicates that a vocabulary validation job could not be accepted because the validation queue is full.
+ */
+@SuppressibleLogging
+public class ValidationJobRejectedException extends TermItException {
+
+    public ValidationJobRejectedException(String message) {
+        super(message);
+    }
+}
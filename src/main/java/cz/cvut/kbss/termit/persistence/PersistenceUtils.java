@@ -3,7 +3,6 @@ package cz.cvut.kbss.termit.persistence;
 import cz.cvut.kbss.jopa.model.EntityManagerFactory;
 import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
 import cz.cvut.kbss.termit.model.Workspace;
-import cz.cvut.kbss.termit.persistence.dao.CanonicalCacheContainerDao;
 import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceMetadataProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -17,15 +16,11 @@ public class PersistenceUtils {
 
     private final WorkspaceMetadataProvider workspaceMetadataProvider;
 
-    private final CanonicalCacheContainerDao canonicalCacheContainerDao;
-
     private final EntityManagerFactory emf;
 
     @Autowired
-    public PersistenceUtils(WorkspaceMetadataProvider workspaceMetadataProvider,
-                            CanonicalCacheContainerDao canonicalCacheContainerDao, EntityManagerFactory emf) {
+    public PersistenceUtils(WorkspaceMetadataProvider workspaceMetadataProvider, EntityManagerFactory emf) {
         this.workspaceMetadataProvider = workspaceMetadataProvider;
-        this.canonicalCacheContainerDao = canonicalCacheContainerDao;
         this.emf = emf;
     }
 
@@ -102,7 +97,7 @@ public class PersistenceUtils {
      * @return Set of canonical container vocabularies whose working versions are not in the current workspace
      */
     public Set<URI> getCanonicalContainerContexts() {
-        return canonicalCacheContainerDao.findUniqueCanonicalCacheContexts(getCurrentWorkspace());
+        return workspaceMetadataProvider.getCanonicalContainerContexts(getCurrentWorkspace());
     }
 
     /**
@@ -15,19 +15,16 @@
 package cz.cvut.kbss.termit.persistence.dao;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
-import cz.cvut.kbss.termit.dto.RecentlyCommentedAsset;
 import cz.cvut.kbss.termit.dto.RecentlyModifiedAsset;
 import cz.cvut.kbss.termit.exception.PersistenceException;
 import cz.cvut.kbss.termit.model.Asset;
 import cz.cvut.kbss.termit.model.User;
-import cz.cvut.kbss.termit.model.comment.Comment;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
 import cz.cvut.kbss.termit.util.Vocabulary;
 import cz.cvut.kbss.termit.util.Configuration.Persistence;
 
 import java.net.URI;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -56,36 +53,40 @@ public abstract class AssetDao<T extends Asset<?>> extends BaseDao<T> {
     public List<RecentlyModifiedAsset> findLastEdited(int limit) {
         try {
             final List<URI> recentlyModifiedUniqueAssets = findUniqueLastModifiedEntities(limit);
-            final List<RecentlyModifiedAsset> modified = recentlyModifiedUniqueAssets.stream().map(asset -> {
-                        return (RecentlyModifiedAsset) em
-                                .createNativeQuery(
-                                        "SELECT DISTINCT ?entity ?label ?modified ?modifiedBy ?vocabulary ?type ?changeType WHERE {" +
-                                                "?x a ?change ;" +
-                                                "   a ?chType ;" +
-                                                "?hasModifiedEntity ?ent ;" +
-                                                "?hasEditor ?modifiedBy ;" +
-                                                "?hasModificationDate ?modified ." +
-                                                "?ent ?hasLabel ?label ." +
-                                                "OPTIONAL { ?ent ?isFromVocabulary ?vocabulary . }" +
-                                                "BIND (?cls as ?type)" +
-                                                "BIND (?ent as ?entity)" +
-                                                "FILTER (?chType != ?change)" +
-                                                "BIND (IF(?chType = ?persist, ?persist, ?update) as ?changeType)" +
-                                                "FILTER (lang(?label) = ?language)" +
-                                                "} ORDER BY DESC(?modified)", "RecentlyModifiedAsset")
-                                .setParameter("cls", typeUri)
-                                .setParameter("ent", asset)
-                                .setParameter("change", URI.create(Vocabulary.s_c_zmena))
-                                .setParameter("hasLabel", labelProperty())
-                                .setParameter("hasModifiedEntity", URI.create(Vocabulary.s_p_ma_zmenenou_entitu))
-                                .setParameter("hasEditor", URI.create(Vocabulary.s_p_ma_editora))
-                                .setParameter("hasModificationDate", URI.create(Vocabulary.s_p_ma_datum_a_cas_modifikace))
-                                .setParameter("isFromVocabulary", URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
-                                .setParameter("persist", URI.create(Vocabulary.s_c_vytvoreni_entity))
-                                .setParameter("update", URI.create(Vocabulary.s_c_uprava_entity))
-                                .setParameter("language", config.getLanguage()).setMaxResults(1).getSingleResult();
-                    }
-            ).collect(Collectors.toList());
+            if (recentlyModifiedUniqueAssets.isEmpty()) {
+                return Collections.emptyList();
+            }
+            final List<?> rows = em.createNativeQuery(
+                    "SELECT DISTINCT ?entity ?label ?modified ?modifiedBy ?vocabulary ?type ?changeType WHERE {" +
+                            "{ SELECT ?entity (MAX(?lastModified) AS ?modified) WHERE {" +
+                            "VALUES ?entity { " + identifierValues(recentlyModifiedUniqueAssets) + " }" +
+                            "?y ?hasModifiedEntity ?entity ;" +
+                            "?hasModificationDate ?lastModified ." +
+                            "} GROUP BY ?entity }" +
+                            "?x a ?change ;" +
+                            "   a ?chType ;" +
+                            "?hasModifiedEntity ?entity ;" +
+                            "?hasEditor ?modifiedBy ;" +
+                            "?hasModificationDate ?modified ." +
+                            "?entity ?hasLabel ?label ." +
+                            "OPTIONAL { ?entity ?isFromVocabulary ?vocabulary . }" +
+                            "BIND (?cls as ?type)" +
+                            "FILTER (?chType != ?change)" +
+                            "BIND (IF(?chType = ?persist, ?persist, ?update) as ?changeType)" +
+                            "FILTER (lang(?label) = ?language)" +
+                            "}", "RecentlyModifiedAsset")
+                                    .setParameter("cls", typeUri)
+                                    .setParameter("change", URI.create(Vocabulary.s_c_zmena))
+                                    .setParameter("hasLabel", labelProperty())
+                                    .setParameter("hasModifiedEntity", URI.create(Vocabulary.s_p_ma_zmenenou_entitu))
+                                    .setParameter("hasEditor", URI.create(Vocabulary.s_p_ma_editora))
+                                    .setParameter("hasModificationDate",
+                                            URI.create(Vocabulary.s_p_ma_datum_a_cas_modifikace))
+                                    .setParameter("isFromVocabulary", URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
+                                    .setParameter("persist", URI.create(Vocabulary.s_c_vytvoreni_entity))
+                                    .setParameter("update", URI.create(Vocabulary.s_c_uprava_entity))
+                                    .setParameter("language", config.getLanguage()).getResultList();
+            final List<RecentlyModifiedAsset> modified = toRecentlyModified(recentlyModifiedUniqueAssets, rows);
             loadLastEditors(modified);
             return modified;
         } catch (RuntimeException e) {
@@ -93,6 +94,32 @@ public abstract class AssetDao<T extends Asset<?>> extends BaseDao<T> {
         }
     }
 
+    /**
+     * Creates content of a SPARQL {@code VALUES} block from the specified identifiers.
+     */
+    protected static String identifierValues(Collection<URI> identifiers) {
+        return identifiers.stream().map(u -> "<" + u + ">").collect(Collectors.joining(" "));
+    }
+
+    /**
+     * Picks one result row for each of the specified entities, preserving the order of the entities.
+     * <p>
+     * Several rows may be returned for an entity, e.g., when it has multiple change records with the same timestamp.
+     * Entities without any rows (e.g., without a label in the configured language) are skipped.
+     *
+     * @param entities Identifiers of recently modified entities, ordered from the most recently modified one
+     * @param rows     Result rows mapped to {@link RecentlyModifiedAsset}
+     * @return List of recently modified assets
+     */
+    protected static List<RecentlyModifiedAsset> toRecentlyModified(List<URI> entities, List<?> rows) {
+        final Map<URI, RecentlyModifiedAsset> byEntity = new HashMap<>(entities.size());
+        rows.forEach(r -> {
+            final RecentlyModifiedAsset asset = (RecentlyModifiedAsset) r;
+            byEntity.putIfAbsent(asset.getUri(), asset);
+        });
+        return entities.stream().map(byEntity::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     List<URI> findUniqueLastModifiedEntities(int limit) {
         return em.createNativeQuery("SELECT DISTINCT ?entity WHERE {" +
                 "?x a ?change ;" +
@@ -105,8 +132,40 @@ public abstract class AssetDao<T extends Asset<?>> extends BaseDao<T> {
                  .setParameter("type", typeUri).setMaxResults(limit).getResultList();
     }
 
+    /**
+     * Sets editors of the specified recently modified assets.
+     * <p>
+     * All distinct editors are loaded by a single query. Only the basic user data needed to display the editor are
+     * loaded, not their types (roles).
+     */
     protected void loadLastEditors(List<RecentlyModifiedAsset> modified) {
-        modified.forEach(m -> m.setEditor(em.find(User.class, m.getModifiedBy())));
+        final Set<URI> editorIds = modified.stream().map(RecentlyModifiedAsset::getModifiedBy)
+                                           .filter(Objects::nonNull).collect(Collectors.toSet());
+        if (editorIds.isEmpty()) {
+            return;
+        }
+        final List<?> rows = em.createNativeQuery("SELECT ?user ?firstName ?lastName ?username WHERE {" +
+                "VALUES ?user { " + identifierValues(editorIds) + " }" +
+                "?user a ?userType ;" +
+                "?hasFirstName ?firstName ;" +
+                "?hasLastName ?lastName ." +
+                "OPTIONAL { ?user ?hasUsername ?username . }" +
+                "}").setParameter("userType", URI.create(Vocabulary.s_c_uzivatel))
+                               .setParameter("hasFirstName", URI.create(Vocabulary.s_p_ma_krestni_jmeno))
+                               .setParameter("hasLastName", URI.create(Vocabulary.s_p_ma_prijmeni))
+                               .setParameter("hasUsername", URI.create(Vocabulary.s_p_ma_uzivatelske_jmeno))
+                               .getResultList();
+        final Map<URI, User> editors = new HashMap<>(editorIds.size());
+        rows.forEach(r -> {
+            final Object[] row = (Object[]) r;
+            final User editor = new User();
+            editor.setUri((URI) row[0]);
+            editor.setFirstName(row[1].toString());
+            editor.setLastName(row[2].toString());
+            editor.setUsername(row[3] != null ? row[3].toString() : null);
+            editors.putIfAbsent(editor.getUri(), editor);
+        });
+        modified.forEach(m -> m.setEditor(editors.get(m.getModifiedBy())));
     }
 
     /**
@@ -120,40 +179,45 @@ public abstract class AssetDao<T extends Asset<?>> extends BaseDao<T> {
         Objects.requireNonNull(author);
         try {
             final List<URI> recentlyModifiedUniqueAssets = findUniqueLastModifiedEntitiesBy(author, limit);
-            return recentlyModifiedUniqueAssets.stream().map(asset -> {
-                        final RecentlyModifiedAsset rec = (RecentlyModifiedAsset) em
-                                .createNativeQuery(
-                                        "SELECT DISTINCT ?entity ?label ?modified ?modifiedBy ?vocabulary ?type ?changeType WHERE {" +
-                                                "?x a ?change ;" +
-                                                "   a ?chType ;" +
-                                                "?hasModifiedEntity ?ent ;" +
-                                                "?hasEditor ?author ;" +
-                                                "?hasModificationDate ?modified ." +
-                                                "?ent ?hasLabel ?label ." +
-                                                "OPTIONAL { ?ent ?isFromVocabulary ?vocabulary . }" +
-                                                "BIND (?cls as ?type)" +
-                                                "BIND (?ent as ?entity)" +
-                                                "BIND (?author as ?modifiedBy)" +
-                                                "FILTER (?chType != ?change)" +
-                                                "BIND (IF(?chType = ?persist, ?persist, ?update) as ?changeType)" +
-                                                "FILTER (lang(?label) = ?language)" +
-                                                "} ORDER BY DESC(?modified)", "RecentlyModifiedAsset")
-                                .setParameter("cls", typeUri)
-                                .setParameter("ent", asset)
-                                .setParameter("change", URI.create(Vocabulary.s_c_zmena))
-                                .setParameter("hasLabel", labelProperty())
-                                .setParameter("hasModifiedEntity", URI.create(Vocabulary.s_p_ma_zmenenou_entitu))
-                                .setParameter("hasEditor", URI.create(Vocabulary.s_p_ma_editora))
-                                .setParameter("author", author)
-                                .setParameter("hasModificationDate", URI.create(Vocabulary.s_p_ma_datum_a_cas_modifikace))
-                                .setParameter("isFromVocabulary", URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
-                                .setParameter("persist", URI.create(Vocabulary.s_c_vytvoreni_entity))
-                                .setParameter("update", URI.create(Vocabulary.s_c_uprava_entity))
-                                .setParameter("language", config.getLanguage()).setMaxResults(1).getSingleResult();
-                        rec.setEditor(author);
-                        return rec;
-                    }
-            ).collect(Collectors.toList());
+            if (recentlyModifiedUniqueAssets.isEmpty()) {
+                return Collections.emptyList();
+            }
+            final List<?> rows = em.createNativeQuery(
+                    "SELECT DISTINCT ?entity ?label ?modified ?modifiedBy ?vocabulary ?type ?changeType WHERE {" +
+                            "{ SELECT ?entity (MAX(?lastModified) AS ?modified) WHERE {" +
+                            "VALUES ?entity { " + identifierValues(recentlyModifiedUniqueAssets) + " }" +
+                            "?y ?hasModifiedEntity ?entity ;" +
+                            "?hasEditor ?author ;" +
+                            "?hasModificationDate ?lastModified ." +
+                            "} GROUP BY ?entity }" +
+                            "?x a ?change ;" +
+                            "   a ?chType ;" +
+                            "?hasModifiedEntity ?entity ;" +
+                            "?hasEditor ?author ;" +
+                            "?hasModificationDate ?modified ." +
+                            "?entity ?hasLabel ?label ." +
+                            "OPTIONAL { ?entity ?isFromVocabulary ?vocabulary . }" +
+                            "BIND (?cls as ?type)" +
+                            "BIND (?author as ?modifiedBy)" +
+                            "FILTER (?chType != ?change)" +
+                            "BIND (IF(?chType = ?persist, ?persist, ?update) as ?changeType)" +
+                            "FILTER (lang(?label) = ?language)" +
+                            "}", "RecentlyModifiedAsset")
+                                    .setParameter("cls", typeUri)
+                                    .setParameter("change", URI.create(Vocabulary.s_c_zmena))
+                                    .setParameter("hasLabel", labelProperty())
+                                    .setParameter("hasModifiedEntity", URI.create(Vocabulary.s_p_ma_zmenenou_entitu))
+                                    .setParameter("hasEditor", URI.create(Vocabulary.s_p_ma_editora))
+                                    .setParameter("author", author)
+                                    .setParameter("hasModificationDate",
+                                            URI.create(Vocabulary.s_p_ma_datum_a_cas_modifikace))
+                                    .setParameter("isFromVocabulary", URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
+                                    .setParameter("persist", URI.create(Vocabulary.s_c_vytvoreni_entity))
+                                    .setParameter("update", URI.create(Vocabulary.s_c_uprava_entity))
+                                    .setParameter("language", config.getLanguage()).getResultList();
+            final List<RecentlyModifiedAsset> modified = toRecentlyModified(recentlyModifiedUniqueAssets, rows);
+            modified.forEach(m -> m.setEditor(author));
+            return modified;
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
@@ -174,156 +238,6 @@ public abstract class AssetDao<T extends Asset<?>> extends BaseDao<T> {
                  .setParameter("type", typeUri).setMaxResults(limit).getResultList();
     }
 
-    /**
-     * Finds unique last commented assets.
-     *
-     * @param limit max number of entities
-     * @return list
-     */
-    public List<RecentlyCommentedAsset> findLastCommented(int limit) {
-        try {
-            return (List<RecentlyCommentedAsset>) em
-                .createNativeQuery("SELECT DISTINCT ?entity ?lastCommentUri ?myLastCommentUri ?type"
-                    + " WHERE { ?lastCommentUri a ?commentType ;"
-                    + "           ?hasEntity ?entity ."
-                    + "  OPTIONAL { ?lastCommentUri ?hasModifiedTime ?modified . }"
-                    + "  OPTIONAL { ?lastCommentUri ?hasCreatedTime ?created . }"
-                    + "  BIND(COALESCE(?modified,?created) AS ?lastCommented) "
-                    + "  BIND(?cls as ?type) "
-                    + "  { SELECT (MAX(?lastCommented2) AS ?max) {"
-                    + "           ?comment2 ?hasEntity ?entity ."
-                    + "           OPTIONAL { ?comment2 ?hasModifiedTime ?modified2 . }"
-                    + "           OPTIONAL { ?comment2 ?hasCreatedTime ?created2 . }"
-                    + "           BIND(COALESCE(?modified2,?created2) AS ?lastCommented2) "
-                    + "        } GROUP BY ?entity"
-                    + "  }"
-                    + "  FILTER (?lastCommented = ?max )"
-                    + "} ORDER BY DESC(?lastCommented) ", "RecentlyCommentedAsset")
-                .setParameter("cls", typeUri)
-                .setParameter("commentType", URI.create(Vocabulary.s_c_Comment))
-                .setParameter("hasEntity", URI.create(Vocabulary.s_p_topic))
-                .setParameter("hasModifiedTime",
-                    URI.create(Vocabulary.s_p_ma_datum_a_cas_posledni_modifikace))
-                .setParameter("hasCreatedTime",
-                    URI.create(Vocabulary.s_p_ma_datum_a_cas_vytvoreni))
-                .setMaxResults(limit).getResultStream()
-                .map(r -> {
-                        final RecentlyCommentedAsset a = (RecentlyCommentedAsset) r;
-                        return a.setLastComment(em.find(Comment.class, a.getLastCommentUri()));
-                    }
-                ).collect(Collectors.toList());
-        } catch (RuntimeException e) {
-            throw new PersistenceException(e);
-        }
-    }
-
-    /**
-     * Finds unique last commented entities.
-     * @param limit max number of entities
-     * @return list
-     */
-    public List<RecentlyCommentedAsset> findLastCommentedInReaction(User author, int limit) {
-        try {
-            return (List<RecentlyCommentedAsset>) em
-                .createNativeQuery("SELECT DISTINCT ?entity ?lastCommentUri ?myLastCommentUri ?type"
-                    + " WHERE { ?lastCommentUri a ?commentType ;"
-                    + "           ?hasEntity ?entity ."
-                    + "         ?myLastCommentUri ?hasEntity ?entity ;"
-                    + "                           ?hasAuthor ?author . "
-                    + "         OPTIONAL { ?myLastCommentUri ?hasModifiedTime ?modifiedByMe . } "
-                    + "         OPTIONAL { ?myLastCommentUri ?hasCreatedByMe  ?createdByMe . } "
-                    + "         BIND(COALESCE(?modifiedByMe,?createdByMe) AS ?lastCommentedByMe) "
-                    + " { SELECT (MAX(?lastCommentedByMe2) AS ?maxByMe) {"
-                    + "         ?commentByMe ?hasEntity ?entity ; "
-                    + "                      ?hasAuthor ?author . "
-                    + "          OPTIONAL { ?commentByMe ?hasModifiedTime ?modifiedByMe2 . } "
-                    + "          OPTIONAL { ?commentByMe ?hasCreatedTime ?createdByMe2 . } "
-                    + "          BIND(COALESCE(?modifiedByMe2,?createdByMe2) AS ?lastCommentedByMe2) "
-                    + "        } GROUP BY ?entity "
-                    + "  }"
-                    + "  FILTER (?lastCommentedByMe = ?maxByMe )"
-                    + "  FILTER(?myLastCommentUri != ?lastCommentUri)"
-                    + "  OPTIONAL { ?lastCommentUri ?hasModifiedTime ?modified . }"
-                    + "  OPTIONAL { ?lastCommentUri ?hasCreatedTime ?created . }"
-                    + "  BIND(COALESCE(?modified,?created) AS ?lastCommented) "
-                    + "  BIND(?cls as ?type) "
-                    + "  { SELECT (MAX(?lastCommented2) AS ?max) {"
-                    + "           ?comment2 ?hasEntity ?entity ."
-                    + "           OPTIONAL { ?comment2 ?hasModifiedTime ?modified2 . }"
-                    + "           OPTIONAL { ?comment2 ?hasCreatedTime ?created2 . }"
-                    + "           BIND(COALESCE(?modified2,?created2) AS ?lastCommented2) "
-                    + "        } GROUP BY ?entity"
-                    + "  }"
-                    + "  FILTER (?lastCommented = ?max )"
-                    + "} ORDER BY DESC(?lastCommented) ", "RecentlyCommentedAsset")
-                .setParameter("cls", typeUri)
-                .setParameter("commentType", URI.create(Vocabulary.s_c_Comment))
-                .setParameter("hasEntity", URI.create(Vocabulary.s_p_topic))
-                .setParameter("hasModifiedTime",
-                    URI.create(Vocabulary.s_p_ma_datum_a_cas_posledni_modifikace))
-                .setParameter("hasCreatedTime",
-                    URI.create(Vocabulary.s_p_ma_datum_a_cas_vytvoreni))
-                .setParameter("hasAuthor", URI.create(Vocabulary.s_p_has_creator))
-                .setParameter("author", author)
-                .setMaxResults(limit).getResultStream()
-                .map(r -> {
-                        final RecentlyCommentedAsset a = (RecentlyCommentedAsset) r;
-                        return a.setLastComment(em.find(Comment.class, a.getLastCommentUri()))
-                            .setMyLastComment(em.find(Comment.class, a.getMyLastCommentUri()));
-                    }
-                ).collect(Collectors.toList());
-        } catch (RuntimeException e) {
-            throw new PersistenceException(e);
-        }
-    }
-
-    /**
-     * Finds unique last commented entities.
-     * @param limit max number of entities
-     * @return list
-     */
-    public List<RecentlyCommentedAsset> findMyLastCommented(User author, int limit) {
-        try {
-            return (List<RecentlyCommentedAsset>) em
-                .createNativeQuery("SELECT DISTINCT ?entity ?lastCommentUri ?myLastCommentUri ?type"
-                    + " WHERE { ?lastCommentUri a ?commentType ;"
-                    + "           ?hasEntity ?entity ."
-                    + "        FILTER EXISTS{ ?x ?hasModifiedEntity ?entity ;"
-                    + "           ?hasEditor ?author .}"
-                    + "  OPTIONAL { ?lastCommentUri ?hasModifiedTime ?modified . }"
-                    + "  OPTIONAL { ?lastCommentUri ?hasCreatedTime ?created . }"
-                    + "  BIND(COALESCE(?modified,?created) AS ?lastCommented) "
-                    + "  BIND(?cls as ?type) "
-                    + "  { SELECT (MAX(?lastCommented2) AS ?max) {"
-                    + "           ?comment2 ?hasEntity ?entity ."
-                    + "           OPTIONAL { ?comment2 ?hasModifiedTime ?modified2 . }"
-                    + "           OPTIONAL { ?comment2 ?hasCreatedTime ?created2 . }"
-                    + "           BIND(COALESCE(?modified2,?created2) AS ?lastCommented2) "
-                    + "        } GROUP BY ?entity"
-                    + "  }"
-                    + "  FILTER (?lastCommented = ?max )"
-                    + "} ORDER BY DESC(?lastCommented) ", "RecentlyCommentedAsset")
-                .setParameter("cls", typeUri)
-                .setParameter("commentType", URI.create(Vocabulary.s_c_Comment))
-                .setParameter("hasEntity", URI.create(Vocabulary.s_p_topic))
-                .setParameter("hasEditor", URI.create(Vocabulary.s_p_ma_editora))
-                .setParameter("hasModifiedEntity", URI.create(Vocabulary.s_p_ma_zmenenou_entitu))
-                .setParameter("author", author)
-                .setParameter("hasModifiedTime",
-                    URI.create(Vocabulary.s_p_ma_datum_a_cas_posledni_modifikace))
-                .setParameter("hasCreatedTime",
-                    URI.create(Vocabulary.s_p_ma_datum_a_cas_vytvoreni))
-                .setMaxResults(limit).getResultStream()
-                .map(r -> {
-                        final RecentlyCommentedAsset a = (RecentlyCommentedAsset) r;
-                        return a.setLastComment(em.find(Comment.class, a.getLastCommentUri()));
-                    }
-                ).collect(Collectors.toList());
-        } catch (RuntimeException e) {
-            throw new PersistenceException(e);
-        }
-    }
-
     /**
      * Identifier of an RDF property representing this assets label.
      *
@@ -16,26 +16,37 @@ package cz.cvut.kbss.termit.persistence.dao;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.model.query.Query;
 import cz.cvut.kbss.jopa.model.query.TypedQuery;
 import cz.cvut.kbss.jopa.vocabulary.SKOS;
 import cz.cvut.kbss.termit.asset.provenance.ModifiesData;
 import cz.cvut.kbss.termit.dto.TermInfo;
 import cz.cvut.kbss.termit.dto.listing.TermDto;
+import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
+import cz.cvut.kbss.termit.event.RefreshLastModifiedEvent;
 import cz.cvut.kbss.termit.exception.PersistenceException;
+import cz.cvut.kbss.termit.exception.workspace.VocabularyNotInWorkspaceException;
 import cz.cvut.kbss.termit.model.AbstractTerm;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.model.util.HasIdentifier;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
 import cz.cvut.kbss.termit.persistence.PersistenceUtils;
+import cz.cvut.kbss.termit.persistence.dao.changetracking.ChangeTrackingHelperDao;
 import cz.cvut.kbss.termit.persistence.dao.util.SparqlResultToTermInfoMapper;
+import cz.cvut.kbss.termit.persistence.dao.util.TermPageCursor;
+import cz.cvut.kbss.termit.persistence.dao.util.VocabularyContentVersions;
 import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceBasedAssetDao;
 import cz.cvut.kbss.termit.util.Configuration;
 import org.springframework.beans.factory.annotation.Autowired;
 import cz.cvut.kbss.termit.util.Constants;
+import cz.cvut.kbss.termit.util.CursorPage;
 import cz.cvut.kbss.termit.util.PageAndSearchSpecification;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.net.URI;
 import java.util.*;
@@ -46,11 +57,22 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
 
     private static final URI LABEL_PROP = URI.create(SKOS.PREF_LABEL);
 
+    /**
+     * Maximum number of values in a single SPARQL {@code VALUES} block.
+     */
+    static final int VALUES_BLOCK_SIZE = 500;
+
     private final Comparator<TermInfo> termInfoComparator;
 
+    private final ChangeTrackingHelperDao changeTrackingHelperDao;
+
+    private final VocabularyContentVersions contentVersions = new VocabularyContentVersions();
+
     @Autowired
-    public TermDao(EntityManager em, Configuration config, DescriptorFactory descriptorFactory, PersistenceUtils persistenceUtils) {
+    public TermDao(EntityManager em, Configuration config, DescriptorFactory descriptorFactory, PersistenceUtils persistenceUtils,
+                   ChangeTrackingHelperDao changeTrackingHelperDao) {
         super(Term.class, em, config, descriptorFactory, persistenceUtils);
+        this.changeTrackingHelperDao = changeTrackingHelperDao;
         this.termInfoComparator = Comparator.comparing(t -> t.getLabel().get(config.getPersistence().getLanguage()));
     }
 
@@ -66,10 +88,8 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
             final Optional<Term> result = Optional.ofNullable(
                 em.find(Term.class, id, descriptorFactory.termDescriptor(vocabularyIri)));
             result.ifPresent(r -> {
-                loadAdditionTermMetadata(r, resolveWorkspaceAndCanonicalContexts());
-                r.setInverseRelated(loadInverseRelatedTerms(r));
-                r.setInverseRelatedMatch(loadInverseRelatedMatchTerms(r));
-                r.setInverseExactMatchTerms(loadInverseExactMatchTerms(r));
+                loadTermDetail(r, resolveWorkspaceAndCanonicalContexts());
+                r.setPublished(isPublished(r));
             });
             return result;
         } catch (RuntimeException e) {
@@ -106,53 +126,106 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
     }
 
     /**
-     * Loads terms whose relatedness to the specified term is inferred due to the symmetric of SKOS related.
+     * Loads sub-terms and terms whose relationship to the specified term is inferred due to the symmetry of SKOS
+     * related, relatedMatch and exactMatch.
+     * <p>
+     * All the relationships are resolved using a single query, terms already asserted by the specified term are
+     * excluded from the inverse relationships.
      *
-     * @param term Term to load related terms for
+     * @param term   Term to load the detail for
+     * @param graphs Contexts in which the related terms are searched for
      */
-    private Set<TermInfo> loadInverseRelatedTerms(Term term) {
-        return loadTermInfo(term, SKOS.RELATED, term.getRelated() != null ? term.getRelated() : Collections.emptySet());
-    }
-
-    private Set<TermInfo> loadTermInfo(Term term, String property, Collection<TermInfo> exclude) {
-        final List<?> inverse = em.createNativeQuery("SELECT ?inverse ?label ?vocabulary WHERE {" +
+    private void loadTermDetail(Term term, Set<URI> graphs) {
+        final List<?> rows = em.createNativeQuery("SELECT ?relation ?entity ?label ?vocabulary WHERE {" +
+            "{" +
             "GRAPH ?g {" +
-            "?inverse ?property ?term ;" +
+            "?entity ?relation ?term ;" +
             "a ?type ;" +
             "?hasLabel ?label ." +
             "} " +
-            "?inverse ?inVocabulary ?vocabulary . " +
-            "FILTER (?inverse NOT IN (?exclude))" +
+            "FILTER (?relation IN (?related, ?relatedMatch, ?exactMatch))" +
+            "} UNION {" +
+            "GRAPH ?g {" +
+            "?entity a ?type ;" +
+            "?hasLabel ?label ." +
+            "} " +
+            "?entity ?broader ?term ." + // Let broader be outside of the graph to allow including inferences
+            "BIND (?broader AS ?relation)" +
+            "}" +
+            "?entity ?inVocabulary ?vocabulary ." +
             "FILTER (?g IN (?graphs))" +
-            "} ORDER BY ?inverse").setParameter("property", URI.create(property))
+            "} ORDER BY ?entity")
             .setParameter("term", term)
             .setParameter("type", typeUri)
-            .setParameter("hasLabel", labelProperty())
+            .setParameter("hasLabel", LABEL_PROP)
+            .setParameter("related", URI.create(SKOS.RELATED))
+            .setParameter("relatedMatch", URI.create(SKOS.RELATED_MATCH))
+            .setParameter("exactMatch", URI.create(SKOS.EXACT_MATCH))
+            .setParameter("broader", URI.create(SKOS.BROADER))
             .setParameter("inVocabulary", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
-            .setParameter("exclude", exclude)
-            .setParameter("graphs", resolveWorkspaceAndCanonicalContexts())
+            .setParameter("graphs", graphs)
             .getResultList();
-        final List<TermInfo> result = new SparqlResultToTermInfoMapper().map(inverse);
-        result.sort(termInfoComparator);
-        return new LinkedHashSet<>(result);
+        final Map<URI, List<Object[]>> byRelation = groupByFirstColumn(rows);
+        term.setSubTerms(toSortedTermInfo(byRelation.get(URI.create(SKOS.BROADER)), Collections.emptySet()));
+        term.setInverseRelated(toSortedTermInfo(byRelation.get(URI.create(SKOS.RELATED)), term.getRelated()));
+        term.setInverseRelatedMatch(
+            toSortedTermInfo(byRelation.get(URI.create(SKOS.RELATED_MATCH)), term.getRelatedMatch()));
+        term.setInverseExactMatchTerms(
+            toSortedTermInfo(byRelation.get(URI.create(SKOS.EXACT_MATCH)), term.getExactMatchTerms()));
     }
 
     /**
-     * Loads terms whose relatedness to the specified term is inferred due to the symmetric of SKOS relatedMatch.
-     *
-     * @param term Term to load related terms for
+     * Groups the specified native query result rows by the value of their first column.
+     * <p>
+     * The grouping value is removed from the rows in the result.
      */
-    private Set<TermInfo> loadInverseRelatedMatchTerms(Term term) {
-        return loadTermInfo(term, SKOS.RELATED_MATCH, term.getRelatedMatch() != null ? term.getRelatedMatch() : Collections.emptySet());
+    private static Map<URI, List<Object[]>> groupByFirstColumn(List<?> rows) {
+        final Map<URI, List<Object[]>> result = new HashMap<>();
+        for (Object row : rows) {
+            final Object[] values = (Object[]) row;
+            if (values[0] == null) {
+                // No result
+                continue;
+            }
+            result.computeIfAbsent((URI) values[0], k -> new ArrayList<>())
+                  .add(Arrays.copyOfRange(values, 1, values.length));
+        }
+        return result;
     }
 
     /**
-     * Loads terms whose exact match to the specified term is inferred due to the symmetric of SKOS exactMatch.
-     *
-     * @param term Term to load related terms for
+     * Creates content of a SPARQL {@code VALUES} block from identifiers of the specified items.
      */
-    private Set<TermInfo> loadInverseExactMatchTerms(Term term) {
-        return loadTermInfo(term, SKOS.EXACT_MATCH, term.getExactMatchTerms() != null ? term.getExactMatchTerms() : Collections.emptySet());
+    private static String valuesOf(Collection<? extends HasIdentifier> items) {
+        return items.stream().map(i -> "<" + i.getUri() + ">").collect(Collectors.joining(" "));
+    }
+
+    private static String iriValuesOf(Collection<URI> iris) {
+        return iris.stream().map(i -> "<" + i + ">").collect(Collectors.joining(" "));
+    }
+
+    /**
+     * Splits the specified items into blocks small enough to be passed to a query in a single {@code VALUES} block.
+     */
+    private static <T> List<List<T>> valuesBlocks(Collection<T> items) {
+        final List<T> list = new ArrayList<>(items);
+        final List<List<T>> result = new ArrayList<>((list.size() + VALUES_BLOCK_SIZE - 1) / VALUES_BLOCK_SIZE);
+        for (int i = 0; i < list.size(); i += VALUES_BLOCK_SIZE) {
+            result.add(list.subList(i, Math.min(i + VALUES_BLOCK_SIZE, list.size())));
+        }
+        return result;
+    }
+
+    private Set<TermInfo> toSortedTermInfo(List<Object[]> rows, Collection<TermInfo> exclude) {
+        if (rows == null) {
+            return new LinkedHashSet<>();
+        }
+        final List<TermInfo> result = new SparqlResultToTermInfoMapper().map(rows);
+        if (exclude != null) {
+            result.removeAll(exclude);
+        }
+        result.sort(termInfoComparator);
+        return new LinkedHashSet<>(result);
     }
 
     /**
@@ -195,14 +268,76 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
             em.getEntityManagerFactory().getCache().evict(Term.class, entity.getUri(), null);
             em.getEntityManagerFactory().getCache().evict(TermDto.class, entity.getUri(), null);
             em.getEntityManagerFactory().getCache().evict(TermDto.class, entity.getUri(), persistenceUtils.resolveVocabularyContext(entity.getVocabulary()));
-            final Term original = em.find(Term.class, entity.getUri(), descriptorFactory.termDescriptor(entity));
+            // Reuses stored state possibly already loaded during the update
+            final Term original = changeTrackingHelperDao.findStored(entity);
             entity.setDefinitionSource(original.getDefinitionSource());
+            // Vocabularies affected by the new state are refreshed by the modification aspect
+            refreshContentVersion(VocabularyContentVersions.resolveAffectedVocabularies(original));
             return em.merge(entity, descriptorFactory.termDescriptor(entity));
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
+        } finally {
+            changeTrackingHelperDao.unregisterStored(entity);
         }
     }
 
+    /**
+     * Removes relationships asserted by the specified terms and pointing to the specified term.
+     * <p>
+     * The relationships are removed using a single update, without loading the terms which assert them. Only terms in
+     * the current workspace are affected.
+     *
+     * @param term          Term the relationships to remove point to
+     * @param relationships Terms asserting the relationships to remove, mapped by relationship property
+     */
+    @ModifiesData
+    public void removeInverseRelationships(Term term, Map<URI, Set<TermInfo>> relationships) {
+        Objects.requireNonNull(term);
+        Objects.requireNonNull(relationships);
+        final List<String> values = relationships.entrySet().stream()
+                                                 .flatMap(e -> e.getValue().stream()
+                                                                .map(t -> "(<" + t.getUri() + "> <" + e.getKey() +
+                                                                        ">)"))
+                                                 .collect(Collectors.toList());
+        if (values.isEmpty()) {
+            return;
+        }
+        try {
+            final Set<URI> graphs = persistenceUtils.getCurrentWorkspaceVocabularyContexts();
+            for (List<String> block : valuesBlocks(values)) {
+                em.createNativeQuery("DELETE {" +
+                    "GRAPH ?g { ?subject ?property ?term . }" +
+                    "} WHERE {" +
+                    "VALUES (?subject ?property) { " + String.join(" ", block) + " }" +
+                    "GRAPH ?g { ?subject ?property ?term . }" +
+                    "FILTER (?g IN (?graphs))" +
+                    "}")
+                  .setParameter("term", term)
+                  .setParameter("graphs", graphs)
+                  .executeUpdate();
+            }
+            relationships.values().forEach(terms -> terms.forEach(this::evictFromCache));
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    private void evictFromCache(TermInfo term) {
+        em.getEntityManagerFactory().getCache().evict(Term.class, term.getUri(), null);
+        em.getEntityManagerFactory().getCache().evict(TermDto.class, term.getUri(), null);
+        if (term.getVocabulary() == null) {
+            return;
+        }
+        try {
+            final URI context = persistenceUtils.resolveVocabularyContext(term.getVocabulary());
+            em.getEntityManagerFactory().getCache().evict(Term.class, term.getUri(), context);
+            em.getEntityManagerFactory().getCache().evict(TermDto.class, term.getUri(), context);
+        } catch (VocabularyNotInWorkspaceException e) {
+            // Term outside of the current workspace is not affected by the removal
+        }
+    }
+
+    @ModifiesData
     @Override
     public void remove(Term entity) {
         Objects.requireNonNull(entity);
@@ -218,6 +353,65 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
         }
     }
 
+    /**
+     * Gets the current version of content of the specified vocabularies.
+     * <p>
+     * The version changes whenever a term in any of the vocabularies is modified.
+     *
+     * @param vocabularies Vocabulary identifiers
+     * @return Monotonic version stamp, usable also as timestamp of last modification
+     */
+    public long getContentVersion(Collection<URI> vocabularies) {
+        Objects.requireNonNull(vocabularies);
+        return contentVersions.getVersion(vocabularies);
+    }
+
+    /**
+     * Gets the current version of content of all vocabularies.
+     *
+     * @return Monotonic version stamp, usable also as timestamp of last modification
+     * @see #getContentVersion(Collection)
+     */
+    public long getContentVersion() {
+        return contentVersions.getVersion();
+    }
+
+    /**
+     * Refreshes content version of the specified vocabularies.
+     * <p>
+     * If a transaction is active, the version is refreshed after it completes, so that the new version is never
+     * associated with content not yet visible to other transactions.
+     *
+     * @param vocabularies Identifiers of vocabularies whose content has been modified
+     */
+    public void refreshContentVersion(Collection<URI> vocabularies) {
+        Objects.requireNonNull(vocabularies);
+        if (vocabularies.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            contentVersions.refresh(vocabularies);
+            return;
+        }
+        final Set<URI> toRefresh = new HashSet<>(vocabularies);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                contentVersions.refresh(toRefresh);
+            }
+        });
+    }
+
+    @EventListener
+    public void onInvalidateCaches(InvalidateCachesEvent event) {
+        contentVersions.refreshAll();
+    }
+
+    @EventListener
+    public void onRefreshLastModified(RefreshLastModifiedEvent event) {
+        contentVersions.refreshAll();
+    }
+
     /**
      * Gets all terms.
      * <p>
@@ -253,17 +447,24 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
      */
     public List<TermDto> findAllRoots(Pageable pageSpec) {
         Objects.requireNonNull(pageSpec);
-        final Set<URI> wsContexts = persistenceUtils.getCurrentWorkspaceVocabularyContexts();
-        final int wsCount = countRootTermsIn(wsContexts);
-        final int offset = (int) pageSpec.getOffset();
-        final Set<TermDto> terms = new LinkedHashSet<>();
-        if (wsCount > offset) {
-            terms.addAll(findAllRootsFrom(wsContexts, pageSpec));
-        }
-        if (terms.size() < pageSpec.getPageSize()) {
-            terms.addAll(findAllRootsFrom(persistenceUtils.getCanonicalContainerContexts(), determinePageSpecForCanonical(pageSpec, wsCount, terms.size())));
-        }
-        return new ArrayList<>(terms);
+        return loadListedTerms(findListedTerms(true, null, pageSpec.getOffset(), pageSpec.getPageSize()), false);
+    }
+
+    /**
+     * Gets a page of all root terms following the specified cursor.
+     * <p>
+     * The terms are ordered in the same way as in {@link #findAllRoots(Pageable)}, but the page is identified by a
+     * cursor pointing after the last term of the previous page instead of an offset. Terms preceding the cursor are
+     * discarded when grouping, so deep pages do not carry all the preceding terms through sorting and slicing. Note that
+     * labels of the source the cursor points to still have to be grouped, so a deep page is not as cheap as the first
+     * one.
+     *
+     * @param cursor   Cursor returned with the previous page, {@code null} to get the first page
+     * @param pageSize Maximum number of terms in the page
+     * @return Content of the matching page of root terms and cursor of the next page
+     */
+    public CursorPage<TermDto> findAllRootsAfter(String cursor, int pageSize) {
+        return findListedTermsAfter(true, cursor, pageSize);
     }
 
     public List<TermDto> findAllRootsInCurrentWorkspace(Pageable pageSpec, URI excludedVocabulary) {
@@ -281,23 +482,6 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
         return findAllRootsFrom(contexts, pageSpec);
     }
 
-    private int countRootTermsIn(Set<URI> contexts) {
-        try {
-            return em.createNativeQuery("SELECT (COUNT(?term) as ?count) WHERE {" +
-                "GRAPH ?g {" +
-                "?term a ?type ." +
-                "?vocabulary ?hasGlossary/?hasTerm ?term ." +
-                "} FILTER (?g in (?graphs)) }", Integer.class)
-                .setParameter("type", typeUri)
-                .setParameter("hasGlossary", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_glosar))
-                .setParameter("hasTerm", URI.create(SKOS.HAS_TOP_CONCEPT))
-                .setParameter("graphs", contexts)
-                .getSingleResult();
-        } catch (RuntimeException e) {
-            throw new PersistenceException(e);
-        }
-    }
-
     private List<TermDto> findAllRootsFrom(Set<URI> contexts, Pageable pageSpec) {
         final String from = contexts.stream().map(u -> "FROM <" + u + ">").collect(Collectors.joining(" "));
         try {
@@ -339,41 +523,173 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
      */
     public List<TermDto> findAll(Pageable pageSpec) {
         Objects.requireNonNull(pageSpec);
+        return loadListedTerms(findListedTerms(false, null, pageSpec.getOffset(), pageSpec.getPageSize()), true);
+    }
+
+    /**
+     * Gets a page of all terms following the specified cursor.
+     * <p>
+     * The terms are ordered in the same way as in {@link #findAll(Pageable)}, but the page is identified by a cursor
+     * pointing after the last term of the previous page instead of an offset. Terms preceding the cursor are discarded
+     * when grouping, so deep pages do not carry all the preceding terms through sorting and slicing. Note that labels of
+     * the source the cursor points to still have to be grouped, so a deep page is not as cheap as the first one.
+     *
+     * @param cursor   Cursor returned with the previous page, {@code null} to get the first page
+     * @param pageSize Maximum number of terms in the page
+     * @return Content of the matching page of terms and cursor of the next page
+     */
+    public CursorPage<TermDto> findAllAfter(String cursor, int pageSize) {
+        return findListedTermsAfter(false, cursor, pageSize);
+    }
+
+    private CursorPage<TermDto> findListedTermsAfter(boolean rootsOnly, String cursor, int pageSize) {
+        final TermPageCursor after = cursor != null && !cursor.isEmpty() ? TermPageCursor.decode(cursor) : null;
+        // Fetch one more row to find out whether there is a next page
+        final List<TermPageCursor> rows = findListedTerms(rootsOnly, after, 0,
+                pageSize < Integer.MAX_VALUE ? pageSize + 1 : pageSize);
+        final List<TermPageCursor> page = rows.subList(0, Math.min(pageSize, rows.size()));
+        final String next = rows.size() > pageSize ? page.get(page.size() - 1).encode() : null;
+        return new CursorPage<>(loadListedTerms(page, !rootsOnly), next);
+    }
+
+    /**
+     * Finds terms from the current workspace and the canonical container in a single ordered pass.
+     * <p>
+     * Terms are ordered by their source (current workspace terms come first), normalized label and identifier. Each
+     * result row is represented by a cursor pointing at the corresponding term.
+     *
+     * @param rootsOnly Whether to find only root terms
+     * @param after     Cursor after which to start, optional
+     * @param offset    Number of terms to skip
+     * @param limit     Maximum number of terms to find
+     */
+    private List<TermPageCursor> findListedTerms(boolean rootsOnly, TermPageCursor after, long offset, int limit) {
         final Set<URI> wsContexts = persistenceUtils.getCurrentWorkspaceVocabularyContexts();
-        final int wsCount = countTermsIn(wsContexts);
-        final int offset = (int) pageSpec.getOffset();
-        final Set<TermDto> terms = new LinkedHashSet<>();
-        if (wsCount > offset) {
-            terms.addAll(findAllFrom(wsContexts, pageSpec, TermDto.class));
+        final Set<URI> canonicalContexts = persistenceUtils.getCanonicalContainerContexts();
+        final List<String> branches = new ArrayList<>(2);
+        // Sources preceding the cursor cannot contain any more terms, so they are not queried at all
+        if (!wsContexts.isEmpty() && (after == null || after.getSource() <= 0)) {
+            branches.add(listedTermsPattern(rootsOnly, "?wsGraphs", 0));
         }
-        if (terms.size() < pageSpec.getPageSize()) {
-            terms.addAll(findAllFrom(persistenceUtils.getCanonicalContainerContexts(), determinePageSpecForCanonical(pageSpec, wsCount, terms.size()), TermDto.class));
+        if (!canonicalContexts.isEmpty() && (after == null || after.getSource() <= 1)) {
+            branches.add(listedTermsPattern(rootsOnly, "?canonicalGraphs", 1) +
+                    // Term versions from the current workspace take precedence
+                    (wsContexts.isEmpty() ? "" : "FILTER NOT EXISTS { GRAPH ?wsg { ?term a ?type . } " +
+                            "FILTER (?wsg IN (?wsGraphs)) }"));
         }
-        return new ArrayList<>(terms);
+        if (branches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // The bound is applied already when grouping, so that terms preceding the cursor are not carried further
+        final String key = "MIN(STR(LCASE(?label)))";
+        final String keyset = after == null ? "" :
+                              "HAVING (?source > " + after.getSource() + " || (?source = " + after.getSource() +
+                                      " && (" + key + " > " + stringLiteral(after.getKey()) + " || (" + key +
+                                      " = " + stringLiteral(after.getKey()) +
+                                      " && STR(?term) > STR(?afterTerm)))))";
+        try {
+            Query query = em.createNativeQuery("SELECT ?term ?source ?key WHERE {" +
+                    "{ SELECT ?term ?source (" + key + " AS ?key) WHERE {" +
+                    "{" + String.join("} UNION {", branches) + "}" +
+                    "FILTER (lang(?label) = ?labelLang)" +
+                    "} GROUP BY ?term ?source " +
+                    keyset +
+                    "}} ORDER BY ?source ?key STR(?term)")
+                            .setParameter("type", typeUri)
+                            .setParameter("hasLabel", LABEL_PROP)
+                            .setParameter("labelLang", config.getLanguage());
+            if (rootsOnly) {
+                query = query.setParameter("hasGlossary", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_glosar))
+                             .setParameter("hasTerm", URI.create(SKOS.HAS_TOP_CONCEPT));
+            }
+            if (!wsContexts.isEmpty()) {
+                query = query.setParameter("wsGraphs", wsContexts);
+            }
+            if (!canonicalContexts.isEmpty()) {
+                query = query.setParameter("canonicalGraphs", canonicalContexts);
+            }
+            if (after != null) {
+                query = query.setParameter("afterTerm", after.getTerm());
+            }
+            final List<?> rows = query.setFirstResult((int) offset).setMaxResults(limit).getResultList();
+            final List<TermPageCursor> result = new ArrayList<>(rows.size());
+            for (Object row : rows) {
+                final Object[] values = (Object[]) row;
+                result.add(new TermPageCursor(((Number) values[1]).intValue(), values[2].toString(), (URI) values[0]));
+            }
+            return result;
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    private static String listedTermsPattern(boolean rootsOnly, String graphs, int source) {
+        return "GRAPH ?g {" +
+                "?term a ?type ;" +
+                "?hasLabel ?label ." +
+                (rootsOnly ? "?vocabulary ?hasGlossary/?hasTerm ?term ." : "") +
+                "} FILTER (?g IN (" + graphs + "))" +
+                "BIND (" + source + " AS ?source)";
+    }
+
+    /**
+     * Creates a SPARQL string literal with the specified value.
+     */
+    private static String stringLiteral(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n")
+                            .replace("\r", "\\r") + "\"";
     }
 
-    private int countTermsIn(Set<URI> contexts) {
+    /**
+     * Loads terms referenced by the specified cursors, preserving their order.
+     */
+    private List<TermDto> loadListedTerms(List<TermPageCursor> rows, boolean loadInferredParents) {
+        final Set<URI> contexts = resolveWorkspaceAndCanonicalContexts();
         try {
-            return em.createNativeQuery("SELECT (COUNT(?term) as ?count) WHERE {" +
-                "GRAPH ?g {" +
-                "?term a ?type ." +
-                "} FILTER (?g in (?graphs)) }", Integer.class)
-                .setParameter("type", typeUri)
-                .setParameter("graphs", contexts)
-                .getSingleResult();
+            final Map<URI, TermDto> terms = loadTermDtos(
+                    rows.stream().map(TermPageCursor::getTerm).collect(Collectors.toList()), contexts);
+            final List<TermDto> result = rows.stream().map(r -> terms.get(r.getTerm())).filter(Objects::nonNull)
+                                             .collect(Collectors.toList());
+            loadAdditionTermMetadata(result, contexts);
+            if (loadInferredParents) {
+                loadInferredParentTerms(result, contexts);
+            }
+            return result;
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
     }
 
-    private Pageable determinePageSpecForCanonical(Pageable original, int wsCount, int alreadyHave) {
-        if (wsCount == 0) {
-            return original;
+    /**
+     * Loads terms with the specified identifiers from the specified contexts.
+     * <p>
+     * The terms are loaded as regular entities (including their asserted parents), one query per block of
+     * identifiers. They are detached, so that additional data can be set on them safely.
+     *
+     * @param ids      Identifiers of terms to load
+     * @param contexts Contexts to load the terms from
+     * @return Map of identifiers to loaded terms
+     */
+    private Map<URI, TermDto> loadTermDtos(Collection<URI> ids, Set<URI> contexts) {
+        final Map<URI, TermDto> result = new HashMap<>(ids.size());
+        for (List<URI> block : valuesBlocks(ids)) {
+            em.createNativeQuery("SELECT DISTINCT ?term WHERE {" +
+                "VALUES ?term { " + iriValuesOf(block) + " }" +
+                "GRAPH ?g { ?term a ?type . }" +
+                "FILTER (?g IN (?graphs))" +
+                "}", TermDto.class)
+              .setParameter("type", typeUri)
+              .setParameter("graphs", contexts)
+              .setDescriptor(createDescriptor(contexts))
+              .getResultList().forEach(t -> {
+                  em.detach(t);
+                  result.put(t.getUri(), t);
+              });
         }
-        final int newOffset = (original.getPageNumber() + 1) * original.getPageSize() - wsCount;
-        return PageRequest.of(newOffset / original.getPageSize(), original.getPageSize() - alreadyHave);
+        return result;
     }
 
+    @SuppressWarnings("unchecked")
     private <T extends AbstractTerm> List<T> findAllFrom(Set<URI> contexts, Pageable pageSpec, Class<T> resultType) {
         final String from = contexts.stream().map(u -> "FROM <" + u + ">").collect(Collectors.joining(" "));
         try {
@@ -389,10 +705,7 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
             query.setDescriptor(createDescriptor(resolveWorkspaceAndCanonicalContexts()));
             final List<T> result = executeQueryAndLoadSubTerms(query, contexts);
             if (TermDto.class.isAssignableFrom(resultType)) {
-                result.forEach(t -> {
-                    final TermDto dto = (TermDto) t;
-                    dto.addParentTerms(loadInferredParentTerms(dto, contexts, dto.getParentTerms()));
-                });
+                loadInferredParentTerms((List<TermDto>) result, contexts);
             }
             return result;
         } catch (RuntimeException e) {
@@ -434,6 +747,118 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
         }
     }
 
+    /**
+     * Gets all terms in the specified vocabulary in pages of the specified size.
+     * <p>
+     * No differences are made between root terms and terms with parents. Terms are ordered by label and identifier, so
+     * that consecutive pages do not overlap even when labels of some terms are identical. Each page is retrieved using a
+     * cursor pointing after the last term of the previous page, so that reading a deep page is not more expensive than
+     * reading the first one.
+     * <p>
+     * Repository contexts of the vocabulary are resolved when this method is called, pages are loaded lazily as the
+     * returned iterator is advanced. The iterator can thus be used outside of the current request, e.g., when a
+     * response is being streamed. The returned terms are detached from the persistence context, so that they do not
+     * accumulate in it when processing a large vocabulary.
+     *
+     * @param vocabulary Vocabulary whose terms should be returned
+     * @param pageSize   Maximum number of terms in a page
+     * @return Iterator over pages of terms, ordered by label
+     */
+    public Iterator<List<Term>> findAllPages(Vocabulary vocabulary, int pageSize) {
+        Objects.requireNonNull(vocabulary);
+        try {
+            return new VocabularyTermPages(vocabulary.getUri(),
+                    persistenceUtils.resolveVocabularyContext(vocabulary.getUri()),
+                    descriptorFactory.termDescriptor(vocabulary), pageSize);
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Pages of terms in a vocabulary whose repository context has already been resolved.
+     */
+    private class VocabularyTermPages implements Iterator<List<Term>> {
+
+        private final URI vocabularyUri;
+        private final URI vocabularyCtx;
+        private final Descriptor descriptor;
+        private final int pageSize;
+
+        private TermPageCursor after;
+        private List<Term> next;
+        private boolean last;
+
+        private VocabularyTermPages(URI vocabularyUri, URI vocabularyCtx, Descriptor descriptor, int pageSize) {
+            this.vocabularyUri = vocabularyUri;
+            this.vocabularyCtx = vocabularyCtx;
+            this.descriptor = descriptor;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while ((next == null || next.isEmpty()) && !last) {
+                this.next = loadPage();
+            }
+            return next != null && !next.isEmpty();
+        }
+
+        @Override
+        public List<Term> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final List<Term> result = next;
+            this.next = null;
+            return result;
+        }
+
+        private List<Term> loadPage() {
+            final String keyset = after == null ? "" :
+                                  "FILTER (?key > " + stringLiteral(after.getKey()) + " || (?key = " +
+                                          stringLiteral(after.getKey()) + " && STR(?term) > STR(?afterTerm)))";
+            try {
+                Query query = em.createNativeQuery("SELECT DISTINCT ?term ?key WHERE {" +
+                    "GRAPH ?g { " +
+                    "?term a ?type ;" +
+                    "?hasLabel ?label ." +
+                    "FILTER (lang(?label) = ?labelLang) ." +
+                    "}" +
+                    "?term ?inVocabulary ?vocabulary ." +
+                    "BIND (STR(" + orderSentence(config.getLanguage(), "?label") + ") AS ?key)" +
+                    keyset +
+                    "} ORDER BY ?key STR(?term)")
+                    .setParameter("type", typeUri)
+                    .setParameter("vocabulary", vocabularyUri)
+                    .setParameter("g", vocabularyCtx)
+                    .setParameter("hasLabel", LABEL_PROP)
+                    .setParameter("inVocabulary",
+                        URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
+                    .setParameter("labelLang", config.getLanguage());
+                if (after != null) {
+                    query = query.setParameter("afterTerm", after.getTerm());
+                }
+                final List<?> rows = query.setMaxResults(pageSize).getResultList();
+                this.last = rows.size() < pageSize;
+                final List<Term> result = new ArrayList<>(rows.size());
+                for (Object row : rows) {
+                    final Object[] values = (Object[]) row;
+                    this.after = new TermPageCursor(0, values[1].toString(), (URI) values[0]);
+                    final Term t = em.find(Term.class, values[0], descriptor);
+                    if (t != null) {
+                        result.add(t);
+                    }
+                }
+                loadAdditionTermMetadata(result, Collections.singleton(vocabularyCtx));
+                result.forEach(em::detach);
+                return result;
+            } catch (RuntimeException e) {
+                throw new PersistenceException(e);
+            }
+        }
+    }
+
     /**
      * Finds terms whose label contains the specified search string.
      * <p>
@@ -479,31 +904,56 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
                 .setMaxResults(pageSpec.getPageSize());
             query.setDescriptor(createDescriptor(contexts));
             final List<TermDto> result = executeQueryAndLoadSubTerms(query, contexts);
-            result.forEach(t -> {
-                em.detach(t);
-                t.addParentTerms(loadInferredParentTerms(t, contexts, t.getParentTerms()));
-            });
+            result.forEach(em::detach);
+            loadInferredParentTerms(result, contexts);
             return result;
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
     }
 
-    private List<TermDto> loadInferredParentTerms(TermDto term, Set<URI> graphs, Set<TermDto> exclude) {
-        return em.createNativeQuery("SELECT DISTINCT ?parent WHERE {" +
-            "GRAPH ?g { " +
-            "?parent a ?type ." +
-            "}" +
-            "?term ?broader ?parent ." +    // Let broader be outside of the graph to include inference
-            "FILTER (?g IN (?graphs))" +
-            "FILTER (?parent NOT IN (?exclude))" +
-            "}", TermDto.class).setParameter("type", typeUri)
-            .setParameter("term", term)
-            .setParameter("broader", URI.create(SKOS.BROADER))
-            .setParameter("graphs", graphs)
-            .setParameter("exclude", exclude != null ? exclude : Collections.emptyList())
-            .setDescriptor(createDescriptor(graphs))
-            .getResultList();
+    /**
+     * Loads parents of the specified terms which are not asserted but inferred.
+     * <p>
+     * Parents of all the specified terms are resolved using a single query per block of terms. The parents are then
+     * loaded in bulk as regular entities and added to the respective terms.
+     *
+     * @param terms  Terms to load inferred parents for
+     * @param graphs Contexts in which the parents are searched for
+     */
+    private void loadInferredParentTerms(List<TermDto> terms, Set<URI> graphs) {
+        if (terms.isEmpty()) {
+            return;
+        }
+        final Map<URI, Set<URI>> parentsByTerm = new HashMap<>();
+        for (List<TermDto> block : valuesBlocks(terms)) {
+            final List<?> rows = em.createNativeQuery("SELECT DISTINCT ?term ?parent WHERE {" +
+                "VALUES ?term { " + valuesOf(block) + " }" +
+                "GRAPH ?g { " +
+                "?parent a ?type ." +
+                "}" +
+                "?term ?broader ?parent ." +    // Let broader be outside of the graph to include inference
+                "FILTER (?g IN (?graphs))" +
+                "}").setParameter("type", typeUri)
+                .setParameter("broader", URI.create(SKOS.BROADER))
+                .setParameter("graphs", graphs)
+                .getResultList();
+            for (Object row : rows) {
+                final Object[] values = (Object[]) row;
+                parentsByTerm.computeIfAbsent((URI) values[0], k -> new LinkedHashSet<>()).add((URI) values[1]);
+            }
+        }
+        terms.forEach(t -> {
+            final Set<URI> parentIds = parentsByTerm.get(t.getUri());
+            if (parentIds != null && t.getParentTerms() != null) {
+                t.getParentTerms().forEach(p -> parentIds.remove(p.getUri()));
+            }
+        });
+        final Map<URI, TermDto> parents = loadTermDtos(
+                parentsByTerm.values().stream().flatMap(Set::stream).collect(Collectors.toSet()), graphs);
+        terms.forEach(t -> t.addParentTerms(
+                parentsByTerm.getOrDefault(t.getUri(), Collections.emptySet()).stream().map(parents::get)
+                             .filter(Objects::nonNull).collect(Collectors.toList())));
     }
 
     /**
@@ -532,47 +982,87 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
     }
 
     private <T extends AbstractTerm> List<T> executeQueryAndLoadSubTerms(TypedQuery<T> query, Set<URI> contexts) {
-        return query.getResultStream().peek(t -> loadAdditionTermMetadata(t, contexts)).collect(Collectors.toList());
+        final List<T> result = query.getResultList();
+        loadAdditionTermMetadata(result, contexts);
+        return result;
     }
 
     /**
-     * Loads addition term metadata which are not directly loaded with the specified instance.
+     * Loads addition term metadata which are not directly loaded with the specified instances.
+     * <p>
+     * The metadata are loaded in bulk for all the specified terms.
      */
-    private void loadAdditionTermMetadata(AbstractTerm term, Set<URI> graphs) {
-        term.setSubTerms(loadSubTermInfo(term, graphs));
-        if (term instanceof Term) {
-            term.setPublished(isPublished(term));
+    private void loadAdditionTermMetadata(List<? extends AbstractTerm> terms, Set<URI> graphs) {
+        if (terms.isEmpty()) {
+            return;
         }
+        final Map<URI, List<Object[]>> subTerms = loadSubTermInfo(terms, graphs);
+        final List<AbstractTerm> fullTerms = terms.stream().filter(t -> t instanceof Term && t.getGlossary() != null)
+                                                  .collect(Collectors.toList());
+        final Set<URI> published = resolvePublished(fullTerms);
+        terms.forEach(t -> {
+            t.setSubTerms(toSortedTermInfo(subTerms.get(t.getUri()), Collections.emptySet()));
+            if (t instanceof Term) {
+                t.setPublished(published.contains(t.getUri()));
+            }
+        });
     }
 
     /**
-     * Loads sub-term info for the specified parent term.
-     * <p>
-     * The sub-terms are set directly on the specified parent.
+     * Loads sub-term info for the specified parent terms.
      *
-     * @param parent Parent term
+     * @param parents Parent terms
+     * @return Map of parent term identifiers to sub-term info rows
      */
-    private Set<TermInfo> loadSubTermInfo(AbstractTerm parent, Set<URI> graphs) {
-        final List<?> subTerms = em.createNativeQuery("SELECT ?entity ?label ?vocabulary WHERE {" +
-            "GRAPH ?g { " +
-            "?entity a ?type ;" +
-            "?hasLabel ?label ." +
-            "}" +
-            "?entity ?broader ?parent ; " + // Let broader be outside of the graph to allow including inferences
-            "?inVocabulary ?vocabulary ." +
-            "FILTER (?g in (?graphs))" +
-            "} ORDER BY ?entity")
-            .setParameter("type", typeUri)
-            .setParameter("broader", URI.create(SKOS.BROADER))
-            .setParameter("parent", parent)
-            .setParameter("hasLabel", LABEL_PROP)
-            .setParameter("inVocabulary", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
-            .setParameter("graphs", graphs)
-            .getResultList();
-        // Use LinkedHashSet to preserve term order
-        final List<TermInfo> result = new SparqlResultToTermInfoMapper().map(subTerms);
-        result.sort(termInfoComparator);
-        return new LinkedHashSet<>(result);
+    private Map<URI, List<Object[]>> loadSubTermInfo(Collection<? extends AbstractTerm> parents, Set<URI> graphs) {
+        final Map<URI, List<Object[]>> result = new HashMap<>();
+        for (List<? extends AbstractTerm> block : valuesBlocks(parents)) {
+            final List<?> subTerms = em.createNativeQuery("SELECT ?parent ?entity ?label ?vocabulary WHERE {" +
+                "VALUES ?parent { " + valuesOf(block) + " }" +
+                "GRAPH ?g { " +
+                "?entity a ?type ;" +
+                "?hasLabel ?label ." +
+                "}" +
+                "?entity ?broader ?parent ; " + // Let broader be outside of the graph to allow including inferences
+                "?inVocabulary ?vocabulary ." +
+                "FILTER (?g in (?graphs))" +
+                "} ORDER BY ?parent ?entity")
+                .setParameter("type", typeUri)
+                .setParameter("broader", URI.create(SKOS.BROADER))
+                .setParameter("hasLabel", LABEL_PROP)
+                .setParameter("inVocabulary", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
+                .setParameter("graphs", graphs)
+                .getResultList();
+            groupByFirstColumn(subTerms).forEach((k, v) -> result.computeIfAbsent(k, key -> new ArrayList<>())
+                                                                 .addAll(v));
+        }
+        return result;
+    }
+
+    /**
+     * Resolves which of the specified terms are published, i.e., they exist in more than one context.
+     *
+     * @param terms Terms to check
+     * @return Identifiers of published terms
+     */
+    private Set<URI> resolvePublished(List<? extends AbstractTerm> terms) {
+        if (terms.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final Set<URI> result = new HashSet<>();
+        for (List<? extends AbstractTerm> block : valuesBlocks(terms)) {
+            final String values = block.stream().map(t -> "(<" + t.getUri() + "> <" + t.getGlossary() + ">)")
+                                       .collect(Collectors.joining(" "));
+            result.addAll(em.createNativeQuery("SELECT ?term WHERE {" +
+                "VALUES (?term ?glossary) { " + values + " }" +
+                "GRAPH ?g {" +
+                "?term ?inScheme ?glossary ." +
+                "}" +
+                "} GROUP BY ?term HAVING (COUNT(?g) > 1)", URI.class)
+                .setParameter("inScheme", URI.create(SKOS.IN_SCHEME))
+                .getResultList());
+        }
+        return result;
     }
 
     private boolean isPublished(AbstractTerm term) {
@@ -701,22 +1191,26 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
                 .setParameter("g", vocabularyCtx)
                 .setParameter("searchString", searchString, config.getLanguage());
             query.setDescriptor(descriptorFactory.termDescriptor(vocabularyIri));
-            final List<TermDto> terms = executeQueryAndLoadSubTerms(query, Collections.singleton(vocabularyCtx));
-            terms.forEach(t -> {
-                loadParentSubTerms(t, vocabularyCtx);
-                t.addParentTerms(loadInferredParentTerms(t, Collections.singleton(vocabularyCtx), t.getParentTerms()));
-            });
+            final Set<URI> contexts = Collections.singleton(vocabularyCtx);
+            final List<TermDto> terms = executeQueryAndLoadSubTerms(query, contexts);
+            loadInferredParentTerms(terms, contexts);
+            loadAdditionTermMetadata(collectAncestors(terms), contexts);
             return terms;
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
     }
 
-    private void loadParentSubTerms(TermDto parent, URI vocabularyCtx) {
-        loadAdditionTermMetadata(parent, Collections.singleton(vocabularyCtx));
-        if (parent.getParentTerms() != null) {
-            parent.getParentTerms().forEach(t -> loadParentSubTerms(t, vocabularyCtx));
+    private static List<TermDto> collectAncestors(List<TermDto> terms) {
+        final Set<TermDto> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<TermDto> toProcess = new ArrayDeque<>(terms);
+        while (!toProcess.isEmpty()) {
+            final TermDto t = toProcess.pop();
+            if (t.getParentTerms() != null) {
+                t.getParentTerms().stream().filter(visited::add).forEach(toProcess::push);
+            }
         }
+        return new ArrayList<>(visited);
     }
 
     /**
@@ -777,4 +1271,43 @@ public class TermDao extends WorkspaceBasedAssetDao<Term> {
         terms.sort(Comparator.comparing(t -> t.getLabel().get(config.getLanguage())));
         return terms;
     }
+
+    /**
+     * Gets preferred and alternative labels of all terms in the specified vocabulary contexts.
+     *
+     * @param contexts Identifiers of vocabulary contexts
+     * @param language Language of the labels to retrieve
+     * @return Map of term identifiers to their labels in the specified language
+     */
+    public Map<URI, Set<String>> findAllLabels(Collection<URI> contexts, String language) {
+        Objects.requireNonNull(contexts);
+        Objects.requireNonNull(language);
+        try {
+            final List<?> rows = em.createNativeQuery("SELECT ?term (STR(?label) AS ?text) WHERE {" +
+                "GRAPH ?g {" +
+                "?term a ?type ." +
+                "{ ?term ?prefLabel ?label . } UNION { ?term ?altLabel ?label . }" +
+                "}" +
+                "FILTER (lang(?label) = ?language)" +
+                "FILTER (?g IN (?contexts))" +
+                "}")
+                .setParameter("type", typeUri)
+                .setParameter("prefLabel", LABEL_PROP)
+                .setParameter("altLabel", URI.create(SKOS.ALT_LABEL))
+                .setParameter("language", language)
+                .setParameter("contexts", contexts)
+                .getResultList();
+            final Map<URI, Set<String>> result = new HashMap<>();
+            for (Object row : rows) {
+                final Object[] values = (Object[]) row;
+                if (values[0] == null) {
+                    continue;
+                }
+                result.computeIfAbsent((URI) values[0], k -> new HashSet<>()).add(values[1].toString());
+            }
+            return result;
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
 }
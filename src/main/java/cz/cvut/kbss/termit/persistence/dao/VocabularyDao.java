@@ -22,11 +22,12 @@ import cz.cvut.kbss.jopa.vocabulary.DC;
 import cz.cvut.kbss.jopa.vocabulary.SKOS;
 import cz.cvut.kbss.termit.asset.provenance.ModifiesData;
 import cz.cvut.kbss.termit.asset.provenance.SupportsLastModification;
+import cz.cvut.kbss.termit.event.AssetModifiedEvent;
+import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
 import cz.cvut.kbss.termit.event.RefreshLastModifiedEvent;
 import cz.cvut.kbss.termit.exception.PersistenceException;
 import cz.cvut.kbss.termit.exception.workspace.WorkspaceException;
 import cz.cvut.kbss.termit.model.Glossary;
-import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.model.Workspace;
 import cz.cvut.kbss.termit.model.changetracking.AbstractChangeRecord;
@@ -34,27 +35,46 @@ import cz.cvut.kbss.termit.model.validation.ValidationResult;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
 import cz.cvut.kbss.termit.persistence.PersistenceUtils;
 import cz.cvut.kbss.termit.persistence.dao.changetracking.ChangeRecordDao;
+import cz.cvut.kbss.termit.persistence.dao.util.VocabularyDependencyGraph;
 import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceBasedAssetDao;
 import cz.cvut.kbss.termit.persistence.validation.VocabularyContentValidator;
 import cz.cvut.kbss.termit.util.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.net.URI;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Repository
 public class VocabularyDao extends WorkspaceBasedAssetDao<Vocabulary> implements SupportsLastModification {
 
+    private static final Logger LOG = LoggerFactory.getLogger(VocabularyDao.class);
+
     private static final URI LABEL_PROPERTY = URI.create(DC.Terms.TITLE);
 
     private volatile long lastModified;
 
+    /**
+     * Vocabulary import graph, loaded lazily and discarded whenever vocabularies are modified.
+     */
+    private volatile VocabularyDependencyGraph dependencyGraph;
+
+    private final AtomicLong dependencyGraphVersion = new AtomicLong();
+
+    private final Object dependencyGraphLock = new Object();
+
     private final ChangeRecordDao changeRecordDao;
 
     private final ApplicationContext context;
@@ -149,16 +169,7 @@ public class VocabularyDao extends WorkspaceBasedAssetDao<Vocabulary> implements
      */
     public Collection<URI> getTransitiveDependencies(Vocabulary entity) {
         Objects.requireNonNull(entity);
-        try {
-            return em.createNativeQuery("SELECT DISTINCT ?used WHERE {" +
-                    "?x ?uses+ ?used ." +
-                    "}", URI.class)
-                    .setParameter("uses",
-                            URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_pouziva_pojmy_ze_slovniku))
-                    .setParameter("x", entity.getUri()).getResultList();
-        } catch (RuntimeException e) {
-            throw new PersistenceException(e);
-        }
+        return new ArrayList<>(getDependencyGraph().getTransitiveDependencies(entity.getUri()));
     }
 
     /**
@@ -172,17 +183,80 @@ public class VocabularyDao extends WorkspaceBasedAssetDao<Vocabulary> implements
     public List<Vocabulary> getDependentVocabularies(Vocabulary vocabulary) {
         Objects.requireNonNull(vocabulary);
         try {
-            return em.createNativeQuery("SELECT DISTINCT ?importing WHERE {" +
-                    "?importing ?uses ?target ." +
-                    "}", Vocabulary.class)
-                    .setParameter("uses",
-                            URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_pouziva_pojmy_ze_slovniku))
-                    .setParameter("target", vocabulary.getUri()).getResultList();
+            return getDependencyGraph().getDependents(vocabulary.getUri()).stream()
+                                       .map(uri -> em.find(Vocabulary.class, uri))
+                                       .filter(Objects::nonNull)
+                                       .collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Gets the vocabulary import graph, loading it if it is not available or has been discarded.
+     */
+    private VocabularyDependencyGraph getDependencyGraph() {
+        final VocabularyDependencyGraph graph = dependencyGraph;
+        if (graph != null) {
+            return graph;
+        }
+        synchronized (dependencyGraphLock) {
+            if (dependencyGraph != null) {
+                return dependencyGraph;
+            }
+            final long version = dependencyGraphVersion.get();
+            final VocabularyDependencyGraph loaded = loadDependencyGraph();
+            // Do not keep a graph which might have been loaded before a concurrent modification
+            if (version == dependencyGraphVersion.get()) {
+                this.dependencyGraph = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    private VocabularyDependencyGraph loadDependencyGraph() {
+        try {
+            final List<?> rows = em.createNativeQuery("SELECT DISTINCT ?vocabulary ?used WHERE {" +
+                    "?vocabulary ?uses ?used ." +
+                    "}")
+                                   .setParameter("uses",
+                                           URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_pouziva_pojmy_ze_slovniku))
+                                   .getResultList();
+            final Map<URI, Set<URI>> imports = new HashMap<>();
+            for (Object row : rows) {
+                final Object[] values = (Object[]) row;
+                imports.computeIfAbsent((URI) values[0], k -> new HashSet<>()).add((URI) values[1]);
+            }
+            LOG.trace("Loaded vocabulary import graph of {} vocabularies.", imports.size());
+            return new VocabularyDependencyGraph(imports);
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
     }
 
+    /**
+     * Discards the vocabulary import graph, so that it is reloaded on next access.
+     */
+    private void evictDependencyGraph() {
+        dependencyGraphVersion.incrementAndGet();
+        this.dependencyGraph = null;
+    }
+
+    /**
+     * Discards the vocabulary import graph once a transaction modifying an asset completes.
+     * <p>
+     * This ensures the graph does not keep imports loaded concurrently with (or within) the modifying transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onAssetModified(AssetModifiedEvent event) {
+        evictDependencyGraph();
+    }
+
+    @EventListener
+    public void onInvalidateCaches(InvalidateCachesEvent event) {
+        evictDependencyGraph();
+    }
+
     @ModifiesData
     @Override
     public Vocabulary update(Vocabulary entity) {
@@ -264,6 +338,7 @@ public class VocabularyDao extends WorkspaceBasedAssetDao<Vocabulary> implements
     @Override
     public void refreshLastModified() {
         this.lastModified = System.currentTimeMillis();
+        evictDependencyGraph();
     }
 
     @EventListener
@@ -305,35 +380,50 @@ public class VocabularyDao extends WorkspaceBasedAssetDao<Vocabulary> implements
      */
     @Transactional
     public List<ValidationResult> validateContents(Vocabulary voc, Workspace workspace) {
-        final VocabularyContentValidator validator = context.getBean(VocabularyContentValidator.class);
+        return validateContents(getValidationContexts(voc, workspace));
+    }
+
+    /**
+     * Gets identifiers of vocabulary contexts validated together when validating the specified vocabulary.
+     * <p>
+     * These are contexts of the vocabulary and its transitive imports in the given workspace.
+     *
+     * @param voc       vocabulary to validate
+     * @param workspace workspace to limit the imports of the vocabulary to validate
+     * @return vocabulary context identifiers
+     */
+    public Collection<URI> getValidationContexts(Vocabulary voc, Workspace workspace) {
         final Collection<URI> importClosure = getTransitiveDependencies(voc);
         importClosure.add(voc.getUri());
-        final Collection<URI> closure = getVocabularyContexts(importClosure, workspace);
-        return validator.validate(closure);
+        return getVocabularyContexts(importClosure, workspace);
     }
 
     /**
-     * Gets all changes of all of the terms in the specified vocabulary.
+     * Validates content of the specified vocabulary contexts.
+     *
+     * @param contexts vocabulary context identifiers, as returned by {@link #getValidationContexts(Vocabulary,
+     *                 Workspace)}
+     * @return validation results
+     */
+    @Transactional
+    public List<ValidationResult> validateContents(Collection<URI> contexts) {
+        final VocabularyContentValidator validator = context.getBean(VocabularyContentValidator.class);
+        return validator.validate(contexts);
+    }
+
+    /**
+     * Gets changes of the terms in the specified vocabulary.
      *
      * @param vocabulary Vocabulary to get changes for
-     * @return List of change records
+     * @param pageSpec   Specification of the page of changes to return
+     * @param from       Earliest timestamp (inclusive) of the returned changes, optional
+     * @param to         Latest timestamp (exclusive) of the returned changes, optional
+     * @return List of change records ordered by timestamp (descending)
      */
-    public List<AbstractChangeRecord> getChangesOfContent(Vocabulary vocabulary) {
-        final URI ctx = persistenceUtils.resolveVocabularyContext(vocabulary.getUri());
+    public List<AbstractChangeRecord> getChangesOfContent(Vocabulary vocabulary, Pageable pageSpec, Instant from,
+                                                          Instant to) {
         Objects.requireNonNull(vocabulary);
-        final List<URI> terms = em.createNativeQuery("SELECT DISTINCT ?term WHERE {" +
-                "GRAPH ?g { " +
-                "?term a ?type ;" +
-                "}" +
-                "?term ?inVocabulary ?vocabulary ." +
-                " }", URI.class).setParameter("type", URI.create(SKOS.CONCEPT))
-                .setParameter("g", ctx)
-                .setParameter("vocabulary", vocabulary).getResultList();
-        return terms.stream().flatMap(tUri -> {
-            final Term t = new Term();
-            t.setUri(tUri);
-            return changeRecordDao.findAll(t).stream();
-        }).collect(Collectors.toList());
+        return changeRecordDao.findAllOfContent(vocabulary, pageSpec, from, to);
     }
 
     /**
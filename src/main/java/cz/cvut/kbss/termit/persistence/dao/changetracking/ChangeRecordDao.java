@@ -3,50 +3,53 @@ package cz.cvut.kbss.termit.persistence.dao.changetracking;
 import cz.cvut.kbss.jopa.model.EntityManager;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
+import cz.cvut.kbss.jopa.model.query.TypedQuery;
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
 import cz.cvut.kbss.termit.exception.PersistenceException;
 import cz.cvut.kbss.termit.model.Asset;
+import cz.cvut.kbss.termit.model.User;
 import cz.cvut.kbss.termit.model.changetracking.AbstractChangeRecord;
 import cz.cvut.kbss.termit.util.Vocabulary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import java.net.URI;
-import java.util.List;
-import java.util.Objects;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Repository
 public class ChangeRecordDao {
 
     private final ChangeTrackingContextResolver contextResolver;
 
+    private final ChangeRecordJournal journal;
+
     private final EntityManager em;
 
-    public ChangeRecordDao(ChangeTrackingContextResolver contextResolver, EntityManager em) {
+    public ChangeRecordDao(ChangeTrackingContextResolver contextResolver, ChangeRecordJournal journal,
+                           EntityManager em) {
         this.contextResolver = contextResolver;
+        this.journal = journal;
         this.em = em;
     }
 
     /**
-     * Persists the specified change record into the specified repository context.
+     * Persists the specified change records of the specified asset asynchronously.
+     * <p>
+     * The records are written into the change tracking context of the asset by {@link ChangeRecordJournal} after the
+     * current transaction commits.
      *
-     * @param record       Record to save
+     * @param records      Records to save
      * @param changedAsset The changed asset
      */
-    public void persist(AbstractChangeRecord record, Asset<?> changedAsset) {
-        Objects.requireNonNull(record);
-        try {
-            em.persist(record, createDescriptor(record, changedAsset));
-        } catch (RuntimeException e) {
-            throw new PersistenceException(e);
+    public void persistAsync(Collection<? extends AbstractChangeRecord> records, Asset<?> changedAsset) {
+        Objects.requireNonNull(records);
+        Objects.requireNonNull(changedAsset);
+        if (records.isEmpty()) {
+            return;
         }
-    }
-
-    private Descriptor createDescriptor(AbstractChangeRecord record, Asset<?> changedAsset) {
-        final Descriptor descriptor = new EntityDescriptor(
-                contextResolver.resolveChangeTrackingContext(changedAsset));
-        descriptor
-                .addAttributeContext(em.getMetamodel().entity(record.getClass()).getFieldSpecification("author"), null);
-        descriptor.setLanguage(null);
-        return descriptor;
+        journal.append(records, contextResolver.resolveChangeTrackingContext(changedAsset));
     }
 
     /**
@@ -57,6 +60,7 @@ public class ChangeRecordDao {
      */
     public List<AbstractChangeRecord> findAll(Asset<?> asset) {
         Objects.requireNonNull(asset);
+        journal.flush();
         try {
             final Descriptor descriptor = new EntityDescriptor();
             descriptor.setLanguage(null);
@@ -75,4 +79,81 @@ public class ChangeRecordDao {
             throw new PersistenceException(e);
         }
     }
+
+    /**
+     * Finds change records of the content of the specified vocabulary, i.e., of its terms.
+     * <p>
+     * The records are retrieved by a single query over the change tracking context of the vocabulary.
+     *
+     * @param vocabulary Vocabulary whose content changes to find
+     * @param pageSpec   Specification of the page of records to return
+     * @param from       Earliest timestamp (inclusive) of the returned records, optional
+     * @param to         Latest timestamp (exclusive) of the returned records, optional
+     * @return List of change records ordered by timestamp (descending)
+     */
+    public List<AbstractChangeRecord> findAllOfContent(cz.cvut.kbss.termit.model.Vocabulary vocabulary,
+                                                       Pageable pageSpec, Instant from, Instant to) {
+        Objects.requireNonNull(vocabulary);
+        Objects.requireNonNull(pageSpec);
+        journal.flush();
+        try {
+            final Descriptor descriptor = new EntityDescriptor();
+            descriptor.setLanguage(null);
+            final TypedQuery<AbstractChangeRecord> query = em.createNativeQuery("SELECT ?r WHERE {" +
+                    "GRAPH ?context {" +
+                    "?r ?relatesTo ?asset ;" +
+                    "?hasTime ?timestamp ." +
+                    "OPTIONAL { ?r ?hasChangedAttribute ?attribute . }" +
+                    "}" +
+                    "?r a ?changeRecord ." +
+                    "?asset a ?term ." +
+                    (from != null ? "FILTER (?timestamp >= ?from)" : "") +
+                    (to != null ? "FILTER (?timestamp < ?to)" : "") +
+                    "} ORDER BY DESC(?timestamp) ?attribute", AbstractChangeRecord.class)
+                    .setParameter("context", contextResolver.resolveChangeTrackingContext(vocabulary))
+                    .setParameter("changeRecord", URI.create(Vocabulary.s_c_zmena))
+                    .setParameter("relatesTo", URI.create(Vocabulary.s_p_ma_zmenenou_entitu))
+                    .setParameter("hasChangedAttribute", URI.create(Vocabulary.s_p_ma_zmeneny_atribut))
+                    .setParameter("hasTime", URI.create(Vocabulary.s_p_ma_datum_a_cas_modifikace))
+                    .setParameter("term", URI.create(SKOS.CONCEPT));
+            if (from != null) {
+                query.setParameter("from", Date.from(from));
+            }
+            if (to != null) {
+                query.setParameter("to", Date.from(to));
+            }
+            return query.setFirstResult((int) pageSpec.getOffset()).setMaxResults(pageSpec.getPageSize())
+                        .setDescriptor(descriptor).getResultList();
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Selects those of the specified assets which have been added or edited by the specified user.
+     *
+     * @param assets Identifiers of assets to select from
+     * @param editor The user
+     * @return Identifiers of assets with a change record authored by the specified user
+     */
+    public Set<URI> filterModifiedBy(Collection<URI> assets, User editor) {
+        Objects.requireNonNull(assets);
+        Objects.requireNonNull(editor);
+        if (assets.isEmpty()) {
+            return Collections.emptySet();
+        }
+        journal.flush();
+        try {
+            return new HashSet<>(em.createNativeQuery("SELECT DISTINCT ?asset WHERE {" +
+                    "VALUES ?asset { " + assets.stream().map(a -> "<" + a + ">").collect(Collectors.joining(" ")) +
+                    " }" +
+                    "?r ?relatesTo ?asset ;" +
+                    "?hasEditor ?editor ." +
+                    "}", URI.class).setParameter("relatesTo", URI.create(Vocabulary.s_p_ma_zmenenou_entitu))
+                                   .setParameter("hasEditor", URI.create(Vocabulary.s_p_ma_editora))
+                                   .setParameter("editor", editor).getResultList());
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
 }
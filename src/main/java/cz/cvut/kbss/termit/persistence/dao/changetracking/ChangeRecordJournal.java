@@ -0,0 +1,746 @@
+package cz.cvut.kbss.termit.persistence.dao.changetracking;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
+import cz.cvut.kbss.jopa.model.metamodel.Attribute;
+import cz.cvut.kbss.jopa.model.metamodel.EntityType;
+import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
+import cz.cvut.kbss.jopa.model.metamodel.TypesSpecification;
+import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+import cz.cvut.kbss.jopa.utils.IdentifierTransformer;
+import cz.cvut.kbss.termit.event.ChangeRecordsWrittenEvent;
+import cz.cvut.kbss.termit.exception.PersistenceException;
+import cz.cvut.kbss.termit.model.changetracking.AbstractChangeRecord;
+import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.Utils;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.rio.helpers.NTriplesUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind journal of change records.
+ * <p>
+ * Change records appended to the journal are written into the repository asynchronously, so that recording changes
+ * does not prolong the transaction in which the changes were made. Records are converted to statements when appended,
+ * following the same descriptor the persistence provider would use to persist them, spooled to append-only segment
+ * files once the transaction commits, and buffered in a bounded queue. A background thread writes them into their
+ * change tracking contexts in batches, each batch being added using a single repository connection. When the queue is
+ * full, appending waits only for a limited time. Records which cannot be queued remain in the spool and are written
+ * after restart (or are lost if they are kept only in memory).
+ * <p>
+ * A segment is closed once it holds a batch worth of records and a new one is started. Segments are deleted as soon as
+ * all their records are written, so the spool does not grow under continuous load. Records spooled but not written into
+ * the repository (e.g., because the application was stopped) are written after restart.
+ * <p>
+ * {@link ChangeRecordsWrittenEvent} is published after each batch is written.
+ */
+@Component
+public class ChangeRecordJournal {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeRecordJournal.class);
+
+    /**
+     * Maximum time to wait for the journal to write pending records before reading change records, in milliseconds.
+     */
+    private static final long FLUSH_TIMEOUT = 3000;
+
+    /**
+     * Maximum time to wait for the writer to finish when the journal is stopped, in milliseconds.
+     */
+    private static final long STOP_TIMEOUT = 30000;
+
+    /**
+     * Maximum time to wait for space in the queue when appending records, in milliseconds.
+     */
+    private static final long ENQUEUE_TIMEOUT = 10000;
+
+    /**
+     * Delay before writing a batch again after a failure, in milliseconds.
+     */
+    private static final long RETRY_DELAY = 5000;
+
+    private static final String TERM_SEPARATOR = "\t";
+
+    /**
+     * Name of the spool file used when none is configured. It is placed into the file storage directory.
+     */
+    static final String DEFAULT_SPOOL_FILE = ".changetracking-journal";
+
+    private final Repository repository;
+
+    private final Metamodel metamodel;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Configuration.ChangeTracking.Journal config;
+
+    /**
+     * Base path of the spool segments, {@code null} if records are kept only in memory.
+     */
+    private final Path spoolFile;
+
+    private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    private final BlockingQueue<Entry> queue;
+
+    /**
+     * Guards the spool segments and the counters below.
+     */
+    private final Object lock = new Object();
+
+    private boolean spooling;
+
+    /**
+     * Segment into which records are currently spooled, {@code null} if a new one should be started.
+     */
+    private Segment activeSegment;
+
+    private long nextSegment = 1;
+
+    /**
+     * Number of records appended to the journal.
+     */
+    private long appended;
+
+    /**
+     * Number of records written into the repository.
+     */
+    private long flushed;
+
+    private volatile boolean running;
+
+    /**
+     * Whether the last attempt to write records into the repository failed.
+     */
+    private volatile boolean failing;
+
+    private Thread writer;
+
+    @Autowired
+    public ChangeRecordJournal(EntityManager em, Configuration config, ApplicationEventPublisher eventPublisher) {
+        this.repository = em.unwrap(Repository.class);
+        this.metamodel = em.getMetamodel();
+        this.eventPublisher = eventPublisher;
+        this.config = config.getChangetracking().getJournal();
+        this.spoolFile = resolveSpoolFile(config);
+        this.queue = new ArrayBlockingQueue<>(this.config.getQueueCapacity());
+    }
+
+    private static Path resolveSpoolFile(Configuration config) {
+        final String file = config.getChangetracking().getJournal().getFile();
+        if (file != null && !file.isEmpty()) {
+            return Paths.get(file);
+        }
+        final String storage = config.getFile().getStorage();
+        return storage != null && !storage.isEmpty() ? Paths.get(storage, DEFAULT_SPOOL_FILE) : null;
+    }
+
+    @PostConstruct
+    void start() {
+        this.running = true;
+        this.writer = new Thread(this::writeRecords, "change-record-journal");
+        writer.setDaemon(true);
+        writer.start();
+        if (spoolFile != null) {
+            openSpool();
+        } else {
+            LOG.warn("No change record journal file configured, records will be kept only in memory.");
+        }
+    }
+
+    private void openSpool() {
+        try {
+            if (spoolFile.getParent() != null) {
+                Files.createDirectories(spoolFile.getParent());
+            }
+            final List<Path> existing = listSegments();
+            final List<List<Statement>> pending = new ArrayList<>();
+            for (Path segment : existing) {
+                pending.addAll(readSpool(segment));
+            }
+            final Segment segment;
+            synchronized (lock) {
+                this.spooling = true;
+                this.nextSegment = existing.isEmpty() ? 1 : segmentNumber(existing.get(existing.size() - 1)) + 1;
+                // Rewrite the pending records so that an incomplete entry possibly left by a crash is discarded
+                segment = writeToSpool(pending);
+                if (segment != null && segment.channel != null) {
+                    sync(segment.channel);
+                }
+                appended += pending.size();
+            }
+            for (Path p : existing) {
+                Files.delete(p);
+            }
+            if (!pending.isEmpty()) {
+                LOG.info("Writing {} change records remaining in journal {}.", pending.size(), spoolFile);
+            }
+            pending.forEach(statements -> enqueue(new Entry(segment, statements)));
+        } catch (IOException e) {
+            LOG.error("Unable to open change record journal {}, records will be kept only in memory.", spoolFile, e);
+            synchronized (lock) {
+                this.spooling = false;
+            }
+        }
+    }
+
+    /**
+     * Lists existing spool segments, ordered by their sequence number.
+     */
+    private List<Path> listSegments() throws IOException {
+        final Path dir = spoolFile.toAbsolutePath().getParent();
+        final String prefix = spoolFile.getFileName().toString() + ".";
+        try (final Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> {
+                final String name = f.getFileName().toString();
+                return name.startsWith(prefix) && name.length() > prefix.length() &&
+                        name.substring(prefix.length()).chars().allMatch(Character::isDigit);
+            }).sorted(Comparator.comparingLong(ChangeRecordJournal::segmentNumber)).collect(Collectors.toList());
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        final String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(name.lastIndexOf('.') + 1));
+    }
+
+    private Path segmentPath(long number) {
+        return spoolFile.resolveSibling(spoolFile.getFileName().toString() + "." + number);
+    }
+
+    private List<List<Statement>> readSpool(Path file) throws IOException {
+        final List<List<Statement>> result = new ArrayList<>();
+        List<Statement> entry = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isEmpty()) {
+                result.add(entry);
+                entry = new ArrayList<>();
+                continue;
+            }
+            final String[] terms = line.split(TERM_SEPARATOR, -1);
+            try {
+                if (terms.length != 4) {
+                    throw new IllegalArgumentException("Expected four terms.");
+                }
+                entry.add(vf.createStatement(NTriplesUtil.parseResource(terms[0], vf),
+                        NTriplesUtil.parseURI(terms[1], vf), NTriplesUtil.parseValue(terms[2], vf),
+                        terms[3].isEmpty() ? null : NTriplesUtil.parseResource(terms[3], vf)));
+            } catch (IllegalArgumentException e) {
+                // Most likely a line partially written before a crash, nothing after it can be trusted
+                LOG.warn("Invalid change record journal line '{}', ignoring the rest of the journal.", line, e);
+                break;
+            }
+        }
+        // Statements after the last complete entry are an incomplete entry and are discarded
+        return result;
+    }
+
+    @PreDestroy
+    void stop() {
+        this.running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(STOP_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            if (activeSegment != null) {
+                // Records remaining in the segment are written after restart
+                activeSegment.close();
+                this.activeSegment = null;
+            }
+            this.spooling = false;
+        }
+    }
+
+    /**
+     * Appends the specified change records to the journal.
+     * <p>
+     * If a transaction is active, the records are journaled only after it commits. Otherwise, they are journaled
+     * immediately.
+     *
+     * @param records Records to append
+     * @param context Identifier of the repository context into which the records should be written
+     */
+    public void append(Collection<? extends AbstractChangeRecord> records, URI context) {
+        Objects.requireNonNull(records);
+        Objects.requireNonNull(context);
+        final List<List<Statement>> entries = records.stream()
+                                                     .map(r -> toStatements(r, createDescriptor(r, context)))
+                                                     .collect(Collectors.toList());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    journal(entries);
+                }
+            });
+        } else {
+            journal(entries);
+        }
+    }
+
+    private void journal(List<List<Statement>> entries) {
+        Segment segment = null;
+        FileChannel toSync = null;
+        synchronized (lock) {
+            try {
+                segment = writeToSpool(entries);
+                toSync = segment != null ? segment.channel : null;
+            } catch (IOException e) {
+                LOG.error("Unable to spool change records, they will be kept only in memory.", e);
+            }
+            appended += entries.size();
+        }
+        // Sync outside the lock, so that concurrently committing transactions do not wait for each other's sync
+        if (toSync != null) {
+            sync(toSync);
+        }
+        for (List<Statement> statements : entries) {
+            enqueue(new Entry(segment, statements));
+        }
+    }
+
+    private static void sync(FileChannel channel) {
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // The segment has been closed in the meantime, which syncs it
+        } catch (IOException e) {
+            LOG.warn("Unable to sync change record journal segment.", e);
+        }
+    }
+
+    /**
+     * Puts the entry into the queue, waiting a limited time for space if necessary.
+     * <p>
+     * If the entry cannot be queued, it is abandoned.
+     */
+    private void enqueue(Entry entry) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ENQUEUE_TIMEOUT);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (queue.offer(entry, Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+                        return;
+                    }
+                    break;
+                } catch (InterruptedException e) {
+                    // The entry has already been journaled, try to queue it within the remaining time
+                    interrupted = true;
+                }
+            }
+            abandon(entry);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Gives up writing the specified entry in this run of the application.
+     * <p>
+     * A spooled entry stays in its segment, which is thus not deleted and is written after restart. An entry kept only
+     * in memory is lost.
+     */
+    private void abandon(Entry entry) {
+        synchronized (lock) {
+            if (entry.segment != null) {
+                LOG.error("Change record journal queue is full, record will be written from journal segment {} " +
+                        "after restart.", entry.segment.path);
+                if (entry.segment == activeSegment) {
+                    // Do not append further records to a segment which will not be deleted
+                    activeSegment.close();
+                    this.activeSegment = null;
+                }
+            } else {
+                LOG.error("Change record journal queue is full, change record {} is lost.", entry.statements);
+            }
+            // Not written, but flush must not wait for it
+            flushed++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Writes the specified entries into the active spool segment, starting a new one if necessary.
+     *
+     * @return The segment the entries were written into, {@code null} if they were not spooled
+     */
+    private Segment writeToSpool(List<List<Statement>> entries) throws IOException {
+        assert Thread.holdsLock(lock);
+        if (!spooling || entries.isEmpty()) {
+            return null;
+        }
+        if (activeSegment == null) {
+            final Path path = segmentPath(nextSegment++);
+            this.activeSegment = new Segment(path, FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+        }
+        final Segment segment = activeSegment;
+        final StringBuilder sb = new StringBuilder();
+        for (List<Statement> entry : entries) {
+            for (Statement s : entry) {
+                sb.append(NTriplesUtil.toNTriplesString(s.getSubject())).append(TERM_SEPARATOR)
+                  .append(NTriplesUtil.toNTriplesString(s.getPredicate())).append(TERM_SEPARATOR)
+                  .append(NTriplesUtil.toNTriplesString(s.getObject())).append(TERM_SEPARATOR)
+                  .append(s.getContext() != null ? NTriplesUtil.toNTriplesString(s.getContext()) : "")
+                  .append('\n');
+            }
+            sb.append('\n');
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        final FileChannel channel = segment.channel;
+        try {
+            channel.position(channel.size());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            // Do not append after a possibly partially written entry
+            segment.close();
+            this.activeSegment = null;
+            if (segment.pending == 0) {
+                segment.delete();
+            }
+            throw e;
+        }
+        segment.pending += entries.size();
+        segment.appended += entries.size();
+        if (segment.appended >= config.getBatchSize()) {
+            // Close the segment, so that it can be deleted once its records are written
+            segment.close();
+            this.activeSegment = null;
+        }
+        return segment;
+    }
+
+    private void writeRecords() {
+        final List<Entry> batch = new ArrayList<>();
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    final Entry first = queue.poll(config.getFlushInterval(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, Math.max(config.getBatchSize() - 1, 0));
+                }
+                write(batch);
+                this.failing = false;
+                markFlushed(batch);
+                batch.clear();
+                eventPublisher.publishEvent(new ChangeRecordsWrittenEvent(this));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                this.failing = true;
+                LOG.error("Unable to write {} change records into the repository.", batch.size(), e);
+                if (!running) {
+                    LOG.warn("Change record journal stopped, {} records remain pending.", batch.size() + queue.size());
+                    return;
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        final List<Statement> statements = batch.stream().flatMap(e -> e.statements.stream())
+                                                .collect(Collectors.toList());
+        try (final RepositoryConnection connection = repository.getConnection()) {
+            connection.begin();
+            connection.add(statements);
+            connection.commit();
+        }
+        LOG.trace("Written {} change records into the repository.", batch.size());
+    }
+
+    private void markFlushed(List<Entry> batch) {
+        synchronized (lock) {
+            flushed += batch.size();
+            for (Entry entry : batch) {
+                final Segment segment = entry.segment;
+                if (segment != null && --segment.pending == 0) {
+                    if (segment == activeSegment) {
+                        segment.close();
+                        this.activeSegment = null;
+                    }
+                    segment.delete();
+                }
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until all the change records appended so far are written into the repository.
+     * <p>
+     * This allows to read change records consistently with changes made by the current thread. The wait is short, so
+     * that reads are not stalled for long, and it is skipped altogether while the records cannot be written into the
+     * repository.
+     */
+    public void flush() {
+        final long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT;
+        synchronized (lock) {
+            final long target = appended;
+            while (flushed < target) {
+                if (failing) {
+                    LOG.debug("Change records cannot be written into the repository, not waiting for them.");
+                    return;
+                }
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    LOG.warn("Timed out waiting for change records to be written into the repository.");
+                    return;
+                }
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates descriptor of the specified record persisted into the specified context.
+     * <p>
+     * The record is stored in the context, except for its author. The author reference is stored in the default context
+     * together with the user it references.
+     */
+    private Descriptor createDescriptor(AbstractChangeRecord record, URI context) {
+        final Descriptor descriptor = new EntityDescriptor(context);
+        descriptor.addAttributeContext(metamodel.entity(record.getClass()).getFieldSpecification("author"), null);
+        descriptor.setLanguage(null);
+        return descriptor;
+    }
+
+    /**
+     * Converts the specified record to statements in the same way the persistence provider persists it using the
+     * specified descriptor.
+     */
+    private List<Statement> toStatements(AbstractChangeRecord record, Descriptor descriptor) {
+        final EntityType<?> et = metamodel.entity(record.getClass());
+        if (record.getUri() == null) {
+            record.setUri(URI.create(et.getIRI().toString() + "/instance-" + UUID.randomUUID()));
+        }
+        final Resource subject = vf.createIRI(record.getUri().toString());
+        final Resource ctx = toContext(descriptor.getContexts());
+        final List<Statement> result = new ArrayList<>();
+        result.add(vf.createStatement(subject, RDF.TYPE, vf.createIRI(et.getIRI().toString()), ctx));
+        try {
+            final TypesSpecification<?, ?> types = et.getTypes();
+            if (types != null && !types.isInferred()) {
+                final Collection<?> values = (Collection<?>) EntityPropertiesUtils.getAttributeValue(types, record);
+                final Resource typesCtx = toContext(descriptor.getAttributeContexts(types));
+                Utils.emptyIfNull(values).forEach(t -> result.add(
+                        vf.createStatement(subject, RDF.TYPE, vf.createIRI(t.toString()), typesCtx)));
+            }
+            for (Attribute<?, ?> att : et.getAttributes()) {
+                if (att.isInferred()) {
+                    continue;
+                }
+                final Object value = EntityPropertiesUtils.getAttributeValue(att, record);
+                if (value == null) {
+                    continue;
+                }
+                final IRI property = vf.createIRI(att.getIRI().toString());
+                final Resource attCtx = toContext(descriptor.getAttributeContexts(att));
+                final String language = descriptor.getAttributeDescriptor(att).getLanguage();
+                final Collection<?> values = att.isCollection() ? (Collection<?>) value :
+                                             Collections.singleton(value);
+                for (Object v : values) {
+                    final Object toConvert =
+                            att.isAssociation() && !IdentifierTransformer.isValidIdentifierType(v.getClass()) ?
+                            EntityPropertiesUtils.getIdentifier(v, metamodel) : v;
+                    toValues(toConvert, language).forEach(
+                            o -> result.add(vf.createStatement(subject, property, o, attCtx)));
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Resolves repository context from the specified descriptor contexts, {@code null} representing the default one.
+     */
+    private Resource toContext(Set<URI> contexts) {
+        return contexts.isEmpty() ? null : vf.createIRI(contexts.iterator().next().toString());
+    }
+
+    private List<Value> toValues(Object value, String language) {
+        if (value instanceof URI) {
+            return Collections.singletonList(vf.createIRI(value.toString()));
+        } else if (value instanceof MultilingualString) {
+            return ((MultilingualString) value).getValue().entrySet().stream()
+                                               .map(e -> e.getKey() != null ?
+                                                         vf.createLiteral(e.getValue(), e.getKey()) :
+                                                         vf.createLiteral(e.getValue()))
+                                               .collect(Collectors.toList());
+        } else if (value instanceof String && language != null) {
+            return Collections.singletonList(vf.createLiteral((String) value, language));
+        }
+        return Collections.singletonList(toLiteral(value));
+    }
+
+    private Literal toLiteral(Object value) {
+        if (value instanceof Instant) {
+            return vf.createLiteral(Date.from((Instant) value));
+        } else if (value instanceof Date) {
+            return vf.createLiteral((Date) value);
+        } else if (value instanceof Boolean) {
+            return vf.createLiteral((Boolean) value);
+        } else if (value instanceof Integer) {
+            return vf.createLiteral((Integer) value);
+        } else if (value instanceof Long) {
+            return vf.createLiteral((Long) value);
+        } else if (value instanceof Short) {
+            return vf.createLiteral((Short) value);
+        } else if (value instanceof Byte) {
+            return vf.createLiteral((Byte) value);
+        } else if (value instanceof Double) {
+            return vf.createLiteral((Double) value);
+        } else if (value instanceof Float) {
+            return vf.createLiteral((Float) value);
+        } else if (value instanceof BigInteger) {
+            return vf.createLiteral((BigInteger) value);
+        } else if (value instanceof BigDecimal) {
+            return vf.createLiteral((BigDecimal) value);
+        }
+        return vf.createLiteral(value.toString());
+    }
+
+    /**
+     * Change record waiting to be written into the repository.
+     */
+    private static class Entry {
+
+        /**
+         * Segment the record is spooled in, {@code null} if it is kept only in memory.
+         */
+        private final Segment segment;
+
+        private final List<Statement> statements;
+
+        private Entry(Segment segment, List<Statement> statements) {
+            this.segment = segment;
+            this.statements = statements;
+        }
+    }
+
+    /**
+     * Spool segment. Guarded by the journal lock.
+     */
+    private static class Segment {
+
+        private final Path path;
+
+        /**
+         * Channel to append to, {@code null} once the segment is closed.
+         */
+        private FileChannel channel;
+
+        /**
+         * Number of records spooled in the segment.
+         */
+        private int appended;
+
+        /**
+         * Number of records spooled in the segment but not yet written into the repository.
+         */
+        private int pending;
+
+        private Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        /**
+         * Syncs and closes the segment.
+         * <p>
+         * Syncing here covers appends whose own sync fails because the segment was closed in the meantime.
+         */
+        private void close() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                LOG.warn("Unable to sync change record journal segment {}.", path, e);
+            }
+            closeChannel();
+        }
+
+        private void closeChannel() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.warn("Unable to close change record journal segment {}.", path, e);
+            }
+            this.channel = null;
+        }
+
+        private void delete() {
+            closeChannel();
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                LOG.warn("Unable to delete change record journal segment {}.", path, e);
+            }
+        }
+    }
+}
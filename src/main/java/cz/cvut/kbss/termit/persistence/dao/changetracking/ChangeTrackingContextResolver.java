@@ -12,7 +12,6 @@ import org.springframework.stereotype.Component;
 
 import java.net.URI;
 import java.util.Objects;
-import java.util.Optional;
 
 /**
  * Determines repository context into which change tracking records are stored.
@@ -51,9 +50,11 @@ public class ChangeTrackingContextResolver {
                                             .getChangeTrackingContext();
         } else if (changedAsset instanceof Term) {
             final Term t = (Term) changedAsset;
-            final Optional<Vocabulary> vocabulary = vocabularyDao.findVocabularyOfGlossary(t.getGlossary());
-            final URI vocabularyUri = vocabulary
-                    .orElseThrow(() -> new NotFoundException("Vocabulary for term " + t + " not found!")).getUri();
+            // Vocabulary is usually known already, avoid querying it from the repository
+            final URI vocabularyUri = t.getVocabulary() != null ? t.getVocabulary() :
+                                      vocabularyDao.findVocabularyOfGlossary(t.getGlossary())
+                                                   .orElseThrow(() -> new NotFoundException(
+                                                           "Vocabulary for term " + t + " not found!")).getUri();
             return workspaceMetadataProvider.getCurrentWorkspaceMetadata().getVocabularyInfo(vocabularyUri)
                                             .getChangeTrackingContext();
         }
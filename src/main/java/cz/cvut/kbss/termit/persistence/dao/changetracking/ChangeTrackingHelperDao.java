@@ -6,7 +6,12 @@ import cz.cvut.kbss.termit.model.Asset;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 @Repository
@@ -24,12 +29,19 @@ public class ChangeTrackingHelperDao {
 
     /**
      * Finds an existing stored instance of the specified asset.
+     * <p>
+     * If a stored instance of the asset has been registered in the current transaction (see {@link
+     * #registerStored(Asset)}), it is returned without accessing the repository.
      *
      * @param update Current state of the asset to find
      * @return Stored state of the searched asset
      */
     public <T extends Asset<?>> T findStored(T update) {
         Objects.requireNonNull(update);
+        final Map<URI, Asset<?>> snapshots = getSnapshots(false);
+        if (snapshots != null && update.getClass().isInstance(snapshots.get(update.getUri()))) {
+            return (T) snapshots.get(update.getUri());
+        }
         final T result = (T) em.find(update.getClass(), update.getUri(), update.createDescriptor(descriptorFactory));
         if (result == null) {
             throw NotFoundException.create(update.getClass().getSimpleName(), update.getUri());
@@ -38,4 +50,66 @@ public class ChangeTrackingHelperDao {
         em.detach(result);
         return result;
     }
+
+    /**
+     * Registers the specified instance as the stored state of the asset for the rest of the current transaction.
+     * <p>
+     * This allows to load the stored state of an asset being updated only once and share it between all the steps of
+     * the update. The instance must not be in the persistence context. If no transaction is active, this method does
+     * nothing.
+     *
+     * @param stored Stored state of an asset
+     * @see #unregisterStored(Asset)
+     */
+    public void registerStored(Asset<?> stored) {
+        Objects.requireNonNull(stored);
+        final Map<URI, Asset<?>> snapshots = getSnapshots(true);
+        if (snapshots != null) {
+            snapshots.put(stored.getUri(), stored);
+        }
+    }
+
+    /**
+     * Removes the registered stored state of the specified asset, typically because it has been modified.
+     *
+     * @param asset Asset whose stored state to unregister
+     */
+    public void unregisterStored(Asset<?> asset) {
+        Objects.requireNonNull(asset);
+        final Map<URI, Asset<?>> snapshots = getSnapshots(false);
+        if (snapshots != null) {
+            snapshots.remove(asset.getUri());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<URI, Asset<?>> getSnapshots(boolean create) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Map<URI, Asset<?>> snapshots = (Map<URI, Asset<?>>) TransactionSynchronizationManager.getResource(this);
+        if (snapshots == null && create) {
+            final Map<URI, Asset<?>> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    // Snapshots do not apply to a nested transaction
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTrackingHelperDao.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(ChangeTrackingHelperDao.this, created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTrackingHelperDao.this);
+                }
+            });
+            snapshots = created;
+        }
+        return snapshots;
+    }
 }
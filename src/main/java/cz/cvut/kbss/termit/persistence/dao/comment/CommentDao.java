@@ -16,9 +16,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 public class CommentDao {
@@ -69,6 +72,59 @@ public class CommentDao {
         }
     }
 
+    /**
+     * Finds comments with the specified identifiers.
+     *
+     * @param ids Comment identifiers
+     * @return List of matching comments, in no particular order
+     */
+    public List<Comment> findAll(Collection<URI> ids) {
+        Objects.requireNonNull(ids);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return em.createNativeQuery("SELECT ?x WHERE {" +
+                    "VALUES ?x { " + ids.stream().map(id -> "<" + id + ">").collect(Collectors.joining(" ")) + " }" +
+                    "?x a ?type ." +
+                    "}", Comment.class).setParameter("type", URI.create(Vocabulary.s_c_Comment))
+                     .setDescriptor(loadingDescriptor).getResultList();
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Gets identifiers of all comments together with identifiers of the commented assets and comment authors.
+     *
+     * @return List of arrays containing comment, asset and author identifiers (in this order), sorted by the date of
+     * last modification of the comment (from oldest to newest)
+     */
+    public List<URI[]> findAllIdentifiers() {
+        try {
+            final List<?> rows = em.createNativeQuery("SELECT ?comment ?asset ?author WHERE {" +
+                    "?comment a ?commentType ;" +
+                    "?hasAsset ?asset ;" +
+                    "?hasAuthor ?author ." +
+                    "OPTIONAL { ?comment ?hasModificationDate ?modified . }" +
+                    "OPTIONAL { ?comment ?hasCreationDate ?created . }" +
+                    "BIND(COALESCE(?modified,?created) AS ?lastModified)" +
+                    "} ORDER BY ?lastModified").setParameter("commentType", URI.create(Vocabulary.s_c_Comment))
+                                   .setParameter("hasAsset", URI.create(Vocabulary.s_p_topic))
+                                   .setParameter("hasAuthor", URI.create(Vocabulary.s_p_has_creator))
+                                   .setParameter("hasModificationDate",
+                                           URI.create(Vocabulary.s_p_ma_datum_a_cas_posledni_modifikace))
+                                   .setParameter("hasCreationDate", URI.create(Vocabulary.s_p_ma_datum_a_cas_vytvoreni))
+                                   .getResultList();
+            return rows.stream().map(r -> {
+                final Object[] row = (Object[]) r;
+                return new URI[]{(URI) row[0], (URI) row[1], (URI) row[2]};
+            }).collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
     /**
      * Finds comment with the specified identifier.
      *
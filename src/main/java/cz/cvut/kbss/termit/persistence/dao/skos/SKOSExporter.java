@@ -4,6 +4,7 @@ import cz.cvut.kbss.jopa.model.EntityManager;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.util.Utils;
 import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.vocabulary.DCTERMS;
@@ -13,6 +14,7 @@ import org.eclipse.rdf4j.model.vocabulary.SKOS;
 import org.eclipse.rdf4j.query.*;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.Rio;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -21,6 +23,8 @@ import org.springframework.stereotype.Repository;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 @Repository
 @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
@@ -42,49 +46,82 @@ public class SKOSExporter {
 
     public void exportGlossaryInstance(Vocabulary vocabulary) {
         try (final RepositoryConnection conn = repository.getConnection()) {
-            final GraphQuery gq = conn.prepareGraphQuery(Utils.loadQuery(GLOSSARY_EXPORT_QUERY));
-            gq.setBinding("vocabulary", vf.createIRI(vocabulary.getUri().toString()));
-            evaluateAndAddToModel(gq);
-            resolvePrefixes(vocabulary, conn);
+            evaluate(conn, GLOSSARY_EXPORT_QUERY, vocabulary, model::add);
+            resolvePrefixes(vocabulary, conn, model::setNamespace);
         }
     }
 
-    private void evaluateAndAddToModel(GraphQuery gq) {
+    private void evaluate(RepositoryConnection conn, String queryFile, Vocabulary vocabulary,
+                          Consumer<Statement> consumer) {
+        final GraphQuery gq = conn.prepareGraphQuery(Utils.loadQuery(queryFile));
+        gq.setBinding("vocabulary", vf.createIRI(vocabulary.getUri().toString()));
         try (GraphQueryResult gqResult = gq.evaluate()) {
             while (gqResult.hasNext()) {
-                model.add(gqResult.next());
+                consumer.accept(gqResult.next());
             }
         }
     }
 
-    private void resolvePrefixes(Vocabulary vocabulary, RepositoryConnection connection) {
+    private void resolvePrefixes(Vocabulary vocabulary, RepositoryConnection connection,
+                                 BiConsumer<String, String> consumer) {
         final TupleQuery tq = connection.prepareTupleQuery("SELECT ?prefix ?namespace WHERE {\n" +
                 "?glossary <http://purl.org/vocab/vann/preferredNamespacePrefix> ?prefix ;\n" +
                 "<http://purl.org/vocab/vann/preferredNamespaceUri> ?namespace .\n" +
                 "}");
         tq.setBinding("glossary", vf.createIRI(vocabulary.getGlossary().getUri().toString()));
-        final TupleQueryResult result = tq.evaluate();
-        while (result.hasNext()) {
-            final BindingSet binding = result.next();
-            model.setNamespace(binding.getValue("prefix").stringValue(), binding.getValue("namespace").stringValue());
+        try (final TupleQueryResult result = tq.evaluate()) {
+            while (result.hasNext()) {
+                final BindingSet binding = result.next();
+                consumer.accept(binding.getValue("prefix").stringValue(),
+                        binding.getValue("namespace").stringValue());
+            }
         }
-        model.setNamespace(SKOS.PREFIX, SKOS.NAMESPACE);
-        model.setNamespace(RDFS.PREFIX, RDFS.NAMESPACE);
-        model.setNamespace(OWL.PREFIX, OWL.NAMESPACE);
-        model.setNamespace(DCTERMS.PREFIX, DCTERMS.NAMESPACE);
+        consumer.accept(SKOS.PREFIX, SKOS.NAMESPACE);
+        consumer.accept(RDFS.PREFIX, RDFS.NAMESPACE);
+        consumer.accept(OWL.PREFIX, OWL.NAMESPACE);
+        consumer.accept(DCTERMS.PREFIX, DCTERMS.NAMESPACE);
     }
 
     public void exportGlossaryTerms(Vocabulary vocabulary) {
         try (final RepositoryConnection conn = repository.getConnection()) {
-            final GraphQuery gq = conn.prepareGraphQuery(Utils.loadQuery(TERMS_EXPORT_QUERY));
-            gq.setBinding("vocabulary", vf.createIRI(vocabulary.getUri().toString()));
-            evaluateAndAddToModel(gq);
+            evaluate(conn, TERMS_EXPORT_QUERY, vocabulary, model::add);
+        }
+    }
+
+    /**
+     * Exports glossary of the specified vocabulary together with its terms directly into the specified handler.
+     * <p>
+     * As opposed to {@link #exportGlossaryInstance(Vocabulary)} and {@link #exportGlossaryTerms(Vocabulary)}, the
+     * statements are not accumulated in this exporter, they are passed to the handler as they are read from the
+     * repository. Namespaces are reported to the handler before any statements. Note that, unlike the in-memory export,
+     * the handler may receive duplicate statements.
+     *
+     * @param vocabulary Vocabulary whose glossary to export
+     * @param handler    Handler receiving the exported data, e.g., an {@link org.eclipse.rdf4j.rio.RDFWriter}
+     */
+    public void exportGlossary(Vocabulary vocabulary, RDFHandler handler) {
+        try (final RepositoryConnection conn = repository.getConnection()) {
+            handler.startRDF();
+            resolvePrefixes(vocabulary, conn, handler::handleNamespace);
+            evaluate(conn, GLOSSARY_EXPORT_QUERY, vocabulary, handler::handleStatement);
+            evaluate(conn, TERMS_EXPORT_QUERY, vocabulary, handler::handleStatement);
+            handler.endRDF();
         }
     }
 
     public byte[] exportAsTtl() {
+        return exportAs(RDFFormat.TURTLE);
+    }
+
+    /**
+     * Serializes the data exported so far in the specified format.
+     *
+     * @param format Target RDF serialization format
+     * @return Serialized data
+     */
+    public byte[] exportAs(RDFFormat format) {
         final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        Rio.write(model, bos, RDFFormat.TURTLE);
+        Rio.write(model, bos, format);
         return bos.toByteArray();
     }
 }
@@ -15,6 +15,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.io.File;
+import java.net.URI;
+import java.util.Collections;
 import java.util.List;
 
 @Repository
@@ -47,6 +49,24 @@ public class StatisticsDao {
                  .getResultList();
     }
 
+    /**
+     * Gets term frequency statistics of the specified vocabulary in the specified workspace.
+     *
+     * @param workspace  Workspace containing the vocabulary
+     * @param vocabulary Identifier of the vocabulary whose terms will be counted
+     * @return List containing term frequency information of the vocabulary, empty if the vocabulary contains no terms
+     */
+    public List<TermFrequencyDto> getTermFrequencyStatistics(Workspace workspace, URI vocabulary) {
+        String query = Utils.loadQuery("statistics" + File.separator + "termFrequency.rq");
+        final List<TermFrequencyDto> result = em.createNativeQuery(query, "TermFrequencyDto")
+                                                .setParameter("contexts", Collections.singleton(
+                                                        persistenceUtils.resolveVocabularyContext(workspace,
+                                                                vocabulary)))
+                                                .setParameter("lang", config.getPersistence().getLanguage())
+                                                .getResultList();
+        return result.stream().filter(dto -> vocabulary.equals(dto.getId())).collect(Collectors.toList());
+    }
+
     /**
      * Gets the distribution of types among terms in the specified vocabulary.
      *
@@ -0,0 +1,104 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.termit.exception.InvalidParameterException;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position in a listing of terms ordered by their source, normalized label and identifier.
+ * <p>
+ * The cursor is passed to clients as an opaque token.
+ */
+public class TermPageCursor {
+
+    private static final char SEPARATOR = '\n';
+
+    private final int source;
+
+    private final String key;
+
+    private final URI term;
+
+    public TermPageCursor(int source, String key, URI term) {
+        this.source = source;
+        this.key = Objects.requireNonNull(key);
+        this.term = Objects.requireNonNull(term);
+    }
+
+    /**
+     * Source of the term, lower values come first.
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * Normalized label of the term.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public URI getTerm() {
+        return term;
+    }
+
+    /**
+     * Encodes this cursor into an opaque token.
+     *
+     * @return Token representing this cursor
+     * @see #decode(String)
+     */
+    public String encode() {
+        final String value = Integer.toString(source) + SEPARATOR + term + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes cursor from the specified token.
+     *
+     * @param token Token produced by {@link #encode()}
+     * @return Decoded cursor
+     * @throws InvalidParameterException If the token is not a valid cursor
+     */
+    public static TermPageCursor decode(String token) {
+        Objects.requireNonNull(token);
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int first = value.indexOf(SEPARATOR);
+            final int second = value.indexOf(SEPARATOR, first + 1);
+            if (first < 0 || second < 0) {
+                throw new InvalidParameterException("Invalid page cursor '" + token + "'.");
+            }
+            return new TermPageCursor(Integer.parseInt(value.substring(0, first)),
+                    value.substring(second + 1), URI.create(value.substring(first + 1, second)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("Invalid page cursor '" + token + "'.");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TermPageCursor)) {
+            return false;
+        }
+        final TermPageCursor that = (TermPageCursor) o;
+        return source == that.source && key.equals(that.key) && term.equals(that.term);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(source, key, term);
+    }
+
+    @Override
+    public String toString() {
+        return "TermPageCursor{" + source + ", '" + key + "', <" + term + ">}";
+    }
+}
@@ -0,0 +1,110 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.termit.dto.TermInfo;
+import cz.cvut.kbss.termit.model.AbstractTerm;
+import cz.cvut.kbss.termit.model.Term;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Monotonic version stamps of vocabulary content (terms).
+ * <p>
+ * Each vocabulary has its own stamp, which is replaced with a newer one whenever content of the vocabulary changes. In
+ * addition, there is a global stamp which applies to all vocabularies and is used when the modified vocabularies cannot
+ * be determined. Stamps are based on the current system time in milliseconds, so that they can be used also as last
+ * modification timestamps, but they are guaranteed to grow even if several changes happen in the same millisecond.
+ */
+public class VocabularyContentVersions {
+
+    private final AtomicLong lastStamp = new AtomicLong();
+
+    private final Map<URI, Long> versions = new ConcurrentHashMap<>();
+
+    private final AtomicLong globalVersion = new AtomicLong(nextStamp());
+
+    private long nextStamp() {
+        return lastStamp.updateAndGet(last -> Math.max(System.currentTimeMillis(), last + 1));
+    }
+
+    /**
+     * Gets the current content version of the specified vocabularies.
+     *
+     * @param vocabularies Vocabulary identifiers
+     * @return The latest of the vocabulary versions and the global version
+     */
+    public long getVersion(Collection<URI> vocabularies) {
+        long result = globalVersion.get();
+        for (URI vocabulary : vocabularies) {
+            result = Math.max(result, versions.getOrDefault(vocabulary, 0L));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the latest content version of any vocabulary.
+     *
+     * @return The latest version
+     */
+    public long getVersion() {
+        return Math.max(globalVersion.get(), versions.values().stream().mapToLong(Long::longValue).max().orElse(0L));
+    }
+
+    /**
+     * Refreshes version of the specified vocabularies.
+     * <p>
+     * A version is never replaced with an older one, even if stamps of concurrent refreshes are stored out of order.
+     *
+     * @param vocabularies Identifiers of vocabularies whose content has changed
+     */
+    public void refresh(Collection<URI> vocabularies) {
+        final long stamp = nextStamp();
+        vocabularies.forEach(v -> versions.merge(v, stamp, Math::max));
+    }
+
+    /**
+     * Refreshes the global version, making all previously issued versions outdated.
+     */
+    public void refreshAll() {
+        final long stamp = globalVersion.accumulateAndGet(nextStamp(), Math::max);
+        // Keep versions refreshed concurrently, they are newer than the global one
+        versions.values().removeIf(v -> v <= stamp);
+    }
+
+    /**
+     * Resolves vocabularies whose content is affected by a change of the specified term.
+     * <p>
+     * These are the vocabulary of the term and vocabularies of terms it references or is referenced by, as the
+     * relationships are presented on both sides.
+     *
+     * @param term Modified term
+     * @return Set of vocabulary identifiers
+     */
+    public static Set<URI> resolveAffectedVocabularies(AbstractTerm term) {
+        Objects.requireNonNull(term);
+        final Set<URI> result = new HashSet<>();
+        if (term.getVocabulary() != null) {
+            result.add(term.getVocabulary());
+        }
+        addVocabularies(term.getSubTerms(), result);
+        if (!(term instanceof Term)) {
+            return result;
+        }
+        final Term t = (Term) term;
+        if (t.getParentTerms() != null) {
+            t.getParentTerms().stream().map(AbstractTerm::getVocabulary).filter(Objects::nonNull).forEach(result::add);
+        }
+        Stream.of(t.getRelated(), t.getInverseRelated(), t.getRelatedMatch(), t.getInverseRelatedMatch(),
+                t.getExactMatchTerms(), t.getInverseExactMatchTerms()).forEach(terms -> addVocabularies(terms, result));
+        return result;
+    }
+
+    private static void addVocabularies(Collection<TermInfo> terms, Set<URI> target) {
+        if (terms != null) {
+            terms.stream().map(TermInfo::getVocabulary).filter(Objects::nonNull).forEach(target::add);
+        }
+    }
+}
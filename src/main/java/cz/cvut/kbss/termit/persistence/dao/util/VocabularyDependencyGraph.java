@@ -0,0 +1,78 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Immutable graph of vocabulary imports.
+ * <p>
+ * Transitive closure of the imports and the inverse (dependent vocabulary) edges are computed upfront, so that
+ * dependency lookups are simple map reads.
+ */
+public class VocabularyDependencyGraph {
+
+    /**
+     * Vocabulary identifier -> identifiers of vocabularies it (transitively) imports
+     */
+    private final Map<URI, Set<URI>> transitiveDependencies;
+
+    /**
+     * Vocabulary identifier -> identifiers of vocabularies which directly import it
+     */
+    private final Map<URI, Set<URI>> dependents;
+
+    /**
+     * Creates the graph from direct vocabulary imports.
+     *
+     * @param imports Vocabulary identifiers mapped to identifiers of vocabularies they directly import
+     */
+    public VocabularyDependencyGraph(Map<URI, Set<URI>> imports) {
+        Objects.requireNonNull(imports);
+        final Map<URI, Set<URI>> closure = new HashMap<>(imports.size());
+        final Map<URI, Set<URI>> inverse = new HashMap<>();
+        imports.forEach((vocabulary, imported) -> {
+            closure.put(vocabulary, Collections.unmodifiableSet(computeClosure(vocabulary, imports)));
+            imported.forEach(i -> inverse.computeIfAbsent(i, k -> new HashSet<>()).add(vocabulary));
+        });
+        inverse.replaceAll((k, v) -> Collections.unmodifiableSet(v));
+        this.transitiveDependencies = closure;
+        this.dependents = inverse;
+    }
+
+    /**
+     * Computes vocabularies reachable from the specified one via imports.
+     * <p>
+     * The vocabulary itself is included only if it is part of an import cycle.
+     */
+    private static Set<URI> computeClosure(URI vocabulary, Map<URI, Set<URI>> imports) {
+        final Set<URI> result = new LinkedHashSet<>();
+        final Deque<URI> toProcess = new ArrayDeque<>(imports.get(vocabulary));
+        while (!toProcess.isEmpty()) {
+            final URI current = toProcess.pop();
+            if (result.add(current)) {
+                toProcess.addAll(imports.getOrDefault(current, Collections.emptySet()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets identifiers of vocabularies imported by the specified vocabulary, including transitively imported ones.
+     *
+     * @param vocabulary Vocabulary identifier
+     * @return Unmodifiable set of vocabulary identifiers, empty if the vocabulary imports no other vocabularies
+     */
+    public Set<URI> getTransitiveDependencies(URI vocabulary) {
+        return transitiveDependencies.getOrDefault(vocabulary, Collections.emptySet());
+    }
+
+    /**
+     * Gets identifiers of vocabularies which directly import the specified vocabulary.
+     *
+     * @param vocabulary Vocabulary identifier
+     * @return Unmodifiable set of vocabulary identifiers, empty if no vocabulary imports the specified one
+     */
+    public Set<URI> getDependents(URI vocabulary) {
+        return dependents.getOrDefault(vocabulary, Collections.emptySet());
+    }
+}
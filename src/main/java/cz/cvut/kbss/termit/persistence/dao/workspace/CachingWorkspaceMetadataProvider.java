@@ -4,6 +4,7 @@ import cz.cvut.kbss.termit.dto.workspace.WorkspaceMetadata;
 import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
 import cz.cvut.kbss.termit.exception.NotFoundException;
 import cz.cvut.kbss.termit.model.Workspace;
+import cz.cvut.kbss.termit.persistence.dao.CanonicalCacheContainerDao;
 import cz.cvut.kbss.termit.util.Constants;
 import cz.cvut.kbss.termit.workspace.WorkspaceStore;
 import org.slf4j.Logger;
@@ -14,13 +15,15 @@ import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Caches workspace metadata (e.g., contexts of vocabularies in workspace) so that they don't have to be resolved from
  * vocabulary for every request.
+ * <p>
+ * Unique canonical container contexts are cached per workspace as well.
  */
 @Component
 @Profile("!" + Constants.NO_CACHE_PROFILE)
@@ -33,9 +36,18 @@ public class CachingWorkspaceMetadataProvider extends WorkspaceMetadataProvider
      */
     private final Map<URI, WorkspaceMetadata> workspaces = new ConcurrentHashMap<>();
 
+    /**
+     * Workspace identifier -> unique canonical container contexts
+     */
+    private final Map<URI, Set<URI>> canonicalContexts = new ConcurrentHashMap<>();
+
+    private final AtomicLong canonicalContextsHits = new AtomicLong();
+    private final AtomicLong canonicalContextsMisses = new AtomicLong();
+
     @Autowired
-    public CachingWorkspaceMetadataProvider(WorkspaceStore workspaceStore, WorkspaceDao workspaceDao) {
-        super(workspaceStore, workspaceDao);
+    public CachingWorkspaceMetadataProvider(WorkspaceStore workspaceStore, WorkspaceDao workspaceDao,
+                                            CanonicalCacheContainerDao canonicalCacheContainerDao) {
+        super(workspaceStore, workspaceDao, canonicalCacheContainerDao);
     }
 
     /**
@@ -65,11 +77,47 @@ public class CachingWorkspaceMetadataProvider extends WorkspaceMetadataProvider
     public void loadWorkspace(Workspace workspace) {
         Objects.requireNonNull(workspace);
         workspaces.put(workspace.getUri(), loadWorkspaceMetadata(workspace));
+        canonicalContexts.remove(workspace.getUri());
+    }
+
+    @Override
+    public Set<URI> getCanonicalContainerContexts(Workspace workspace) {
+        Objects.requireNonNull(workspace);
+        Set<URI> contexts = canonicalContexts.get(workspace.getUri());
+        if (contexts != null) {
+            canonicalContextsHits.incrementAndGet();
+        } else {
+            canonicalContextsMisses.incrementAndGet();
+            LOG.trace("Loading canonical container contexts for workspace {} and storing them in cache.", workspace);
+            contexts = Collections.unmodifiableSet(
+                    canonicalCacheContainerDao.findUniqueCanonicalCacheContexts(workspace));
+            canonicalContexts.put(workspace.getUri(), contexts);
+        }
+        return new HashSet<>(contexts);
+    }
+
+    /**
+     * Gets the number of canonical container contexts lookups answered from cache.
+     *
+     * @return Number of cache hits
+     */
+    public long getCanonicalContextsCacheHits() {
+        return canonicalContextsHits.get();
+    }
+
+    /**
+     * Gets the number of canonical container contexts lookups which had to be resolved from the repository.
+     *
+     * @return Number of cache misses
+     */
+    public long getCanonicalContextsCacheMisses() {
+        return canonicalContextsMisses.get();
     }
 
     @EventListener
     public void invalidateCache(InvalidateCachesEvent e) {
         LOG.info("Evicting workspace metadata cache...");
         workspaces.clear();
+        canonicalContexts.clear();
     }
 }
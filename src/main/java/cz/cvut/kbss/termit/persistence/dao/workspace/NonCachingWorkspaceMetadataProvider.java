@@ -3,12 +3,14 @@ package cz.cvut.kbss.termit.persistence.dao.workspace;
 import cz.cvut.kbss.termit.dto.workspace.WorkspaceMetadata;
 import cz.cvut.kbss.termit.exception.NotFoundException;
 import cz.cvut.kbss.termit.model.Workspace;
+import cz.cvut.kbss.termit.persistence.dao.CanonicalCacheContainerDao;
 import cz.cvut.kbss.termit.util.Constants;
 import cz.cvut.kbss.termit.workspace.WorkspaceStore;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
+import java.util.Set;
 
 /**
  * Provides workspace metadata without caching.
@@ -19,8 +21,9 @@ import java.net.URI;
 @Profile(Constants.NO_CACHE_PROFILE)
 public class NonCachingWorkspaceMetadataProvider extends WorkspaceMetadataProvider {
 
-    protected NonCachingWorkspaceMetadataProvider(WorkspaceStore workspaceStore, WorkspaceDao workspaceDao) {
-        super(workspaceStore, workspaceDao);
+    protected NonCachingWorkspaceMetadataProvider(WorkspaceStore workspaceStore, WorkspaceDao workspaceDao,
+                                                  CanonicalCacheContainerDao canonicalCacheContainerDao) {
+        super(workspaceStore, workspaceDao, canonicalCacheContainerDao);
     }
 
     @Override
@@ -34,4 +37,9 @@ public class NonCachingWorkspaceMetadataProvider extends WorkspaceMetadataProvid
         final Workspace ws = getWorkspace(workspaceUri);
         return loadWorkspaceMetadata(ws);
     }
+
+    @Override
+    public Set<URI> getCanonicalContainerContexts(Workspace workspace) {
+        return canonicalCacheContainerDao.findUniqueCanonicalCacheContexts(workspace);
+    }
 }
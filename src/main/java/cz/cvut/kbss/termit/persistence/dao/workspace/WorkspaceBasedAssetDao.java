@@ -15,8 +15,8 @@ import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Vocabulary;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public abstract class WorkspaceBasedAssetDao<T extends Asset<?>> extends AssetDao<T> {
 
@@ -38,45 +38,54 @@ public abstract class WorkspaceBasedAssetDao<T extends Asset<?>> extends AssetDa
     public List<RecentlyModifiedAsset> findLastEditedBy(User author, int limit) {
         try {
             final List<URI> recentlyModifiedUniqueAssets = findUniqueLastModifiedEntitiesBy(author, limit);
-            final List<RecentlyModifiedAsset> modified = recentlyModifiedUniqueAssets.stream().map(asset -> {
-                final Query q = em
-                        .createNativeQuery(
-                                "SELECT DISTINCT ?entity ?label ?modified ?modifiedBy ?vocabulary ?type ?changeType WHERE {" +
-                                        "?x a ?change ." +  // This is inferred, so potentially in the inference context
-                                        "GRAPH ?g {" +
-                                        "?x a ?chType ;" +
-                                        "?hasModifiedEntity ?ent ;" +
-                                        "?hasEditor ?author ;" +
-                                        "?hasModificationDate ?modified . " +
-                                        "}" +
-                                        "?ent ?hasLabel ?label ." +
-                                        "OPTIONAL { ?ent ?isFromVocabulary ?vocabulary . }" +
-                                        "BIND (?cls as ?type)" +
-                                        "BIND (?ent as ?entity)" +
-                                        "BIND (?author as ?modifiedBy)" +
-                                        "FILTER (?chType != ?change)" +
-                                        "BIND (IF(?chType = ?persist, ?persist, ?update) as ?changeType)" +
-                                        "FILTER (lang(?label) = ?language)" +
-                                        "FILTER (?g IN (?changeTrackingContexts)) " +
-                                        "} ORDER BY DESC(?modified)", "RecentlyModifiedAsset")
-                        .setParameter("cls", typeUri)
-                        .setParameter("ent", asset)
-                        .setParameter("change", URI.create(Vocabulary.s_c_zmena))
-                        .setParameter("hasLabel", labelProperty())
-                        .setParameter("hasModifiedEntity", URI.create(Vocabulary.s_p_ma_zmenenou_entitu))
-                        .setParameter("hasEditor", URI.create(Vocabulary.s_p_ma_editora))
-                        .setParameter("hasModificationDate", URI.create(Vocabulary.s_p_ma_datum_a_cas_modifikace))
-                        .setParameter("isFromVocabulary", URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
-                        .setParameter("persist", URI.create(Vocabulary.s_c_vytvoreni_entity))
-                        .setParameter("update", URI.create(Vocabulary.s_c_uprava_entity))
-                        .setParameter("changeTrackingContexts",
-                                persistenceUtils.getCurrentWorkspaceChangeTrackingContexts())
-                        .setParameter("language", config.getLanguage()).setMaxResults(1);
-                if (author != null) {
-                    q.setParameter("author", author);
-                }
-                return (RecentlyModifiedAsset) q.getSingleResult();
-            }).collect(Collectors.toList());
+            if (recentlyModifiedUniqueAssets.isEmpty()) {
+                return Collections.emptyList();
+            }
+            final Query q = em.createNativeQuery(
+                    "SELECT DISTINCT ?entity ?label ?modified ?modifiedBy ?vocabulary ?type ?changeType WHERE {" +
+                            "{ SELECT ?entity (MAX(?lastModified) AS ?modified) WHERE {" +
+                            "VALUES ?entity { " + identifierValues(recentlyModifiedUniqueAssets) + " }" +
+                            "GRAPH ?g2 {" +
+                            "?y ?hasModifiedEntity ?entity ;" +
+                            "?hasEditor ?author ;" +
+                            "?hasModificationDate ?lastModified . " +
+                            "}" +
+                            "FILTER (?g2 IN (?changeTrackingContexts)) " +
+                            "} GROUP BY ?entity }" +
+                            "?x a ?change ." +  // This is inferred, so potentially in the inference context
+                            "GRAPH ?g {" +
+                            "?x a ?chType ;" +
+                            "?hasModifiedEntity ?entity ;" +
+                            "?hasEditor ?author ;" +
+                            "?hasModificationDate ?modified . " +
+                            "}" +
+                            "?entity ?hasLabel ?label ." +
+                            "OPTIONAL { ?entity ?isFromVocabulary ?vocabulary . }" +
+                            "BIND (?cls as ?type)" +
+                            "BIND (?author as ?modifiedBy)" +
+                            "FILTER (?chType != ?change)" +
+                            "BIND (IF(?chType = ?persist, ?persist, ?update) as ?changeType)" +
+                            "FILTER (lang(?label) = ?language)" +
+                            "FILTER (?g IN (?changeTrackingContexts)) " +
+                            "}", "RecentlyModifiedAsset")
+                               .setParameter("cls", typeUri)
+                               .setParameter("change", URI.create(Vocabulary.s_c_zmena))
+                               .setParameter("hasLabel", labelProperty())
+                               .setParameter("hasModifiedEntity", URI.create(Vocabulary.s_p_ma_zmenenou_entitu))
+                               .setParameter("hasEditor", URI.create(Vocabulary.s_p_ma_editora))
+                               .setParameter("hasModificationDate",
+                                       URI.create(Vocabulary.s_p_ma_datum_a_cas_modifikace))
+                               .setParameter("isFromVocabulary", URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
+                               .setParameter("persist", URI.create(Vocabulary.s_c_vytvoreni_entity))
+                               .setParameter("update", URI.create(Vocabulary.s_c_uprava_entity))
+                               .setParameter("changeTrackingContexts",
+                                       persistenceUtils.getCurrentWorkspaceChangeTrackingContexts())
+                               .setParameter("language", config.getLanguage());
+            if (author != null) {
+                q.setParameter("author", author);
+            }
+            final List<RecentlyModifiedAsset> modified = toRecentlyModified(recentlyModifiedUniqueAssets,
+                    q.getResultList());
             loadLastEditors(modified);
             return modified;
         } catch (RuntimeException e) {
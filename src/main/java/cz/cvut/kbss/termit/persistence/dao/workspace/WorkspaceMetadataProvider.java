@@ -3,10 +3,12 @@ package cz.cvut.kbss.termit.persistence.dao.workspace;
 import cz.cvut.kbss.termit.dto.workspace.VocabularyInfo;
 import cz.cvut.kbss.termit.dto.workspace.WorkspaceMetadata;
 import cz.cvut.kbss.termit.model.Workspace;
+import cz.cvut.kbss.termit.persistence.dao.CanonicalCacheContainerDao;
 import cz.cvut.kbss.termit.workspace.WorkspaceStore;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -16,10 +18,13 @@ public abstract class WorkspaceMetadataProvider {
 
     protected final WorkspaceStore workspaceStore;
     protected final WorkspaceDao workspaceDao;
+    protected final CanonicalCacheContainerDao canonicalCacheContainerDao;
 
-    protected WorkspaceMetadataProvider(WorkspaceStore workspaceStore, WorkspaceDao workspaceDao) {
+    protected WorkspaceMetadataProvider(WorkspaceStore workspaceStore, WorkspaceDao workspaceDao,
+                                        CanonicalCacheContainerDao canonicalCacheContainerDao) {
         this.workspaceStore = workspaceStore;
         this.workspaceDao = workspaceDao;
+        this.canonicalCacheContainerDao = canonicalCacheContainerDao;
     }
 
     /**
@@ -38,6 +43,20 @@ public abstract class WorkspaceMetadataProvider {
      */
     public abstract WorkspaceMetadata getWorkspaceMetadata(URI workspaceUri);
 
+    /**
+     * Gets unique vocabulary contexts referenced by the canonical cache container with respect to the specified
+     * workspace.
+     * <p>
+     * That is, canonical container vocabulary contexts whose working versions are not in the specified workspace.
+     * <p>
+     * The returned set can be freely modified by the caller.
+     *
+     * @param workspace Workspace whose working versions should be filtered out
+     * @return Set of context identifiers
+     * @see CanonicalCacheContainerDao#findUniqueCanonicalCacheContexts(Workspace)
+     */
+    public abstract Set<URI> getCanonicalContainerContexts(Workspace workspace);
+
     /**
      * Gets the currently loaded workspace.
      *
@@ -0,0 +1,60 @@
+package cz.cvut.kbss.termit.persistence.validation;
+
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Adds RDF4J statements passed to this handler directly into a Jena {@link Graph}.
+ * <p>
+ * This allows to transfer data from an RDF4J repository to Jena without serializing them into text and parsing them
+ * back. Contexts of the statements are ignored, i.e., all statements end up in the target graph.
+ */
+class Rdf4jToJenaGraphHandler extends AbstractRDFHandler {
+
+    private final Graph graph;
+
+    private final TypeMapper typeMapper = TypeMapper.getInstance();
+
+    /**
+     * Blank nodes need to be mapped consistently across statements.
+     */
+    private final Map<String, Node> blankNodes = new HashMap<>();
+
+    Rdf4jToJenaGraphHandler(Graph graph) {
+        this.graph = Objects.requireNonNull(graph);
+    }
+
+    @Override
+    public void handleStatement(Statement st) {
+        graph.add(Triple.create(toNode(st.getSubject()), toNode(st.getPredicate()), toNode(st.getObject())));
+    }
+
+    Node toNode(Value value) {
+        if (value instanceof IRI) {
+            return NodeFactory.createURI(value.stringValue());
+        } else if (value instanceof BNode) {
+            return blankNodes.computeIfAbsent(((BNode) value).getID(), id -> NodeFactory.createBlankNode());
+        }
+        assert value instanceof Literal;
+        final Literal literal = (Literal) value;
+        if (literal.getLanguage().isPresent()) {
+            return NodeFactory.createLiteral(literal.getLabel(), literal.getLanguage().get());
+        }
+        final RDFDatatype datatype = typeMapper.getSafeTypeByName(literal.getDatatype().stringValue());
+        return NodeFactory.createLiteral(literal.getLabel(), datatype);
+    }
+}
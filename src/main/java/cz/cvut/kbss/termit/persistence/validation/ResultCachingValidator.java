@@ -9,11 +9,23 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.topbraid.shacl.vocabulary.SH;
 
 import java.net.URI;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Caches validation results per set of validated vocabularies.
+ * <p>
+ * Validation results depend on the whole set of vocabularies validated together (a vocabulary and its imports), so
+ * they are cached for each such set separately. Within a set, results are cached for each term of a vocabulary. When a
+ * term is modified, only the term (and nodes of its vocabulary which are not terms) is re-validated on the next
+ * validation, results for the other terms are taken from the cache.
+ */
 @Component("cachingValidator")
 @Primary
 @Profile("!no-cache")
@@ -21,12 +33,79 @@ public class ResultCachingValidator implements VocabularyContentValidator {
 
     private static final Logger LOG = LoggerFactory.getLogger(ResultCachingValidator.class);
 
-    private final Map<Collection<URI>, List<ValidationResult>> validationCache = new ConcurrentHashMap<>();
+    private static final List<URI> SEVERITY_ORDER = Arrays.asList(URI.create(SH.Violation.getURI()),
+            URI.create(SH.Warning.getURI()), URI.create(SH.Info.getURI()));
+
+    /**
+     * Cached validation results mapped by the set of validated vocabulary contexts and then by vocabulary context
+     * identifier.
+     */
+    private final Map<Set<URI>, Map<URI, VocabularyResults>> validationCache = new ConcurrentHashMap<>();
+
+    private final AtomicLong modificationCounter = new AtomicLong();
 
     @Override
     public List<ValidationResult> validate(Collection<URI> vocabularyIris) {
-        final Set<URI> copy = new HashSet<>(vocabularyIris);    // Defensive copy
-        return new ArrayList<>(validationCache.computeIfAbsent(copy, (uris) -> getValidator().validate(vocabularyIris)));
+        final Map<URI, VocabularyResults> cached = validationCache
+                .computeIfAbsent(Collections.unmodifiableSet(new HashSet<>(vocabularyIris)),
+                        k -> new ConcurrentHashMap<>());
+        // Results of a set of vocabularies are read and updated as a whole, so validation of the same set is serialized
+        synchronized (cached) {
+            final Map<URI, VocabularyResults> entries = new HashMap<>();
+            final Set<URI> toValidate = new HashSet<>();
+            final Map<URI, Map<URI, Long>> modifiedTerms = new HashMap<>();
+            for (URI context : vocabularyIris) {
+                final VocabularyResults entry = cached.computeIfAbsent(context, c -> new VocabularyResults());
+                entries.put(context, entry);
+                if (!entry.complete) {
+                    toValidate.add(context);
+                } else if (!entry.modifiedTerms.isEmpty()) {
+                    modifiedTerms.put(context, new HashMap<>(entry.modifiedTerms));
+                }
+            }
+            if (!toValidate.isEmpty() || !modifiedTerms.isEmpty()) {
+                final Set<URI> terms = modifiedTerms.values().stream().flatMap(m -> m.keySet().stream())
+                                                    .collect(Collectors.toSet());
+                final Map<URI, Validator.ContextResults> results = getValidator()
+                        .validate(vocabularyIris, toValidate, terms);
+                entries.forEach((context, entry) -> {
+                    final Validator.ContextResults contextResults = results.get(context);
+                    if (contextResults != null && contextResults.getVocabulary() != null) {
+                        entry.vocabulary = contextResults.getVocabulary();
+                    }
+                    if (toValidate.contains(context)) {
+                        entry.termResults.clear();
+                        entry.otherResults.clear();
+                        if (contextResults != null) {
+                            entry.termResults.putAll(contextResults.getTermResults());
+                            entry.otherResults.putAll(contextResults.getOtherResults());
+                        }
+                        entry.complete = true;
+                    } else {
+                        final Map<URI, Long> modified = modifiedTerms.getOrDefault(context, Collections.emptyMap());
+                        modified.keySet().forEach(entry.termResults::remove);
+                        if (contextResults != null) {
+                            entry.termResults.putAll(contextResults.getTermResults());
+                            entry.otherResults.clear();
+                            entry.otherResults.putAll(contextResults.getOtherResults());
+                        }
+                        // Terms modified again during validation remain marked as modified
+                        modified.forEach(entry.modifiedTerms::remove);
+                    }
+                });
+            }
+            return entries.values().stream()
+                          .flatMap(e -> Stream.concat(e.termResults.values().stream(),
+                                  e.otherResults.values().stream()))
+                          .flatMap(List::stream)
+                          .sorted(Comparator.comparingInt(ResultCachingValidator::severityRank))
+                          .collect(Collectors.toList());
+        }
+    }
+
+    private static int severityRank(ValidationResult result) {
+        final int index = SEVERITY_ORDER.indexOf(result.getSeverity());
+        return index >= 0 ? index : SEVERITY_ORDER.size();
     }
 
     @Lookup
@@ -36,7 +115,55 @@ public class ResultCachingValidator implements VocabularyContentValidator {
 
     @EventListener
     public void evictCache(VocabularyContentModified event) {
-        LOG.debug("Vocabulary content modified, evicting validation result cache.");
-        validationCache.clear();
+        if (event.getVocabularyIri() == null) {
+            LOG.debug("Vocabulary content modified, evicting validation result cache.");
+            validationCache.clear();
+            return;
+        }
+        LOG.debug("Content of vocabulary {} modified, evicting its validation results.", event.getVocabularyIri());
+        validationCache.values().forEach(entries -> entries.forEach((context, entry) -> {
+            if (entry.vocabulary == null) {
+                // Not known which vocabulary the results belong to, so they may be outdated
+                entries.remove(context, entry);
+            } else if (entry.vocabulary.equals(event.getVocabularyIri())) {
+                if (event.getTermIri() == null) {
+                    entries.remove(context, entry);
+                } else {
+                    LOG.trace("Term {} modified, marking it for re-validation.", event.getTermIri());
+                    entry.modifiedTerms.put(event.getTermIri(), modificationCounter.incrementAndGet());
+                }
+            }
+        }));
+    }
+
+    /**
+     * Validation results of nodes of a single vocabulary.
+     */
+    private static class VocabularyResults {
+
+        /**
+         * Identifier of the vocabulary, known once the vocabulary has been validated.
+         */
+        private volatile URI vocabulary;
+
+        /**
+         * Validation results mapped by term identifier.
+         */
+        private final Map<URI, List<ValidationResult>> termResults = new ConcurrentHashMap<>();
+
+        /**
+         * Validation results of nodes which are not terms, mapped by node identifier.
+         */
+        private final Map<URI, List<ValidationResult>> otherResults = new ConcurrentHashMap<>();
+
+        /**
+         * Terms modified since they were validated, mapped to the sequence number of their last modification.
+         */
+        private final Map<URI, Long> modifiedTerms = new ConcurrentHashMap<>();
+
+        /**
+         * Whether all nodes of the vocabulary have been validated.
+         */
+        private volatile boolean complete;
     }
 }
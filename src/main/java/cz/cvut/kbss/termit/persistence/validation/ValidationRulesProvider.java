@@ -0,0 +1,139 @@
+package cz.cvut.kbss.termit.persistence.validation;
+
+import cz.cvut.kbss.termit.exception.TermItException;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphReadOnly;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.topbraid.jenax.util.ARQFactory;
+import org.topbraid.shacl.arq.SHACLFunctions;
+import org.topbraid.shacl.engine.ShapesGraph;
+import org.topbraid.shacl.util.SHACLUtil;
+import org.topbraid.shacl.validation.ValidationEngine;
+import org.topbraid.shacl.validation.ValidationEngineConfiguration;
+import org.topbraid.shacl.validation.ValidationEngineFactory;
+import org.topbraid.shacl.validation.ValidationUtil;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Provides the SHACL shapes used for vocabulary content validation.
+ * <p>
+ * The rules are selected and parsed once, the resulting shapes model is read-only and shared by all validations.
+ * The shapes graph compiled from the model is shared as well, so that validation engines do not have to analyze the
+ * shapes again.
+ */
+@Component
+public class ValidationRulesProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ValidationRulesProvider.class);
+
+    private volatile RuleSet ruleSet;
+
+    @PostConstruct
+    public void reload() {
+        LOG.debug("Loading validation rules.");
+        final List<URL> rules = selectRules();
+        final Model shapes = ModelFactory.createDefaultModel();
+        for (URL rule : rules) {
+            try (final InputStream in = rule.openStream()) {
+                shapes.read(in, rule.toString(), "TURTLE");
+            } catch (IOException e) {
+                throw new TermItException("Unable to load validation rules from " + rule, e);
+            }
+        }
+        final Model readOnlyShapes = ModelFactory.createModelForGraph(new GraphReadOnly(shapes.getGraph()));
+        final Model shapesModel = ValidationUtil.ensureToshTriplesExist(readOnlyShapes);
+        SHACLFunctions.registerFunctions(shapesModel);
+        final ShapesGraph shapesGraph = new ShapesGraph(shapesModel);
+        // Resolve the root shapes eagerly, so that concurrent validations do not compute them again
+        shapesGraph.getRootShapes();
+        this.ruleSet = new RuleSet(Collections.unmodifiableList(rules), readOnlyShapes, shapesModel, shapesGraph);
+        LOG.info("Loaded {} validation rules with {} statements.", rules.size(), shapes.size());
+    }
+
+    private static List<URL> selectRules() {
+        final com.github.sgov.server.Validator validator = new com.github.sgov.server.Validator();
+        final List<URL> rules = new ArrayList<>();
+        rules.addAll(
+            validator.getGlossaryRules().stream()
+                // filtering out rules which are covered by TermIt UI
+                .filter( r -> !r.toString().contains("g1.ttl") )
+                .filter( r -> !r.toString().contains("g3.ttl") )
+                .filter( r -> !r.toString().contains("g7.ttl") )
+                .filter( r -> !r.toString().contains("g8.ttl") )
+                .collect(Collectors.toList())
+        );
+        rules.addAll(
+                // currently only using content rules, not OntoUml, as TermIt does not support adding
+                // OntoUml rules
+                validator.getModelRules().stream().filter(r ->
+                        r.toString().contains("m1.ttl") || r.toString().contains("m2.ttl"))
+                        .collect(Collectors.toList())
+        );
+        return rules;
+    }
+
+    /**
+     * Gets the shapes model used for validation.
+     *
+     * @return Read-only shapes model
+     */
+    public Model getShapes() {
+        return ruleSet.shapes;
+    }
+
+    /**
+     * Gets locations of the validation rules the shapes were loaded from.
+     *
+     * @return Unmodifiable list of rule locations
+     */
+    public List<URL> getRules() {
+        return ruleSet.rules;
+    }
+
+    /**
+     * Creates a validation engine validating the specified data against the loaded shapes.
+     * <p>
+     * The engine reuses the shared shapes graph instead of building a new one.
+     *
+     * @param dataModel Data to validate
+     * @return New validation engine
+     */
+    public ValidationEngine createValidationEngine(Model dataModel) {
+        final RuleSet current = ruleSet;
+        final Dataset dataset = ARQFactory.get().getDataset(dataModel);
+        dataset.addNamedModel(current.shapesGraphUri.toString(), current.shapesModel);
+        final ValidationEngine engine = ValidationEngineFactory.get()
+                                                               .create(dataset, current.shapesGraphUri,
+                                                                       current.shapesGraph, null);
+        engine.setConfiguration(new ValidationEngineConfiguration().setValidateShapes(true));
+        return engine;
+    }
+
+    private static class RuleSet {
+        private final List<URL> rules;
+        private final Model shapes;
+        private final URI shapesGraphUri = SHACLUtil.createRandomShapesGraphURI();
+        private final Model shapesModel;
+        private final ShapesGraph shapesGraph;
+
+        private RuleSet(List<URL> rules, Model shapes, Model shapesModel, ShapesGraph shapesGraph) {
+            this.rules = rules;
+            this.shapes = shapes;
+            this.shapesModel = shapesModel;
+            this.shapesGraph = shapesGraph;
+        }
+    }
+}
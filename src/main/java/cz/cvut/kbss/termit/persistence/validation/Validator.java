@@ -5,30 +5,31 @@ import cz.cvut.kbss.jopa.model.EntityManager;
 import cz.cvut.kbss.jopa.model.MultilingualString;
 import cz.cvut.kbss.termit.exception.TermItException;
 import cz.cvut.kbss.termit.model.validation.ValidationResult;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.graph.GraphFactory;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.SKOS;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
-import org.eclipse.rdf4j.rio.turtle.TurtleWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
-import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import org.topbraid.shacl.validation.ValidationEngine;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.net.URI;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -41,76 +42,240 @@ public class Validator implements VocabularyContentValidator {
     private final org.eclipse.rdf4j.repository.Repository repository;
     private final ValueFactory vf;
 
+    private final ValidationRulesProvider rulesProvider;
+
     @Autowired
-    public Validator(EntityManager em) {
+    public Validator(EntityManager em, ValidationRulesProvider rulesProvider) {
         this.repository = em.unwrap(org.eclipse.rdf4j.repository.Repository.class);
         vf = repository.getValueFactory();
+        this.rulesProvider = rulesProvider;
     }
 
-    private Model getModelFromRdf4jRepository(final Collection<URI> vocabularyIris)
-            throws IOException {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        final OutputStreamWriter writer = new OutputStreamWriter(baos, StandardCharsets.UTF_8);
-        final RepositoryConnection c = repository.getConnection();
-        final List<IRI> iris = new ArrayList<>();
-        vocabularyIris.forEach(i -> iris.add(vf.createIRI(i.toString())));
-        c.export(new TurtleWriter(writer), iris.toArray(new IRI[]{}));
-        writer.close();
-        final byte[] savedData = baos.toByteArray();
-        final ByteArrayInputStream bais = new ByteArrayInputStream(savedData);
-        org.apache.jena.rdf.model.Model model = ModelFactory.createDefaultModel();
-        model.read(bais, null, "TURTLE");
-        return model;
+    /**
+     * Loads content of the specified vocabularies into a Jena model.
+     *
+     * @param vocabularyIris Vocabulary context identifiers
+     * @param content        Collects information about nodes in the loaded data, optional
+     * @return Jena model containing the vocabulary data
+     */
+    private Model getModelFromRdf4jRepository(final Collection<URI> vocabularyIris, final ContentIndex content) {
+        final IRI[] contexts = vocabularyIris.stream().map(i -> vf.createIRI(i.toString())).toArray(IRI[]::new);
+        final Graph graph = GraphFactory.createDefaultGraph();
+        try (final RepositoryConnection c = repository.getConnection()) {
+            c.export(new Rdf4jToJenaGraphHandler(graph) {
+                @Override
+                public void handleStatement(Statement st) {
+                    super.handleStatement(st);
+                    if (content != null && st.getContext() != null) {
+                        content.add(st, toNode(st.getSubject()), toNode(st.getObject()));
+                    }
+                }
+            }, contexts);
+        }
+        if (content != null) {
+            content.resolveObjectOwners();
+        }
+        return ModelFactory.createModelForGraph(graph);
     }
 
     @Transactional
     @Override
     public List<ValidationResult> validate(final Collection<URI> vocabularyIris) {
         LOG.debug("Validating {}", vocabularyIris);
-        final com.github.sgov.server.Validator validator = new com.github.sgov.server.Validator();
-        final Set<URL> rules = new HashSet<>();
-        rules.addAll(
-            validator.getGlossaryRules().stream()
-                // filtering out rules which are covered by TermIt UI
-                .filter( r -> !r.toString().contains("g1.ttl") )
-                .filter( r -> !r.toString().contains("g3.ttl") )
-                .filter( r -> !r.toString().contains("g7.ttl") )
-                .filter( r -> !r.toString().contains("g8.ttl") )
-                .collect(Collectors.toList())
-        );
-        rules.addAll(
-                // currently only using content rules, not OntoUml, as TermIt does not support adding
-                // OntoUml rules
-                validator.getModelRules().stream().filter(r ->
-                        r.toString().contains("m1.ttl") || r.toString().contains("m2.ttl"))
-                        .collect(Collectors.toList())
-        );
+        try {
+            final Model model = getModelFromRdf4jRepository(vocabularyIris, null);
+            final ValidationEngine engine = rulesProvider.createValidationEngine(model);
+            engine.validateAll();
+            LOG.debug("Done.");
+            return engine.getValidationReport().results().stream()
+                         .sorted(new ValidationResultSeverityComparator()).map(Validator::toValidationResult)
+                         .collect(Collectors.toList());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TermItException("Validation of vocabularies " + vocabularyIris + " was interrupted.", e);
+        }
+    }
 
+    /**
+     * Validates selected terms of the specified vocabularies.
+     * <p>
+     * Content of all the specified vocabularies is used for the validation, but only nodes of vocabularies in {@code
+     * vocabulariesToValidate} and terms from {@code termsToValidate} are validated as focus nodes. Nodes which are not
+     * terms (e.g., the vocabulary or its glossary) are validated together with any re-validated term of the same
+     * vocabulary, so that results for them are never outdated.
+     * <p>
+     * Each focus node belongs to the vocabulary context in which it is the subject of a statement (or, if it is
+     * never a subject, in which it is the object of a statement).
+     *
+     * @param vocabularyIris         Identifiers of vocabulary contexts whose content is validated together
+     * @param vocabulariesToValidate Identifiers of vocabulary contexts all of whose nodes should be validated
+     * @param termsToValidate        Identifiers of other terms to validate
+     * @return Validation results mapped by identifier of the vocabulary context containing the validated nodes. Only
+     * contexts whose nodes were validated are present in the result. Validated terms without any issues are mapped to
+     * empty lists, terms not found in the validated vocabularies are not present in the result
+     */
+    @Transactional
+    public Map<URI, ContextResults> validate(final Collection<URI> vocabularyIris,
+                                             final Collection<URI> vocabulariesToValidate,
+                                             final Collection<URI> termsToValidate) {
+        LOG.debug("Validating terms of {} and terms {} in {}", vocabulariesToValidate, termsToValidate,
+                vocabularyIris);
+        final ContentIndex content = new ContentIndex();
         try {
-            final Model model = getModelFromRdf4jRepository(vocabularyIris);
-            org.topbraid.shacl.validation.ValidationReport report = validator.validate(model, rules);
+            final Model model = getModelFromRdf4jRepository(vocabularyIris, content);
+            final Set<URI> validatedContexts = new HashSet<>(vocabulariesToValidate);
+            content.owners.forEach((node, context) -> {
+                if (content.terms.contains(node) && termsToValidate.contains(toUri(node))) {
+                    validatedContexts.add(context);
+                }
+            });
+            final Map<URI, ContextResults> result = new HashMap<>();
+            validatedContexts.stream().filter(vocabularyIris::contains).forEach(
+                    ctx -> result.put(ctx, new ContextResults(content.vocabularies.get(ctx))));
+            final ValidationEngine engine = rulesProvider.createValidationEngine(model);
+            for (Map.Entry<Node, URI> e : content.owners.entrySet()) {
+                final Node node = e.getKey();
+                final boolean term = content.terms.contains(node);
+                if (vocabulariesToValidate.contains(e.getValue()) ||
+                        (term ? termsToValidate.contains(toUri(node)) : validatedContexts.contains(e.getValue()))) {
+                    if (term) {
+                        result.get(e.getValue()).termResults.put(toUri(node), new ArrayList<>());
+                    }
+                    engine.validateNode(node);
+                }
+            }
             LOG.debug("Done.");
-            return report.results().stream()
-                    .sorted(new ValidationResultSeverityComparator()).map(result -> {
-                        final URI termUri = URI.create(result.getFocusNode().toString());
-                        final URI severity = URI.create(result.getSeverity().getURI());
-                        final URI errorUri = result.getSourceShape().isURIResource() ?
-                                URI.create(result.getSourceShape().getURI()) : null;
-                        final URI resultPath = result.getPath() != null && result.getPath().isURIResource() ?
-                                URI.create(result.getPath().getURI()) : null;
-                        final MultilingualString messages = new MultilingualString(result.getMessages().stream()
-                                .map(RDFNode::asLiteral)
-                                .collect(Collectors.toMap(Literal::getLanguage, Literal::getLexicalForm)));
-
-                        return new ValidationResult()
-                                .setTermUri(termUri)
-                                .setIssueCauseUri(errorUri)
-                                .setMessage(messages)
-                                .setSeverity(severity)
-                                .setResultPath(resultPath);
-                    }).collect(Collectors.toList());
-        } catch (IOException e) {
-            throw new TermItException("Validation of vocabularies " + vocabularyIris + " failed.", e);
+            for (org.topbraid.shacl.validation.ValidationResult r : engine.getValidationReport().results()) {
+                final URI context = content.owners.get(r.getFocusNode().asNode());
+                if (context == null || !result.containsKey(context)) {
+                    continue;
+                }
+                final ValidationResult vr = toValidationResult(r);
+                final ContextResults contextResults = result.get(context);
+                (content.terms.contains(r.getFocusNode().asNode()) ? contextResults.termResults :
+                 contextResults.otherResults).computeIfAbsent(vr.getTermUri(), k -> new ArrayList<>()).add(vr);
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TermItException("Validation of vocabularies " + vocabularyIris + " was interrupted.", e);
+        }
+    }
+
+    private static URI toUri(Node node) {
+        return URI.create(node.isURI() ? node.getURI() : node.getBlankNodeLabel());
+    }
+
+    private static ValidationResult toValidationResult(org.topbraid.shacl.validation.ValidationResult result) {
+        final URI termUri = URI.create(result.getFocusNode().toString());
+        final URI severity = URI.create(result.getSeverity().getURI());
+        final URI errorUri = result.getSourceShape().isURIResource() ?
+                URI.create(result.getSourceShape().getURI()) : null;
+        final URI resultPath = result.getPath() != null && result.getPath().isURIResource() ?
+                URI.create(result.getPath().getURI()) : null;
+        final MultilingualString messages = new MultilingualString(result.getMessages().stream()
+                .map(RDFNode::asLiteral)
+                .collect(Collectors.toMap(Literal::getLanguage, Literal::getLexicalForm)));
+
+        return new ValidationResult()
+                .setTermUri(termUri)
+                .setIssueCauseUri(errorUri)
+                .setMessage(messages)
+                .setSeverity(severity)
+                .setResultPath(resultPath);
+    }
+
+    /**
+     * Validation results of nodes of a single vocabulary context.
+     */
+    public static class ContextResults {
+
+        private final URI vocabulary;
+
+        private final Map<URI, List<ValidationResult>> termResults = new HashMap<>();
+
+        private final Map<URI, List<ValidationResult>> otherResults = new HashMap<>();
+
+        public ContextResults(URI vocabulary) {
+            this.vocabulary = vocabulary;
+        }
+
+        /**
+         * Gets identifier of the vocabulary stored in the context.
+         *
+         * @return Vocabulary identifier, {@code null} if it is not known
+         */
+        public URI getVocabulary() {
+            return vocabulary;
+        }
+
+        /**
+         * Gets validation results of validated terms, mapped by term identifier.
+         *
+         * @return Map of term identifiers to validation results
+         */
+        public Map<URI, List<ValidationResult>> getTermResults() {
+            return termResults;
+        }
+
+        /**
+         * Gets validation results of validated nodes which are not terms, mapped by node identifier.
+         * <p>
+         * Nodes without any issues are not present in the map.
+         *
+         * @return Map of node identifiers to validation results
+         */
+        public Map<URI, List<ValidationResult>> getOtherResults() {
+            return otherResults;
+        }
+    }
+
+    /**
+     * Information about nodes of the validated data, collected while the data are loaded.
+     */
+    private static class ContentIndex {
+
+        private static final IRI VOCABULARY_TYPE = SimpleValueFactory.getInstance()
+                                                                     .createIRI(cz.cvut.kbss.termit.util.Vocabulary.s_c_slovnik);
+
+        /**
+         * Nodes mapped to the vocabulary context they belong to.
+         */
+        private final Map<Node, URI> owners = new HashMap<>();
+
+        private final Map<Node, URI> objectOwners = new HashMap<>();
+
+        /**
+         * Nodes which are terms.
+         */
+        private final Set<Node> terms = new HashSet<>();
+
+        /**
+         * Vocabulary identifiers mapped by vocabulary context.
+         */
+        private final Map<URI, URI> vocabularies = new HashMap<>();
+
+        private void add(Statement st, Node subject, Node object) {
+            final URI context = URI.create(st.getContext().stringValue());
+            owners.putIfAbsent(subject, context);
+            if (st.getObject() instanceof Resource) {
+                objectOwners.putIfAbsent(object, context);
+            }
+            if (RDF.TYPE.equals(st.getPredicate()) && st.getSubject() instanceof IRI) {
+                if (SKOS.CONCEPT.equals(st.getObject())) {
+                    terms.add(subject);
+                } else if (VOCABULARY_TYPE.equals(st.getObject())) {
+                    vocabularies.putIfAbsent(context, URI.create(st.getSubject().stringValue()));
+                }
+            }
+        }
+
+        /**
+         * Nodes which are never subjects belong to the context in which they are objects.
+         */
+        private void resolveObjectOwners() {
+            objectOwners.forEach(owners::putIfAbsent);
+            objectOwners.clear();
         }
     }
 }
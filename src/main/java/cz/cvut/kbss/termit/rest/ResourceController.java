@@ -18,6 +18,7 @@
 package cz.cvut.kbss.termit.rest;
 
 import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.termit.dto.TextAnalysisJob;
 import cz.cvut.kbss.termit.dto.assignment.ResourceTermAssignments;
 import cz.cvut.kbss.termit.exception.TermItException;
 import cz.cvut.kbss.termit.model.Term;
@@ -26,6 +27,7 @@ import cz.cvut.kbss.termit.model.TextAnalysisRecord;
 import cz.cvut.kbss.termit.model.changetracking.AbstractChangeRecord;
 import cz.cvut.kbss.termit.model.resource.File;
 import cz.cvut.kbss.termit.model.resource.Resource;
+import cz.cvut.kbss.termit.rest.util.RestUtils;
 import cz.cvut.kbss.termit.security.SecurityConstants;
 import cz.cvut.kbss.termit.service.IdentifierResolver;
 import cz.cvut.kbss.termit.service.business.ResourceService;
@@ -107,20 +109,16 @@ public class ResourceController extends BaseController {
             @RequestParam(name = QueryParams.NAMESPACE, required = false) Optional<String> namespace,
             @RequestParam(name = "attachment", required = false) boolean asAttachment) {
         final Resource resource = getResource(normalizedName, namespace);
-        try {
-            final TypeAwareResource content = resourceService.getContent(resource);
-            final ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
-                                                                     .contentLength(content.contentLength())
-                                                                     .contentType(MediaType.parseMediaType(
-                                                                             content.getMediaType()
-                                                                                    .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE)));
-            if (asAttachment) {
-                builder.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + normalizedName + "\"");
-            }
-            return builder.body(content);
-        } catch (IOException e) {
-            throw new TermItException("Unable to load content of resource " + resource, e);
+        final TypeAwareResource content = resourceService.getContent(resource);
+        // Content length is determined by the message converters, which also handle range requests
+        final ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                                                                 .contentType(MediaType.parseMediaType(
+                                                                         content.getMediaType()
+                                                                                .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE)));
+        if (asAttachment) {
+            builder.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + normalizedName + "\"");
         }
+        return builder.body(content);
     }
 
     @PutMapping(value = "/{normalizedName}/content")
@@ -211,6 +209,46 @@ public class ResourceController extends BaseController {
         LOG.debug("Text analysis finished for resource {}.", resource);
     }
 
+    /**
+     * Submits text analysis of the specified resource to be run in the background.
+     * <p>
+     * If the resource is a document, all its files are analyzed.
+     *
+     * @param normalizedName Normalized name used to identify the resource
+     * @param namespace      Namespace used for resource identifier resolution. Optional, if not specified, the
+     *                       configured namespace is used
+     * @param vocabularies   Identifiers of vocabularies to be used as sources of Terms for the text analysis
+     * @return the submitted text analysis job, its location is specified in the response headers
+     */
+    @PostMapping(value = "/{normalizedName}/text-analysis/jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('" + SecurityConstants.ROLE_FULL_USER + "')")
+    public ResponseEntity<TextAnalysisJob> submitTextAnalysis(@PathVariable String normalizedName,
+                                                              @RequestParam(name = QueryParams.NAMESPACE, required = false) Optional<String> namespace,
+                                                              @RequestParam(name = "vocabulary", required = false, defaultValue = "") Set<URI> vocabularies) {
+        final Resource resource = getResource(normalizedName, namespace);
+        final TextAnalysisJob job = resourceService.submitTextAnalysis(resource, vocabularies);
+        LOG.debug("Text analysis of resource {} submitted as job {}.", resource, job.getId());
+        return textAnalysisJobAccepted(job);
+    }
+
+    static ResponseEntity<TextAnalysisJob> textAnalysisJobAccepted(TextAnalysisJob job) {
+        return ResponseEntity.accepted()
+                             .location(RestUtils.createLocationFromCurrentContextWithPath(
+                                     "/resources/text-analysis/jobs/{jobId}", job.getId()))
+                             .body(job);
+    }
+
+    /**
+     * Gets state of a background text analysis job.
+     *
+     * @param jobId text analysis job identifier
+     * @return text analysis job
+     */
+    @GetMapping(value = "/text-analysis/jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TextAnalysisJob getTextAnalysisJob(@PathVariable String jobId) {
+        return resourceService.findTextAnalysisJob(jobId);
+    }
+
     /**
      * Gets the latest text analysis record for the specified resource.
      *
@@ -4,7 +4,6 @@ import cz.cvut.kbss.jsonld.JsonLd;
 import cz.cvut.kbss.termit.dto.assignment.TermAssignments;
 import cz.cvut.kbss.termit.dto.listing.TermDto;
 import cz.cvut.kbss.termit.exception.NotFoundException;
-import cz.cvut.kbss.termit.exception.TermItException;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.model.assignment.TermDefinitionSource;
@@ -16,7 +15,9 @@ import cz.cvut.kbss.termit.security.SecurityConstants;
 import cz.cvut.kbss.termit.service.IdentifierResolver;
 import cz.cvut.kbss.termit.service.business.TermService;
 import cz.cvut.kbss.termit.util.*;
+import cz.cvut.kbss.termit.util.Constants.BinaryRdf;
 import cz.cvut.kbss.termit.util.Constants.Excel;
+import cz.cvut.kbss.termit.util.Constants.NTriples;
 import cz.cvut.kbss.termit.util.Constants.QueryParams;
 import cz.cvut.kbss.termit.util.Constants.Turtle;
 import org.slf4j.Logger;
@@ -29,10 +30,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
 import java.net.URI;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @RestController
@@ -53,33 +56,74 @@ public class TermController extends BaseController {
         return resolveIdentifier(namespace.orElse(config.getNamespace().getVocabulary()), fragment);
     }
 
+    /**
+     * Checks whether the client already has the current version of the requested terms.
+     * <p>
+     * The check is based on the specified timestamp of last modification of the terms, so that it does not require
+     * repository access. If the terms have been modified, weak entity tag and last modification headers are set on the
+     * response.
+     *
+     * @param webRequest   Current request
+     * @param lastModified Timestamp of last modification of the requested terms
+     * @return {@code true} if the client has the current version and response with status 304 should be returned
+     */
+    private boolean isNotModified(ServletWebRequest webRequest, long lastModified) {
+        final String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        final String etag = "W/\"" + termService.getContentTag(lastModified) + "-" +
+                Integer.toHexString(Objects.hashCode(accept)) + "\"";
+        if (webRequest.getResponse() != null) {
+            webRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return webRequest.checkNotModified(etag, lastModified);
+    }
+
     /**
      * Used to retrieve terms from the current workspace, regardless of vocabularies.
+     * <p>
+     * If a cursor is provided (an empty one denotes the first page), the page following it is returned and cursor of
+     * the next page is returned in the {@link Constants#X_NEXT_CURSOR_HEADER} header. In this case, page number is
+     * ignored.
      *
      * @param searchString Search string used to filter terms by (using label) - optional
      * @param pageSize     Size of the page to return (applies only if no search string is provided) - optional
      * @param pageNo       Number of the page to return (applies only if no search string is provided) - optional
+     * @param cursor       Cursor of the page to return (applies only if no search string is provided) - optional
      * @return List of terms matching the specified parameters
      */
     @GetMapping(value = "/terms", produces = {JsonLd.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
-    public List<TermDto> getAll(@RequestParam(required = false) String searchString,
-                                @RequestParam(required = false, defaultValue = "false") boolean rootsOnly,
-                                @RequestParam(name = QueryParams.PAGE_SIZE, required = false) Integer pageSize,
-                                @RequestParam(name = QueryParams.PAGE, required = false) Integer pageNo) {
+    public ResponseEntity<List<TermDto>> getAll(@RequestParam(required = false) String searchString,
+                                                @RequestParam(required = false, defaultValue = "false") boolean rootsOnly,
+                                                @RequestParam(name = QueryParams.PAGE_SIZE, required = false) Integer pageSize,
+                                                @RequestParam(name = QueryParams.PAGE, required = false) Integer pageNo,
+                                                @RequestParam(name = QueryParams.CURSOR, required = false) String cursor,
+                                                ServletWebRequest webRequest) {
+        if (isNotModified(webRequest, termService.getLastModified())) {
+            return null;
+        }
         if (searchString != null && !searchString.trim().isEmpty()) {
-            return termService.findAll(searchString);
+            return ResponseEntity.ok(termService.findAll(searchString));
         }
         final Pageable pageSpec = createPageRequest(pageSize, pageNo);
-        return rootsOnly ? termService.findAllRoots(pageSpec) : termService.findAll(pageSpec);
+        if (cursor != null) {
+            final CursorPage<TermDto> page = rootsOnly ? termService.findAllRootsAfter(cursor, pageSpec.getPageSize()) :
+                                             termService.findAllAfter(cursor, pageSpec.getPageSize());
+            final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            page.getNextCursor().ifPresent(next -> response.header(Constants.X_NEXT_CURSOR_HEADER, next));
+            return response.body(page.getContent());
+        }
+        return ResponseEntity.ok(rootsOnly ? termService.findAllRoots(pageSpec) : termService.findAll(pageSpec));
     }
 
-
     @GetMapping(value = "/terms/workspace", produces = {JsonLd.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE})
     public List<TermDto> getAllFromWorkspace(@RequestParam(required = false) String searchString,
                                              @RequestParam(required = false) URI excludeVocabulary,
                                              @RequestParam(required = false, defaultValue = "false") boolean rootsOnly,
                                              @RequestParam(name = QueryParams.PAGE_SIZE, required = false) Integer pageSize,
-                                             @RequestParam(name = QueryParams.PAGE, required = false) Integer pageNo) {
+                                             @RequestParam(name = QueryParams.PAGE, required = false) Integer pageNo,
+                                             ServletWebRequest webRequest) {
+        if (isNotModified(webRequest, termService.getLastModified())) {
+            return null;
+        }
         final Pageable pageSpec = createPageRequest(pageSize, pageNo);
         return rootsOnly ? termService.findAllRootsInCurrentWorkspace(pageSpec, excludeVocabulary)
                 : termService.findAllInCurrentWorkspace(new PageAndSearchSpecification(pageSpec, searchString), excludeVocabulary);
@@ -89,7 +133,11 @@ public class TermController extends BaseController {
     public List<TermDto> getAllFromCanonical(@RequestParam(required = false) String searchString,
                                              @RequestParam(required = false, defaultValue = "false") boolean rootsOnly,
                                              @RequestParam(name = QueryParams.PAGE_SIZE, required = false) Integer pageSize,
-                                             @RequestParam(name = QueryParams.PAGE, required = false) Integer pageNo) {
+                                             @RequestParam(name = QueryParams.PAGE, required = false) Integer pageNo,
+                                             ServletWebRequest webRequest) {
+        if (isNotModified(webRequest, termService.getLastModified())) {
+            return null;
+        }
         final Pageable pageSpec = createPageRequest(pageSize, pageNo);
         return rootsOnly ? termService.findAllRootsInCanonical(pageSpec)
                 : termService.findAllInCanonical(new PageAndSearchSpecification(createPageRequest(pageSize, pageNo), searchString));
@@ -98,7 +146,7 @@ public class TermController extends BaseController {
     /**
      * Get all terms from vocabulary with the specified identification.
      * <p>
-     * This method also allows to export the terms into CSV or Excel by using HTTP content type negotiation or filter
+     * This method also allows to export the terms into CSV, Excel or RDF (SKOS) by using HTTP content type negotiation or filter
      * terms by a search string.
      *
      * @param vocabularyIdFragment Vocabulary name
@@ -111,12 +159,18 @@ public class TermController extends BaseController {
                             JsonLd.MEDIA_TYPE,
                             CsvUtils.MEDIA_TYPE,
                             Excel.MEDIA_TYPE,
-                            Turtle.MEDIA_TYPE})
+                            Turtle.MEDIA_TYPE,
+                            NTriples.MEDIA_TYPE,
+                            BinaryRdf.MEDIA_TYPE})
     public ResponseEntity<?> getAll(@PathVariable String vocabularyIdFragment,
                                     @RequestParam(name = QueryParams.NAMESPACE, required = false) Optional<String> namespace,
                                     @RequestParam(name = "searchString", required = false) String searchString,
-                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptType) {
+                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptType,
+                                    ServletWebRequest webRequest) {
         final URI vocabularyUri = getVocabularyUri(namespace, vocabularyIdFragment);
+        if (isNotModified(webRequest, termService.getLastModified(vocabularyUri))) {
+            return null;
+        }
         final Vocabulary vocabulary = getVocabulary(vocabularyUri);
         if (searchString != null) {
             return ResponseEntity.ok(termService.findAll(searchString, vocabulary));
@@ -128,20 +182,13 @@ public class TermController extends BaseController {
 
     private Optional<ResponseEntity<?>> exportTerms(Vocabulary vocabulary, String fileName,
                                                     String mediaType) {
-        final Optional<TypeAwareResource> content = termService.exportGlossary(vocabulary, mediaType);
-        return content.map(r -> {
-            try {
-                return ResponseEntity.ok()
-                        .contentLength(r.contentLength())
-                        .contentType(MediaType.parseMediaType(mediaType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION,
-                                "attachment; filename=\"" + fileName +
-                                        r.getFileExtension().orElse("") + "\"")
-                        .body(r);
-            } catch (IOException e) {
-                throw new TermItException("Unable to export terms.", e);
-            }
-        });
+        final Optional<TypeAwareStreamingOutput> content = termService.streamGlossary(vocabulary, mediaType);
+        return content.map(r -> ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(mediaType))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName +
+                                r.getFileExtension().orElse("") + "\"")
+                .body((StreamingResponseBody) r::writeTo));
     }
 
     /**
@@ -196,8 +243,13 @@ public class TermController extends BaseController {
                                      @RequestParam(name = QueryParams.NAMESPACE, required = false) Optional<String> namespace,
                                      @RequestParam(name = QueryParams.PAGE_SIZE, required = false) Integer pageSize,
                                      @RequestParam(name = QueryParams.PAGE, required = false) Integer pageNo,
-                                     @RequestParam(name = "includeTerms", required = false, defaultValue = "") List<URI> includeTerms) {
-        final Vocabulary vocabulary = getVocabulary(getVocabularyUri(namespace, vocabularyIdFragment));
+                                     @RequestParam(name = "includeTerms", required = false, defaultValue = "") List<URI> includeTerms,
+                                     ServletWebRequest webRequest) {
+        final URI vocabularyUri = getVocabularyUri(namespace, vocabularyIdFragment);
+        if (isNotModified(webRequest, termService.getLastModified(vocabularyUri))) {
+            return null;
+        }
+        final Vocabulary vocabulary = getVocabulary(vocabularyUri);
         return termService.findAllRoots(vocabulary, createPageRequest(pageSize, pageNo), includeTerms);
     }
 
@@ -237,7 +289,15 @@ public class TermController extends BaseController {
                 produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
     public Term getById(@PathVariable("vocabularyIdFragment") String vocabularyIdFragment,
                         @PathVariable("termIdFragment") String termIdFragment,
-                        @RequestParam(name = QueryParams.NAMESPACE, required = false) Optional<String> namespace) {
+                        @RequestParam(name = QueryParams.NAMESPACE, required = false) Optional<String> namespace,
+                        ServletWebRequest webRequest) {
+        if (isNotModified(webRequest, termService.getLastModified(getVocabularyUri(namespace, vocabularyIdFragment)))) {
+            return null;
+        }
+        return findTerm(vocabularyIdFragment, termIdFragment, namespace);
+    }
+
+    private Term findTerm(String vocabularyIdFragment, String termIdFragment, Optional<String> namespace) {
         final URI termUri = getTermUri(vocabularyIdFragment, termIdFragment, namespace);
         return termService.findRequired(termUri);
     }
@@ -247,11 +307,15 @@ public class TermController extends BaseController {
      * <p>
      * This is a convenience method for accessing a Term without using its Vocabulary.
      *
-     * @see #getById(String, String, Optional<String>)
+     * @see #getById(String, String, Optional<String>, ServletWebRequest)
      */
     @GetMapping(value = "/terms/{termIdFragment}", produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
     public Term getById(@PathVariable("termIdFragment") String termIdFragment,
-                        @RequestParam(name = QueryParams.NAMESPACE) String namespace) {
+                        @RequestParam(name = QueryParams.NAMESPACE) String namespace,
+                        ServletWebRequest webRequest) {
+        if (isNotModified(webRequest, termService.getLastModified())) {
+            return null;
+        }
         final URI termUri = idResolver.resolveIdentifier(namespace, termIdFragment);
         return termService.findRequired(termUri);
     }
@@ -377,8 +441,12 @@ public class TermController extends BaseController {
                 produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
     public List<Term> getSubTerms(@PathVariable("vocabularyIdFragment") String vocabularyIdFragment,
                                   @PathVariable("termIdFragment") String termIdFragment,
-                                  @RequestParam(name = QueryParams.NAMESPACE, required = false) Optional<String> namespace) {
-        final Term parent = getById(vocabularyIdFragment, termIdFragment, namespace);
+                                  @RequestParam(name = QueryParams.NAMESPACE, required = false) Optional<String> namespace,
+                                  ServletWebRequest webRequest) {
+        if (isNotModified(webRequest, termService.getLastModified(getVocabularyUri(namespace, vocabularyIdFragment)))) {
+            return null;
+        }
+        final Term parent = findTerm(vocabularyIdFragment, termIdFragment, namespace);
         return termService.findSubTerms(parent);
     }
 
@@ -388,7 +456,11 @@ public class TermController extends BaseController {
     @GetMapping(value = "/terms/{termIdFragment}/subterms",
                 produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
     public List<Term> getSubTerms(@PathVariable("termIdFragment") String termIdFragment,
-                                  @RequestParam(name = QueryParams.NAMESPACE) String namespace) {
+                                  @RequestParam(name = QueryParams.NAMESPACE) String namespace,
+                                  ServletWebRequest webRequest) {
+        if (isNotModified(webRequest, termService.getLastModified())) {
+            return null;
+        }
         final URI termUri = idResolver.resolveIdentifier(namespace, termIdFragment);
         final Term parent = termService.getRequiredReference(termUri);
         return termService.findSubTerms(parent);
@@ -412,7 +484,7 @@ public class TermController extends BaseController {
                                               @RequestParam(name = QueryParams.NAMESPACE,
                                                             required = false) Optional<String> namespace,
                                               @RequestBody Term newTerm) {
-        final Term parent = getById(vocabularyIdFragment, parentIdFragment, namespace);
+        final Term parent = findTerm(vocabularyIdFragment, parentIdFragment, namespace);
         termService.persistChild(newTerm, parent);
         LOG.debug("Child term {} of parent {} created.", newTerm, parent);
         return ResponseEntity.created(createSubTermLocation(newTerm.getUri(), parentIdFragment)).build();
@@ -435,7 +507,7 @@ public class TermController extends BaseController {
                                               @RequestParam(name = QueryParams.NAMESPACE,
                                                             required = false) String namespace,
                                               @RequestBody Term newTerm) {
-        final Term parent = getById(parentIdFragment, namespace);
+        final Term parent = termService.findRequired(idResolver.resolveIdentifier(namespace, parentIdFragment));
         termService.persistChild(newTerm, parent);
         LOG.debug("Child term {} of parent {} created.", newTerm, parent);
         return ResponseEntity.created(createSubTermLocation(newTerm.getUri(), parentIdFragment)).build();
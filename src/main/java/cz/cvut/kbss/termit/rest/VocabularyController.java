@@ -15,11 +15,15 @@
 package cz.cvut.kbss.termit.rest;
 
 import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.termit.dto.TextAnalysisJob;
+import cz.cvut.kbss.termit.dto.validation.ValidationJob;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.model.changetracking.AbstractChangeRecord;
 import cz.cvut.kbss.termit.model.validation.ValidationResult;
+import cz.cvut.kbss.termit.rest.util.RestUtils;
 import cz.cvut.kbss.termit.security.SecurityConstants;
 import cz.cvut.kbss.termit.service.IdentifierResolver;
+import cz.cvut.kbss.termit.service.business.ResourceService;
 import cz.cvut.kbss.termit.service.business.VocabularyService;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Constants.QueryParams;
@@ -35,6 +39,7 @@ import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.net.URI;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -47,11 +52,14 @@ public class VocabularyController extends BaseController {
 
     private final VocabularyService vocabularyService;
 
+    private final ResourceService resourceService;
+
     @Autowired
-    public VocabularyController(VocabularyService vocabularyService, IdentifierResolver idResolver,
-                                Configuration config) {
+    public VocabularyController(VocabularyService vocabularyService, ResourceService resourceService,
+                                IdentifierResolver idResolver, Configuration config) {
         super(idResolver, config);
         this.vocabularyService = vocabularyService;
+        this.resourceService = resourceService;
     }
 
     @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
@@ -140,15 +148,24 @@ public class VocabularyController extends BaseController {
     }
 
     /**
-     * Gets the change history of a vocabulary content with the specified identification
+     * Gets the change history of a vocabulary content with the specified identification.
+     * <p>
+     * The changes can be paged and restricted to a time window given by {@code from} (inclusive) and {@code to}
+     * (exclusive) timestamps.
      */
     @GetMapping(value = "/{fragment}/history-of-content",
                 produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
     public List<AbstractChangeRecord> getHistoryOfContent(@PathVariable String fragment,
                                                           @RequestParam(name = QueryParams.NAMESPACE,
-                                                                        required = false) Optional<String> namespace) {
+                                                                        required = false) Optional<String> namespace,
+                                                          @RequestParam(name = QueryParams.PAGE_SIZE,
+                                                                        required = false) Integer pageSize,
+                                                          @RequestParam(name = QueryParams.PAGE,
+                                                                        required = false) Integer pageNo,
+                                                          @RequestParam(name = "from", required = false) Instant from,
+                                                          @RequestParam(name = "to", required = false) Instant to) {
         final Vocabulary vocabulary = vocabularyService.getRequiredReference(resolveVocabularyUri(fragment, namespace));
-        return vocabularyService.getChangesOfContent(vocabulary);
+        return vocabularyService.getChangesOfContent(vocabulary, createPageRequest(pageSize, pageNo), from, to);
     }
 
     @PutMapping(value = "/{fragment}", consumes = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
@@ -197,4 +214,75 @@ public class VocabularyController extends BaseController {
         final Vocabulary vocabulary = vocabularyService.getRequiredReference(identifier);
         return vocabularyService.validateContents(vocabulary);
     }
+
+    /**
+     * Submits validation of a vocabulary to be run in the background.
+     *
+     * @param fragment  vocabulary name
+     * @param namespace (optional) vocabulary namespace
+     * @return the submitted validation job, its location is specified in the response headers
+     */
+    @PreAuthorize("permitAll()")
+    @PostMapping(value = "/{fragment}/validate", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ValidationJob> submitVocabularyValidation(@PathVariable String fragment,
+                                                                    @RequestParam(name = QueryParams.NAMESPACE,
+                                                                                  required = false) Optional<String> namespace) {
+        final URI identifier = resolveIdentifier(namespace.orElse(config.getNamespace().getVocabulary()), fragment);
+        final Vocabulary vocabulary = vocabularyService.getRequiredReference(identifier);
+        final ValidationJob job = vocabularyService.submitContentValidation(vocabulary);
+        LOG.debug("Validation of vocabulary {} submitted as job {}.", vocabulary, job.getId());
+        return ResponseEntity.accepted()
+                             .location(RestUtils.createLocationFromCurrentContextWithPath(
+                                     "/vocabularies/validation/{jobId}", job.getId()))
+                             .body(job);
+    }
+
+    /**
+     * Gets state of a vocabulary validation job.
+     *
+     * @param jobId validation job identifier
+     * @return validation job
+     */
+    @PreAuthorize("permitAll()")
+    @GetMapping(value = "/validation/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ValidationJob getValidationJob(@PathVariable String jobId) {
+        return vocabularyService.findValidationJob(jobId);
+    }
+
+    /**
+     * Gets results of a finished vocabulary validation job.
+     * <p>
+     * Results of a job which is still queued or running (or which has failed) are not available, 409 Conflict is
+     * returned in that case. The job state can be checked via {@link #getValidationJob(String)}.
+     *
+     * @param jobId validation job identifier
+     * @return list of validation outcomes
+     */
+    @PreAuthorize("permitAll()")
+    @GetMapping(value = "/validation/{jobId}/results", produces = {MediaType.APPLICATION_JSON_VALUE,
+                                                                   JsonLd.MEDIA_TYPE})
+    public List<ValidationResult> getValidationJobResults(@PathVariable String jobId) {
+        return vocabularyService.getValidationJobResults(jobId);
+    }
+
+    /**
+     * Submits text analysis of all files of the document associated with a vocabulary to be run in the background.
+     * <p>
+     * The vocabulary and its imports are used as sources of terms for the analysis.
+     *
+     * @param fragment  vocabulary name
+     * @param namespace (optional) vocabulary namespace
+     * @return the submitted text analysis job, its location is specified in the response headers
+     */
+    @PostMapping(value = "/{fragment}/text-analysis/jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('" + SecurityConstants.ROLE_FULL_USER + "')")
+    public ResponseEntity<TextAnalysisJob> submitTextAnalysis(@PathVariable String fragment,
+                                                              @RequestParam(name = QueryParams.NAMESPACE,
+                                                                            required = false) Optional<String> namespace) {
+        final URI identifier = resolveIdentifier(namespace.orElse(config.getNamespace().getVocabulary()), fragment);
+        final Vocabulary vocabulary = vocabularyService.findRequired(identifier);
+        final TextAnalysisJob job = resourceService.submitTextAnalysis(vocabulary);
+        LOG.debug("Text analysis of vocabulary {} submitted as job {}.", vocabulary, job.getId());
+        return ResourceController.textAnalysisJobAccepted(job);
+    }
 }
@@ -192,6 +192,27 @@ public class RestExceptionHandler {
         return new ResponseEntity<>(errorInfo(request, e), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<ErrorInfo> validationJobRejected(HttpServletRequest request,
+                                                           ValidationJobRejectedException e) {
+        logException(e);
+        return new ResponseEntity<>(errorInfo(request, e), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorInfo> textAnalysisJobRejected(HttpServletRequest request,
+                                                             TextAnalysisJobRejectedException e) {
+        logException(e);
+        return new ResponseEntity<>(errorInfo(request, e), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorInfo> validationJobNotFinished(HttpServletRequest request,
+                                                              ValidationJobNotFinishedException e) {
+        logException(e);
+        return new ResponseEntity<>(errorInfo(request, e), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler
     public ResponseEntity<ErrorInfo> invalidParameter(HttpServletRequest request,
                                                       InvalidParameterException e) {
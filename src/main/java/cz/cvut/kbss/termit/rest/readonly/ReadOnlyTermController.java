@@ -10,9 +10,13 @@ import cz.cvut.kbss.termit.service.business.readonly.ReadOnlyTermService;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Constants;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.util.List;
@@ -25,29 +29,77 @@ import static cz.cvut.kbss.termit.security.SecurityConstants.PUBLIC_API_PATH;
 @RequestMapping(PUBLIC_API_PATH)
 public class ReadOnlyTermController extends BaseController {
 
+    private static final MediaType JSON_LD = MediaType.valueOf(JsonLd.MEDIA_TYPE);
+
     private final ReadOnlyTermService termService;
 
+    private final TermSnapshotCache snapshotCache;
+
     public ReadOnlyTermController(IdentifierResolver idResolver, Configuration config,
-                                  ReadOnlyTermService termService) {
+                                  ReadOnlyTermService termService, TermSnapshotCache snapshotCache) {
         super(idResolver, config);
         this.termService = termService;
+        this.snapshotCache = snapshotCache;
     }
 
     @GetMapping(value = "/vocabularies/{vocabularyIdFragment}/terms",
             produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
-    public List<?> getTerms(@PathVariable String vocabularyIdFragment,
-                            @RequestParam(name = Constants.QueryParams.NAMESPACE, required = false) Optional<String> namespace,
-                            @RequestParam(name = "searchString", required = false) String searchString) {
-        final Vocabulary vocabulary = getVocabulary(vocabularyIdFragment, namespace);
+    public ResponseEntity<?> getTerms(@PathVariable String vocabularyIdFragment,
+                                      @RequestParam(name = Constants.QueryParams.NAMESPACE, required = false) Optional<String> namespace,
+                                      @RequestParam(name = "searchString", required = false) String searchString,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptType,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                      ServletWebRequest webRequest) {
         if (searchString != null) {
-            return termService.findAll(searchString, vocabulary);
+            return ResponseEntity.ok(termService.findAll(searchString, getVocabulary(vocabularyIdFragment, namespace)));
         }
-        return termService.findAll(vocabulary);
+        final URI vocabularyUri = getVocabularyUri(vocabularyIdFragment, namespace);
+        final MediaType mediaType = resolveMediaType(acceptType);
+        // Version has to be determined before the terms are loaded, so that it is never newer than the snapshot
+        final long lastModified = termService.getLastModified(vocabularyUri);
+        final String contentTag = termService.getContentTag(lastModified);
+        if (webRequest.checkNotModified("W/\"" + contentTag + "-" + mediaType.getSubtype() + "\"", lastModified)) {
+            return null;
+        }
+        final TermSnapshotCache.Snapshot snapshot = snapshotCache.get(vocabularyUri,
+                termService.getCurrentWorkspaceUri().orElse(null), mediaType.toString(), contentTag,
+                () -> termService.findAll(termService.findVocabularyRequired(vocabularyUri)));
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(mediaType)
+                                                                  .header(HttpHeaders.VARY, HttpHeaders.ACCEPT,
+                                                                          HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                           .body((StreamingResponseBody) snapshot::writeCompressed);
+        }
+        return response.body((StreamingResponseBody) snapshot::write);
+    }
+
+    /**
+     * Resolves whether terms should be returned as JSON-LD or as plain JSON, based on the specified Accept header.
+     */
+    private static MediaType resolveMediaType(String acceptType) {
+        if (acceptType == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        final List<MediaType> accepted = MediaType.parseMediaTypes(acceptType);
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType mt : accepted) {
+            if (mt.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (mt.isCompatibleWith(JSON_LD)) {
+                return JSON_LD;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private URI getVocabularyUri(String fragment, Optional<String> namespace) {
+        return resolveIdentifier(namespace.orElse(config.getNamespace().getVocabulary()), fragment);
     }
 
     private Vocabulary getVocabulary(String fragment, Optional<String> namespace) {
-        final URI uri = resolveIdentifier(namespace.orElse(config.getNamespace().getVocabulary()), fragment);
-        return termService.findVocabularyRequired(uri);
+        return termService.findVocabularyRequired(getVocabularyUri(fragment, namespace));
     }
 
     @GetMapping(value = "/vocabularies/{vocabularyIdFragment}/terms/roots",
@@ -0,0 +1,198 @@
+package cz.cvut.kbss.termit.rest.readonly;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
+import cz.cvut.kbss.termit.exception.TermItException;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of rendered term listings served by the public (read-only) API.
+ * <p>
+ * Term listings of a vocabulary are serialized into JSON or JSON-LD once and kept gzip-compressed. Snapshots are
+ * identified by workspace and content tag, which changes whenever terms of the vocabulary change, so that an outdated
+ * snapshot is never served. A snapshot is rendered only once per content tag, requests arriving while it is being
+ * rendered wait for the result instead of loading the terms again. The least recently used snapshots are discarded
+ * when the configured cache size is exceeded.
+ */
+@Component
+public class TermSnapshotCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TermSnapshotCache.class);
+
+    private final ObjectMapper jsonMapper;
+
+    private final ObjectMapper jsonLdMapper;
+
+    private final Map<Key, CompletableFuture<Snapshot>> snapshots;
+
+    @Autowired
+    public TermSnapshotCache(@Qualifier("objectMapper") ObjectMapper jsonMapper,
+                             @Qualifier("jsonLdMapper") ObjectMapper jsonLdMapper, Configuration config) {
+        this.jsonMapper = jsonMapper;
+        this.jsonLdMapper = jsonLdMapper;
+        final int capacity = config.getPublicApi().getSnapshotCacheSize();
+        this.snapshots = new LinkedHashMap<Key, CompletableFuture<Snapshot>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CompletableFuture<Snapshot>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets snapshot of terms of the specified vocabulary rendered in the specified media type.
+     * <p>
+     * If there is no snapshot corresponding to the specified workspace and content tag, it is rendered from terms
+     * provided by the specified loader.
+     *
+     * @param vocabularyUri Vocabulary identifier
+     * @param workspaceUri  Identifier of the workspace in which the terms are loaded, {@code null} if there is none
+     * @param mediaType     Media type of the snapshot, JSON or JSON-LD
+     * @param contentTag    Tag identifying the current content of the vocabulary
+     * @param loader        Supplies terms to render
+     * @return Snapshot
+     */
+    public Snapshot get(URI vocabularyUri, URI workspaceUri, String mediaType, String contentTag,
+                        Supplier<List<?>> loader) {
+        Objects.requireNonNull(loader);
+        final Key key = new Key(vocabularyUri, workspaceUri, mediaType, contentTag);
+        final CompletableFuture<Snapshot> future;
+        final boolean render;
+        synchronized (snapshots) {
+            final CompletableFuture<Snapshot> existing = snapshots.get(key);
+            render = existing == null;
+            future = render ? new CompletableFuture<>() : existing;
+            if (render) {
+                snapshots.put(key, future);
+            }
+        }
+        if (render) {
+            try {
+                future.complete(render(mediaType, loader.get()));
+                LOG.trace("Rendered {} snapshot of terms of vocabulary {}.", mediaType, vocabularyUri);
+            } catch (RuntimeException e) {
+                // Do not keep failures, the next request will try again
+                synchronized (snapshots) {
+                    snapshots.remove(key, future);
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Snapshot render(String mediaType, List<?> terms) {
+        final ObjectMapper mapper = JsonLd.MEDIA_TYPE.equals(mediaType) ? jsonLdMapper : jsonMapper;
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (final OutputStream out = new GZIPOutputStream(bos)) {
+            mapper.writeValue(out, terms);
+        } catch (IOException e) {
+            throw new TermItException("Unable to render terms snapshot.", e);
+        }
+        return new Snapshot(bos.toByteArray());
+    }
+
+    @EventListener
+    public void onInvalidateCaches(InvalidateCachesEvent event) {
+        synchronized (snapshots) {
+            snapshots.clear();
+        }
+    }
+
+    /**
+     * Rendered term listing.
+     */
+    public static class Snapshot {
+
+        private final byte[] compressed;
+
+        private Snapshot(byte[] compressed) {
+            this.compressed = compressed;
+        }
+
+        /**
+         * Writes the gzip-compressed content of the snapshot into the specified stream.
+         *
+         * @param out Stream to write to
+         */
+        public void writeCompressed(OutputStream out) throws IOException {
+            out.write(compressed);
+        }
+
+        /**
+         * Writes the uncompressed content of the snapshot into the specified stream.
+         *
+         * @param out Stream to write to
+         */
+        public void write(OutputStream out) throws IOException {
+            try (final InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+                StreamUtils.copy(in, out);
+            }
+        }
+    }
+
+    private static class Key {
+
+        private final URI vocabularyUri;
+
+        private final URI workspaceUri;
+
+        private final String mediaType;
+
+        private final String contentTag;
+
+        private Key(URI vocabularyUri, URI workspaceUri, String mediaType, String contentTag) {
+            this.vocabularyUri = Objects.requireNonNull(vocabularyUri);
+            this.workspaceUri = workspaceUri;
+            this.mediaType = Objects.requireNonNull(mediaType);
+            this.contentTag = Objects.requireNonNull(contentTag);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return vocabularyUri.equals(key.vocabularyUri) && Objects.equals(workspaceUri, key.workspaceUri) &&
+                    mediaType.equals(key.mediaType) && contentTag.equals(key.contentTag);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(vocabularyUri, workspaceUri, mediaType, contentTag);
+        }
+    }
+}
@@ -16,20 +16,42 @@ package cz.cvut.kbss.termit.service.business;
 
 import cz.cvut.kbss.termit.dto.RecentlyCommentedAsset;
 import cz.cvut.kbss.termit.dto.RecentlyModifiedAsset;
+import cz.cvut.kbss.termit.event.AssetModifiedEvent;
+import cz.cvut.kbss.termit.event.ChangeRecordsWrittenEvent;
+import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
+import cz.cvut.kbss.termit.event.VocabularyContentModified;
 import cz.cvut.kbss.termit.model.User;
+import cz.cvut.kbss.termit.service.comment.LastCommentIndex;
 import cz.cvut.kbss.termit.service.repository.ResourceRepositoryService;
 import cz.cvut.kbss.termit.service.repository.TermRepositoryService;
 import cz.cvut.kbss.termit.service.repository.VocabularyRepositoryService;
 import cz.cvut.kbss.termit.service.security.SecurityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AssetService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AssetService.class);
+
+    /**
+     * Maximum number of recently edited assets kept in memory for each workspace.
+     * <p>
+     * Requests for more assets are always served from the repository.
+     */
+    static final int RECENTLY_EDITED_CACHE_CAPACITY = 100;
+
     private final ResourceRepositoryService resourceRepositoryService;
 
     private final TermRepositoryService termRepositoryService;
@@ -38,30 +60,116 @@ public class AssetService {
 
     private final SecurityUtils securityUtils;
 
+    private final WorkspaceService workspaceService;
+
+    private final LastCommentIndex lastCommentIndex;
+
+    /**
+     * Recently edited assets mapped by workspace identifier. Guarded by this.
+     * <p>
+     * This is not a ring buffer updated in place on each modification. Entries are workspace-scoped and contain labels
+     * in the configured language, which modification events do not carry, so the assets of all workspaces are
+     * evicted on a modification and loaded again by the next request.
+     */
+    private final Map<URI, RecentlyEdited> recentlyEdited = new HashMap<>();
+
+    /**
+     * Incremented on each invalidation, so that assets loaded concurrently with a modification are not cached. Guarded
+     * by this.
+     */
+    private long recentlyEditedVersion;
+
     @Autowired
     public AssetService(ResourceRepositoryService resourceRepositoryService,
                         TermRepositoryService termRepositoryService,
                         VocabularyRepositoryService vocabularyRepositoryService,
-                        SecurityUtils securityUtils) {
+                        SecurityUtils securityUtils, WorkspaceService workspaceService,
+                        LastCommentIndex lastCommentIndex) {
         this.resourceRepositoryService = resourceRepositoryService;
         this.termRepositoryService = termRepositoryService;
         this.vocabularyRepositoryService = vocabularyRepositoryService;
         this.securityUtils = securityUtils;
+        this.workspaceService = workspaceService;
+        this.lastCommentIndex = lastCommentIndex;
     }
 
     /**
      * Finds the specified number of most recently added/edited assets.
+     * <p>
+     * Results are kept in memory for each workspace until an asset is modified, so repeated requests (e.g., from the
+     * dashboard) do not touch the repository.
      *
      * @param limit Maximum number of assets to retrieve
      * @return List of recently added/edited assets
      */
     public List<RecentlyModifiedAsset> findLastEdited(int limit) {
         ensureValidLimitForLastEdited(limit);
+        if (limit > RECENTLY_EDITED_CACHE_CAPACITY) {
+            return loadLastEdited(limit);
+        }
+        final URI workspace = workspaceService.getCurrentWorkspace().getUri();
+        final long version;
+        synchronized (this) {
+            final RecentlyEdited cached = recentlyEdited.get(workspace);
+            if (cached != null && cached.limit >= limit) {
+                return new ArrayList<>(cached.assets.subList(0, Math.min(cached.assets.size(), limit)));
+            }
+            version = recentlyEditedVersion;
+        }
+        final List<RecentlyModifiedAsset> result = loadLastEdited(limit);
+        synchronized (this) {
+            if (version == recentlyEditedVersion) {
+                recentlyEdited.put(workspace, new RecentlyEdited(limit, new ArrayList<>(result)));
+            }
+        }
+        return result;
+    }
+
+    private List<RecentlyModifiedAsset> loadLastEdited(int limit) {
         final List<RecentlyModifiedAsset> resources = resourceRepositoryService.findLastEdited(limit);
         final List<RecentlyModifiedAsset> terms = termRepositoryService.findLastEdited(limit);
         final List<RecentlyModifiedAsset> vocabularies = vocabularyRepositoryService.findLastEdited(limit);
         final List<RecentlyModifiedAsset> result = mergeAssets(mergeAssets(resources, terms), vocabularies);
-        return result.subList(0, Math.min(result.size(), limit));
+        return new ArrayList<>(result.subList(0, Math.min(result.size(), limit)));
+    }
+
+    /**
+     * Evicts recently edited assets kept in memory once a modification of an asset is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssetModified(AssetModifiedEvent event) {
+        LOG.trace("Asset {} modified, evicting recently edited assets.", event.getAssetIri());
+        evictRecentlyEdited();
+    }
+
+    /**
+     * Evicts recently edited assets kept in memory once content of a vocabulary (including term removal) is
+     * committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVocabularyContentModified(VocabularyContentModified event) {
+        evictRecentlyEdited();
+    }
+
+    /**
+     * Evicts recently edited assets kept in memory once change records are written into the repository.
+     * <p>
+     * Change records are written asynchronously, so assets loaded between a modification and the write of its change
+     * record would otherwise stay outdated.
+     */
+    @EventListener
+    public void onChangeRecordsWritten(ChangeRecordsWrittenEvent event) {
+        evictRecentlyEdited();
+    }
+
+    @EventListener
+    public void onInvalidateCaches(InvalidateCachesEvent event) {
+        evictRecentlyEdited();
+    }
+
+    private synchronized void evictRecentlyEdited() {
+        recentlyEditedVersion++;
+        recentlyEdited.clear();
     }
 
     /**
@@ -72,7 +180,7 @@ public class AssetService {
      */
     public List<RecentlyCommentedAsset> findLastCommented(int limit) {
         ensureValidLimitForLastCommented(limit);
-        final List<RecentlyCommentedAsset> result = termRepositoryService.findLastCommented(limit);
+        final List<RecentlyCommentedAsset> result = lastCommentIndex.findLastCommented(limit);
         return result.subList(0, Math.min(result.size(), limit));
     }
 
@@ -133,7 +241,7 @@ public class AssetService {
     public List<RecentlyCommentedAsset> findLastCommentedInReactionToMine(int limit) {
         ensureValidLimitForLastCommented(limit);
         final User me = securityUtils.getCurrentUser().toUser();
-        final List<RecentlyCommentedAsset> result = termRepositoryService.findLastCommentedInReaction(me, limit);
+        final List<RecentlyCommentedAsset> result = lastCommentIndex.findLastCommentedInReaction(me, limit);
         return result.subList(0, Math.min(result.size(), limit));
     }
 
@@ -146,7 +254,7 @@ public class AssetService {
     public List<RecentlyCommentedAsset> findMyLastCommented(int limit) {
         ensureValidLimitForLastCommented(limit);
         final User me = securityUtils.getCurrentUser().toUser();
-        final List<RecentlyCommentedAsset> result = termRepositoryService.findMyLastCommented(me, limit);
+        final List<RecentlyCommentedAsset> result = lastCommentIndex.findMyLastCommented(me, limit);
         return result.subList(0, Math.min(result.size(), limit));
     }
 
@@ -155,4 +263,17 @@ public class AssetService {
             throw new IllegalArgumentException("Maximum for recently commented assets must not be less than 0.");
         }
     }
+
+    private static class RecentlyEdited {
+        /**
+         * Number of assets requested when the assets were loaded.
+         */
+        private final int limit;
+        private final List<RecentlyModifiedAsset> assets;
+
+        private RecentlyEdited(int limit, List<RecentlyModifiedAsset> assets) {
+            this.limit = limit;
+            this.assets = Collections.unmodifiableList(assets);
+        }
+    }
 }
@@ -15,7 +15,9 @@
 package cz.cvut.kbss.termit.service.business;
 
 import cz.cvut.kbss.termit.asset.provenance.SupportsLastModification;
+import cz.cvut.kbss.termit.dto.TextAnalysisJob;
 import cz.cvut.kbss.termit.dto.assignment.ResourceTermAssignments;
+import cz.cvut.kbss.termit.event.AssetModifiedEvent;
 import cz.cvut.kbss.termit.event.DocumentRenameEvent;
 import cz.cvut.kbss.termit.event.FileRenameEvent;
 import cz.cvut.kbss.termit.exception.InvalidParameterException;
@@ -31,6 +33,7 @@ import cz.cvut.kbss.termit.model.resource.File;
 import cz.cvut.kbss.termit.model.resource.Resource;
 import cz.cvut.kbss.termit.service.changetracking.ChangeRecordProvider;
 import cz.cvut.kbss.termit.service.document.DocumentManager;
+import cz.cvut.kbss.termit.service.document.TextAnalysisJobService;
 import cz.cvut.kbss.termit.service.document.TextAnalysisService;
 import cz.cvut.kbss.termit.service.repository.ChangeRecordService;
 import cz.cvut.kbss.termit.service.repository.ResourceRepositoryService;
@@ -64,6 +67,8 @@ public class ResourceService
 
     private final TextAnalysisService textAnalysisService;
 
+    private final TextAnalysisJobService textAnalysisJobService;
+
     private final VocabularyService vocabularyService;
 
     private final ChangeRecordService changeRecordService;
@@ -72,11 +77,12 @@ public class ResourceService
 
     @Autowired
     public ResourceService(ResourceRepositoryService repositoryService, DocumentManager documentManager,
-                           TextAnalysisService textAnalysisService, VocabularyService vocabularyService,
-                           ChangeRecordService changeRecordService) {
+                           TextAnalysisService textAnalysisService, TextAnalysisJobService textAnalysisJobService,
+                           VocabularyService vocabularyService, ChangeRecordService changeRecordService) {
         this.repositoryService = repositoryService;
         this.documentManager = documentManager;
         this.textAnalysisService = textAnalysisService;
+        this.textAnalysisJobService = textAnalysisJobService;
         this.vocabularyService = vocabularyService;
         this.changeRecordService = changeRecordService;
     }
@@ -107,6 +113,7 @@ public class ResourceService
         final Resource actualToRemove = getRequiredReference(toRemove.getUri());
         documentManager.remove(actualToRemove);
         repositoryService.remove(actualToRemove);
+        eventPublisher.publishEvent(new AssetModifiedEvent(this, actualToRemove.getUri()));
     }
 
     /**
@@ -298,6 +305,87 @@ public class ResourceService
         }
     }
 
+    /**
+     * Submits text analysis of the specified resource's content to be run in the background.
+     * <p>
+     * If the resource is a Document, all its files are analyzed. The specified vocabulary identifiers represent sources
+     * of Terms for the text analysis. If not provided, the Vocabulary associated with the file's Document is used as the
+     * Term source.
+     *
+     * @param resource     Resource to analyze, a Document or a File
+     * @param vocabularies Set of identifiers of vocabularies to use as Term sources for the analysis. Possibly empty
+     * @return Text analysis job
+     * @throws UnsupportedAssetOperationException If text analysis is not supported for the specified resource
+     */
+    public TextAnalysisJob submitTextAnalysis(Resource resource, Set<URI> vocabularies) {
+        Objects.requireNonNull(resource);
+        Objects.requireNonNull(vocabularies);
+        final List<File> files;
+        final Document document;
+        if (resource instanceof Document) {
+            files = getFiles(resource);
+            document = (Document) resource;
+        } else if (resource instanceof File) {
+            files = Collections.singletonList((File) resource);
+            document = ((File) resource).getDocument();
+        } else {
+            throw new UnsupportedAssetOperationException("Text analysis is not supported for resource " + resource);
+        }
+        final Set<URI> sources;
+        if (vocabularies.isEmpty()) {
+            if (document == null || document.getVocabulary() == null) {
+                throw new UnsupportedAssetOperationException(
+                        "Cannot analyze files without specifying vocabulary context.");
+            }
+            sources = includeImportedVocabularies(Collections.singleton(document.getVocabulary()));
+        } else {
+            sources = includeImportedVocabularies(vocabularies);
+        }
+        final Map<File, Set<URI>> toAnalyze = new LinkedHashMap<>();
+        files.forEach(f -> toAnalyze.put(f, sources));
+        return submitTextAnalysisJob(resource.getUri(), toAnalyze);
+    }
+
+    private TextAnalysisJob submitTextAnalysisJob(URI target, Map<File, Set<URI>> files) {
+        if (files.isEmpty()) {
+            throw new UnsupportedAssetOperationException("There are no files to analyze in " + target + ".");
+        }
+        LOG.trace("Submitting text analysis of {} files of {}.", files.size(), target);
+        return textAnalysisJobService.submit(target, files);
+    }
+
+    /**
+     * Submits text analysis of all files of the Document associated with the specified Vocabulary.
+     * <p>
+     * The Vocabulary and its imports are used as Term sources for the text analysis.
+     *
+     * @param vocabulary Vocabulary whose Document should be analyzed
+     * @return Text analysis job
+     * @throws UnsupportedAssetOperationException If the vocabulary has no Document or the Document has no files
+     */
+    public TextAnalysisJob submitTextAnalysis(Vocabulary vocabulary) {
+        Objects.requireNonNull(vocabulary);
+        if (vocabulary.getDocument() == null) {
+            throw new UnsupportedAssetOperationException(
+                    "Vocabulary " + vocabulary + " has no document whose files could be analyzed.");
+        }
+        final Set<URI> sources = includeImportedVocabularies(Collections.singleton(vocabulary.getUri()));
+        final Map<File, Set<URI>> toAnalyze = new LinkedHashMap<>();
+        getFiles(vocabulary.getDocument()).forEach(f -> toAnalyze.put(f, sources));
+        return submitTextAnalysisJob(vocabulary.getUri(), toAnalyze);
+    }
+
+    /**
+     * Gets text analysis job with the specified identifier.
+     *
+     * @param jobId Job identifier
+     * @return Text analysis job
+     * @throws NotFoundException When the job does not exist or is no longer retained
+     */
+    public TextAnalysisJob findTextAnalysisJob(String jobId) {
+        return textAnalysisJobService.findRequired(jobId);
+    }
+
     private Set<URI> includeImportedVocabularies(Set<URI> providedVocabularies) {
         final Set<URI> result = new HashSet<>(providedVocabularies);
         providedVocabularies.forEach(uri -> {
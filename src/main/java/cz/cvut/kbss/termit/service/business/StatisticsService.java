@@ -1,20 +1,43 @@
 package cz.cvut.kbss.termit.service.business;
 
 import cz.cvut.kbss.termit.dto.statistics.TermFrequencyDto;
+import cz.cvut.kbss.termit.dto.workspace.WorkspaceMetadata;
+import cz.cvut.kbss.termit.event.AssetModifiedEvent;
+import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
+import cz.cvut.kbss.termit.event.VocabularyContentModified;
+import cz.cvut.kbss.termit.exception.workspace.VocabularyNotInWorkspaceException;
 import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.model.Workspace;
 import cz.cvut.kbss.termit.persistence.dao.statistics.StatisticsDao;
 import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceMetadataProvider;
 import cz.cvut.kbss.termit.service.language.LanguageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.net.URI;
-import java.util.List;
-import java.util.Objects;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Provides statistics of the content of the current workspace.
+ * <p>
+ * Statistics are computed once and kept in memory. When content of a vocabulary is modified, only statistics of that
+ * vocabulary are recomputed on the next request. Each statistic specifies when it was computed. Copies of the cached
+ * statistics are returned, so that callers cannot modify them.
+ */
 @Service
 public class StatisticsService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(StatisticsService.class);
+
     private final WorkspaceMetadataProvider wsMetadataProvider;
 
     private final VocabularyService vocabularyService;
@@ -23,6 +46,21 @@ public class StatisticsService {
 
     private final StatisticsDao statisticsDao;
 
+    /**
+     * Term frequency statistics mapped by workspace identifier.
+     */
+    private final Map<URI, TermFrequencyStatistics> termFrequency = new ConcurrentHashMap<>();
+
+    /**
+     * Term type frequency statistics mapped by vocabulary identifier and workspace identifier.
+     */
+    private final Map<URI, Map<URI, List<TermFrequencyDto>>> termTypeFrequency = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on every modification, so that statistics computed concurrently with a modification are not cached.
+     */
+    private final AtomicLong modificationCounter = new AtomicLong();
+
     @Autowired
     public StatisticsService(WorkspaceMetadataProvider wsMetadataProvider,
                              VocabularyService vocabularyService,
@@ -40,7 +78,39 @@ public class StatisticsService {
      * @return List of term frequency DTOs
      */
     public List<TermFrequencyDto> getTermFrequencyStatistics() {
-        return statisticsDao.getTermFrequencyStatistics(wsMetadataProvider.getCurrentWorkspace());
+        final WorkspaceMetadata metadata = wsMetadataProvider.getCurrentWorkspaceMetadata();
+        final Workspace workspace = metadata.getWorkspace();
+        final Set<URI> contexts = metadata.getVocabularyContexts();
+        final TermFrequencyStatistics cached = termFrequency.get(workspace.getUri());
+        if (cached != null && cached.contexts.equals(contexts)) {
+            return cached.get(vocabulary -> loadTermFrequency(workspace, vocabulary));
+        }
+        final long modification = modificationCounter.get();
+        final List<TermFrequencyDto> result = computed(statisticsDao.getTermFrequencyStatistics(workspace));
+        if (modification == modificationCounter.get()) {
+            LOG.trace("Caching term frequency statistics of workspace {}.", workspace);
+            termFrequency.put(workspace.getUri(), new TermFrequencyStatistics(contexts, copy(result)));
+        }
+        return result;
+    }
+
+    private Optional<TermFrequencyDto> loadTermFrequency(Workspace workspace, URI vocabulary) {
+        LOG.trace("Recomputing term frequency of vocabulary {}.", vocabulary);
+        try {
+            return computed(statisticsDao.getTermFrequencyStatistics(workspace, vocabulary)).stream().findFirst();
+        } catch (VocabularyNotInWorkspaceException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static List<TermFrequencyDto> copy(List<TermFrequencyDto> statistics) {
+        return statistics.stream().map(TermFrequencyDto::new).collect(Collectors.toList());
+    }
+
+    private static List<TermFrequencyDto> computed(List<TermFrequencyDto> statistics) {
+        final Instant now = Instant.now();
+        statistics.forEach(dto -> dto.setComputedAt(now));
+        return statistics;
     }
 
     /**
@@ -51,7 +121,20 @@ public class StatisticsService {
      */
     public List<TermFrequencyDto> getTermTypeFrequencyStatistics(Vocabulary vocabulary) {
         Objects.requireNonNull(vocabulary);
-        return statisticsDao.getTermTypeFrequencyStatistics(wsMetadataProvider.getCurrentWorkspace(), vocabulary, languageService.getLeafTypes());
+        final Workspace workspace = wsMetadataProvider.getCurrentWorkspace();
+        final List<TermFrequencyDto> cached = termTypeFrequency
+                .getOrDefault(vocabulary.getUri(), Collections.emptyMap()).get(workspace.getUri());
+        if (cached != null) {
+            return copy(cached);
+        }
+        final long modification = modificationCounter.get();
+        final List<TermFrequencyDto> result = computed(
+                statisticsDao.getTermTypeFrequencyStatistics(workspace, vocabulary, languageService.getLeafTypes()));
+        if (modification == modificationCounter.get()) {
+            termTypeFrequency.computeIfAbsent(vocabulary.getUri(), k -> new ConcurrentHashMap<>())
+                             .put(workspace.getUri(), copy(result));
+        }
+        return result;
     }
 
     /**
@@ -63,4 +146,105 @@ public class StatisticsService {
     public Vocabulary getRequiredVocabulary(URI vocabularyId) {
         return vocabularyService.getRequiredReference(vocabularyId);
     }
+
+    /**
+     * Marks statistics of the modified vocabulary for recomputation once the modification is committed.
+     * <p>
+     * If the vocabulary is not known, all statistics are evicted.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVocabularyContentModified(VocabularyContentModified event) {
+        modificationCounter.incrementAndGet();
+        final URI vocabulary = event.getVocabularyIri();
+        if (vocabulary == null) {
+            LOG.debug("Vocabulary content modified, evicting statistics.");
+            evict();
+            return;
+        }
+        LOG.trace("Content of vocabulary {} modified, marking its statistics for recomputation.", vocabulary);
+        termFrequency.values().forEach(s -> s.markStale(vocabulary));
+        termTypeFrequency.remove(vocabulary);
+    }
+
+    /**
+     * Marks term frequency of the modified vocabulary for recomputation once the modification is committed, so that
+     * its label is up to date.
+     * <p>
+     * Modifications of assets other than vocabularies with computed statistics are ignored.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssetModified(AssetModifiedEvent event) {
+        modificationCounter.incrementAndGet();
+        termFrequency.values().forEach(s -> s.markStaleIfPresent(event.getAssetIri()));
+    }
+
+    @EventListener
+    public void onInvalidateCaches(InvalidateCachesEvent event) {
+        modificationCounter.incrementAndGet();
+        evict();
+    }
+
+    private void evict() {
+        termFrequency.clear();
+        termTypeFrequency.clear();
+    }
+
+    /**
+     * Term frequency statistics of a single workspace.
+     */
+    private static class TermFrequencyStatistics {
+
+        /**
+         * Vocabulary contexts of the workspace at the time the statistics were computed.
+         */
+        private final Set<URI> contexts;
+
+        /**
+         * Term frequency mapped by vocabulary identifier.
+         */
+        private final Map<URI, TermFrequencyDto> statistics = new ConcurrentHashMap<>();
+
+        /**
+         * Vocabularies whose term frequency has to be recomputed.
+         */
+        private final Set<URI> stale = ConcurrentHashMap.newKeySet();
+
+        private TermFrequencyStatistics(Set<URI> contexts, List<TermFrequencyDto> statistics) {
+            this.contexts = new HashSet<>(contexts);
+            statistics.forEach(dto -> this.statistics.put(dto.getId(), dto));
+        }
+
+        private void markStale(URI vocabulary) {
+            stale.add(vocabulary);
+        }
+
+        private void markStaleIfPresent(URI vocabulary) {
+            if (statistics.containsKey(vocabulary)) {
+                stale.add(vocabulary);
+            }
+        }
+
+        /**
+         * Gets the statistics, recomputing term frequency of stale vocabularies first.
+         */
+        private synchronized List<TermFrequencyDto> get(
+                Function<URI, Optional<TermFrequencyDto>> loader) {
+            for (URI vocabulary : new ArrayList<>(stale)) {
+                // Remove before recomputing, so that a concurrent modification marks the vocabulary stale again
+                stale.remove(vocabulary);
+                final Optional<TermFrequencyDto> recomputed = loader.apply(vocabulary);
+                if (recomputed.isPresent()) {
+                    statistics.put(vocabulary, recomputed.get());
+                } else {
+                    statistics.remove(vocabulary);
+                }
+            }
+            return statistics.values().stream()
+                             .sorted((a, b) -> !a.getCount().equals(b.getCount()) ?
+                                               Integer.compare(b.getCount(), a.getCount()) :
+                                               String.valueOf(a.getLabel()).compareTo(String.valueOf(b.getLabel())))
+                             .map(TermFrequencyDto::new)
+                             .collect(Collectors.toList());
+        }
+    }
 }
@@ -3,6 +3,8 @@ package cz.cvut.kbss.termit.service.business;
 import cz.cvut.kbss.termit.dto.assignment.TermAssignments;
 import cz.cvut.kbss.termit.dto.listing.TermDto;
 import cz.cvut.kbss.termit.exception.NotFoundException;
+import cz.cvut.kbss.termit.exception.TermItException;
+import cz.cvut.kbss.termit.exception.workspace.WorkspaceNotSetException;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.model.assignment.TermDefinitionSource;
@@ -15,14 +17,19 @@ import cz.cvut.kbss.termit.service.comment.CommentService;
 import cz.cvut.kbss.termit.service.export.VocabularyExporters;
 import cz.cvut.kbss.termit.service.repository.ChangeRecordService;
 import cz.cvut.kbss.termit.service.repository.TermRepositoryService;
+import cz.cvut.kbss.termit.util.CursorPage;
 import cz.cvut.kbss.termit.util.PageAndSearchSpecification;
 import cz.cvut.kbss.termit.util.TypeAwareResource;
+import cz.cvut.kbss.termit.util.TypeAwareStreamingOutput;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -34,6 +41,13 @@ import java.util.Optional;
 @Service
 public class TermService implements RudService<Term>, ChangeRecordProvider<Term> {
 
+    private static final String CONTENT_TAG_DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Number of bytes of the workspace identifier digest used in content tags.
+     */
+    private static final int CONTENT_TAG_DIGEST_LENGTH = 16;
+
     private final VocabularyExporters exporters;
 
     private final VocabularyService vocabularyService;
@@ -46,17 +60,20 @@ public class TermService implements RudService<Term>, ChangeRecordProvider<Term>
 
     private final CommentService commentService;
 
+    private final WorkspaceService workspaceService;
+
     @Autowired
     public TermService(VocabularyExporters exporters, VocabularyService vocabularyService,
                        TermRepositoryService repositoryService,
                        TermOccurrenceService termOccurrenceService, ChangeRecordService changeRecordService,
-                       CommentService commentService) {
+                       CommentService commentService, WorkspaceService workspaceService) {
         this.exporters = exporters;
         this.vocabularyService = vocabularyService;
         this.repositoryService = repositoryService;
         this.termOccurrenceService = termOccurrenceService;
         this.changeRecordService = changeRecordService;
         this.commentService = commentService;
+        this.workspaceService = workspaceService;
     }
 
     /**
@@ -73,6 +90,86 @@ public class TermService implements RudService<Term>, ChangeRecordProvider<Term>
         return exporters.exportVocabularyGlossary(vocabulary, mediaType);
     }
 
+    /**
+     * Attempts to get a streaming export of glossary terms from the specified vocabulary as the specified media type.
+     * <p>
+     * The export is generated when it is written into an output stream, so that it does not have to be held in memory.
+     * <p>
+     * If export into the specified media type is not supported, an empty {@link Optional} is returned.
+     *
+     * @param vocabulary Vocabulary to export
+     * @param mediaType  Expected media type of the export
+     * @return Streaming export wrapped in an {@code Optional}
+     */
+    public Optional<TypeAwareStreamingOutput> streamGlossary(Vocabulary vocabulary, String mediaType) {
+        Objects.requireNonNull(vocabulary);
+        return exporters.streamVocabularyGlossary(vocabulary, mediaType);
+    }
+
+    /**
+     * Gets timestamp of the last modification of terms in the specified vocabulary or in vocabularies it imports.
+     * <p>
+     * The timestamp is determined without accessing the repository.
+     *
+     * @param vocabularyUri Identifier of the vocabulary whose terms to check
+     * @return Timestamp of last modification in millis since epoch
+     */
+    public long getLastModified(URI vocabularyUri) {
+        Objects.requireNonNull(vocabularyUri);
+        return Math.max(repositoryService.getContentVersion(vocabularyUri), vocabularyService.getLastModified());
+    }
+
+    /**
+     * Gets timestamp of the last modification of terms in any vocabulary.
+     *
+     * @return Timestamp of last modification in millis since epoch
+     * @see #getLastModified(URI)
+     */
+    public long getLastModified() {
+        return Math.max(repositoryService.getContentVersion(), vocabularyService.getLastModified());
+    }
+
+    /**
+     * Gets a tag identifying the specified version of terms as seen in the current workspace.
+     * <p>
+     * Since the same vocabulary may have different content in different workspaces, the tag differs for each workspace.
+     * The workspace is represented by a (truncated) SHA-256 digest of its identifier.
+     *
+     * @param lastModified Timestamp of last modification of the terms, see {@link #getLastModified(URI)}
+     * @return Content tag usable as an entity tag value
+     */
+    public String getContentTag(long lastModified) {
+        return Long.toHexString(lastModified) + "-" + getCurrentWorkspaceUri().map(TermService::digest).orElse("0");
+    }
+
+    /**
+     * Gets identifier of the current workspace.
+     *
+     * @return Current workspace identifier, empty if no workspace is selected
+     */
+    public Optional<URI> getCurrentWorkspaceUri() {
+        try {
+            return Optional.of(workspaceService.getCurrentWorkspace().getUri());
+        } catch (WorkspaceNotSetException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String digest(URI uri) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance(CONTENT_TAG_DIGEST_ALGORITHM)
+                                  .digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new TermItException("Digest algorithm " + CONTENT_TAG_DIGEST_ALGORITHM + " not available.", e);
+        }
+        final StringBuilder sb = new StringBuilder(CONTENT_TAG_DIGEST_LENGTH * 2);
+        for (int i = 0; i < CONTENT_TAG_DIGEST_LENGTH; i++) {
+            sb.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
     /**
      * Gets a page of all root terms.
      * <p>
@@ -105,6 +202,32 @@ public class TermService implements RudService<Term>, ChangeRecordProvider<Term>
         return repositoryService.findAll(pageSpec);
     }
 
+    /**
+     * Gets a page of all root terms following the specified cursor.
+     * <p>
+     * The terms are ordered in the same way as in {@link #findAllRoots(Pageable)}.
+     *
+     * @param cursor   Cursor returned with the previous page, {@code null} or empty to get the first page
+     * @param pageSize Maximum number of terms in the page
+     * @return Content of matching page of root terms and cursor of the next page
+     */
+    public CursorPage<TermDto> findAllRootsAfter(String cursor, int pageSize) {
+        return repositoryService.findAllRootsAfter(cursor, pageSize);
+    }
+
+    /**
+     * Gets a page of all terms following the specified cursor.
+     * <p>
+     * The terms are ordered in the same way as in {@link #findAll(Pageable)}.
+     *
+     * @param cursor   Cursor returned with the previous page, {@code null} or empty to get the first page
+     * @param pageSize Maximum number of terms in the page
+     * @return Content of matching page of terms and cursor of the next page
+     */
+    public CursorPage<TermDto> findAllAfter(String cursor, int pageSize) {
+        return repositoryService.findAllAfter(cursor, pageSize);
+    }
+
     @Transactional(readOnly = true)
     public List<TermDto> findAllRootsInCurrentWorkspace(Pageable pageSpec, URI excludedVocabulary) {
         Objects.requireNonNull(pageSpec);
@@ -367,6 +490,7 @@ public class TermService implements RudService<Term>, ChangeRecordProvider<Term>
             termOccurrenceService.removeOccurrence(existingTerm.getDefinitionSource());
         }
         termOccurrenceService.persistOccurrence(definitionSource);
+        repositoryService.refreshContentVersion(existingTerm);
     }
 
     /**
@@ -15,13 +15,16 @@
 package cz.cvut.kbss.termit.service.business;
 
 import cz.cvut.kbss.termit.asset.provenance.SupportsLastModification;
+import cz.cvut.kbss.termit.dto.validation.ValidationJob;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.model.changetracking.AbstractChangeRecord;
 import cz.cvut.kbss.termit.model.validation.ValidationResult;
 import cz.cvut.kbss.termit.service.changetracking.ChangeRecordProvider;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.net.URI;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
@@ -52,12 +55,15 @@ public interface VocabularyService
     Vocabulary importVocabulary(boolean rename, URI vocabularyIri, MultipartFile file);
 
     /**
-     * Gets change records of the listed assets.
+     * Gets change records of the content (terms) of the specified vocabulary.
      *
-     * @param asset Assets to find change records for
+     * @param asset    Vocabulary whose content change records to get
+     * @param pageSpec Specification of the page of records to return
+     * @param from     Earliest timestamp (inclusive) of the returned records, optional
+     * @param to       Latest timestamp (exclusive) of the returned records, optional
      * @return List of change records, ordered by record timestamp in descending order
      */
-    List<AbstractChangeRecord> getChangesOfContent(Vocabulary asset);
+    List<AbstractChangeRecord> getChangesOfContent(Vocabulary asset, Pageable pageSpec, Instant from, Instant to);
 
     /**
      * Removes a vocabulary if:
@@ -78,6 +84,35 @@ public interface VocabularyService
      */
     List<ValidationResult> validateContents(Vocabulary validate);
 
+    /**
+     * Submits validation of a vocabulary to be run in the background.
+     * <p>
+     * The returned job can be used to poll the validation state and to retrieve its results.
+     *
+     * @param vocabulary Vocabulary to validate
+     * @return Validation job
+     * @see #validateContents(Vocabulary)
+     */
+    ValidationJob submitContentValidation(Vocabulary vocabulary);
+
+    /**
+     * Gets vocabulary validation job with the specified identifier.
+     *
+     * @param jobId Job identifier
+     * @return Validation job
+     */
+    ValidationJob findValidationJob(String jobId);
+
+    /**
+     * Gets results of the vocabulary validation job with the specified identifier.
+     *
+     * @param jobId Job identifier
+     * @return List of validation results
+     * @throws cz.cvut.kbss.termit.exception.ValidationJobNotFinishedException When the job has not finished
+     *                                                                          successfully yet
+     */
+    List<ValidationResult> getValidationJobResults(String jobId);
+
     /**
      * Gets the number of terms in the specified vocabulary.
      * <p>
@@ -13,6 +13,7 @@ import java.net.URI;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +30,18 @@ public class ReadOnlyTermService {
         return termService.findVocabularyRequired(vocabularyUri);
     }
 
+    public long getLastModified(URI vocabularyUri) {
+        return termService.getLastModified(vocabularyUri);
+    }
+
+    public String getContentTag(long lastModified) {
+        return termService.getContentTag(lastModified);
+    }
+
+    public Optional<URI> getCurrentWorkspaceUri() {
+        return termService.getCurrentWorkspaceUri();
+    }
+
     public List<TermDto> findAll(Vocabulary vocabulary) {
         return termService.findAll(vocabulary).stream().map(TermDto::new).collect(Collectors.toList());
     }
@@ -1,36 +1,46 @@
 package cz.cvut.kbss.termit.service.changetracking;
 
+import cz.cvut.kbss.termit.event.AssetModifiedEvent;
 import cz.cvut.kbss.termit.model.Asset;
 import cz.cvut.kbss.termit.model.User;
 import cz.cvut.kbss.termit.model.changetracking.AbstractChangeRecord;
 import cz.cvut.kbss.termit.model.changetracking.PersistChangeRecord;
+import cz.cvut.kbss.termit.model.changetracking.UpdateChangeRecord;
 import cz.cvut.kbss.termit.persistence.dao.changetracking.ChangeRecordDao;
 import cz.cvut.kbss.termit.service.security.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Objects;
 
 /**
  * Tracks changes to assets.
+ * <p>
+ * Change records are written into the repository asynchronously, after the transaction in which the changes were made
+ * commits.
  */
 @Service
 public class ChangeTracker {
 
-
     private final ChangeCalculator changeCalculator;
     private final ChangeRecordDao changeRecordDao;
 
     private final SecurityUtils securityUtils;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     @Autowired
     public ChangeTracker(ChangeCalculator changeCalculator, ChangeRecordDao changeRecordDao,
-                         SecurityUtils securityUtils) {
+                         SecurityUtils securityUtils, ApplicationEventPublisher eventPublisher) {
         this.changeCalculator = changeCalculator;
         this.changeRecordDao = changeRecordDao;
         this.securityUtils = securityUtils;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -44,7 +54,8 @@ public class ChangeTracker {
         final AbstractChangeRecord changeRecord = new PersistChangeRecord(added);
         changeRecord.setAuthor(securityUtils.getCurrentUser().toUser());
         changeRecord.setTimestamp(Instant.now());
-        changeRecordDao.persist(changeRecord, added);
+        changeRecordDao.persistAsync(Collections.singleton(changeRecord), added);
+        eventPublisher.publishEvent(new AssetModifiedEvent(this, added.getUri()));
     }
 
     /**
@@ -61,10 +72,15 @@ public class ChangeTracker {
         Objects.requireNonNull(original);
         final Instant now = Instant.now();
         final User user = securityUtils.getCurrentUser().toUser();
-        changeCalculator.calculateChanges(update, original).forEach(ch -> {
+        final Collection<UpdateChangeRecord> changes = changeCalculator.calculateChanges(update, original);
+        if (changes.isEmpty()) {
+            return;
+        }
+        changes.forEach(ch -> {
             ch.setAuthor(user);
             ch.setTimestamp(now);
-            changeRecordDao.persist(ch, update);
         });
+        changeRecordDao.persistAsync(changes, update);
+        eventPublisher.publishEvent(new AssetModifiedEvent(this, update.getUri()));
     }
 }
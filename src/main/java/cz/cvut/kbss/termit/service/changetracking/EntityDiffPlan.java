@@ -0,0 +1,177 @@
+package cz.cvut.kbss.termit.service.changetracking;
+
+import cz.cvut.kbss.jopa.model.metamodel.*;
+import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+import cz.cvut.kbss.jopa.utils.IdentifierTransformer;
+import cz.cvut.kbss.termit.exception.TermItException;
+import cz.cvut.kbss.termit.model.changetracking.IgnoreChanges;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Immutable plan of change calculation for a single entity class.
+ * <p>
+ * The plan is derived from the metamodel once and contains only attributes whose changes are tracked, together with
+ * prepared accessors of their values and of identifiers of the referenced entities.
+ */
+class EntityDiffPlan {
+
+    private final List<AttributeDiff> attributes;
+
+    private final MethodHandle typesAccessor;
+
+    private final MethodHandle propertiesAccessor;
+
+    private EntityDiffPlan(List<AttributeDiff> attributes, MethodHandle typesAccessor,
+                           MethodHandle propertiesAccessor) {
+        this.attributes = Collections.unmodifiableList(attributes);
+        this.typesAccessor = typesAccessor;
+        this.propertiesAccessor = propertiesAccessor;
+    }
+
+    /**
+     * Creates a plan for the specified entity type.
+     *
+     * @param et        Entity type to create plan for
+     * @param metamodel Metamodel used to resolve types of referenced entities
+     * @return New plan
+     */
+    static EntityDiffPlan create(EntityType<?> et, Metamodel metamodel) {
+        final List<AttributeDiff> attributes = new ArrayList<>();
+        for (Attribute<?, ?> att : et.getAttributes()) {
+            if (att.isInferred() || att.getJavaField().isAnnotationPresent(IgnoreChanges.class)) {
+                continue;
+            }
+            attributes.add(new AttributeDiff(att, resolveIdentifierExtractor(att, metamodel)));
+        }
+        final TypesSpecification<?, ?> typesSpec = et.getTypes();
+        final PropertiesSpecification<?, ?, ?, ?> propsSpec = et.getProperties();
+        return new EntityDiffPlan(attributes, typesSpec != null ? accessor(typesSpec.getJavaField()) : null,
+                propsSpec != null ? accessor(propsSpec.getJavaField()) : null);
+    }
+
+    /**
+     * Resolves function extracting identifier of entities referenced by the specified attribute.
+     *
+     * @return Extractor, {@code null} if the attribute values can be compared directly
+     */
+    private static Function<Object, Object> resolveIdentifierExtractor(Attribute<?, ?> att, Metamodel metamodel) {
+        if (!att.isAssociation()) {
+            return null;
+        }
+        final Class<?> valueType = att.isCollection() ? ((PluralAttribute<?, ?, ?>) att).getElementType().getJavaType() :
+                                   att.getJavaType();
+        if (IdentifierTransformer.isValidIdentifierType(valueType)) {
+            return null;
+        }
+        try {
+            final MethodHandle idAccessor = accessor(metamodel.entity(valueType).getIdentifier().getJavaField());
+            return item -> invoke(idAccessor, item);
+        } catch (IllegalArgumentException e) {
+            // Value type is not an entity class (e.g., an interface), resolve the identifier using the runtime type
+            return item -> EntityPropertiesUtils.getIdentifier(item, metamodel);
+        }
+    }
+
+    private static MethodHandle accessor(Field field) {
+        try {
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            throw new TermItException("Unable to access field " + field + ".", e);
+        }
+    }
+
+    private static Object invoke(MethodHandle accessor, Object instance) {
+        try {
+            return accessor.invoke(instance);
+        } catch (Throwable e) {
+            throw new TermItException("Unable to read attribute value of " + instance + ".", e);
+        }
+    }
+
+    /**
+     * Gets attributes whose changes are tracked.
+     *
+     * @return Unmodifiable list of attribute plans
+     */
+    List<AttributeDiff> getAttributes() {
+        return attributes;
+    }
+
+    boolean hasTypes() {
+        return typesAccessor != null;
+    }
+
+    Collection<?> getTypes(Object instance) {
+        assert hasTypes();
+        return (Collection<?>) invoke(typesAccessor, instance);
+    }
+
+    boolean hasProperties() {
+        return propertiesAccessor != null;
+    }
+
+    Map<?, ?> getProperties(Object instance) {
+        assert hasProperties();
+        return (Map<?, ?>) invoke(propertiesAccessor, instance);
+    }
+
+    /**
+     * Plan of change calculation for a single attribute.
+     */
+    static class AttributeDiff {
+
+        private final URI property;
+
+        private final boolean collection;
+
+        private final MethodHandle accessor;
+
+        private final Function<Object, Object> identifierExtractor;
+
+        private AttributeDiff(Attribute<?, ?> att, Function<Object, Object> identifierExtractor) {
+            this.property = att.getIRI().toURI();
+            this.collection = att.isCollection();
+            this.accessor = accessor(att.getJavaField());
+            this.identifierExtractor = identifierExtractor;
+        }
+
+        URI getProperty() {
+            return property;
+        }
+
+        boolean isCollection() {
+            return collection;
+        }
+
+        /**
+         * Whether values of this attribute are entities which have to be compared by their identifiers.
+         */
+        boolean isReference() {
+            return identifierExtractor != null;
+        }
+
+        Object getValue(Object instance) {
+            return invoke(accessor, instance);
+        }
+
+        /**
+         * Extracts identifier of the specified referenced entity.
+         * <p>
+         * Applicable only to reference attributes.
+         *
+         * @param value Referenced entity
+         * @return Identifier of the entity
+         */
+        Object getIdentifier(Object value) {
+            assert isReference();
+            return identifierExtractor.apply(value);
+        }
+    }
+}
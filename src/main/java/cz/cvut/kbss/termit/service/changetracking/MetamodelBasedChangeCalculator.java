@@ -1,28 +1,32 @@
 package cz.cvut.kbss.termit.service.changetracking;
 
 import cz.cvut.kbss.jopa.model.EntityManagerFactory;
-import cz.cvut.kbss.jopa.model.metamodel.*;
-import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
 import cz.cvut.kbss.jopa.utils.IdentifierTransformer;
 import cz.cvut.kbss.jopa.vocabulary.RDF;
 import cz.cvut.kbss.termit.model.Asset;
-import cz.cvut.kbss.termit.model.changetracking.IgnoreChanges;
 import cz.cvut.kbss.termit.model.changetracking.UpdateChangeRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
-import static cz.cvut.kbss.jopa.utils.EntityPropertiesUtils.getAttributeValue;
-import static cz.cvut.kbss.jopa.utils.EntityPropertiesUtils.getIdentifier;
-
+/**
+ * Calculates changes based on the metamodel of the changed asset.
+ * <p>
+ * Attributes to compare and accessors of their values are resolved from the metamodel only once per entity class (see
+ * {@link EntityDiffPlan}).
+ */
 @Component
 public class MetamodelBasedChangeCalculator implements ChangeCalculator {
 
     private final Metamodel metamodel;
 
+    private final Map<Class<?>, EntityDiffPlan> plans = new ConcurrentHashMap<>();
+
     @Autowired
     public MetamodelBasedChangeCalculator(EntityManagerFactory emf) {
         this.metamodel = emf.getMetamodel();
@@ -34,34 +38,29 @@ public class MetamodelBasedChangeCalculator implements ChangeCalculator {
         Objects.requireNonNull(original);
 
         final Collection<UpdateChangeRecord> records = new ArrayList<>();
-        final EntityType<? extends Asset<?>> et = (EntityType<? extends Asset<?>>) metamodel.entity(changed.getClass());
-        for (Attribute<?, ?> att : et.getAttributes()) {
-            if (att.isInferred() || shouldIgnoreChanges(att)) {
-                continue;
-            }
-            final Object originalValue = EntityPropertiesUtils.getAttributeValue(att, original);
-            final Object updateValue = EntityPropertiesUtils.getAttributeValue(att, changed);
-            if (att.isAssociation()) {
-                final Optional<UpdateChangeRecord> change = resolveAssociationChange(originalValue, updateValue, att,
-                        original.getUri());
-                change.ifPresent(records::add);
-
+        final EntityDiffPlan plan = getPlan(changed.getClass());
+        for (EntityDiffPlan.AttributeDiff att : plan.getAttributes()) {
+            final Object originalValue = att.getValue(original);
+            final Object updateValue = att.getValue(changed);
+            if (att.isReference()) {
+                resolveReferenceChange(originalValue, updateValue, att, original.getUri()).ifPresent(records::add);
             } else if (!Objects.equals(originalValue, updateValue)) {
-                final UpdateChangeRecord record = createChangeRecord(original.getUri(), att.getIRI().toURI());
+                final UpdateChangeRecord record = createChangeRecord(original.getUri(), att.getProperty());
                 recordValues(record, att, originalValue, updateValue);
                 records.add(record);
             }
         }
-        resolveTypesChange(original, changed, et, original.getUri()).ifPresent(records::add);
-        records.addAll(resolveUnmappedPropertiesChanges(original, changed, et, original.getUri()));
+        resolveTypesChange(original, changed, plan, original.getUri()).ifPresent(records::add);
+        records.addAll(resolveUnmappedPropertiesChanges(original, changed, plan, original.getUri()));
         return records;
     }
 
-    private boolean shouldIgnoreChanges(Attribute<?, ?> att) {
-        return att.getJavaField().isAnnotationPresent(IgnoreChanges.class);
+    private EntityDiffPlan getPlan(Class<?> cls) {
+        return plans.computeIfAbsent(cls, c -> EntityDiffPlan.create(metamodel.entity(c), metamodel));
     }
 
-    private void recordValues(UpdateChangeRecord record, Attribute<?, ?> att, Object originalValue, Object newValue) {
+    private static void recordValues(UpdateChangeRecord record, EntityDiffPlan.AttributeDiff att, Object originalValue,
+                                     Object newValue) {
         if (!att.isCollection()) {
             if (originalValue != null) {
                 record.setOriginalValue(Collections.singleton(originalValue));
@@ -79,61 +78,47 @@ public class MetamodelBasedChangeCalculator implements ChangeCalculator {
         }
     }
 
-    private Optional<UpdateChangeRecord> resolveAssociationChange(Object originalValue, Object updateValue,
-                                                                  Attribute<?, ?> att, URI assetId) {
-        if (originalValue == null && updateValue == null) {
+    private static Optional<UpdateChangeRecord> resolveReferenceChange(Object originalValue, Object updateValue,
+                                                                       EntityDiffPlan.AttributeDiff att,
+                                                                       URI assetId) {
+        if (originalValue == updateValue) {
             return Optional.empty();
         }
         final Object originalToCompare;
         final Object updateToCompare;
         if (att.isCollection()) {
-            final PluralAttribute<?, ?, ?> pluralAtt = (PluralAttribute<?, ?, ?>) att;
-            if (IdentifierTransformer.isValidIdentifierType(pluralAtt.getElementType().getJavaType())) {
-                originalToCompare = originalValue;
-                updateToCompare = updateValue;
-            } else {
-                originalToCompare = extractIdentifiersInCollection(originalValue);
-                updateToCompare = extractIdentifiersInCollection(updateValue);
-            }
-        } else if (IdentifierTransformer.isValidIdentifierType(att.getJavaType())) {
-            originalToCompare = originalValue;
-            updateToCompare = updateValue;
+            originalToCompare = extractIdentifiersInCollection(originalValue, att);
+            updateToCompare = extractIdentifiersInCollection(updateValue, att);
         } else {
-            originalToCompare = originalValue != null ? getIdentifier(originalValue, metamodel) : null;
-            updateToCompare = updateValue != null ? getIdentifier(updateValue, metamodel) : null;
+            originalToCompare = originalValue != null ? att.getIdentifier(originalValue) : null;
+            updateToCompare = updateValue != null ? att.getIdentifier(updateValue) : null;
         }
-
         if (Objects.equals(originalToCompare, updateToCompare)) {
             return Optional.empty();
-        } else {
-            final UpdateChangeRecord record = createChangeRecord(assetId, att.getIRI().toURI());
-            recordValues(record, att, originalToCompare, updateToCompare);
-            return Optional.of(record);
         }
+        final UpdateChangeRecord record = createChangeRecord(assetId, att.getProperty());
+        recordValues(record, att, originalToCompare, updateToCompare);
+        return Optional.of(record);
     }
 
-    private Object extractIdentifiersInCollection(Object col) {
-        return col != null ?
-               ((Collection<?>) col).stream().map(item -> getIdentifier(item, metamodel)).collect(Collectors.toSet()) :
-               null;
+    private static Object extractIdentifiersInCollection(Object col, EntityDiffPlan.AttributeDiff att) {
+        return col != null ? ((Collection<?>) col).stream().map(att::getIdentifier).collect(Collectors.toSet()) : null;
     }
 
-    private UpdateChangeRecord createChangeRecord(URI assetId, URI property) {
+    private static UpdateChangeRecord createChangeRecord(URI assetId, URI property) {
         final UpdateChangeRecord record = new UpdateChangeRecord();
         record.setChangedEntity(assetId);
         record.setChangedAttribute(property);
         return record;
     }
 
-    private Optional<UpdateChangeRecord> resolveTypesChange(Asset<?> original, Asset<?> update,
-                                                            EntityType<? extends Asset<?>> et,
-                                                            URI assetId) {
-        final TypesSpecification<?, ?> typesSpec = et.getTypes();
-        if (typesSpec == null) {
+    private static Optional<UpdateChangeRecord> resolveTypesChange(Asset<?> original, Asset<?> update,
+                                                                   EntityDiffPlan plan, URI assetId) {
+        if (!plan.hasTypes()) {
             return Optional.empty();
         }
-        final Collection<?> origTypes = (Collection<?>) getAttributeValue(typesSpec, original);
-        final Collection<?> updateTypes = (Collection<?>) getAttributeValue(typesSpec, update);
+        final Collection<?> origTypes = plan.getTypes(original);
+        final Collection<?> updateTypes = plan.getTypes(update);
         if (areCollectionsEqual(origTypes, updateTypes)) {
             return Optional.empty();
         } else {
@@ -157,15 +142,13 @@ public class MetamodelBasedChangeCalculator implements ChangeCalculator {
         return original == null && update.isEmpty() || original != null && original.isEmpty() && update == null;
     }
 
-    private Collection<UpdateChangeRecord> resolveUnmappedPropertiesChanges(Asset<?> original, Asset<?> update,
-                                                                            EntityType<? extends Asset<?>> et,
-                                                                            URI assetId) {
-        final PropertiesSpecification<?, ?, ?, ?> propsSpec = et.getProperties();
-        if (propsSpec == null) {
+    private static Collection<UpdateChangeRecord> resolveUnmappedPropertiesChanges(Asset<?> original, Asset<?> update,
+                                                                                   EntityDiffPlan plan, URI assetId) {
+        if (!plan.hasProperties()) {
             return Collections.emptySet();
         }
-        Map<?, ?> originalProps = (Map<?, ?>) getAttributeValue(propsSpec, original);
-        Map<?, ?> updateProps = (Map<?, ?>) getAttributeValue(propsSpec, update);
+        Map<?, ?> originalProps = plan.getProperties(original);
+        Map<?, ?> updateProps = plan.getProperties(update);
         if (originalProps == null) {
             originalProps = Collections.emptyMap();
         }
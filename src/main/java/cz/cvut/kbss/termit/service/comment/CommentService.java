@@ -1,5 +1,6 @@
 package cz.cvut.kbss.termit.service.comment;
 
+import cz.cvut.kbss.termit.event.CommentModifiedEvent;
 import cz.cvut.kbss.termit.exception.AuthorizationException;
 import cz.cvut.kbss.termit.exception.NotFoundException;
 import cz.cvut.kbss.termit.exception.UnsupportedOperationException;
@@ -11,6 +12,7 @@ import cz.cvut.kbss.termit.persistence.dao.comment.CommentDao;
 import cz.cvut.kbss.termit.persistence.dao.comment.CommentReactionDao;
 import cz.cvut.kbss.termit.service.security.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,11 +29,15 @@ public class CommentService {
 
     private final CommentReactionDao reactionDao;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     @Autowired
-    public CommentService(SecurityUtils securityUtils, CommentDao dao, CommentReactionDao reactionDao) {
+    public CommentService(SecurityUtils securityUtils, CommentDao dao, CommentReactionDao reactionDao,
+                          ApplicationEventPublisher eventPublisher) {
         this.securityUtils = securityUtils;
         this.dao = dao;
         this.reactionDao = reactionDao;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -69,6 +75,7 @@ public class CommentService {
         comment.setAuthor(currentUser());
         comment.setAsset(asset.getUri());
         dao.persist(comment);
+        eventPublisher.publishEvent(new CommentModifiedEvent(this, comment, CommentModifiedEvent.Type.ADDED));
     }
 
     private User currentUser() {
@@ -95,6 +102,7 @@ public class CommentService {
                     "Cannot modify commented asset, author or date of creation of a comment!");
         }
         dao.update(comment);
+        eventPublisher.publishEvent(new CommentModifiedEvent(this, comment, CommentModifiedEvent.Type.UPDATED));
     }
 
     /**
@@ -106,6 +114,7 @@ public class CommentService {
     public void remove(Comment comment) {
         Objects.requireNonNull(comment);
         dao.remove(comment);
+        eventPublisher.publishEvent(new CommentModifiedEvent(this, comment, CommentModifiedEvent.Type.REMOVED));
     }
 
     /**
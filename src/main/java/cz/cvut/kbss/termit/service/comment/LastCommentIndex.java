@@ -0,0 +1,300 @@
+package cz.cvut.kbss.termit.service.comment;
+
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.termit.dto.RecentlyCommentedAsset;
+import cz.cvut.kbss.termit.event.CommentModifiedEvent;
+import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
+import cz.cvut.kbss.termit.model.User;
+import cz.cvut.kbss.termit.model.comment.Comment;
+import cz.cvut.kbss.termit.persistence.dao.changetracking.ChangeRecordDao;
+import cz.cvut.kbss.termit.persistence.dao.comment.CommentDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.net.URI;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of the last comments of assets.
+ * <p>
+ * The index keeps only identifiers of comments, commented assets and comment authors, ordered by the time of the last
+ * modification of the comments. It is loaded from the repository on first use and then kept up to date by comment
+ * modifications published by {@link CommentService}, which are applied once their transaction commits. The referenced
+ * comments are fetched in bulk when recently commented assets are requested.
+ */
+@Service
+public class LastCommentIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LastCommentIndex.class);
+
+    /**
+     * Number of commented assets checked at once for modification by a user.
+     */
+    static final int MODIFIED_BY_BATCH_SIZE = 100;
+
+    private final CommentDao commentDao;
+
+    private final ChangeRecordDao changeRecordDao;
+
+    // All fields below are guarded by this
+
+    private boolean loaded;
+
+    /**
+     * Generates keys ordering comments by the time of their last modification.
+     */
+    private long sequence;
+
+    /**
+     * Comments of each asset, from the least recently modified one.
+     */
+    private final Map<URI, List<Entry>> commentsByAsset = new HashMap<>();
+
+    /**
+     * Commented assets keyed by the sequence number of their last comment.
+     */
+    private final NavigableMap<Long, URI> assetsByLastComment = new TreeMap<>();
+
+    @Autowired
+    public LastCommentIndex(CommentDao commentDao, ChangeRecordDao changeRecordDao) {
+        this.commentDao = commentDao;
+        this.changeRecordDao = changeRecordDao;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        LOG.debug("Loading last comment index.");
+        commentDao.findAllIdentifiers().forEach(ids -> append(new Entry(ids[0], ids[1], ids[2], ++sequence)));
+        this.loaded = true;
+    }
+
+    private void append(Entry entry) {
+        final List<Entry> comments = commentsByAsset.computeIfAbsent(entry.asset, k -> new ArrayList<>());
+        if (!comments.isEmpty()) {
+            assetsByLastComment.remove(last(comments).sequence);
+        }
+        comments.add(entry);
+        assetsByLastComment.put(entry.sequence, entry.asset);
+    }
+
+    private static Entry last(List<Entry> comments) {
+        return comments.get(comments.size() - 1);
+    }
+
+    private void remove(URI comment, URI asset) {
+        if (asset == null) {
+            new ArrayList<>(commentsByAsset.keySet()).forEach(a -> remove(comment, a));
+            return;
+        }
+        final List<Entry> comments = commentsByAsset.get(asset);
+        if (comments == null) {
+            return;
+        }
+        final Entry previousLast = last(comments);
+        if (!comments.removeIf(e -> e.comment.equals(comment))) {
+            return;
+        }
+        assetsByLastComment.remove(previousLast.sequence);
+        if (comments.isEmpty()) {
+            commentsByAsset.remove(asset);
+        } else {
+            assetsByLastComment.put(last(comments).sequence, asset);
+        }
+    }
+
+    /**
+     * Registers a newly added comment.
+     *
+     * @param comment The added comment
+     */
+    public synchronized void commentAdded(Comment comment) {
+        Objects.requireNonNull(comment);
+        if (loaded) {
+            append(new Entry(comment.getUri(), comment.getAsset(), comment.getAuthor().getUri(), ++sequence));
+        }
+    }
+
+    /**
+     * Registers an update of a comment, making it the most recently modified one.
+     *
+     * @param comment The updated comment
+     */
+    public synchronized void commentUpdated(Comment comment) {
+        Objects.requireNonNull(comment);
+        if (loaded) {
+            remove(comment.getUri(), comment.getAsset());
+            commentAdded(comment);
+        }
+    }
+
+    /**
+     * Registers removal of a comment.
+     *
+     * @param comment The removed comment
+     */
+    public synchronized void commentRemoved(Comment comment) {
+        Objects.requireNonNull(comment);
+        if (loaded) {
+            remove(comment.getUri(), comment.getAsset());
+        }
+    }
+
+    /**
+     * Applies a comment modification once it is committed, so that the index never contains changes which are rolled
+     * back.
+     *
+     * @param event Comment modification
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentModified(CommentModifiedEvent event) {
+        switch (event.getType()) {
+            case ADDED:
+                commentAdded(event.getComment());
+                break;
+            case UPDATED:
+                commentUpdated(event.getComment());
+                break;
+            case REMOVED:
+                commentRemoved(event.getComment());
+                break;
+        }
+    }
+
+    @EventListener
+    public synchronized void onInvalidateCaches(InvalidateCachesEvent event) {
+        commentsByAsset.clear();
+        assetsByLastComment.clear();
+        this.loaded = false;
+    }
+
+    /**
+     * Finds the specified number of most recently commented assets.
+     *
+     * @param limit Maximum number of assets to retrieve
+     * @return List of recently commented assets, ordered by the time of their last comment (descending)
+     */
+    public List<RecentlyCommentedAsset> findLastCommented(int limit) {
+        final List<Entry[]> selected = new ArrayList<>(limit);
+        synchronized (this) {
+            ensureLoaded();
+            for (URI asset : assetsByLastComment.descendingMap().values()) {
+                if (selected.size() >= limit) {
+                    break;
+                }
+                selected.add(new Entry[]{last(commentsByAsset.get(asset)), null});
+            }
+        }
+        return toRecentlyCommented(selected);
+    }
+
+    /**
+     * Finds the specified number of assets whose last comment reacts to a comment of the specified user.
+     * <p>
+     * That is, assets commented by the specified user whose last comment was added by someone else.
+     *
+     * @param author Author of the comments being reacted to
+     * @param limit  Maximum number of assets to retrieve
+     * @return List of recently commented assets, ordered by the time of their last comment (descending)
+     */
+    public List<RecentlyCommentedAsset> findLastCommentedInReaction(User author, int limit) {
+        Objects.requireNonNull(author);
+        final List<Entry[]> selected = new ArrayList<>(limit);
+        synchronized (this) {
+            ensureLoaded();
+            for (URI asset : assetsByLastComment.descendingMap().values()) {
+                if (selected.size() >= limit) {
+                    break;
+                }
+                final List<Entry> comments = commentsByAsset.get(asset);
+                final Entry lastComment = last(comments);
+                if (lastComment.author.equals(author.getUri())) {
+                    continue;
+                }
+                for (int i = comments.size() - 2; i >= 0; i--) {
+                    if (comments.get(i).author.equals(author.getUri())) {
+                        selected.add(new Entry[]{lastComment, comments.get(i)});
+                        break;
+                    }
+                }
+            }
+        }
+        return toRecentlyCommented(selected);
+    }
+
+    /**
+     * Finds the specified number of most recently commented assets added or edited by the specified user.
+     *
+     * @param author Author of the asset modifications
+     * @param limit  Maximum number of assets to retrieve
+     * @return List of recently commented assets, ordered by the time of their last comment (descending)
+     */
+    public List<RecentlyCommentedAsset> findMyLastCommented(User author, int limit) {
+        Objects.requireNonNull(author);
+        final List<Entry[]> selected = new ArrayList<>(limit);
+        Long cursor = null;
+        while (selected.size() < limit) {
+            final List<Entry> batch = new ArrayList<>(MODIFIED_BY_BATCH_SIZE);
+            synchronized (this) {
+                ensureLoaded();
+                final NavigableMap<Long, URI> remaining = cursor != null ?
+                        assetsByLastComment.headMap(cursor, false) : assetsByLastComment;
+                for (Map.Entry<Long, URI> e : remaining.descendingMap().entrySet()) {
+                    if (batch.size() >= MODIFIED_BY_BATCH_SIZE) {
+                        break;
+                    }
+                    batch.add(last(commentsByAsset.get(e.getValue())));
+                    cursor = e.getKey();
+                }
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            final Set<URI> modified = changeRecordDao.filterModifiedBy(
+                    batch.stream().map(e -> e.asset).collect(Collectors.toList()), author);
+            batch.stream().filter(e -> modified.contains(e.asset)).limit(limit - selected.size())
+                 .forEach(e -> selected.add(new Entry[]{e, null}));
+        }
+        return toRecentlyCommented(selected);
+    }
+
+    /**
+     * Creates recently commented assets from the specified pairs of last comment and last comment of a user.
+     * <p>
+     * All the referenced comments are fetched at once.
+     */
+    private List<RecentlyCommentedAsset> toRecentlyCommented(List<Entry[]> selected) {
+        final Set<URI> commentUris = new HashSet<>();
+        selected.forEach(pair -> Arrays.stream(pair).filter(Objects::nonNull).forEach(e -> commentUris.add(e.comment)));
+        final Map<URI, Comment> comments = commentDao.findAll(commentUris).stream().collect(
+                Collectors.toMap(Comment::getUri, Function.identity()));
+        return selected.stream().map(pair -> {
+            final Entry mine = pair[1];
+            // Comments can be added only to terms
+            return new RecentlyCommentedAsset(pair[0].asset, pair[0].comment, mine != null ? mine.comment : null,
+                    SKOS.CONCEPT).setLastComment(comments.get(pair[0].comment))
+                                 .setMyLastComment(mine != null ? comments.get(mine.comment) : null);
+        }).collect(Collectors.toList());
+    }
+
+    private static class Entry {
+        private final URI comment;
+        private final URI asset;
+        private final URI author;
+        private final long sequence;
+
+        private Entry(URI comment, URI asset, URI author, long sequence) {
+            this.comment = comment;
+            this.asset = asset;
+            this.author = author;
+            this.sequence = sequence;
+        }
+    }
+}
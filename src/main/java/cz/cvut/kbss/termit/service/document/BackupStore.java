@@ -0,0 +1,508 @@
+package cz.cvut.kbss.termit.service.document;
+
+import cz.cvut.kbss.termit.exception.DocumentManagerException;
+import cz.cvut.kbss.termit.exception.NotFoundException;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed store of file backups.
+ * <p>
+ * Backed up content is identified by its SHA-256 digest and stored gzip-compressed exactly once, regardless of how many
+ * backups (of any files) share it. Versions of each file are recorded in an index stored next to the file (named after
+ * the file with the {@link #INDEX_SUFFIX} suffix), so that the index follows the file when it is renamed or removed.
+ * <p>
+ * The configured retention policy is applied whenever a backup is created and by a periodic cleanup, which also removes
+ * content no longer referenced by any index.
+ * <p>
+ * Timestamped backup copies created next to the files by older versions of the system are imported into the store
+ * once, on startup.
+ */
+@Component
+public class BackupStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BackupStore.class);
+
+    /**
+     * Suffix of version index files.
+     */
+    public static final String INDEX_SUFFIX = "~backups";
+
+    /**
+     * Name of the directory in the file storage in which backed up content is stored.
+     */
+    static final String STORE_DIRECTORY = ".backups";
+
+    private static final String BLOB_EXTENSION = ".gz";
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * Name of the file marking that legacy backup copies have been imported into the store.
+     */
+    static final String LEGACY_MIGRATION_MARKER = "legacy-migrated";
+
+    /**
+     * Legacy backup copies are named after the file, followed by {@code ~} and {@link #LEGACY_TIMESTAMP_FORMAT}.
+     */
+    private static final Pattern LEGACY_BACKUP = Pattern.compile("(.+)~(\\d{4}-\\d{2}-\\d{2}_\\d{6}_\\d{1,3})");
+
+    private static final String LEGACY_TIMESTAMP_FORMAT = "yyyy-MM-dd_HHmmss_S";
+
+    private final Configuration.File config;
+
+    private ScheduledThreadPoolExecutor cleanupExecutor;
+
+    @Autowired
+    public BackupStore(Configuration config) {
+        this.config = config.getFile();
+    }
+
+    @PostConstruct
+    void initialize() {
+        migrateLegacyBackups();
+        scheduleCleanup();
+    }
+
+    private void scheduleCleanup() {
+        final long interval = config.getBackupCleanupInterval();
+        if (interval <= 0) {
+            return;
+        }
+        this.cleanupExecutor = new ScheduledThreadPoolExecutor(1, r -> {
+            final Thread t = new Thread(r, "backup-cleanup");
+            t.setDaemon(true);
+            return t;
+        });
+        cleanupExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                cleanup();
+            } catch (RuntimeException e) {
+                LOG.error("Backup cleanup failed.", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (cleanupExecutor != null) {
+            cleanupExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates backup of the specified file.
+     * <p>
+     * The content is hashed and compressed without holding the store lock, the lock is held only while the content is
+     * moved into the store and the version index is updated.
+     *
+     * @param file Path to the file to backup
+     * @return Version representing the backup
+     */
+    public Version backup(Path file) {
+        Objects.requireNonNull(file);
+        return store(file, file, Instant.now());
+    }
+
+    /**
+     * Stores the specified content as a backup version of the specified file.
+     *
+     * @param content Path to the content to store
+     * @param file    Path to the file whose version the content is
+     * @param created Time of creation of the version
+     * @return The stored version
+     */
+    private Version store(Path content, Path file, Instant created) {
+        Path temp = null;
+        try {
+            final Path blobs = blobDirectory();
+            Files.createDirectories(blobs);
+            temp = Files.createTempFile(blobs, "blob", ".tmp");
+            final MessageDigest digest = createDigest();
+            long size = 0;
+            try (final InputStream in = new DigestInputStream(Files.newInputStream(content), digest);
+                 final OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+            final Version version = new Version(created, toHex(digest.digest()), size);
+            synchronized (this) {
+                final Path blob = blobPath(version.getHash());
+                if (Files.exists(blob)) {
+                    LOG.trace("Content of {} already stored as {}.", file, blob);
+                } else {
+                    Files.createDirectories(blob.getParent());
+                    move(temp, blob);
+                }
+                final Path index = indexPath(file);
+                final List<Version> versions = readIndex(index);
+                versions.add(version);
+                versions.sort(Comparator.comparing(Version::getCreated));
+                writeIndex(index, applyRetention(versions));
+            }
+            LOG.trace("Backed up {} as {}.", file, version);
+            return version;
+        } catch (IOException e) {
+            throw new DocumentManagerException("Unable to backup file.", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Imports timestamped backup copies created by older versions of the system into the store and removes them.
+     * <p>
+     * This is done only once, a marker file in the store records that the import has been performed.
+     */
+    public void migrateLegacyBackups() {
+        final Path storage = Paths.get(config.getStorage());
+        final Path blobs = blobDirectory();
+        final Path marker = blobs.resolve(LEGACY_MIGRATION_MARKER);
+        if (!Files.isDirectory(storage) || Files.exists(marker)) {
+            return;
+        }
+        LOG.debug("Importing legacy backup copies into the backup store.");
+        try {
+            int migrated = 0;
+            for (Path copy : list(storage, p -> !p.startsWith(blobs) &&
+                    LEGACY_BACKUP.matcher(p.getFileName().toString()).matches())) {
+                final Matcher m = LEGACY_BACKUP.matcher(copy.getFileName().toString());
+                if (!m.matches()) {
+                    continue;
+                }
+                final Path file = copy.resolveSibling(m.group(1));
+                if (!Files.exists(file)) {
+                    LOG.warn("Backed up file {} of legacy backup copy {} does not exist, skipping it.", file, copy);
+                    continue;
+                }
+                store(copy, file, parseLegacyTimestamp(copy, m.group(2)));
+                Files.delete(copy);
+                migrated++;
+            }
+            Files.createDirectories(blobs);
+            Files.write(marker, Collections.singletonList(Instant.now().toString()), StandardCharsets.UTF_8);
+            LOG.info("Imported {} legacy backup copies into the backup store.", migrated);
+        } catch (IOException e) {
+            throw new DocumentManagerException("Unable to import legacy backup copies.", e);
+        }
+    }
+
+    private static Instant parseLegacyTimestamp(Path copy, String timestamp) throws IOException {
+        try {
+            return new SimpleDateFormat(LEGACY_TIMESTAMP_FORMAT).parse(timestamp).toInstant();
+        } catch (ParseException e) {
+            return Files.getLastModifiedTime(copy).toInstant();
+        }
+    }
+
+    /**
+     * Removes backup versions of the specified file.
+     * <p>
+     * Stored content is removed by the next cleanup if no other backup references it.
+     *
+     * @param file Path to the file
+     */
+    public synchronized void removeVersions(Path file) {
+        Objects.requireNonNull(file);
+        try {
+            Files.deleteIfExists(indexPath(file));
+        } catch (IOException e) {
+            throw new DocumentManagerException("Unable to remove backups of file " + file + ".", e);
+        }
+    }
+
+    /**
+     * Moves backup versions of the specified file to another file, e.g., when the file is renamed.
+     *
+     * @param file   Path to the original file
+     * @param target Path to the file to which the versions are moved
+     */
+    public synchronized void moveVersions(Path file, Path target) {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(target);
+        final Path index = indexPath(file);
+        if (!Files.exists(index)) {
+            return;
+        }
+        try {
+            move(index, indexPath(target));
+        } catch (IOException e) {
+            throw new DocumentManagerException("Unable to move backups of file " + file + ".", e);
+        }
+    }
+
+    /**
+     * Gets backed up versions of the specified file.
+     *
+     * @param file Path to the file
+     * @return List of versions, ordered from the oldest one. Empty if the file has no backups
+     */
+    public synchronized List<Version> getVersions(Path file) {
+        Objects.requireNonNull(file);
+        try {
+            return readIndex(indexPath(file));
+        } catch (IOException e) {
+            throw new DocumentManagerException("Unable to read backups of file " + file + ".", e);
+        }
+    }
+
+    /**
+     * Opens content of the specified backup version.
+     *
+     * @param version Backup version
+     * @return Stream of the (decompressed) backed up content
+     * @throws NotFoundException If the content of the version does not exist
+     */
+    public InputStream open(Version version) {
+        Objects.requireNonNull(version);
+        final Path blob = blobPath(version.getHash());
+        if (!Files.exists(blob)) {
+            throw new NotFoundException("Content of backup " + version + " not found.");
+        }
+        try {
+            return new GZIPInputStream(Files.newInputStream(blob));
+        } catch (IOException e) {
+            throw new DocumentManagerException("Unable to read backup content.", e);
+        }
+    }
+
+    /**
+     * Applies the retention policy to backups of all files and removes stored content no longer referenced by any
+     * backup.
+     */
+    public synchronized void cleanup() {
+        final Path storage = Paths.get(config.getStorage());
+        if (!Files.isDirectory(storage)) {
+            return;
+        }
+        final Path blobs = blobDirectory();
+        final Set<String> referenced = new HashSet<>();
+        try {
+            for (Path index : list(storage, p -> !p.startsWith(blobs) && p.getFileName().toString()
+                                                                                .endsWith(INDEX_SUFFIX))) {
+                final List<Version> versions = readIndex(index);
+                final List<Version> retained = applyRetention(versions);
+                if (retained.size() < versions.size()) {
+                    writeIndex(index, retained);
+                }
+                retained.forEach(v -> referenced.add(v.getHash()));
+            }
+            if (!Files.isDirectory(blobs)) {
+                return;
+            }
+            int removed = 0;
+            for (Path blob : list(blobs, p -> p.getFileName().toString().endsWith(BLOB_EXTENSION))) {
+                final String name = blob.getFileName().toString();
+                if (!referenced.contains(name.substring(0, name.length() - BLOB_EXTENSION.length()))) {
+                    Files.delete(blob);
+                    removed++;
+                }
+            }
+            LOG.debug("Backup cleanup removed {} unreferenced content blobs.", removed);
+        } catch (IOException e) {
+            throw new DocumentManagerException("Unable to clean up backups.", e);
+        }
+    }
+
+    private static List<Path> list(Path root, Predicate<Path> filter) throws IOException {
+        try (final Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile).filter(filter).collect(Collectors.toList());
+        }
+    }
+
+    private List<Version> applyRetention(List<Version> versions) {
+        List<Version> result = versions;
+        if (config.getBackupRetentionDays() > 0) {
+            final Instant threshold = Instant.now().minus(config.getBackupRetentionDays(), ChronoUnit.DAYS);
+            result = result.stream().filter(v -> v.getCreated().isAfter(threshold)).collect(Collectors.toList());
+        }
+        if (config.getMaxBackups() > 0 && result.size() > config.getMaxBackups()) {
+            result = result.subList(result.size() - config.getMaxBackups(), result.size());
+        }
+        return new ArrayList<>(result);
+    }
+
+    private Path blobDirectory() {
+        return Paths.get(config.getStorage(), STORE_DIRECTORY);
+    }
+
+    /**
+     * Blobs are spread into subdirectories by the first two characters of their hash to keep directories small.
+     */
+    private Path blobPath(String hash) {
+        return blobDirectory().resolve(hash.substring(0, 2)).resolve(hash + BLOB_EXTENSION);
+    }
+
+    private static Path indexPath(Path file) {
+        return file.resolveSibling(file.getFileName().toString() + INDEX_SUFFIX);
+    }
+
+    private static List<Version> readIndex(Path index) throws IOException {
+        if (!Files.exists(index)) {
+            return new ArrayList<>();
+        }
+        final List<Version> result = new ArrayList<>();
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            if (!line.trim().isEmpty()) {
+                result.add(Version.parse(line));
+            }
+        }
+        return result;
+    }
+
+    private static void writeIndex(Path index, List<Version> versions) throws IOException {
+        if (versions.isEmpty()) {
+            Files.deleteIfExists(index);
+            return;
+        }
+        final Path temp = Files.createTempFile(index.getParent(), ".index", ".tmp");
+        try {
+            Files.write(temp, versions.stream().map(Version::format).collect(Collectors.toList()),
+                    StandardCharsets.UTF_8);
+            move(temp, index);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOG.warn("Unable to remove temporary file {}.", path, e);
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new DocumentManagerException("Digest algorithm " + DIGEST_ALGORITHM + " not available.", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Backed up version of a file.
+     */
+    public static class Version {
+
+        private final Instant created;
+
+        private final String hash;
+
+        private final long size;
+
+        public Version(Instant created, String hash, long size) {
+            this.created = Objects.requireNonNull(created);
+            this.hash = Objects.requireNonNull(hash);
+            this.size = size;
+        }
+
+        public Instant getCreated() {
+            return created;
+        }
+
+        /**
+         * Hex-encoded SHA-256 digest of the backed up content.
+         */
+        public String getHash() {
+            return hash;
+        }
+
+        /**
+         * Size of the backed up content in bytes (before compression).
+         */
+        public long getSize() {
+            return size;
+        }
+
+        private String format() {
+            return created.toEpochMilli() + " " + hash + " " + size;
+        }
+
+        private static Version parse(String line) {
+            final String[] parts = line.trim().split(" ");
+            if (parts.length != 3) {
+                throw new DocumentManagerException("Invalid backup index entry '" + line + "'.");
+            }
+            return new Version(Instant.ofEpochMilli(Long.parseLong(parts[0])), parts[1], Long.parseLong(parts[2]));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Version)) {
+                return false;
+            }
+            final Version version = (Version) o;
+            return size == version.size && created.equals(version.created) && hash.equals(version.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(created, hash, size);
+        }
+
+        @Override
+        public String toString() {
+            return "Version{" + created + ", " + hash + ", " + size + "B}";
+        }
+    }
+}
@@ -31,19 +31,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Consumer;
 
 /**
  * Default document manager uses files on filesystem to store content.
@@ -53,13 +52,14 @@ public class DefaultDocumentManager implements DocumentManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultDocumentManager.class);
 
-    private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd_HHmmss_S");
-
     private final Configuration config;
 
+    private final BackupStore backupStore;
+
     @Autowired
-    public DefaultDocumentManager(Configuration config) {
+    public DefaultDocumentManager(Configuration config, BackupStore backupStore) {
         this.config = config;
+        this.backupStore = backupStore;
     }
 
     private java.io.File resolveFile(File file, boolean verifyExists) {
@@ -99,40 +99,56 @@ public class DefaultDocumentManager implements DocumentManager {
         return new TypeAwareFileSystemResource(resolveFile(file, true), getMediaType(file));
     }
 
+    @Override
+    public InputStreamSource getContentSource(File file) {
+        final Path path = resolveFile(file, true).toPath();
+        return () -> Files.newInputStream(path);
+    }
+
+    /**
+     * Content is first written into a temporary file which then replaces the target file, so that readers streaming
+     * the original file are not affected.
+     */
     @Override
     public void saveFileContent(File file, InputStream content) {
+        Path temp = null;
         try {
             final java.io.File target = resolveFile(file, false);
             LOG.debug("Saving file content to {}.", target);
-            Files.createDirectories(target.getParentFile().toPath());
-            Files.copy(content, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            final Path directory = target.getParentFile().toPath();
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, ".upload", ".tmp");
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            replace(temp, target.toPath());
         } catch (IOException e) {
             throw new DocumentManagerException("Unable to write out file content.", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    LOG.warn("Unable to remove temporary file {}.", temp, e);
+                }
+            }
         }
     }
 
-    @Override
-    public void createBackup(File file) {
+    private static void replace(Path source, Path target) throws IOException {
         try {
-            final java.io.File toBackup = resolveFile(file, true);
-            final java.io.File backupFile = new java.io.File(
-                    toBackup.getParent() + java.io.File.separator + generateBackupFileName(file));
-            LOG.debug("Backing up file {} to {}.", toBackup, backupFile);
-            Files.copy(toBackup.toPath(), backupFile.toPath());
-        } catch (IOException e) {
-            throw new DocumentManagerException("Unable to backup file.", e);
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
     /**
-     * Backup file name consists of the original file name + ~ + the current time stamp in a predefined format
-     *
-     * @param file File for which backup file name should be generated
-     * @return Backup name
+     * Backups are stored in the {@link BackupStore}, which keeps each distinct content only once.
      */
-    private String generateBackupFileName(File file) {
-        final String origName = IdentifierResolver.sanitizeFileName(file.getLabel());
-        return origName + "~" + dateFormat.format(new Date());
+    @Override
+    public void createBackup(File file) {
+        final java.io.File toBackup = resolveFile(file, true);
+        LOG.debug("Backing up file {}.", toBackup);
+        backupStore.backup(toBackup.toPath());
     }
 
     @Override
@@ -180,24 +196,14 @@ public class DefaultDocumentManager implements DocumentManager {
         if (!physicalFile.exists()) {
             return;
         }
-        removeBackups(file, physicalFile);
+        removeBackups(physicalFile);
         physicalFile.delete();
         removeParentIfNotInDocument(file, physicalFile);
     }
 
-    private void removeBackups(File file, java.io.File physicalFile) {
+    private void removeBackups(java.io.File physicalFile) {
         LOG.trace("Removing backups of file {}.", physicalFile);
-        processBackups(file, physicalFile.getParentFile(), java.io.File::delete);
-    }
-
-    private void processBackups(File file, java.io.File directory, Consumer<java.io.File> consumer) {
-        final String backupStartPattern = IdentifierResolver.sanitizeFileName(file.getLabel()) + "~";
-        final java.io.File[] backups = directory.listFiles((f, fn) -> fn.startsWith(backupStartPattern));
-        if (backups != null) {
-            for (java.io.File backup : backups) {
-                consumer.accept(backup);
-            }
-        }
+        backupStore.removeVersions(physicalFile.toPath());
     }
 
     private void removeParentIfNotInDocument(File file, java.io.File physicalFile) {
@@ -237,7 +243,7 @@ public class DefaultDocumentManager implements DocumentManager {
             if (tempOriginal.getDocument() == null) {
                 physicalOriginal = moveFolder(event.getSource(), physicalOriginal, event);
             }
-            moveFile(tempOriginal, physicalOriginal, event);
+            moveFile(physicalOriginal, event);
         } catch (IOException e) {
             throw new DocumentManagerException("Unable to sync file content after file renaming.", e);
         }
@@ -284,7 +290,7 @@ public class DefaultDocumentManager implements DocumentManager {
                 newDirectory.getAbsolutePath() + java.io.File.separator + physicalOriginal.getName());
     }
 
-    private void moveFile(File original, java.io.File physicalOriginal, FileRenameEvent event) throws IOException {
+    private void moveFile(java.io.File physicalOriginal, FileRenameEvent event) throws IOException {
         final File tempNewFile = new File();
         tempNewFile.setUri(event.getSource().getUri());
         tempNewFile.setDocument(event.getSource().getDocument());
@@ -293,19 +299,7 @@ public class DefaultDocumentManager implements DocumentManager {
         LOG.debug("Moving content from '{}' to '{}' due to file rename.", event.getOriginalName(),
                 event.getNewName());
         Files.move(physicalOriginal.toPath(), newFile.toPath());
-        moveBackupFiles(original, physicalOriginal.getParentFile(), event);
-    }
-
-    private void moveBackupFiles(File originalFile, java.io.File directory, FileRenameEvent event) {
-        LOG.debug("Moving backup files.");
-        processBackups(originalFile, directory, f -> {
-            final String newName = f.getName().replace(event.getOriginalName(), event.getNewName());
-            LOG.trace("Moving backup file from '{}' to '{}'", f.getName(), newName);
-            try {
-                Files.move(f.toPath(), new java.io.File(f.getParent() + java.io.File.separator + newName).toPath());
-            } catch (IOException e) {
-                throw new DocumentManagerException("Unable to sync backup file.", e);
-            }
-        });
+        LOG.trace("Moving backups of file '{}'.", event.getOriginalName());
+        backupStore.moveVersions(physicalOriginal.toPath(), newFile.toPath());
     }
 }
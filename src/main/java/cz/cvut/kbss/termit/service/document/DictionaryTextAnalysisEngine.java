@@ -0,0 +1,348 @@
+package cz.cvut.kbss.termit.service.document;
+
+import cz.cvut.kbss.termit.dto.TextAnalysisInput;
+import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
+import cz.cvut.kbss.termit.event.VocabularyContentModified;
+import cz.cvut.kbss.termit.exception.DocumentManagerException;
+import cz.cvut.kbss.termit.persistence.dao.TermDao;
+import cz.cvut.kbss.termit.service.document.util.AhoCorasickAutomaton;
+import cz.cvut.kbss.termit.util.Constants;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Text analysis engine annotating occurrences of term labels in HTML content in-process.
+ * <p>
+ * Preferred and alternative labels of terms from the analyzed vocabulary contexts are compiled into an {@link
+ * AhoCorasickAutomaton}, so each text node of the document is scanned only once regardless of the number of terms.
+ * Labels are matched case-insensitively and only as whole words, any sequence of whitespace in the text matches a single
+ * space in a label. When several labels overlap, the leftmost and then the longest one wins.
+ * <p>
+ * Automata are cached per set of vocabulary contexts and discarded when vocabulary content changes.
+ */
+@Service
+@Profile(Constants.LOCAL_TEXT_ANALYSIS_PROFILE)
+public class DictionaryTextAnalysisEngine implements TextAnalysisEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DictionaryTextAnalysisEngine.class);
+
+    static final String TERMIT_PREFIX = "termit: http://onto.fel.cvut.cz/ontologies/application/termit/pojem/";
+    static final String OCCURRENCE_TYPE = "termit:výskyt-termu";
+    static final String OCCURRENCE_PROPERTY = "termit:je-výskytem-termu";
+
+    /**
+     * Elements whose content is not analyzed.
+     */
+    private static final Set<String> SKIPPED_ELEMENTS = new HashSet<>(
+            Arrays.asList("head", "script", "style", "textarea", "code", "pre"));
+
+    private static final Pattern BLANK_NODE_ID = Pattern.compile("_:(\\d+)");
+
+    private final TermDao termDao;
+
+    private final Map<AutomatonKey, AhoCorasickAutomaton<URI>> automata = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on each eviction, so that automata built from labels loaded concurrently with a modification are not
+     * cached.
+     */
+    private final AtomicLong automataVersion = new AtomicLong();
+
+    @Autowired
+    public DictionaryTextAnalysisEngine(TermDao termDao) {
+        this.termDao = termDao;
+    }
+
+    @Override
+    public InputStream analyze(TextAnalysisInput input) {
+        Objects.requireNonNull(input);
+        final Document document = parse(input);
+        document.outputSettings().prettyPrint(false);
+        final Set<URI> contexts = input.getVocabularyContexts() != null ? input.getVocabularyContexts() :
+                                  Collections.emptySet();
+        if (contexts.isEmpty()) {
+            LOG.warn("No vocabulary contexts specified for text analysis, content will not be annotated.");
+        } else {
+            final AhoCorasickAutomaton<URI> automaton = getAutomaton(contexts, input.getLanguage());
+            LOG.trace("Annotating content using {} labels from contexts {}.", automaton.size(), contexts);
+            new Annotator(automaton, document).annotate();
+        }
+        return new ByteArrayInputStream(document.outerHtml().getBytes(document.charset()));
+    }
+
+    private static Document parse(TextAnalysisInput input) {
+        if (input.getContentSource() == null) {
+            return Jsoup.parse(input.getContent());
+        }
+        try (final InputStream in = input.getContentSource().getInputStream()) {
+            return Jsoup.parse(in, StandardCharsets.UTF_8.name(), "");
+        } catch (IOException e) {
+            throw new DocumentManagerException("Unable to read content for text analysis.", e);
+        }
+    }
+
+    /**
+     * Gets automaton matching labels of terms from the specified contexts.
+     * <p>
+     * The labels are loaded outside of the automata map, so that the repository is not queried while the map is
+     * locked. Concurrent requests may thus build the same automaton, only one of them is kept.
+     */
+    private AhoCorasickAutomaton<URI> getAutomaton(Set<URI> contexts, String language) {
+        final AutomatonKey key = new AutomatonKey(contexts, language);
+        final AhoCorasickAutomaton<URI> existing = automata.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        final long version = automataVersion.get();
+        LOG.debug("Building text analysis automaton for contexts {}.", key.contexts);
+        final Map<String, URI> keywords = new HashMap<>();
+        termDao.findAllLabels(key.contexts, key.language).forEach((term, labels) -> labels.forEach(
+                label -> keywords.merge(normalizeLabel(label), term, (a, b) -> a.compareTo(b) <= 0 ? a : b)));
+        final AhoCorasickAutomaton<URI> automaton = new AhoCorasickAutomaton<>(keywords);
+        if (version != automataVersion.get()) {
+            return automaton;
+        }
+        final AhoCorasickAutomaton<URI> cached = automata.putIfAbsent(key, automaton);
+        // An eviction may have happened between the check and the insertion
+        if (version != automataVersion.get()) {
+            automata.remove(key, automaton);
+        }
+        return cached != null ? cached : automaton;
+    }
+
+    @EventListener
+    public void onVocabularyContentModified(VocabularyContentModified event) {
+        LOG.debug("Vocabulary content modified, evicting text analysis automata.");
+        evictAutomata();
+    }
+
+    @EventListener
+    public void onInvalidateCaches(InvalidateCachesEvent event) {
+        evictAutomata();
+    }
+
+    private void evictAutomata() {
+        automataVersion.incrementAndGet();
+        automata.clear();
+    }
+
+    static String normalizeLabel(String label) {
+        return new NormalizedText(label.trim()).getText();
+    }
+
+    /**
+     * Text normalized for matching.
+     * <p>
+     * Characters are lowercased and each sequence of whitespace is collapsed into a single space. Positions in the
+     * normalized text are mapped back to positions in the original one.
+     */
+    static class NormalizedText {
+
+        private final String text;
+
+        /**
+         * Position in the original text of each character of the normalized text.
+         */
+        private final int[] offsets;
+
+        NormalizedText(String original) {
+            final StringBuilder sb = new StringBuilder(original.length());
+            this.offsets = new int[original.length()];
+            boolean afterSpace = false;
+            for (int i = 0; i < original.length(); i++) {
+                final char c = original.charAt(i);
+                final boolean space = Character.isWhitespace(c) || Character.isSpaceChar(c);
+                if (space && afterSpace) {
+                    continue;
+                }
+                offsets[sb.length()] = i;
+                sb.append(space ? ' ' : Character.toLowerCase(c));
+                afterSpace = space;
+            }
+            this.text = sb.toString();
+        }
+
+        String getText() {
+            return text;
+        }
+
+        /**
+         * Gets position in the original text corresponding to the specified start position in the normalized text.
+         */
+        int originalStart(int start) {
+            return offsets[start];
+        }
+
+        /**
+         * Gets position in the original text corresponding to the specified (exclusive) end position in the normalized
+         * text.
+         */
+        int originalEnd(int end) {
+            return offsets[end - 1] + 1;
+        }
+    }
+
+    /**
+     * Annotates occurrences in a single document.
+     */
+    private static class Annotator {
+
+        private final AhoCorasickAutomaton<URI> automaton;
+
+        private final Document document;
+
+        private int lastId;
+
+        private Annotator(AhoCorasickAutomaton<URI> automaton, Document document) {
+            this.automaton = automaton;
+            this.document = document;
+            for (Element el : document.getElementsByAttribute("about")) {
+                final Matcher m = BLANK_NODE_ID.matcher(el.attr("about"));
+                if (m.matches()) {
+                    lastId = Math.max(lastId, Integer.parseInt(m.group(1)));
+                }
+            }
+        }
+
+        private void annotate() {
+            final int idBefore = lastId;
+            annotate(document.body());
+            if (lastId > idBefore) {
+                registerPrefix(document.body());
+            }
+        }
+
+        private void annotate(Element element) {
+            if (SKIPPED_ELEMENTS.contains(element.tagName()) || element.hasAttr("property") ||
+                    element.hasAttr("about")) {
+                return;
+            }
+            // Copy, annotation modifies the child nodes
+            for (Node child : new ArrayList<>(element.childNodes())) {
+                if (child instanceof TextNode) {
+                    annotate((TextNode) child);
+                } else if (child instanceof Element) {
+                    annotate((Element) child);
+                }
+            }
+        }
+
+        private void annotate(TextNode node) {
+            final String text = node.getWholeText();
+            final List<AhoCorasickAutomaton.Match<URI>> matches = select(text);
+            if (matches.isEmpty()) {
+                return;
+            }
+            int position = 0;
+            for (AhoCorasickAutomaton.Match<URI> m : matches) {
+                if (m.getStart() > position) {
+                    node.before(new TextNode(text.substring(position, m.getStart())));
+                }
+                node.before(createOccurrence(text.substring(m.getStart(), m.getEnd()), m.getValue()));
+                position = m.getEnd();
+            }
+            if (position < text.length()) {
+                node.before(new TextNode(text.substring(position)));
+            }
+            node.remove();
+        }
+
+        /**
+         * Selects non-overlapping whole-word matches in the original text, preferring the leftmost and then the longest ones.
+         */
+        private List<AhoCorasickAutomaton.Match<URI>> select(String text) {
+            final List<AhoCorasickAutomaton.Match<URI>> candidates = new ArrayList<>();
+            final NormalizedText normalized = new NormalizedText(text);
+            for (AhoCorasickAutomaton.Match<URI> m : automaton.findAll(normalized.getText())) {
+                final int start = normalized.originalStart(m.getStart());
+                final int end = normalized.originalEnd(m.getEnd());
+                if (isWordBoundary(text, start - 1) && isWordBoundary(text, end)) {
+                    candidates.add(new AhoCorasickAutomaton.Match<>(start, end, m.getValue()));
+                }
+            }
+            if (candidates.isEmpty()) {
+                return candidates;
+            }
+            candidates.sort((a, b) -> a.getStart() != b.getStart() ? Integer.compare(a.getStart(), b.getStart()) :
+                                      Integer.compare(b.getEnd(), a.getEnd()));
+            final List<AhoCorasickAutomaton.Match<URI>> result = new ArrayList<>();
+            int end = 0;
+            for (AhoCorasickAutomaton.Match<URI> m : candidates) {
+                if (m.getStart() >= end) {
+                    result.add(m);
+                    end = m.getEnd();
+                }
+            }
+            return result;
+        }
+
+        private static boolean isWordBoundary(String text, int index) {
+            return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+        }
+
+        private Element createOccurrence(String text, URI term) {
+            final Element span = new Element("span");
+            span.attr("about", "_:" + (++lastId));
+            span.attr("property", OCCURRENCE_PROPERTY);
+            span.attr("resource", term.toString());
+            span.attr("typeof", OCCURRENCE_TYPE);
+            span.attr("score", "1.0");
+            span.appendChild(new TextNode(text));
+            return span;
+        }
+
+        private static void registerPrefix(Element body) {
+            final String prefix = body.attr("prefix");
+            if (!prefix.contains(TERMIT_PREFIX)) {
+                body.attr("prefix", prefix.isEmpty() ? TERMIT_PREFIX : prefix + " " + TERMIT_PREFIX);
+            }
+        }
+    }
+
+    private static class AutomatonKey {
+        private final Set<URI> contexts;
+        private final String language;
+
+        private AutomatonKey(Set<URI> contexts, String language) {
+            this.contexts = new HashSet<>(contexts);
+            this.language = language;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AutomatonKey)) {
+                return false;
+            }
+            final AutomatonKey that = (AutomatonKey) o;
+            return contexts.equals(that.contexts) && Objects.equals(language, that.language);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contexts, language);
+        }
+    }
+}
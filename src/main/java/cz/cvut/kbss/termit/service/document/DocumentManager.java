@@ -21,6 +21,7 @@ import cz.cvut.kbss.termit.exception.NotFoundException;
 import cz.cvut.kbss.termit.model.resource.File;
 import cz.cvut.kbss.termit.model.resource.Resource;
 import cz.cvut.kbss.termit.util.TypeAwareResource;
+import org.springframework.core.io.InputStreamSource;
 
 import java.io.InputStream;
 import java.util.Optional;
@@ -46,6 +47,18 @@ public interface DocumentManager {
      */
     String loadFileContent(File file);
 
+    /**
+     * Gets a source of the content of the specified file.
+     * <p>
+     * The content is not loaded into memory, each call of {@link InputStreamSource#getInputStream()} opens a new stream
+     * reading directly from the storage.
+     *
+     * @param file File representing the physical item
+     * @return Source of the content of the file
+     * @throws NotFoundException If the file cannot be found
+     */
+    InputStreamSource getContentSource(File file);
+
     /**
      * Gets the file as a {@link org.springframework.core.io.Resource}.
      * <p>
@@ -71,7 +84,8 @@ public interface DocumentManager {
     /**
      * Creates backup of the specified file.
      * <p>
-     * Multiple backups of a file can be created and they should be distinguishable.
+     * Multiple backups of a file can be created and they should be distinguishable. Backups with identical content may
+     * share storage.
      *
      * @param file File to backup
      * @throws NotFoundException If the file cannot be found
@@ -0,0 +1,56 @@
+package cz.cvut.kbss.termit.service.document;
+
+import cz.cvut.kbss.termit.dto.TextAnalysisInput;
+import cz.cvut.kbss.termit.exception.WebServiceIntegrationException;
+import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.*;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Text analysis engine delegating to the remote text analysis service.
+ */
+@Service
+@Profile("!" + Constants.LOCAL_TEXT_ANALYSIS_PROFILE)
+public class RemoteTextAnalysisEngine implements TextAnalysisEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RemoteTextAnalysisEngine.class);
+
+    private final RestTemplate restClient;
+
+    private final Configuration config;
+
+    @Autowired
+    public RemoteTextAnalysisEngine(RestTemplate restClient, Configuration config) {
+        this.restClient = restClient;
+        this.config = config;
+    }
+
+    @Override
+    public InputStream analyze(TextAnalysisInput input) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.ACCEPT, MediaType.APPLICATION_XML_VALUE);
+        LOG.debug("Invoking text analysis service on input: {}", input);
+        final ResponseEntity<Resource> resp = restClient
+                .exchange(config.getTextAnalysis().getUrl(), HttpMethod.POST,
+                        new HttpEntity<>(input, headers), Resource.class);
+        if (!resp.hasBody()) {
+            throw new WebServiceIntegrationException("Text analysis service returned empty response.");
+        }
+        assert resp.getBody() != null;
+        try {
+            return resp.getBody().getInputStream();
+        } catch (IOException e) {
+            throw new WebServiceIntegrationException("Unable to read text analysis result from response.", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package cz.cvut.kbss.termit.service.document;
+
+import cz.cvut.kbss.termit.dto.TextAnalysisInput;
+
+import java.io.InputStream;
+
+/**
+ * Finds occurrences of terms in text content.
+ * <p>
+ * The result of the analysis is the original content annotated with RDFa marking the term occurrences.
+ */
+public interface TextAnalysisEngine {
+
+    /**
+     * Analyzes the specified input, annotating occurrences of terms from the vocabularies it specifies.
+     *
+     * @param input Text analysis input
+     * @return Stream of the annotated content
+     * @throws cz.cvut.kbss.termit.exception.WebServiceIntegrationException When the analysis fails
+     */
+    InputStream analyze(TextAnalysisInput input);
+}
@@ -0,0 +1,173 @@
+package cz.cvut.kbss.termit.service.document;
+
+import cz.cvut.kbss.termit.dto.TextAnalysisJob;
+import cz.cvut.kbss.termit.exception.NotFoundException;
+import cz.cvut.kbss.termit.exception.TextAnalysisJobRejectedException;
+import cz.cvut.kbss.termit.exception.WebServiceIntegrationException;
+import cz.cvut.kbss.termit.model.resource.File;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs text analysis of multiple files in the background.
+ * <p>
+ * Files of a job are analyzed independently by a bounded pool of workers, so throughput scales with the configured
+ * parallelism. Analysis of a file failing due to text analysis service integration errors is retried with a linear
+ * back-off. Jobs analyzing the same asset are deduplicated while they are running. State of a limited number of the
+ * most recently finished jobs is retained for later retrieval.
+ * <p>
+ * The number of files waiting for analysis is bounded. Jobs which would exceed the bound are rejected.
+ */
+@Service
+public class TextAnalysisJobService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TextAnalysisJobService.class);
+
+    private final TextAnalysisService textAnalysisService;
+
+    private final int maxAttempts;
+
+    private final long retryDelay;
+
+    private final int retainedJobs;
+
+    private final int queueCapacity;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final Map<String, TextAnalysisJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Running jobs mapped by their target. Guarded by this.
+     */
+    private final Map<URI, TextAnalysisJob> activeJobs = new HashMap<>();
+
+    /**
+     * Identifiers of finished jobs, the oldest first. Guarded by this.
+     */
+    private final Deque<String> finishedJobs = new ArrayDeque<>();
+
+    /**
+     * Number of submitted files whose analysis has not been completed yet. Guarded by this.
+     */
+    private int pendingFiles;
+
+    @Autowired
+    public TextAnalysisJobService(TextAnalysisService textAnalysisService, Configuration config) {
+        this.textAnalysisService = textAnalysisService;
+        final Configuration.TextAnalysis taConfig = config.getTextAnalysis();
+        this.maxAttempts = Math.max(1, taConfig.getMaxAttempts());
+        this.retryDelay = taConfig.getRetryDelay();
+        this.retainedJobs = taConfig.getRetainedJobs();
+        this.queueCapacity = Math.max(1, taConfig.getQueueCapacity());
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, taConfig.getParallelism()), r -> {
+            final Thread t = new Thread(r, "text-analysis-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Submits text analysis of the specified files.
+     * <p>
+     * If analysis of the same target is already running, the existing job is returned.
+     *
+     * @param target Identifier of the asset whose files are analyzed
+     * @param files  Files to analyze mapped to identifiers of vocabularies to use as sources of terms for their analysis
+     * @return Text analysis job
+     * @throws TextAnalysisJobRejectedException When the job cannot be accepted because too many files are waiting for
+     *                                          analysis
+     */
+    public synchronized TextAnalysisJob submit(URI target, Map<File, Set<URI>> files) {
+        Objects.requireNonNull(target);
+        Objects.requireNonNull(files);
+        final TextAnalysisJob existing = activeJobs.get(target);
+        if (existing != null) {
+            LOG.debug("Text analysis of {} already submitted as job {}.", target, existing.getId());
+            return existing;
+        }
+        if (pendingFiles > 0 && pendingFiles + files.size() > queueCapacity) {
+            throw new TextAnalysisJobRejectedException(
+                    "Text analysis queue is full, unable to analyze files of " + target + ".");
+        }
+        pendingFiles += files.size();
+        final TextAnalysisJob job = new TextAnalysisJob(UUID.randomUUID().toString(), target, files.size());
+        jobs.put(job.getId(), job);
+        activeJobs.put(target, job);
+        files.forEach((file, vocabularies) -> executor.execute(() -> analyze(job, file, vocabularies, 1)));
+        LOG.debug("Submitted text analysis job {}.", job);
+        return job;
+    }
+
+    private void analyze(TextAnalysisJob job, File file, Set<URI> vocabularies, int attempt) {
+        job.start();
+        LOG.trace("Analyzing file {} in job {}, attempt {}.", file, job.getId(), attempt);
+        final boolean last;
+        try {
+            textAnalysisService.analyzeFile(file, vocabularies);
+            last = job.fileAnalyzed();
+        } catch (WebServiceIntegrationException e) {
+            if (attempt < maxAttempts) {
+                LOG.warn("Text analysis of file {} failed, retrying. {}", file, e.getMessage());
+                executor.schedule(() -> analyze(job, file, vocabularies, attempt + 1), retryDelay * attempt,
+                        TimeUnit.MILLISECONDS);
+                return;
+            }
+            LOG.error("Text analysis of file {} failed after {} attempts.", file, attempt, e);
+            last = job.fileFailed(file.getUri(), e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.error("Text analysis of file {} failed.", file, e);
+            last = job.fileFailed(file.getUri(), e.getMessage());
+        }
+        fileDone();
+        if (last) {
+            retire(job);
+            job.finish();
+            LOG.debug("Text analysis job {} done.", job);
+        }
+    }
+
+    private synchronized void fileDone() {
+        pendingFiles--;
+    }
+
+    private synchronized void retire(TextAnalysisJob job) {
+        activeJobs.remove(job.getTarget(), job);
+        finishedJobs.addLast(job.getId());
+        while (finishedJobs.size() > retainedJobs) {
+            jobs.remove(finishedJobs.removeFirst());
+        }
+    }
+
+    /**
+     * Gets text analysis job with the specified identifier.
+     *
+     * @param id Job identifier
+     * @return Text analysis job
+     * @throws NotFoundException When the job does not exist or is no longer retained
+     */
+    public TextAnalysisJob findRequired(String id) {
+        final TextAnalysisJob job = jobs.get(id);
+        if (job == null) {
+            throw NotFoundException.create("Text analysis job", id);
+        }
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -23,13 +23,10 @@ import cz.cvut.kbss.termit.util.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
-import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.*;
 
@@ -38,7 +35,7 @@ public class TextAnalysisService {
 
     private static final Logger LOG = LoggerFactory.getLogger(TextAnalysisService.class);
 
-    private final RestTemplate restClient;
+    private final TextAnalysisEngine engine;
 
     private final Configuration config;
 
@@ -47,17 +44,17 @@ public class TextAnalysisService {
     private final TextAnalysisRecordDao recordDao;
 
     @Autowired
-    public TextAnalysisService(RestTemplate restClient, Configuration config, DocumentManager documentManager,
+    public TextAnalysisService(TextAnalysisEngine engine, Configuration config, DocumentManager documentManager,
                                TextAnalysisRecordDao recordDao) {
-        this.restClient = restClient;
+        this.engine = engine;
         this.config = config;
         this.documentManager = documentManager;
         this.recordDao = recordDao;
     }
 
     /**
-     * Passes the content of the specified file to the remote text analysis service, letting it find occurrences of
-     * terms from the vocabularies specified by their repository contexts.
+     * Passes the content of the specified file to the text analysis engine, letting it find occurrences of terms from
+     * the vocabularies specified by their repository contexts.
      * <p>
      * The analysis result is passed to the term occurrence generator.
      *
@@ -74,7 +71,8 @@ public class TextAnalysisService {
 
     private TextAnalysisInput createAnalysisInput(File file) {
         final TextAnalysisInput input = new TextAnalysisInput();
-        input.setContent(documentManager.loadFileContent(file));
+        // Content is streamed from the storage when the input is processed
+        input.setContentSource(documentManager.getContentSource(file));
         URI repositoryUrl = URI.create(
             config.getRepository().getPublicUrl().orElse(config.getRepository().getUrl())
         );
@@ -85,33 +83,17 @@ public class TextAnalysisService {
 
     private void invokeTextAnalysisOnFile(File file, TextAnalysisInput input) {
         try {
-            final Resource result = invokeTextAnalysisService(input);
+            final InputStream result = engine.analyze(input);
             documentManager.createBackup(file);
-            documentManager.saveFileContent(file, result.getInputStream());
+            documentManager.saveFileContent(file, result);
             storeTextAnalysisRecord(file, input);
         } catch (WebServiceIntegrationException e) {
             throw e;
         } catch (RuntimeException e) {
             throw new WebServiceIntegrationException("Text analysis invocation failed.", e);
-        } catch (IOException e) {
-            throw new WebServiceIntegrationException("Unable to read text analysis result from response.", e);
         }
     }
 
-    private Resource invokeTextAnalysisService(TextAnalysisInput input) {
-        final HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.ACCEPT, MediaType.APPLICATION_XML_VALUE);
-        LOG.debug("Invoking text analysis service on input: {}", input);
-        final ResponseEntity<Resource> resp = restClient
-                .exchange(config.getTextAnalysis().getUrl(), HttpMethod.POST,
-                        new HttpEntity<>(input, headers), Resource.class);
-        if (!resp.hasBody()) {
-            throw new WebServiceIntegrationException("Text analysis service returned empty response.");
-        }
-        assert resp.getBody() != null;
-        return resp.getBody();
-    }
-
     private void storeTextAnalysisRecord(File file, TextAnalysisInput config) {
         LOG.trace("Creating record of text analysis event for file {}.", file);
         assert config.getVocabularyContexts() != null;
@@ -0,0 +1,163 @@
+package cz.cvut.kbss.termit.service.document.util;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton finding all occurrences of a set of keywords in text in a single pass.
+ * <p>
+ * Keywords are matched exactly, any normalization (e.g., case folding) has to be done by the caller both on the
+ * keywords and on the searched text.
+ * <p>
+ * Instances are immutable and thus thread-safe.
+ *
+ * @param <V> Type of the values associated with the keywords
+ */
+public class AhoCorasickAutomaton<V> {
+
+    private final Node<V> root = new Node<>(0);
+
+    private final int size;
+
+    /**
+     * Builds automaton for the specified keywords.
+     *
+     * @param keywords Keywords mapped to values reported with their matches. Empty keywords are ignored
+     */
+    public AhoCorasickAutomaton(Map<String, V> keywords) {
+        Objects.requireNonNull(keywords);
+        int count = 0;
+        for (Map.Entry<String, V> e : keywords.entrySet()) {
+            if (e.getKey().isEmpty()) {
+                continue;
+            }
+            Node<V> node = root;
+            for (int i = 0; i < e.getKey().length(); i++) {
+                final int depth = i + 1;
+                node = node.children.computeIfAbsent(e.getKey().charAt(i), c -> new Node<>(depth));
+            }
+            node.value = e.getValue();
+            node.terminal = true;
+            count++;
+        }
+        this.size = count;
+        buildLinks();
+    }
+
+    /**
+     * Computes failure and dictionary suffix links by breadth-first traversal of the keyword trie.
+     */
+    private void buildLinks() {
+        final Deque<Node<V>> queue = new ArrayDeque<>();
+        for (Node<V> child : root.children.values()) {
+            child.failure = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final Node<V> node = queue.remove();
+            for (Map.Entry<Character, Node<V>> e : node.children.entrySet()) {
+                final Node<V> child = e.getValue();
+                Node<V> failure = node.failure;
+                while (failure != null && !failure.children.containsKey(e.getKey())) {
+                    failure = failure.failure;
+                }
+                child.failure = failure != null ? failure.children.get(e.getKey()) : root;
+                child.output = child.failure.terminal ? child.failure : child.failure.output;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of keywords recognized by this automaton.
+     *
+     * @return Number of keywords
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds all occurrences of the keywords in the specified text.
+     * <p>
+     * Overlapping occurrences are all reported. Matches are ordered by their end position and, for the same end, from
+     * the longest one.
+     *
+     * @param text Text to search
+     * @return List of matches, possibly empty
+     */
+    public List<Match<V>> findAll(CharSequence text) {
+        Objects.requireNonNull(text);
+        final List<Match<V>> result = new ArrayList<>();
+        Node<V> state = root;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            while (state != root && !state.children.containsKey(c)) {
+                state = state.failure;
+            }
+            state = state.children.getOrDefault(c, root);
+            for (Node<V> n = state.terminal ? state : state.output; n != null; n = n.output) {
+                result.add(new Match<>(i + 1 - n.depth, i + 1, n.value));
+            }
+        }
+        return result;
+    }
+
+    private static class Node<V> {
+        private final Map<Character, Node<V>> children = new HashMap<>(4);
+        private final int depth;
+        private Node<V> failure;
+        /**
+         * Nearest terminal node reachable via failure links.
+         */
+        private Node<V> output;
+        private boolean terminal;
+        private V value;
+
+        private Node(int depth) {
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * Occurrence of a keyword in text.
+     *
+     * @param <V> Type of the value associated with the keyword
+     */
+    public static class Match<V> {
+
+        private final int start;
+
+        private final int end;
+
+        private final V value;
+
+        public Match(int start, int end, V value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+        }
+
+        /**
+         * Index of the first character of the match (inclusive).
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * Index following the last character of the match (exclusive).
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Match{" + start + "-" + end + ", " + value + '}';
+        }
+    }
+}
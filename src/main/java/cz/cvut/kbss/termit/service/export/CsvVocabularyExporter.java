@@ -17,14 +17,20 @@
  */
 package cz.cvut.kbss.termit.service.export;
 
+import cz.cvut.kbss.termit.exception.TermItException;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.service.export.util.TypeAwareByteArrayResource;
 import cz.cvut.kbss.termit.service.repository.TermRepositoryService;
+import cz.cvut.kbss.termit.util.Constants;
 import cz.cvut.kbss.termit.util.TypeAwareResource;
+import cz.cvut.kbss.termit.util.TypeAwareStreamingOutput;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
@@ -44,10 +50,33 @@ public class CsvVocabularyExporter implements VocabularyExporter {
     @Override
     public TypeAwareResource exportVocabularyGlossary(Vocabulary vocabulary) {
         Objects.requireNonNull(vocabulary);
-        final StringBuilder export = new StringBuilder(String.join(",", Term.EXPORT_COLUMNS));
-        final List<Term> terms = termService.findAll(vocabulary);
-        terms.forEach(t -> export.append('\n').append(t.toCsv()));
-        return new TypeAwareByteArrayResource(export.toString().getBytes(), MEDIA_TYPE, FILE_EXTENSION);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try {
+            writeGlossary(termService.findAllPages(vocabulary, Constants.EXPORT_PAGE_SIZE), bos);
+        } catch (IOException e) {
+            throw new TermItException("Unable to generate CSV from glossary of " + vocabulary, e);
+        }
+        return new TypeAwareByteArrayResource(bos.toByteArray(), MEDIA_TYPE, FILE_EXTENSION);
+    }
+
+    @Override
+    public TypeAwareStreamingOutput streamVocabularyGlossary(Vocabulary vocabulary) {
+        Objects.requireNonNull(vocabulary);
+        // Resolve the vocabulary now, the output may be written outside of the current request
+        final Iterator<List<Term>> pages = termService.findAllPages(vocabulary, Constants.EXPORT_PAGE_SIZE);
+        return new TypeAwareStreamingOutput(MEDIA_TYPE, FILE_EXTENSION, out -> writeGlossary(pages, out));
+    }
+
+    private static void writeGlossary(Iterator<List<Term>> pages, OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", Term.EXPORT_COLUMNS));
+        while (pages.hasNext()) {
+            for (Term t : pages.next()) {
+                writer.write('\n');
+                writer.write(t.toCsv());
+            }
+        }
+        writer.flush();
     }
 
     @Override
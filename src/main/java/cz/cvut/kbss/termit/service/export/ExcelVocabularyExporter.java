@@ -22,15 +22,19 @@ import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.service.export.util.TypeAwareByteArrayResource;
 import cz.cvut.kbss.termit.service.repository.TermRepositoryService;
+import cz.cvut.kbss.termit.util.Constants;
 import cz.cvut.kbss.termit.util.TypeAwareResource;
+import cz.cvut.kbss.termit.util.TypeAwareStreamingOutput;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
@@ -48,6 +52,11 @@ public class ExcelVocabularyExporter implements VocabularyExporter {
      */
     static final String SHEET_NAME = "Glossary";
 
+    /**
+     * Number of rows kept in memory by the streaming workbook, older rows are flushed to a temporary file
+     */
+    private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
     private final TermRepositoryService termService;
 
     @Autowired
@@ -58,18 +67,37 @@ public class ExcelVocabularyExporter implements VocabularyExporter {
     @Override
     public TypeAwareResource exportVocabularyGlossary(Vocabulary vocabulary) {
         Objects.requireNonNull(vocabulary);
-        try (final XSSFWorkbook wb = new XSSFWorkbook()) {
-            final Sheet sheet = wb.createSheet(SHEET_NAME);
-            generateHeaderRow(sheet);
-            generateTermRows(termService.findAll(vocabulary), sheet);
+        try {
             final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            wb.write(bos);
+            writeGlossary(termService.findAllPages(vocabulary, Constants.EXPORT_PAGE_SIZE), bos);
             return new TypeAwareByteArrayResource(bos.toByteArray(), MEDIA_TYPE, FILE_EXTENSION);
         } catch (IOException e) {
             throw new TermItException("Unable to generate excel file from glossary of " + vocabulary, e);
         }
     }
 
+    @Override
+    public TypeAwareStreamingOutput streamVocabularyGlossary(Vocabulary vocabulary) {
+        Objects.requireNonNull(vocabulary);
+        // Resolve the vocabulary now, the output may be written outside of the current request
+        final Iterator<List<Term>> pages = termService.findAllPages(vocabulary, Constants.EXPORT_PAGE_SIZE);
+        return new TypeAwareStreamingOutput(MEDIA_TYPE, FILE_EXTENSION, out -> writeGlossary(pages, out));
+    }
+
+    private static void writeGlossary(Iterator<List<Term>> pages, OutputStream out) throws IOException {
+        final SXSSFWorkbook wb = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+        try {
+            final Sheet sheet = wb.createSheet(SHEET_NAME);
+            generateHeaderRow(sheet);
+            generateTermRows(pages, sheet);
+            wb.write(out);
+        } finally {
+            // Removes temporary files backing the streamed rows
+            wb.dispose();
+            wb.close();
+        }
+    }
+
     private static void generateHeaderRow(Sheet sheet) {
         final Row row = sheet.createRow(0);
         for (int i = 0; i < Term.EXPORT_COLUMNS.size(); i++) {
@@ -77,11 +105,13 @@ public class ExcelVocabularyExporter implements VocabularyExporter {
         }
     }
 
-    private static void generateTermRows(List<Term> terms, Sheet sheet) {
+    private static void generateTermRows(Iterator<List<Term>> pages, Sheet sheet) {
         // Row no. 0 is the header
-        for (int i = 0; i < terms.size(); i++) {
-            final Row row = sheet.createRow(i + 1);
-            terms.get(i).toExcel(row);
+        int rowIndex = 1;
+        while (pages.hasNext()) {
+            for (Term t : pages.next()) {
+                t.toExcel(sheet.createRow(rowIndex++));
+            }
         }
     }
 
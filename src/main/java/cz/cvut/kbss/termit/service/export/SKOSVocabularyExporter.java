@@ -1,9 +1,13 @@
 package cz.cvut.kbss.termit.service.export;
 
+import cz.cvut.kbss.termit.exception.UnsupportedOperationException;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.persistence.dao.skos.SKOSExporter;
 import cz.cvut.kbss.termit.service.export.util.TypeAwareByteArrayResource;
 import cz.cvut.kbss.termit.util.TypeAwareResource;
+import cz.cvut.kbss.termit.util.TypeAwareStreamingOutput;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,9 +15,12 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 
-import static cz.cvut.kbss.termit.util.Constants.Turtle;
+import static cz.cvut.kbss.termit.util.Constants.*;
 
 /**
  * Exports vocabulary glossary in a SKOS-compatible format.
@@ -23,6 +30,27 @@ public class SKOSVocabularyExporter implements VocabularyExporter {
 
     private static final Logger LOG = LoggerFactory.getLogger(SKOSVocabularyExporter.class);
 
+    /**
+     * Supported RDF serialization formats, mapped by their media type.
+     * <p>
+     * Only triple-based formats are supported, as the export does not retain repository contexts.
+     */
+    private static final Map<String, RDFFormat> FORMATS = new LinkedHashMap<>();
+
+    /**
+     * File extensions of the exported files, mapped by their media type.
+     */
+    private static final Map<String, String> FILE_EXTENSIONS = new HashMap<>();
+
+    static {
+        FORMATS.put(Turtle.MEDIA_TYPE, RDFFormat.TURTLE);
+        FORMATS.put(NTriples.MEDIA_TYPE, RDFFormat.NTRIPLES);
+        FORMATS.put(BinaryRdf.MEDIA_TYPE, RDFFormat.BINARY);
+        FILE_EXTENSIONS.put(Turtle.MEDIA_TYPE, Turtle.FILE_EXTENSION);
+        FILE_EXTENSIONS.put(NTriples.MEDIA_TYPE, NTriples.FILE_EXTENSION);
+        FILE_EXTENSIONS.put(BinaryRdf.MEDIA_TYPE, BinaryRdf.FILE_EXTENSION);
+    }
+
     private final ApplicationContext context;
 
     @Autowired
@@ -40,18 +68,55 @@ public class SKOSVocabularyExporter implements VocabularyExporter {
     @Override
     @Transactional
     public TypeAwareResource exportVocabularyGlossary(Vocabulary vocabulary) {
+        return exportVocabularyGlossary(vocabulary, Turtle.MEDIA_TYPE);
+    }
+
+    @Override
+    @Transactional
+    public TypeAwareResource exportVocabularyGlossary(Vocabulary vocabulary, String mediaType) {
         Objects.requireNonNull(vocabulary);
+        final RDFFormat format = resolveFormat(mediaType);
         LOG.debug("Exporting glossary of vocabulary {} to SKOS.", vocabulary);
         final SKOSExporter skosExporter = getSKOSExporter();
         LOG.trace("Exporting glossary.");
         skosExporter.exportGlossaryInstance(vocabulary);
         LOG.trace("Exporting terms.");
         skosExporter.exportGlossaryTerms(vocabulary);
-        return new TypeAwareByteArrayResource(skosExporter.exportAsTtl(), Turtle.MEDIA_TYPE, Turtle.FILE_EXTENSION);
+        return new TypeAwareByteArrayResource(skosExporter.exportAs(format), mediaType,
+                                              FILE_EXTENSIONS.get(mediaType));
+    }
+
+    private static RDFFormat resolveFormat(String mediaType) {
+        final RDFFormat format = FORMATS.get(mediaType);
+        if (format == null) {
+            throw new UnsupportedOperationException("Unsupported SKOS export media type " + mediaType + ".");
+        }
+        return format;
+    }
+
+    @Override
+    public TypeAwareStreamingOutput streamVocabularyGlossary(Vocabulary vocabulary) {
+        return streamVocabularyGlossary(vocabulary, Turtle.MEDIA_TYPE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The exported statements are passed from the repository directly to an RDF writer bound to the target output
+     * stream, so the glossary is never held in memory as a whole.
+     */
+    @Override
+    public TypeAwareStreamingOutput streamVocabularyGlossary(Vocabulary vocabulary, String mediaType) {
+        Objects.requireNonNull(vocabulary);
+        final RDFFormat format = resolveFormat(mediaType);
+        return new TypeAwareStreamingOutput(mediaType, FILE_EXTENSIONS.get(mediaType), out -> {
+            LOG.debug("Streaming glossary of vocabulary {} to SKOS as {}.", vocabulary, format.getName());
+            getSKOSExporter().exportGlossary(vocabulary, Rio.createWriter(format, out));
+        });
     }
 
     @Override
     public boolean supports(String mediaType) {
-        return Objects.equals(Turtle.MEDIA_TYPE, mediaType);
+        return FORMATS.containsKey(mediaType);
     }
 }
@@ -19,6 +19,10 @@ package cz.cvut.kbss.termit.service.export;
 
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.util.TypeAwareResource;
+import cz.cvut.kbss.termit.util.TypeAwareStreamingOutput;
+import org.springframework.util.StreamUtils;
+
+import java.io.InputStream;
 
 /**
  * Allows to export a vocabulary and assets related to it.
@@ -35,6 +39,56 @@ public interface VocabularyExporter {
      */
     TypeAwareResource exportVocabularyGlossary(Vocabulary vocabulary);
 
+    /**
+     * Gets a resource representation of the specified vocabulary's glossary in the specified media type.
+     * <p>
+     * This is useful for exporters supporting multiple media types. The default implementation ignores the media type
+     * and delegates to {@link #exportVocabularyGlossary(Vocabulary)}.
+     *
+     * @param vocabulary Vocabulary whose glossary should be exported
+     * @param mediaType  Target media type, supported by this exporter
+     * @return IO resource representing the exported glossary
+     */
+    default TypeAwareResource exportVocabularyGlossary(Vocabulary vocabulary, String mediaType) {
+        return exportVocabularyGlossary(vocabulary);
+    }
+
+    /**
+     * Gets a streaming representation of the specified vocabulary's glossary.
+     * <p>
+     * The export is generated only when the result is written into an output stream. Implementations should write the
+     * glossary incrementally, so that memory consumption does not depend on the size of the vocabulary.
+     * <p>
+     * The default implementation generates the whole export using {@link #exportVocabularyGlossary(Vocabulary)} and
+     * copies it into the output stream.
+     *
+     * @param vocabulary Vocabulary whose glossary should be exported
+     * @return Streaming output representing the exported glossary
+     */
+    default TypeAwareStreamingOutput streamVocabularyGlossary(Vocabulary vocabulary) {
+        final TypeAwareResource resource = exportVocabularyGlossary(vocabulary);
+        return new TypeAwareStreamingOutput(resource.getMediaType().orElse(null),
+                                            resource.getFileExtension().orElse(null), out -> {
+            try (final InputStream in = resource.getInputStream()) {
+                StreamUtils.copy(in, out);
+            }
+        });
+    }
+
+    /**
+     * Gets a streaming representation of the specified vocabulary's glossary in the specified media type.
+     * <p>
+     * This is useful for exporters supporting multiple media types. The default implementation ignores the media type
+     * and delegates to {@link #streamVocabularyGlossary(Vocabulary)}.
+     *
+     * @param vocabulary Vocabulary whose glossary should be exported
+     * @param mediaType  Target media type, supported by this exporter
+     * @return Streaming output representing the exported glossary
+     */
+    default TypeAwareStreamingOutput streamVocabularyGlossary(Vocabulary vocabulary, String mediaType) {
+        return streamVocabularyGlossary(vocabulary);
+    }
+
     /**
      * Checks whether this exporter supports the specified media type.
      *
@@ -19,6 +19,7 @@ package cz.cvut.kbss.termit.service.export;
 
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.util.TypeAwareResource;
+import cz.cvut.kbss.termit.util.TypeAwareStreamingOutput;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -49,6 +50,23 @@ public class VocabularyExporters {
         Objects.requireNonNull(vocabulary);
         Objects.requireNonNull(mediaType);
         final Optional<VocabularyExporter> exporter = exporters.stream().filter(e -> e.supports(mediaType)).findFirst();
-        return exporter.map(e -> e.exportVocabularyGlossary(vocabulary));
+        return exporter.map(e -> e.exportVocabularyGlossary(vocabulary, mediaType));
+    }
+
+    /**
+     * Gets a streaming export of glossary of the specified vocabulary as the specified media type (if supported).
+     * <p>
+     * If the media type is not supported, an empty {@link Optional} is returned.
+     *
+     * @param vocabulary Vocabulary to export
+     * @param mediaType  Target media type
+     * @return Streaming export wrapped in an {@code Optional}
+     * @see VocabularyExporter#streamVocabularyGlossary(Vocabulary, String)
+     */
+    public Optional<TypeAwareStreamingOutput> streamVocabularyGlossary(Vocabulary vocabulary, String mediaType) {
+        Objects.requireNonNull(vocabulary);
+        Objects.requireNonNull(mediaType);
+        final Optional<VocabularyExporter> exporter = exporters.stream().filter(e -> e.supports(mediaType)).findFirst();
+        return exporter.map(e -> e.streamVocabularyGlossary(vocabulary, mediaType));
     }
 }
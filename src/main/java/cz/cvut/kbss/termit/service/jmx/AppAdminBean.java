@@ -15,16 +15,22 @@ import cz.cvut.kbss.jopa.model.EntityManagerFactory;
 import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
 import cz.cvut.kbss.termit.event.RefreshLastModifiedEvent;
 import cz.cvut.kbss.termit.event.VocabularyContentModified;
+import cz.cvut.kbss.termit.persistence.dao.workspace.CachingWorkspaceMetadataProvider;
+import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceMetadataProvider;
+import cz.cvut.kbss.termit.persistence.validation.ValidationRulesProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.stereotype.Component;
 
+import java.net.URL;
+
 @Component
 @ManagedResource(objectName = "bean:name=TermItAdminBean", description = "TermIt administration JMX bean.")
 @Profile("!test")
@@ -36,10 +42,18 @@ public class AppAdminBean {
 
     private final EntityManagerFactory emf;
 
+    private final WorkspaceMetadataProvider workspaceMetadataProvider;
+
+    private final ValidationRulesProvider validationRulesProvider;
+
     @Autowired
-    public AppAdminBean(ApplicationEventPublisher eventPublisher, EntityManagerFactory emf) {
+    public AppAdminBean(ApplicationEventPublisher eventPublisher, EntityManagerFactory emf,
+                        WorkspaceMetadataProvider workspaceMetadataProvider,
+                        ValidationRulesProvider validationRulesProvider) {
         this.eventPublisher = eventPublisher;
         this.emf = emf;
+        this.workspaceMetadataProvider = workspaceMetadataProvider;
+        this.validationRulesProvider = validationRulesProvider;
     }
 
     @CacheEvict(allEntries = true, cacheNames = {"resources", "vocabularies"})
@@ -52,4 +66,29 @@ public class AppAdminBean {
         eventPublisher.publishEvent(new RefreshLastModifiedEvent(this));
         eventPublisher.publishEvent(new VocabularyContentModified(this));
     }
+
+    @ManagedAttribute(description = "Number of canonical container contexts lookups served from cache.")
+    public long getCanonicalContextsCacheHits() {
+        return workspaceMetadataProvider instanceof CachingWorkspaceMetadataProvider ?
+               ((CachingWorkspaceMetadataProvider) workspaceMetadataProvider).getCanonicalContextsCacheHits() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of canonical container contexts lookups resolved from the repository.")
+    public long getCanonicalContextsCacheMisses() {
+        return workspaceMetadataProvider instanceof CachingWorkspaceMetadataProvider ?
+               ((CachingWorkspaceMetadataProvider) workspaceMetadataProvider).getCanonicalContextsCacheMisses() : 0;
+    }
+
+    @ManagedAttribute(description = "Locations of the loaded vocabulary content validation rules.")
+    public String[] getValidationRules() {
+        return validationRulesProvider.getRules().stream().map(URL::toString).toArray(String[]::new);
+    }
+
+    @ManagedOperation(description = "Reloads vocabulary content validation rules.")
+    public void reloadValidationRules() {
+        LOG.info("Reloading validation rules...");
+        validationRulesProvider.reload();
+        // Cached validation results may not correspond to the reloaded rules
+        eventPublisher.publishEvent(new VocabularyContentModified(this));
+    }
 }
@@ -50,4 +50,9 @@ public abstract class LanguageService {
      * @return all leaf types
      */
     public abstract List<Term> getLeafTypes();
+
+    /**
+     * Discards the loaded types so that they are read from the language specification again when next requested.
+     */
+    public abstract void reload();
 }
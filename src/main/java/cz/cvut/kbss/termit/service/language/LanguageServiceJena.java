@@ -18,10 +18,10 @@
 package cz.cvut.kbss.termit.service.language;
 
 import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.termit.dto.TermInfo;
+import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
 import cz.cvut.kbss.termit.exception.CannotFetchTypesException;
 import cz.cvut.kbss.termit.model.Term;
-import cz.cvut.kbss.termit.dto.TermInfo;
-import java.util.stream.Collectors;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Property;
@@ -33,18 +33,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * A service that fetches parts of the UFO-compliant language for the use in TermIt.
  * <p>
  * In this class: - lang = natural language tag, e.g. "cs", or "en" - language = UFO language, e.g. OntoUML, or Basic
  * Language
+ * <p>
+ * The specification is parsed on first access and kept in an in-memory index until {@link #reload()}. Callers get
+ * copies of the indexed types, so that they cannot modify the index.
  */
 @Qualifier("jena")
 @Service
@@ -52,6 +56,8 @@ public class LanguageServiceJena extends LanguageService {
 
     private static final Logger LOG = LoggerFactory.getLogger(LanguageServiceJena.class);
 
+    private volatile TypeIndex index;
+
     @Autowired
     public LanguageServiceJena(ClassPathResource languageTtlUrl) {
         super(languageTtlUrl);
@@ -62,7 +68,49 @@ public class LanguageServiceJena extends LanguageService {
      *
      * @return List of types as {@code Term}s
      */
+    @Override
     public List<Term> getTypes() {
+        return copy(getIndex().types);
+    }
+
+    /**
+     * Gets all leaf types, i.e., types without narrower types.
+     *
+     * @return List of types as {@code Term}s
+     */
+    @Override
+    public List<Term> getLeafTypes() {
+        return copy(getIndex().leafTypes);
+    }
+
+    private static List<Term> copy(List<Term> types) {
+        return types.stream().map(LanguageServiceJena::copy).collect(Collectors.toList());
+    }
+
+    private static Term copy(Term type) {
+        final Term copy = new Term();
+        copy.setUri(type.getUri());
+        copy.setLabel(new MultilingualString(type.getLabel().getValue()));
+        copy.setDescription(new MultilingualString(type.getDescription().getValue()));
+        copy.setSubTerms(type.getSubTerms().stream().map(TermInfo::new).collect(Collectors.toSet()));
+        return copy;
+    }
+
+    private TypeIndex getIndex() {
+        TypeIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = loadIndex();
+                    this.index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private TypeIndex loadIndex() {
         try {
             final Model m = ModelFactory.createOntologyModel();
             m.read(resource.getURL().toString(), "text/turtle");
@@ -75,24 +123,27 @@ public class LanguageServiceJena extends LanguageService {
                  t.setUri(URI.create(c.getURI()));
                  t.setLabel(create(c,SKOS.prefLabel));
                  t.setDescription(create(c,SKOS.definition));
-                 t.setSubTerms(c.listProperties(SKOS.narrower)
-                                .mapWith(s -> new TermInfo(URI.create(s.getObject().asResource().getURI()))).toSet());
+                 t.setSubTerms(Collections.unmodifiableSet(c.listProperties(SKOS.narrower)
+                                .mapWith(s -> new TermInfo(URI.create(s.getObject().asResource().getURI()))).toSet()));
                  terms.add(t);
              });
-            return terms;
+            LOG.debug("Loaded {} types from {}.", terms.size(), resource.getPath());
+            return new TypeIndex(terms);
         } catch (Exception e) {
             LOG.error("Unable to retrieve types.", e);
             throw new CannotFetchTypesException(e);
         }
     }
 
-    /**
-     * Gets all types.
-     *
-     * @return List of types as {@code Term}s
-     */
-    public List<Term> getLeafTypes() {
-        return getTypes().stream().filter( t -> t.getSubTerms().isEmpty() ).collect(Collectors.toList());
+    @Override
+    public void reload() {
+        LOG.debug("Discarding loaded types.");
+        this.index = null;
+    }
+
+    @EventListener
+    public void onInvalidateCaches(InvalidateCachesEvent event) {
+        reload();
     }
 
     /**
@@ -112,4 +163,18 @@ public class LanguageServiceJena extends LanguageService {
         });
         return s;
     }
+
+    /**
+     * Immutable index of the loaded types.
+     */
+    private static class TypeIndex {
+        private final List<Term> types;
+        private final List<Term> leafTypes;
+
+        private TypeIndex(List<Term> types) {
+            this.types = Collections.unmodifiableList(types);
+            this.leafTypes = Collections.unmodifiableList(
+                    types.stream().filter(t -> t.getSubTerms().isEmpty()).collect(Collectors.toList()));
+        }
+    }
 }
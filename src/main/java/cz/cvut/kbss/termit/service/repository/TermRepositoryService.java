@@ -19,6 +19,7 @@ import cz.cvut.kbss.termit.dto.TermInfo;
 import cz.cvut.kbss.termit.dto.assignment.TermAssignments;
 import cz.cvut.kbss.termit.dto.listing.TermDto;
 import cz.cvut.kbss.termit.exception.DisabledOperationException;
+import cz.cvut.kbss.termit.exception.NotFoundException;
 import cz.cvut.kbss.termit.exception.TermRemovalException;
 import cz.cvut.kbss.termit.exception.ValidationException;
 import cz.cvut.kbss.termit.exception.UnsupportedOperationException;
@@ -27,10 +28,13 @@ import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.persistence.dao.AssetDao;
 import cz.cvut.kbss.termit.persistence.dao.TermAssignmentDao;
 import cz.cvut.kbss.termit.persistence.dao.TermDao;
+import cz.cvut.kbss.termit.persistence.dao.changetracking.ChangeTrackingHelperDao;
+import cz.cvut.kbss.termit.persistence.dao.util.VocabularyContentVersions;
 import cz.cvut.kbss.termit.service.IdentifierResolver;
 import cz.cvut.kbss.termit.service.term.AssertedInferredValueDifferentiator;
 import cz.cvut.kbss.termit.service.term.OrphanedInverseTermRelationshipRemover;
 import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.CursorPage;
 import cz.cvut.kbss.termit.util.PageAndSearchSpecification;
 import org.apache.jena.vocabulary.SKOS;
 import org.springframework.data.domain.Pageable;
@@ -60,11 +64,14 @@ public class TermRepositoryService extends BaseAssetRepositoryService<Term> {
 
     private final VocabularyRepositoryService vocabularyService;
 
+    private final ChangeTrackingHelperDao changeTrackingHelperDao;
+
     public TermRepositoryService(Validator validator, IdentifierResolver idResolver,
                                  Configuration config, TermDao termDao,
                                  OrphanedInverseTermRelationshipRemover orphanedRelationshipRemover,
                                  TermAssignmentDao termAssignmentDao,
-                                 VocabularyRepositoryService vocabularyService) {
+                                 VocabularyRepositoryService vocabularyService,
+                                 ChangeTrackingHelperDao changeTrackingHelperDao) {
         super(validator);
         this.idResolver = idResolver;
         this.config = config;
@@ -72,6 +79,7 @@ public class TermRepositoryService extends BaseAssetRepositoryService<Term> {
         this.orphanedRelationshipRemover = orphanedRelationshipRemover;
         this.termAssignmentDao = termAssignmentDao;
         this.vocabularyService = vocabularyService;
+        this.changeTrackingHelperDao = changeTrackingHelperDao;
     }
 
     @Override
@@ -94,15 +102,20 @@ public class TermRepositoryService extends BaseAssetRepositoryService<Term> {
                 "Persisting term by itself is not supported. It has to be connected to a vocabulary or a parent term.");
     }
 
+    /**
+     * Loads the stored state of the updated term once and shares it with the rest of the update (validation, change
+     * tracking and orphaned relationship removal).
+     */
     @Override
     protected void preUpdate(Term instance) {
-        super.preUpdate(instance);
-        // Existence check is done as part of super.preUpdate
-        final Term original = termDao.find(instance.getUri()).get();
+        final Term original = termDao.find(instance.getUri()).orElseThrow(
+                () -> NotFoundException.create(instance.getClass().getSimpleName(), instance.getUri()));
+        validate(instance);
         if (!original.isDraft() && !Objects.equals(original.getLabel(), instance.getLabel())) {
             throw new ValidationException("Cannot update label of confirmed term.");
         }
         termDao.detach(original);
+        changeTrackingHelperDao.registerStored(original);
         final AssertedInferredValueDifferentiator differentiator = new AssertedInferredValueDifferentiator();
         differentiator.differentiateRelatedTerms(instance, original);
         differentiator.differentiateRelatedMatchTerms(instance, original);
@@ -197,6 +210,30 @@ public class TermRepositoryService extends BaseAssetRepositoryService<Term> {
         return termDao.findAll(pageSpec);
     }
 
+    /**
+     * Gets a page of all root terms following the specified cursor.
+     *
+     * @param cursor   Cursor returned with the previous page, {@code null} to get the first page
+     * @param pageSize Maximum number of terms in the page
+     * @return Content of matching page of root terms and cursor of the next page
+     * @see #findAllRoots(Pageable)
+     */
+    public CursorPage<TermDto> findAllRootsAfter(String cursor, int pageSize) {
+        return termDao.findAllRootsAfter(cursor, pageSize);
+    }
+
+    /**
+     * Gets a page of all terms following the specified cursor.
+     *
+     * @param cursor   Cursor returned with the previous page, {@code null} to get the first page
+     * @param pageSize Maximum number of terms in the page
+     * @return Content of matching page of terms and cursor of the next page
+     * @see #findAll(Pageable)
+     */
+    public CursorPage<TermDto> findAllAfter(String cursor, int pageSize) {
+        return termDao.findAllAfter(cursor, pageSize);
+    }
+
     public List<TermDto> findAllRootsInCurrentWorkspace(Pageable pageSpec, URI excludedVocabulary) {
         return termDao.findAllRootsInCurrentWorkspace(pageSpec, excludedVocabulary);
     }
@@ -239,6 +276,21 @@ public class TermRepositoryService extends BaseAssetRepositoryService<Term> {
         return termDao.findAll(vocabulary);
     }
 
+    /**
+     * Gets all terms from the specified vocabulary in pages of the specified size, ordered by label.
+     * <p>
+     * The vocabulary is resolved in the repository immediately, but pages are loaded only as the returned iterator is
+     * advanced, so that only one page of terms is held in memory at a time. The iterator does not depend on the current
+     * request and can thus be used to stream a response.
+     *
+     * @param vocabulary Vocabulary whose terms should be returned
+     * @param pageSize   Number of terms loaded at once
+     * @return Iterator over pages of terms
+     */
+    public Iterator<List<Term>> findAllPages(Vocabulary vocabulary, int pageSize) {
+        return termDao.findAllPages(vocabulary, pageSize);
+    }
+
     /**
      * Checks whether the vocabulary contains any terms or not.
      *
@@ -296,6 +348,45 @@ public class TermRepositoryService extends BaseAssetRepositoryService<Term> {
         return termDao.existsInVocabulary(label, vocabulary, language);
     }
 
+    /**
+     * Gets the current version of terms in the specified vocabulary, including terms from vocabularies it
+     * (transitively) imports.
+     * <p>
+     * The vocabulary is not loaded, only its (cached) imports are resolved.
+     *
+     * @param vocabularyUri Identifier of the vocabulary whose content version to get
+     * @return Monotonic version stamp
+     */
+    public long getContentVersion(URI vocabularyUri) {
+        Objects.requireNonNull(vocabularyUri);
+        final Vocabulary vocabulary = new Vocabulary();
+        vocabulary.setUri(vocabularyUri);
+        final Set<URI> vocabularies = new HashSet<>(vocabularyService.getTransitiveDependencies(vocabulary));
+        vocabularies.add(vocabularyUri);
+        return termDao.getContentVersion(vocabularies);
+    }
+
+    /**
+     * Gets the current version of terms in all vocabularies.
+     *
+     * @return Monotonic version stamp
+     */
+    public long getContentVersion() {
+        return termDao.getContentVersion();
+    }
+
+    /**
+     * Marks content of vocabularies affected by the specified term as modified.
+     * <p>
+     * This is necessary for modifications of term data not stored via this service (e.g., term definition source).
+     *
+     * @param term Modified term
+     */
+    public void refreshContentVersion(Term term) {
+        Objects.requireNonNull(term);
+        termDao.refreshContentVersion(VocabularyContentVersions.resolveAffectedVocabularies(term));
+    }
+
     /**
      * Retrieves aggregated information about the specified Term's assignments to and occurrences in {@link
      * cz.cvut.kbss.termit.model.resource.Resource}s.
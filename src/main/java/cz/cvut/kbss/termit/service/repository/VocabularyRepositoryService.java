@@ -1,5 +1,6 @@
 package cz.cvut.kbss.termit.service.repository;
 
+import cz.cvut.kbss.termit.dto.validation.ValidationJob;
 import cz.cvut.kbss.termit.exception.VocabularyImportException;
 import cz.cvut.kbss.termit.exception.VocabularyRemovalException;
 import cz.cvut.kbss.termit.model.*;
@@ -11,6 +12,7 @@ import cz.cvut.kbss.termit.persistence.dao.skos.SKOSImporter;
 import cz.cvut.kbss.termit.service.IdentifierResolver;
 import cz.cvut.kbss.termit.service.business.TermService;
 import cz.cvut.kbss.termit.service.business.VocabularyService;
+import cz.cvut.kbss.termit.service.validation.ValidationJobService;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.service.business.WorkspaceService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +21,7 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +29,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.validation.Validator;
 import java.net.URI;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -51,13 +55,16 @@ public class VocabularyRepositoryService extends BaseAssetRepositoryService<Voca
 
     private final ApplicationContext context;
 
+    private final ValidationJobService validationJobService;
+
     @Autowired
     public VocabularyRepositoryService(ApplicationContext context, VocabularyDao vocabularyDao, IdentifierResolver idResolver,
                                        Validator validator, ChangeRecordService changeRecordService,
                                        @Lazy TermService termService,
                                        @Lazy ResourceRepositoryService resourceService,
                                        final Configuration config,
-                                       final WorkspaceService workspaceService) {
+                                       final WorkspaceService workspaceService,
+                                       ValidationJobService validationJobService) {
         super(validator);
         this.context = context;
         this.vocabularyDao = vocabularyDao;
@@ -66,6 +73,7 @@ public class VocabularyRepositoryService extends BaseAssetRepositoryService<Voca
         this.changeRecordService = changeRecordService;
         this.resourceService = resourceService;
         this.workspaceService = workspaceService;
+        this.validationJobService = validationJobService;
         this.config = config.getNamespace();
     }
 
@@ -133,8 +141,9 @@ public class VocabularyRepositoryService extends BaseAssetRepositoryService<Voca
     }
 
     @Override
-    public List<AbstractChangeRecord> getChangesOfContent(Vocabulary asset) {
-        return vocabularyDao.getChangesOfContent(asset);
+    public List<AbstractChangeRecord> getChangesOfContent(Vocabulary asset, Pageable pageSpec, Instant from,
+                                                          Instant to) {
+        return vocabularyDao.getChangesOfContent(asset, pageSpec, from, to);
     }
 
     @CacheEvict(allEntries = true)
@@ -185,10 +194,29 @@ public class VocabularyRepositoryService extends BaseAssetRepositoryService<Voca
         super.remove(instance);
     }
 
-    @Transactional
     @Override
     public List<ValidationResult> validateContents(Vocabulary instance) {
-        return vocabularyDao.validateContents(instance, workspaceService.getCurrentWorkspace());
+        return validationJobService.validate(instance, getValidationContexts(instance));
+    }
+
+    @Override
+    public ValidationJob submitContentValidation(Vocabulary vocabulary) {
+        return validationJobService.submit(vocabulary, getValidationContexts(vocabulary));
+    }
+
+    private Collection<URI> getValidationContexts(Vocabulary vocabulary) {
+        // Resolved in the calling thread, the current workspace is bound to the user session
+        return vocabularyDao.getValidationContexts(vocabulary, workspaceService.getCurrentWorkspace());
+    }
+
+    @Override
+    public ValidationJob findValidationJob(String jobId) {
+        return validationJobService.findRequired(jobId);
+    }
+
+    @Override
+    public List<ValidationResult> getValidationJobResults(String jobId) {
+        return validationJobService.getResults(jobId);
     }
 
     @Override
@@ -1,20 +1,21 @@
 package cz.cvut.kbss.termit.service.term;
 
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
 import cz.cvut.kbss.termit.dto.TermInfo;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.persistence.dao.TermDao;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Optional;
-import java.util.Set;
-import java.util.function.Function;
+import java.net.URI;
+import java.util.*;
 
+/**
+ * Removes relationships asserted by other terms which point to an updated term, but which were removed from the term
+ * (because the relationships are symmetric and presented to the client as belonging to the updated term as well).
+ */
 @Component
 public class OrphanedInverseTermRelationshipRemover {
 
@@ -26,14 +27,38 @@ public class OrphanedInverseTermRelationshipRemover {
         this.termDao = termDao;
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    /**
+     * Removes orphaned inverse relationships of the specified term.
+     * <p>
+     * All the orphaned relationships are removed at once, without loading the terms which assert them.
+     *
+     * @param update   Updated term
+     * @param original Original (stored) state of the term, including inverse relationships
+     */
+    @Transactional
     public void removeOrphanedInverseTermRelationships(Term update, Term original) {
-        removeOrphanedRelated(update, original);
-        removeOrphanedRelatedMatch(update, original);
-        removeOrphanedExactMatches(update, original);
+        final Map<URI, Set<TermInfo>> orphaned = new HashMap<>(4);
+        addOrphaned(orphaned, URI.create(SKOS.RELATED), update.getInverseRelated(), original.getInverseRelated());
+        addOrphaned(orphaned, URI.create(SKOS.RELATED_MATCH), update.getInverseRelatedMatch(),
+                original.getInverseRelatedMatch());
+        addOrphaned(orphaned, URI.create(SKOS.EXACT_MATCH), update.getInverseExactMatchTerms(),
+                original.getInverseExactMatchTerms());
+        if (orphaned.isEmpty()) {
+            return;
+        }
+        LOG.trace("Removing orphaned inverse relationships {} of term {}.", orphaned, update);
+        termDao.removeInverseRelationships(update, orphaned);
+    }
+
+    private static void addOrphaned(Map<URI, Set<TermInfo>> orphaned, URI property, Set<TermInfo> newValue,
+                                    Set<TermInfo> originalValue) {
+        final Set<TermInfo> result = determineOrphaned(newValue, originalValue);
+        if (!result.isEmpty()) {
+            orphaned.put(property, result);
+        }
     }
 
-    private Set<TermInfo> determineOrphaned(Set<TermInfo> newValue, Set<TermInfo> originalValue) {
+    private static Set<TermInfo> determineOrphaned(Set<TermInfo> newValue, Set<TermInfo> originalValue) {
         if (originalValue == null || originalValue.isEmpty()) {
             return Collections.emptySet();
         }
@@ -43,41 +68,4 @@ public class OrphanedInverseTermRelationshipRemover {
         }
         return orphaned;
     }
-
-    private void removeOrphanedRelated(Term update, Term original) {
-        LOG.trace("Removing orphaned inverse related relationships of term {}.", update);
-        final TermInfo tiUpdate = new TermInfo(update);
-        final Set<TermInfo> orphaned = determineOrphaned(update.getInverseRelated(), original.getInverseRelated());
-        LOG.trace("Found {} orphaned related to remove.", orphaned);
-        removeOrphaned(tiUpdate, orphaned, Term::getRelated);
-    }
-
-    private void removeOrphaned(TermInfo toRemove, Set<TermInfo> orphaned, Function<Term, Set<TermInfo>> getter) {
-        orphaned.forEach(o -> {
-            final Optional<Term> tOpt = termDao.find(o.getUri());
-            assert tOpt.isPresent();
-            final Term t = tOpt.get();
-            if (getter.apply(t) != null) {
-                getter.apply(t).remove(toRemove);
-            }
-        });
-    }
-
-    private void removeOrphanedRelatedMatch(Term update, Term original) {
-        LOG.trace("Removing orphaned inverse relatedMatch relationships of term {}.", update);
-        final TermInfo tiUpdate = new TermInfo(update);
-        final Set<TermInfo> orphaned =
-                determineOrphaned(update.getInverseRelatedMatch(), original.getInverseRelatedMatch());
-        LOG.trace("Found {} orphaned relatedMatch to remove.", orphaned);
-        removeOrphaned(tiUpdate, orphaned, Term::getRelatedMatch);
-    }
-
-    private void removeOrphanedExactMatches(Term update, Term original) {
-        LOG.trace("Removing orphaned inverse exactMatch relationships of term {}.", update);
-        final TermInfo tiUpdate = new TermInfo(update);
-        final Set<TermInfo> orphaned =
-                determineOrphaned(update.getInverseExactMatchTerms(), original.getInverseExactMatchTerms());
-        LOG.trace("Found {} orphaned exactMatch to remove.", orphaned);
-        removeOrphaned(tiUpdate, orphaned, Term::getExactMatchTerms);
-    }
 }
@@ -0,0 +1,204 @@
+package cz.cvut.kbss.termit.service.validation;
+
+import cz.cvut.kbss.termit.dto.validation.ValidationJob;
+import cz.cvut.kbss.termit.exception.NotFoundException;
+import cz.cvut.kbss.termit.exception.TermItException;
+import cz.cvut.kbss.termit.exception.ValidationJobNotFinishedException;
+import cz.cvut.kbss.termit.exception.ValidationJobRejectedException;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.model.validation.ValidationResult;
+import cz.cvut.kbss.termit.persistence.dao.VocabularyDao;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs vocabulary content validation in the background.
+ * <p>
+ * Validation jobs are executed by a bounded thread pool with a bounded queue. Jobs validating the same set of
+ * vocabulary contexts are deduplicated while they are queued or running. Results of a limited number of the most
+ * recently finished jobs are retained for later retrieval.
+ */
+@Service
+public class ValidationJobService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ValidationJobService.class);
+
+    private final VocabularyDao vocabularyDao;
+
+    private final int retainedJobs;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Queued and running jobs mapped by the validated contexts. Guarded by this.
+     */
+    private final Map<Set<URI>, Job> activeJobs = new HashMap<>();
+
+    /**
+     * Identifiers of finished jobs, the oldest first. Guarded by this.
+     */
+    private final Deque<String> finishedJobs = new ArrayDeque<>();
+
+    @Autowired
+    public ValidationJobService(VocabularyDao vocabularyDao, Configuration config) {
+        this.vocabularyDao = vocabularyDao;
+        final Configuration.Validation validationConfig = config.getValidation();
+        this.retainedJobs = validationConfig.getRetainedJobs();
+        final AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(validationConfig.getPoolSize(), validationConfig.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(validationConfig.getQueueCapacity()), r -> {
+            final Thread t = new Thread(r, "validation-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Submits validation of the specified vocabulary contexts.
+     * <p>
+     * If validation of the same contexts is already queued or running, the existing job is returned.
+     *
+     * @param vocabulary Vocabulary whose validation is requested
+     * @param contexts   Identifiers of vocabulary contexts to validate
+     * @return Validation job
+     * @throws ValidationJobRejectedException When the validation queue is full
+     */
+    public ValidationJob submit(Vocabulary vocabulary, Collection<URI> contexts) {
+        return submitJob(vocabulary, contexts).state;
+    }
+
+    private synchronized Job submitJob(Vocabulary vocabulary, Collection<URI> contexts) {
+        Objects.requireNonNull(vocabulary);
+        final Set<URI> key = new HashSet<>(contexts);
+        final Job existing = activeJobs.get(key);
+        if (existing != null) {
+            LOG.debug("Validation of {} already submitted as job {}.", key, existing.state.getId());
+            return existing;
+        }
+        final Job job = new Job(new ValidationJob(UUID.randomUUID().toString(), vocabulary.getUri()), key);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            throw new ValidationJobRejectedException(
+                    "Validation queue is full, unable to validate vocabulary " + vocabulary.getUri() + ".");
+        }
+        jobs.put(job.state.getId(), job);
+        activeJobs.put(key, job);
+        LOG.debug("Submitted validation job {}.", job.state);
+        return job;
+    }
+
+    private void run(Job job) {
+        job.state.start();
+        LOG.trace("Running validation job {}.", job.state);
+        try {
+            final List<ValidationResult> results = vocabularyDao.validateContents(job.contexts);
+            retire(job);
+            job.state.finish();
+            job.future.complete(results);
+        } catch (RuntimeException e) {
+            LOG.error("Validation job {} failed.", job.state, e);
+            retire(job);
+            job.state.fail(e.getMessage());
+            job.future.completeExceptionally(e);
+        }
+    }
+
+    private synchronized void retire(Job job) {
+        activeJobs.remove(job.contexts, job);
+        finishedJobs.addLast(job.state.getId());
+        while (finishedJobs.size() > retainedJobs) {
+            jobs.remove(finishedJobs.removeFirst());
+        }
+    }
+
+    /**
+     * Validates the specified vocabulary contexts and waits for the results.
+     * <p>
+     * The validation is run as a regular validation job, so it is deduplicated with other requests to validate the
+     * same contexts.
+     *
+     * @param vocabulary Vocabulary whose validation is requested
+     * @param contexts   Identifiers of vocabulary contexts to validate
+     * @return Validation results
+     * @throws ValidationJobRejectedException When the validation queue is full
+     */
+    public List<ValidationResult> validate(Vocabulary vocabulary, Collection<URI> contexts) {
+        final Job job = submitJob(vocabulary, contexts);
+        try {
+            return job.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TermItException("Interrupted while waiting for validation job " + job.state.getId() + ".", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TermItException("Validation job " + job.state.getId() + " failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Gets validation job with the specified identifier.
+     *
+     * @param id Job identifier
+     * @return Validation job
+     * @throws NotFoundException When the job does not exist or is no longer retained
+     */
+    public ValidationJob findRequired(String id) {
+        return getJob(id).state;
+    }
+
+    private Job getJob(String id) {
+        final Job job = jobs.get(id);
+        if (job == null) {
+            throw NotFoundException.create("Validation job", id);
+        }
+        return job;
+    }
+
+    /**
+     * Gets results of the validation job with the specified identifier.
+     *
+     * @param id Job identifier
+     * @return Validation results
+     * @throws NotFoundException                When the job does not exist or is no longer retained
+     * @throws ValidationJobNotFinishedException When the job is still queued or running, or it has failed
+     */
+    public List<ValidationResult> getResults(String id) {
+        final Job job = getJob(id);
+        if (job.state.getStatus() != ValidationJob.Status.FINISHED) {
+            throw new ValidationJobNotFinishedException(
+                    "Results of validation job " + id + " are not available, the job is " + job.state.getStatus() +
+                            ".");
+        }
+        return job.future.join();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static class Job {
+        private final ValidationJob state;
+        private final Set<URI> contexts;
+        private final CompletableFuture<List<ValidationResult>> future = new CompletableFuture<>();
+
+        private Job(ValidationJob state, Set<URI> contexts) {
+            this.state = state;
+            this.contexts = contexts;
+        }
+    }
+}
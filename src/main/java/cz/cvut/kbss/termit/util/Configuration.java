@@ -41,6 +41,8 @@ public class Configuration {
     private TextAnalysis textAnalysis = new TextAnalysis();
     private Glossary glossary = new Glossary();
     private Cors cors = new Cors();
+    private Validation validation = new Validation();
+    private PublicApi publicApi = new PublicApi();
 
     public Persistence getPersistence() {
         return persistence;
@@ -130,6 +132,22 @@ public class Configuration {
         this.cors = cors;
     }
 
+    public Validation getValidation() {
+        return validation;
+    }
+
+    public void setValidation(Validation validation) {
+        this.validation = validation;
+    }
+
+    public PublicApi getPublicApi() {
+        return publicApi;
+    }
+
+    public void setPublicApi(PublicApi publicApi) {
+        this.publicApi = publicApi;
+    }
+
     @org.springframework.context.annotation.Configuration
     @ConfigurationProperties(prefix = "persistence")
     public static class Persistence {
@@ -233,6 +251,8 @@ public class Configuration {
     public static class ChangeTracking {
         Context context = new Context();
 
+        Journal journal = new Journal();
+
         public Context getContext() {
             return context;
         }
@@ -241,6 +261,14 @@ public class Configuration {
             this.context = context;
         }
 
+        public Journal getJournal() {
+            return journal;
+        }
+
+        public void setJournal(Journal journal) {
+            this.journal = journal;
+        }
+
         public static class Context {
             /**
              * Extension appended to asset identifier (presumably a vocabulary ID) to denote its change tracking context
@@ -257,6 +285,66 @@ public class Configuration {
                 this.extension = extension;
             }
         }
+
+        public static class Journal {
+            /**
+             * Base path of the files into which change records are spooled before they are written into the repository.
+             * Spool segments are stored next to it, with a sequence number appended to its name.
+             * <p>
+             * If not specified, {@code .changetracking-journal} in the file storage directory ({@code file.storage}) is
+             * used.
+             */
+            String file;
+
+            /**
+             * Maximum number of change records waiting to be written into the repository. When reached, recording of
+             * further changes waits a limited time for some of the waiting records to be written. Records which still
+             * cannot be queued are written from the journal file after restart.
+             */
+            int queueCapacity = 10000;
+
+            /**
+             * Maximum number of change records written into the repository at once.
+             */
+            int batchSize = 500;
+
+            /**
+             * Maximum time to wait for further change records before writing a batch, in milliseconds.
+             */
+            long flushInterval = 500;
+
+            public String getFile() {
+                return file;
+            }
+
+            public void setFile(String file) {
+                this.file = file;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public long getFlushInterval() {
+                return flushInterval;
+            }
+
+            public void setFlushInterval(long flushInterval) {
+                this.flushInterval = flushInterval;
+            }
+        }
     }
 
     @org.springframework.context.annotation.Configuration
@@ -414,6 +502,21 @@ public class Configuration {
         @NotNull
         String storage;
 
+        /**
+         * Maximum number of backups kept for each file. Zero means no limit.
+         */
+        int maxBackups = 10;
+
+        /**
+         * Number of days after which file backups are removed. Zero means no limit.
+         */
+        int backupRetentionDays = 0;
+
+        /**
+         * Interval between runs of the file backup cleanup, in milliseconds. Zero disables the cleanup.
+         */
+        long backupCleanupInterval = 3600000;
+
         public String getStorage() {
             return storage;
         }
@@ -421,6 +524,30 @@ public class Configuration {
         public void setStorage(String storage) {
             this.storage = storage;
         }
+
+        public int getMaxBackups() {
+            return maxBackups;
+        }
+
+        public void setMaxBackups(int maxBackups) {
+            this.maxBackups = maxBackups;
+        }
+
+        public int getBackupRetentionDays() {
+            return backupRetentionDays;
+        }
+
+        public void setBackupRetentionDays(int backupRetentionDays) {
+            this.backupRetentionDays = backupRetentionDays;
+        }
+
+        public long getBackupCleanupInterval() {
+            return backupCleanupInterval;
+        }
+
+        public void setBackupCleanupInterval(long backupCleanupInterval) {
+            this.backupCleanupInterval = backupCleanupInterval;
+        }
     }
 
     @org.springframework.context.annotation.Configuration
@@ -450,6 +577,33 @@ public class Configuration {
         @NotNull
         String url;
 
+        /**
+         * Number of files analyzed in parallel by bulk text analysis jobs.
+         */
+        int parallelism = 4;
+
+        /**
+         * Maximum number of attempts to analyze a single file in a bulk text analysis job.
+         */
+        int maxAttempts = 3;
+
+        /**
+         * Delay before retrying analysis of a file, in milliseconds. Multiplied by the number of failed attempts.
+         */
+        long retryDelay = 1000;
+
+        /**
+         * Number of finished bulk text analysis jobs whose state is kept for retrieval.
+         */
+        int retainedJobs = 32;
+
+        /**
+         * Maximum number of files waiting for analysis by bulk text analysis jobs.
+         * <p>
+         * Jobs which would exceed this number are rejected. A job is always accepted when no files are waiting.
+         */
+        int queueCapacity = 1000;
+
         public String getUrl() {
             return url;
         }
@@ -457,6 +611,46 @@ public class Configuration {
         public void setUrl(String url) {
             this.url = url;
         }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getRetryDelay() {
+            return retryDelay;
+        }
+
+        public void setRetryDelay(long retryDelay) {
+            this.retryDelay = retryDelay;
+        }
+
+        public int getRetainedJobs() {
+            return retainedJobs;
+        }
+
+        public void setRetainedJobs(int retainedJobs) {
+            this.retainedJobs = retainedJobs;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
     }
 
     @org.springframework.context.annotation.Configuration
@@ -491,4 +685,64 @@ public class Configuration {
             this.allowedOrigin = allowedOrigin;
         }
     }
+
+    @org.springframework.context.annotation.Configuration
+    @ConfigurationProperties(prefix = "validation")
+    public static class Validation {
+        /**
+         * Number of threads running vocabulary validation jobs.
+         */
+        int poolSize = 1;
+
+        /**
+         * Maximum number of validation jobs waiting for execution. Further jobs are rejected.
+         */
+        int queueCapacity = 16;
+
+        /**
+         * Number of finished validation jobs whose results are kept for retrieval.
+         */
+        int retainedJobs = 32;
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getRetainedJobs() {
+            return retainedJobs;
+        }
+
+        public void setRetainedJobs(int retainedJobs) {
+            this.retainedJobs = retainedJobs;
+        }
+    }
+
+    @org.springframework.context.annotation.Configuration
+    @ConfigurationProperties(prefix = "publicapi")
+    public static class PublicApi {
+        /**
+         * Maximum number of rendered vocabulary term listings kept in memory for the public (read-only) API.
+         */
+        int snapshotCacheSize = 128;
+
+        public int getSnapshotCacheSize() {
+            return snapshotCacheSize;
+        }
+
+        public void setSnapshotCacheSize(int snapshotCacheSize) {
+            this.snapshotCacheSize = snapshotCacheSize;
+        }
+    }
 }
@@ -43,6 +43,11 @@ public class Constants {
      */
     public static final Pageable DEFAULT_PAGE_SPEC = PageRequest.of(0, DEFAULT_PAGE_SIZE);
 
+    /**
+     * Number of terms loaded at once when a vocabulary glossary is being exported.
+     */
+    public static final int EXPORT_PAGE_SIZE = 500;
+
     /**
      * Path to directory containing queries used by the system.
      * <p>
@@ -57,6 +62,12 @@ public class Constants {
      */
     public static final String X_TOTAL_COUNT_HEADER = "X-Total-Count";
 
+    /**
+     * Represents the X-Next-Cursor HTTP header used to convey the cursor of the next page in responses paged using a
+     * cursor.
+     */
+    public static final String X_NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     /**
      * Session attribute denoting the current user's workspace.
      */
@@ -67,6 +78,12 @@ public class Constants {
      */
     public static final String NO_CACHE_PROFILE = "no-cache";
 
+    /**
+     * Name of the Spring profile indicating that text analysis should be performed in-process instead of invoking the
+     * remote text analysis service.
+     */
+    public static final String LOCAL_TEXT_ANALYSIS_PROFILE = "local-text-analysis";
+
     private Constants() {
         throw new AssertionError();
     }
@@ -106,6 +123,40 @@ public class Constants {
         }
     }
 
+    public static final class NTriples {
+
+        /**
+         * Media type for RDF serialized in N-Triples.
+         */
+        public static final String MEDIA_TYPE = "application/n-triples";
+
+        /**
+         * N-Triples file extension.
+         */
+        public static final String FILE_EXTENSION = ".nt";
+
+        private NTriples() {
+            throw new AssertionError();
+        }
+    }
+
+    public static final class BinaryRdf {
+
+        /**
+         * Media type for RDF serialized in the RDF4J binary RDF format.
+         */
+        public static final String MEDIA_TYPE = "application/x-binary-rdf";
+
+        /**
+         * Binary RDF file extension.
+         */
+        public static final String FILE_EXTENSION = ".brf";
+
+        private BinaryRdf() {
+            throw new AssertionError();
+        }
+    }
+
     /**
      * Useful HTTP request query parameters used by the application REST API.
      */
@@ -136,6 +187,15 @@ public class Constants {
          */
         public static final String PAGE_SIZE = "size";
 
+        /**
+         * HTTP request query parameter denoting page cursor.
+         * <p>
+         * Used for cursor-based paging in collections of results. An empty value denotes the first page.
+         *
+         * @see #PAGE_SIZE
+         */
+        public static final String CURSOR = "cursor";
+
         private QueryParams() {
             throw new AssertionError();
         }
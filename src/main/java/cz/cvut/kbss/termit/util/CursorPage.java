@@ -0,0 +1,46 @@
+package cz.cvut.kbss.termit.util;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Page of results retrieved using keyset pagination.
+ * <p>
+ * Instead of a page number, the next page is identified by an opaque cursor pointing after the last item of this
+ * page.
+ *
+ * @param <T> Type of the page content
+ */
+public class CursorPage<T> {
+
+    private final List<T> content;
+
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = Objects.requireNonNull(content);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Gets cursor which can be used to retrieve the next page.
+     *
+     * @return Cursor, empty if this is the last page
+     */
+    public Optional<String> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPage{" +
+                "content=" + content +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,70 @@
+package cz.cvut.kbss.termit.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Content aware of its media type which is written directly into an output stream.
+ * <p>
+ * As opposed to {@link TypeAwareResource}, the content is not prepared in advance. Instead, it is generated at the
+ * moment it is being written, so that it does not have to be held in memory as a whole.
+ */
+public class TypeAwareStreamingOutput {
+
+    /**
+     * Writes content into the specified output stream.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+
+        /**
+         * Writes content into the specified output stream.
+         * <p>
+         * The output stream is not closed by this method.
+         *
+         * @param out Target output stream
+         * @throws IOException When writing the content fails
+         */
+        void write(OutputStream out) throws IOException;
+    }
+
+    private final String mediaType;
+    private final String fileExtension;
+    private final ContentWriter writer;
+
+    public TypeAwareStreamingOutput(String mediaType, String fileExtension, ContentWriter writer) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+        this.writer = Objects.requireNonNull(writer);
+    }
+
+    /**
+     * Gets media type of this content.
+     *
+     * @return MIME type wrapped in {@code Optional}
+     */
+    public Optional<String> getMediaType() {
+        return Optional.ofNullable(mediaType);
+    }
+
+    /**
+     * Gets file extension associated with this type of content (if supported).
+     *
+     * @return File extension wrapped in {@code Optional}
+     */
+    public Optional<String> getFileExtension() {
+        return Optional.ofNullable(fileExtension);
+    }
+
+    /**
+     * Generates the content and writes it into the specified output stream.
+     *
+     * @param out Target output stream
+     * @throws IOException When writing the content fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        writer.write(out);
+    }
+}
@@ -0,0 +1,46 @@
+package cz.cvut.kbss.termit.util.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import cz.cvut.kbss.termit.dto.TextAnalysisInput;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Custom Jackson serializer for {@link TextAnalysisInput} instances.
+ * <p>
+ * If the input provides a content source, the content is streamed from it directly into the output instead of being
+ * loaded into memory first.
+ */
+public class TextAnalysisInputSerializer extends StdSerializer<TextAnalysisInput> {
+
+    public TextAnalysisInputSerializer() {
+        super(TextAnalysisInput.class);
+    }
+
+    @Override
+    public void serialize(TextAnalysisInput input, JsonGenerator jsonGenerator,
+                          SerializerProvider serializerProvider) throws IOException {
+        Objects.requireNonNull(input);
+        jsonGenerator.writeStartObject();
+        jsonGenerator.writeFieldName("content");
+        if (input.getContentSource() != null) {
+            try (final Reader reader = new InputStreamReader(input.getContentSource().getInputStream(),
+                    StandardCharsets.UTF_8)) {
+                jsonGenerator.writeString(reader, -1);
+            }
+        } else {
+            jsonGenerator.writeString(input.getContent());
+        }
+        jsonGenerator.writeStringField("language", input.getLanguage());
+        serializerProvider.defaultSerializeField("vocabularyRepository", input.getVocabularyRepository(),
+                jsonGenerator);
+        serializerProvider.defaultSerializeField("vocabularyContexts", input.getVocabularyContexts(), jsonGenerator);
+        jsonGenerator.writeEndObject();
+    }
+}
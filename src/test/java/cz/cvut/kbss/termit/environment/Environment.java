@@ -31,6 +31,7 @@ import org.eclipse.rdf4j.rio.RDFFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.security.core.context.SecurityContext;
@@ -157,6 +158,10 @@ public class Environment {
         return new ResourceHttpMessageConverter();
     }
 
+    public static HttpMessageConverter<?> createResourceRegionMessageConverter() {
+        return new ResourceRegionHttpMessageConverter();
+    }
+
     public static InputStream loadFile(String file) {
         return Environment.class.getClassLoader().getResourceAsStream(file);
     }
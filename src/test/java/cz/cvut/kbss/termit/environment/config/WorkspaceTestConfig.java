@@ -5,6 +5,7 @@ import cz.cvut.kbss.termit.dto.workspace.WorkspaceMetadata;
 import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.environment.WorkspaceGenerator;
 import cz.cvut.kbss.termit.model.Workspace;
+import cz.cvut.kbss.termit.persistence.dao.CanonicalCacheContainerDao;
 import cz.cvut.kbss.termit.persistence.dao.workspace.CachingWorkspaceMetadataProvider;
 import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceDao;
 import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceMetadataProvider;
@@ -37,8 +38,10 @@ public class WorkspaceTestConfig {
 
     @Bean
     @Primary
-    public WorkspaceMetadataProvider workspaceMetadataCache(WorkspaceStore workspaceStore, WorkspaceDao workspaceDao) {
-        final WorkspaceMetadataProvider cache = spy(new CachingWorkspaceMetadataProvider(workspaceStore, workspaceDao));
+    public WorkspaceMetadataProvider workspaceMetadataCache(WorkspaceStore workspaceStore, WorkspaceDao workspaceDao,
+                                                            CanonicalCacheContainerDao canonicalCacheContainerDao) {
+        final WorkspaceMetadataProvider cache = spy(
+                new CachingWorkspaceMetadataProvider(workspaceStore, workspaceDao, canonicalCacheContainerDao));
         final Workspace ws = WorkspaceGenerator.generateWorkspace();
         ws.setUri(DEFAULT_WORKSPACE);
         final WorkspaceMetadata wsMetadata = spy(new WorkspaceMetadata(ws));
@@ -118,6 +118,42 @@ class AssetDaoTest extends BaseDaoTestRunner {
         result.forEach(rma -> assertThat(rma.getTypes(), hasItem(Vocabulary.s_c_vytvoreni_entity)));
     }
 
+    @Test
+    void findRecentlyEditedReturnsLatestChangeOfEachAssetOrderedFromMostRecent() {
+        enableRdfsInference(em);
+        final Resource updated = Generator.generateResourceWithId();
+        final Resource created = Generator.generateResourceWithId();
+        transactional(() -> {
+            em.persist(updated);
+            em.persist(created);
+        });
+        final PersistChangeRecord updatedPersist = Generator.generatePersistChange(updated);
+        updatedPersist.setTimestamp(Instant.now().minusSeconds(7200));
+        final PersistChangeRecord createdPersist = Generator.generatePersistChange(created);
+        createdPersist.setTimestamp(Instant.now().minusSeconds(3600));
+        final UpdateChangeRecord update = Generator.generateUpdateChange(updated);
+        final UpdateChangeRecord sameTimeUpdate = Generator.generateUpdateChange(updated);
+        sameTimeUpdate.setTimestamp(update.getTimestamp());
+        transactional(() -> {
+            em.persist(updatedPersist);
+            em.persist(createdPersist);
+            em.persist(update);
+            em.persist(sameTimeUpdate);
+        });
+
+        final List<RecentlyModifiedAsset> result = sut.findLastEdited(5);
+        assertEquals(2, result.size());
+        assertEquals(updated.getUri(), result.get(0).getUri());
+        assertThat(result.get(0).getTypes(), hasItem(Vocabulary.s_c_uprava_entity));
+        assertEquals(created.getUri(), result.get(1).getUri());
+        assertThat(result.get(1).getTypes(), hasItem(Vocabulary.s_c_vytvoreni_entity));
+        result.forEach(rma -> {
+            assertEquals(user, rma.getEditor());
+            assertEquals(user.getFirstName(), rma.getEditor().getFirstName());
+            assertEquals(user.getLastName(), rma.getEditor().getLastName());
+        });
+    }
+
     @Test
     void findRecentlyEditedByUserReturnsAssetsEditedBySpecifiedUser() {
         enableRdfsInference(em);
@@ -2,6 +2,7 @@ package cz.cvut.kbss.termit.persistence.dao;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
 import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
 import cz.cvut.kbss.jopa.model.query.TypedQuery;
 import cz.cvut.kbss.jopa.vocabulary.DC;
@@ -22,6 +23,8 @@ import cz.cvut.kbss.termit.model.changetracking.PersistChangeRecord;
 import cz.cvut.kbss.termit.model.resource.File;
 import cz.cvut.kbss.termit.model.selector.TextQuoteSelector;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.persistence.PersistenceUtils;
+import cz.cvut.kbss.termit.persistence.dao.changetracking.ChangeTrackingHelperDao;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceMetadataProvider;
 import cz.cvut.kbss.termit.util.Constants;
@@ -35,6 +38,8 @@ import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 
@@ -44,10 +49,18 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class TermDaoTest extends BaseDaoTestRunner {
@@ -67,6 +80,12 @@ class TermDaoTest extends BaseDaoTestRunner {
     @Autowired
     private Configuration configuration;
 
+    @Autowired
+    private PersistenceUtils persistenceUtils;
+
+    @Autowired
+    private ChangeTrackingHelperDao changeTrackingHelperDao;
+
     private Vocabulary vocabulary;
 
     private final Map<URI, URI> glossaryToVocabulary = new HashMap<>();
@@ -306,6 +325,28 @@ class TermDaoTest extends BaseDaoTestRunner {
         assertEquals(terms, result);
     }
 
+    @Test
+    void findAllPagesReturnsAllTermsFromVocabularyInNonOverlappingPagesOrderedByLabel() {
+        final List<Term> terms = generateTerms(10);
+        // Identical labels must not cause terms to be skipped or repeated on page boundaries
+        terms.subList(0, 4).forEach(t -> t.getLabel().set(Environment.LANGUAGE, "Same label"));
+        addTermsAndSave(terms, vocabulary);
+
+        final Iterator<List<Term>> pages = sut.findAllPages(vocabulary, 3);
+        final List<Term> result = new ArrayList<>();
+        while (pages.hasNext()) {
+            final List<Term> page = pages.next();
+            assertThat(page.size(), lessThanOrEqualTo(3));
+            result.addAll(page);
+        }
+        assertEquals(terms.size(), result.size());
+        assertEquals(new HashSet<>(terms), new HashSet<>(result));
+        for (int i = 1; i < result.size(); i++) {
+            assertThat(result.get(i - 1).getLabel().get(Environment.LANGUAGE).toLowerCase(),
+                       lessThanOrEqualTo(result.get(i).getLabel().get(Environment.LANGUAGE).toLowerCase()));
+        }
+    }
+
     @Test
     void persistSavesTermIntoVocabularyContext() {
         final Term term = Generator.generateTermWithId();
@@ -353,6 +394,52 @@ class TermDaoTest extends BaseDaoTestRunner {
                       .setParameter("label", oldLabel, Environment.LANGUAGE).getSingleResult());
     }
 
+    @Test
+    void updateRefreshesContentVersionOfTermVocabularyAfterTransactionCommits() {
+        final Term term = Generator.generateTermWithId();
+        transactional(() -> {
+            vocabulary.getGlossary().addRootTerm(term);
+            term.setGlossary(vocabulary.getGlossary().getUri());
+            em.merge(vocabulary.getGlossary(), descriptorFactory.glossaryDescriptor(vocabulary));
+            em.persist(term, descriptorFactory.termDescriptor(vocabulary));
+            addTermInVocabularyRelationship(term, vocabulary.getUri());
+        });
+        final Set<URI> vocabularies = Collections.singleton(vocabulary.getUri());
+        final long originalVersion = sut.getContentVersion(vocabularies);
+        final Set<URI> otherVocabularies = Collections.singleton(Generator.generateUri());
+        final long otherVersion = sut.getContentVersion(otherVocabularies);
+
+        term.setVocabulary(vocabulary.getUri());
+        term.setPrimaryLabel("Updated label");
+        transactional(() -> {
+            sut.update(term);
+            assertEquals(originalVersion, sut.getContentVersion(vocabularies));
+        });
+        assertThat(sut.getContentVersion(vocabularies), greaterThan(originalVersion));
+        assertEquals(otherVersion, sut.getContentVersion(otherVocabularies));
+    }
+
+    @Test
+    void removeRefreshesContentVersionOfVocabulariesOfRelatedTerms() {
+        final Term term = Generator.generateTermWithId();
+        final Vocabulary relatedVocabulary = Generator.generateVocabularyWithId();
+        final Term related = Generator.generateTermWithId(relatedVocabulary.getUri());
+        term.addRelatedTerm(new TermInfo(related));
+        transactional(() -> {
+            vocabulary.getGlossary().addRootTerm(term);
+            term.setGlossary(vocabulary.getGlossary().getUri());
+            em.merge(vocabulary.getGlossary(), descriptorFactory.glossaryDescriptor(vocabulary));
+            em.persist(term, descriptorFactory.termDescriptor(vocabulary));
+            addTermInVocabularyRelationship(term, vocabulary.getUri());
+        });
+        final Set<URI> vocabularies = Collections.singleton(relatedVocabulary.getUri());
+        final long originalVersion = sut.getContentVersion(vocabularies);
+
+        term.setVocabulary(vocabulary.getUri());
+        transactional(() -> sut.remove(term));
+        assertThat(sut.getContentVersion(vocabularies), greaterThan(originalVersion));
+    }
+
     @Test
     void findAllRootsReturnsOnlyTermsWithMatchingLabelLanguage() {
         final List<Term> terms = generateTerms(5);
@@ -780,6 +867,37 @@ class TermDaoTest extends BaseDaoTestRunner {
         assertThat(result.get(0).getParentTerms(), hasItem(new TermDto(parent)));
     }
 
+    @Test
+    void findAllBySearchStringAndVocabularyLoadsAncestorsAndMetadataOfInferredParentTerms() {
+        final String searchString = "test";
+        final Term term = Generator.generateTermWithId(vocabulary.getUri());
+        term.getLabel().set(Environment.LANGUAGE, searchString + " value");
+        final Term grandparent = Generator.generateTermWithId(vocabulary.getUri());
+        final Term parent = Generator.generateTermWithId(vocabulary.getUri());
+        parent.addParentTerm(grandparent);
+        vocabulary.getGlossary().addRootTerm(grandparent);
+        transactional(() -> {
+            em.persist(term, descriptorFactory.termDescriptor(vocabulary));
+            em.persist(grandparent, descriptorFactory.termDescriptor(vocabulary));
+            em.persist(parent, descriptorFactory.termDescriptor(vocabulary));
+            em.merge(vocabulary.getGlossary(), descriptorFactory.glossaryDescriptor(vocabulary));
+            addTermInVocabularyRelationship(term, vocabulary.getUri());
+            addTermInVocabularyRelationship(grandparent, vocabulary.getUri());
+            addTermInVocabularyRelationship(parent, vocabulary.getUri());
+            insertInferredBroaderRelationship(term, parent, em);
+        });
+
+        final List<TermDto> result = sut.findAll(searchString, vocabulary);
+        assertEquals(1, result.size());
+        assertEquals(Collections.singleton(new TermDto(parent)), result.get(0).getParentTerms());
+        final TermDto loadedParent = result.get(0).getParentTerms().iterator().next();
+        assertEquals(parent.getDefinition(), loadedParent.getDefinition());
+        assertThat(loadedParent.getSubTerms(), hasItem(new TermInfo(term)));
+        assertEquals(Collections.singleton(new TermDto(grandparent)), loadedParent.getParentTerms());
+        final TermDto loadedGrandparent = loadedParent.getParentTerms().iterator().next();
+        assertThat(loadedGrandparent.getSubTerms(), hasItem(new TermInfo(parent)));
+    }
+
     static void insertInferredBroaderRelationship(Term child, Term parent, EntityManager em) {
         final Repository repo = em.unwrap(Repository.class);
         try (final RepositoryConnection conn = repo.getConnection()) {
@@ -813,4 +931,77 @@ class TermDaoTest extends BaseDaoTestRunner {
         assertEquals(1, result.size());
         assertEquals(newLabel, result.get(0).getLabel().get(Environment.LANGUAGE));
     }
+
+    @Test
+    void findLoadsSubTermsAndInverseRelationshipsUsingSingleQuery() {
+        final Term parent = persistParentWithChild();
+        final EntityManager emSpy = spy(em);
+        final TermDao dao = new TermDao(emSpy, configuration, descriptorFactory, persistenceUtils,
+                                        changeTrackingHelperDao);
+
+        final Optional<Term> result = dao.find(parent.getUri());
+        assertTrue(result.isPresent());
+        assertEquals(parent.getSubTerms(), result.get().getSubTerms());
+        // Vocabulary IRI resolution, term detail and published status
+        assertEquals(3, countNativeQueries(emSpy));
+    }
+
+    private static long countNativeQueries(EntityManager emSpy) {
+        return mockingDetails(emSpy).getInvocations().stream()
+                                    .filter(inv -> inv.getMethod().getName().equals("createNativeQuery")).count();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void findAllRootsLoadsSubTermsOfPageUsingOneQueryPerValuesBlock(int pageSize) {
+        final List<Term> terms = generateTerms(pageSize);
+        addTermsAndSave(terms, vocabulary);
+        final EntityManager emSpy = spy(em);
+        final TermDao dao = new TermDao(emSpy, configuration, descriptorFactory, persistenceUtils,
+                                        changeTrackingHelperDao);
+
+        final List<TermDto> result = dao.findAllRoots(vocabulary, PageRequest.of(0, pageSize),
+                                                      Collections.emptyList());
+        assertEquals(pageSize, result.size());
+        result.forEach(r -> assertNotNull(r.getSubTerms()));
+        // Root terms and their sub-terms
+        final int valuesBlocks = (pageSize + TermDao.VALUES_BLOCK_SIZE - 1) / TermDao.VALUES_BLOCK_SIZE;
+        assertEquals(1 + valuesBlocks, countNativeQueries(emSpy));
+    }
+
+    @Test
+    void findAllBySearchStringAndVocabularyLoadsInferredParentTermsWithoutLoadingThemOneByOne() {
+        final String searchString = "test";
+        final Term parent = Generator.generateTermWithId(vocabulary.getUri());
+        vocabulary.getGlossary().addRootTerm(parent);
+        final List<Term> children = IntStream.range(0, 5).mapToObj(i -> {
+            final Term child = Generator.generateTermWithId(vocabulary.getUri());
+            child.getLabel().set(Environment.LANGUAGE, searchString + " " + i);
+            return child;
+        }).collect(Collectors.toList());
+        transactional(() -> {
+            em.persist(parent, descriptorFactory.termDescriptor(vocabulary));
+            em.merge(vocabulary.getGlossary(), descriptorFactory.glossaryDescriptor(vocabulary));
+            addTermInVocabularyRelationship(parent, vocabulary.getUri());
+            children.forEach(child -> {
+                em.persist(child, descriptorFactory.termDescriptor(vocabulary));
+                addTermInVocabularyRelationship(child, vocabulary.getUri());
+                insertInferredBroaderRelationship(child, parent, em);
+            });
+        });
+        final EntityManager emSpy = spy(em);
+        final TermDao dao = new TermDao(emSpy, configuration, descriptorFactory, persistenceUtils,
+                                        changeTrackingHelperDao);
+
+        final List<TermDto> result = dao.findAll(searchString, vocabulary);
+        assertEquals(children.size(), result.size());
+        result.forEach(r -> {
+            assertThat(r.getParentTerms(), hasItem(new TermDto(parent)));
+            final TermDto loadedParent = r.getParentTerms().iterator().next();
+            assertEquals(parent.getLabel().get(Environment.LANGUAGE),
+                         loadedParent.getLabel().get(Environment.LANGUAGE));
+            assertEquals(vocabulary.getUri(), loadedParent.getVocabulary());
+        });
+        verify(emSpy, never()).find(eq(TermDto.class), any(), any(Descriptor.class));
+    }
 }
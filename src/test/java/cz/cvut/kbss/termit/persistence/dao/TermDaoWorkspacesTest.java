@@ -2,6 +2,7 @@ package cz.cvut.kbss.termit.persistence.dao;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
 import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
 import cz.cvut.kbss.jopa.model.descriptors.FieldDescriptor;
 import cz.cvut.kbss.jopa.vocabulary.SKOS;
@@ -15,10 +16,13 @@ import cz.cvut.kbss.termit.environment.WorkspaceGenerator;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.persistence.PersistenceUtils;
+import cz.cvut.kbss.termit.persistence.dao.changetracking.ChangeTrackingHelperDao;
 import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceMetadataProvider;
 import cz.cvut.kbss.termit.util.ConfigParam;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Constants;
+import cz.cvut.kbss.termit.util.CursorPage;
 import cz.cvut.kbss.termit.util.PageAndSearchSpecification;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Statement;
@@ -38,7 +42,9 @@ import java.util.stream.IntStream;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.doReturn;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 public class TermDaoWorkspacesTest extends BaseDaoTestRunner {
 
@@ -56,6 +62,12 @@ public class TermDaoWorkspacesTest extends BaseDaoTestRunner {
     @Autowired
     private Configuration config;
 
+    @Autowired
+    private PersistenceUtils persistenceUtils;
+
+    @Autowired
+    private ChangeTrackingHelperDao changeTrackingHelperDao;
+
     @Autowired
     private TermDao sut;
 
@@ -849,6 +861,96 @@ public class TermDaoWorkspacesTest extends BaseDaoTestRunner {
         assertEquals(expected, result);
     }
 
+    @Test
+    void findAllAfterRetrievesAllTermsPageByPageInSameOrderAsOffsetPaging() {
+        final List<Term> wsTerms = generateRootTerms();
+        final List<Term> canonicalTerms = IntStream.range(0, 5).mapToObj(i -> {
+            final Term t = Generator.generateTermWithId();
+            persistTermIntoCanonicalContainer(t);
+            return t;
+        }).collect(Collectors.toList());
+        final int pageSize = wsTerms.size() - 1;
+        final List<TermDto> expected = sut.findAll(PageRequest.of(0, wsTerms.size() + canonicalTerms.size()));
+
+        final List<TermDto> result = new ArrayList<>();
+        CursorPage<TermDto> page = sut.findAllAfter(null, pageSize);
+        result.addAll(page.getContent());
+        while (page.getNextCursor().isPresent()) {
+            assertEquals(pageSize, page.getContent().size());
+            page = sut.findAllAfter(page.getNextCursor().get(), pageSize);
+            result.addAll(page.getContent());
+        }
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void findAllRootsAfterReturnsPageFollowingCursorAndCursorOfNextPage() {
+        final List<Term> wsTerms = generateRootTerms();
+        final List<Term> canonicalTerms = IntStream.range(0, 5).mapToObj(i -> {
+            final Term t = Generator.generateTermWithId();
+            persistTermIntoCanonicalContainer(t);
+            return t;
+        }).collect(Collectors.toList());
+        wsTerms.sort(Comparator.comparing(Term::getPrimaryLabel));
+        canonicalTerms.sort(Comparator.comparing(Term::getPrimaryLabel));
+        final List<Term> allTerms = new ArrayList<>(wsTerms);
+        allTerms.addAll(canonicalTerms);
+        final int pageSize = wsTerms.size() - 1;
+
+        final CursorPage<TermDto> first = sut.findAllRootsAfter(null, pageSize);
+        assertTrue(first.getNextCursor().isPresent());
+        final CursorPage<TermDto> result = sut.findAllRootsAfter(first.getNextCursor().get(), pageSize);
+        final List<TermDto> expected = allTerms.subList(pageSize, pageSize * 2).stream().map(TermDto::new)
+                                               .collect(Collectors.toList());
+        assertEquals(expected, result.getContent());
+    }
+
+    @Test
+    void findAllRootsAfterReturnsNoNextCursorForLastPage() {
+        final List<Term> wsTerms = generateRootTerms();
+
+        final CursorPage<TermDto> result = sut.findAllRootsAfter(null, wsTerms.size());
+        assertEquals(wsTerms.size(), result.getContent().size());
+        assertFalse(result.getNextCursor().isPresent());
+    }
+
+    @Test
+    void findAllAfterLoadsTermsWithAssertedParentsWithoutLoadingThemOneByOne() {
+        final Term grandparent = Generator.generateTermWithId();
+        final Term parent = Generator.generateTermWithId();
+        parent.addParentTerm(grandparent);
+        final Term child = Generator.generateTermWithId();
+        child.addParentTerm(parent);
+        final List<Term> terms = Arrays.asList(grandparent, parent, child);
+        transactional(() -> terms.forEach(t -> {
+            t.setGlossary(vocabulary.getGlossary().getUri());
+            em.persist(t, new EntityDescriptor(vocabulary.getUri()));
+            Generator.addTermInVocabularyRelationship(t, vocabulary.getUri(), em);
+        }));
+        final EntityManager emSpy = spy(em);
+        final TermDao dao = new TermDao(emSpy, config, descriptorFactory, persistenceUtils, changeTrackingHelperDao);
+
+        final CursorPage<TermDto> result = dao.findAllAfter(null, terms.size());
+        assertEquals(terms.size(), result.getContent().size());
+        verify(emSpy, never()).find(eq(TermDto.class), any(), any(Descriptor.class));
+        final Optional<TermDto> loadedChild = result.getContent().stream()
+                                                    .filter(t -> t.getUri().equals(child.getUri())).findFirst();
+        assertTrue(loadedChild.isPresent());
+        assertEquals(child.getLabel(), loadedChild.get().getLabel());
+        assertEquals(vocabulary.getUri(), loadedChild.get().getVocabulary());
+        assertEquals(Collections.singleton(new TermDto(parent)), loadedChild.get().getParentTerms());
+        final TermDto loadedParent = loadedChild.get().getParentTerms().iterator().next();
+        // Parent is the same as when loaded on its own
+        final TermDto expectedParent = em.find(TermDto.class, parent.getUri());
+        assertEquals(expectedParent.getLabel(), loadedParent.getLabel());
+        assertEquals(expectedParent.getDefinition(), loadedParent.getDefinition());
+        assertEquals(expectedParent.getGlossary(), loadedParent.getGlossary());
+        assertEquals(expectedParent.getVocabulary(), loadedParent.getVocabulary());
+        assertEquals(expectedParent.isDraft(), loadedParent.isDraft());
+        assertEquals(expectedParent.getParentTerms(), loadedParent.getParentTerms());
+        assertEquals(grandparent.getLabel(), loadedParent.getParentTerms().iterator().next().getLabel());
+    }
+
     @Test
     void updateSupportsTermWithSupertypeInCanonicalContainer() {
         final Term term = Generator.generateTermWithId();
@@ -25,6 +25,7 @@ import cz.cvut.kbss.termit.model.changetracking.AbstractChangeRecord;
 import cz.cvut.kbss.termit.model.resource.Document;
 import cz.cvut.kbss.termit.model.resource.File;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.util.Constants;
 import cz.cvut.kbss.termit.workspace.WorkspaceStore;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
@@ -265,6 +266,23 @@ class VocabularyDaoTest extends BaseDaoTestRunner {
         assertTrue(result.contains(transitiveVocabulary.getUri()));
     }
 
+    @Test
+    void getTransitiveDependenciesReflectsDependenciesAddedByVocabularyUpdate() {
+        final Vocabulary subjectVocabulary = Generator.generateVocabularyWithId();
+        final Vocabulary importedVocabulary = Generator.generateVocabularyWithId();
+        transactional(() -> {
+            em.persist(subjectVocabulary, descriptorFactory.vocabularyDescriptor(subjectVocabulary));
+            em.persist(importedVocabulary, descriptorFactory.vocabularyDescriptor(importedVocabulary));
+        });
+        assertTrue(sut.getTransitiveDependencies(subjectVocabulary).isEmpty());
+
+        subjectVocabulary.setDependencies(Collections.singleton(importedVocabulary.getUri()));
+        transactional(() -> sut.update(subjectVocabulary));
+        assertEquals(Collections.singletonList(importedVocabulary.getUri()),
+                new ArrayList<>(sut.getTransitiveDependencies(subjectVocabulary)));
+        assertEquals(Collections.singletonList(subjectVocabulary), sut.getDependentVocabularies(importedVocabulary));
+    }
+
     @Test
     void initializesLastModificationTimestampToCurrentDateTimeOnInit() {
         final long result = sut.getLastModified();
@@ -438,10 +456,16 @@ class VocabularyDaoTest extends BaseDaoTestRunner {
             term.setGlossary(vocabulary.getGlossary().getUri());
             em.persist(term, descriptorFactory.termDescriptor(vocabulary));
             Generator.addTermInVocabularyRelationship(term, vocabulary.getUri(), em);
-            changes.forEach(ch -> em.persist(ch));
+            final EntityDescriptor changeDescriptor = new EntityDescriptor(URI.create(
+                    WorkspaceTestConfig.DEFAULT_VOCABULARY_CTX + WorkspaceTestConfig.DEFAULT_CHANGE_TRACKING_CONTEXT));
+            changeDescriptor.addAttributeDescriptor(
+                    em.getMetamodel().entity(AbstractChangeRecord.class).getAttribute("author"),
+                    new EntityDescriptor());
+            changes.forEach(ch -> em.persist(ch, changeDescriptor));
         });
 
-        final List<AbstractChangeRecord> result = sut.getChangesOfContent(vocabulary);
+        final List<AbstractChangeRecord> result = sut.getChangesOfContent(vocabulary, Constants.DEFAULT_PAGE_SPEC,
+                null, null);
         assertEquals(changes.size(), result.size());
         assertTrue(changes.containsAll(result));
     }
@@ -14,9 +14,11 @@ import cz.cvut.kbss.termit.model.changetracking.PersistChangeRecord;
 import cz.cvut.kbss.termit.model.changetracking.UpdateChangeRecord;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
 import cz.cvut.kbss.termit.persistence.dao.BaseDaoTestRunner;
+import cz.cvut.kbss.termit.util.Constants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 
 import java.net.URI;
 import java.time.Instant;
@@ -39,6 +41,9 @@ class ChangeRecordDaoTest extends BaseDaoTestRunner {
     @Autowired
     private DescriptorFactory descriptorFactory;
 
+    @Autowired
+    private ChangeRecordJournal journal;
+
     @Autowired
     private ChangeRecordDao sut;
 
@@ -53,16 +58,58 @@ class ChangeRecordDaoTest extends BaseDaoTestRunner {
         transactional(() -> em.persist(author));
     }
 
+    @Test
+    void persistAsyncSavesChangeRecordsIntoContextAfterTransactionCommits() {
+        enableRdfsInference(em);
+        final Term asset = Generator.generateTermWithId();
+        asset.setVocabulary(vocabulary.getUri());
+        final List<UpdateChangeRecord> records = IntStream.range(0, 3).mapToObj(
+                i -> generateUpdateRecord(Instant.ofEpochMilli(System.currentTimeMillis() - i * 10000L),
+                        asset.getUri())).collect(Collectors.toList());
+        records.get(0).setNewValue(Collections.singleton(MultilingualString.create("Test term", "en")));
+        transactional(() -> sut.persistAsync(records, asset));
+
+        final List<AbstractChangeRecord> result = sut.findAll(asset);
+        assertEquals(records.size(), result.size());
+        assertTrue(result.containsAll(records));
+        final UpdateChangeRecord withValue = (UpdateChangeRecord) result.stream()
+                                                                        .filter(r -> r.getUri()
+                                                                                      .equals(records.get(0).getUri()))
+                                                                        .findFirst().get();
+        assertEquals(records.get(0).getNewValue(), withValue.getNewValue());
+        assertEquals(author, withValue.getAuthor());
+        assertTrue(em.createNativeQuery("ASK WHERE { GRAPH ?g { ?x a ?changeRecord . } }", Boolean.class)
+                     .setParameter("g", contextResolver.resolveChangeTrackingContext(asset))
+                     .setParameter("x", records.get(0).getUri())
+                     .getSingleResult());
+    }
+
     @Test
     void persistSavesChangeRecordIntoContext() {
         final AbstractChangeRecord record = generatePersistRecord(Instant.now(), Generator.generateUri());
-        transactional(() -> sut.persist(record, vocabulary));
+        transactional(() -> sut.persistAsync(Collections.singleton(record), vocabulary));
+        journal.flush();
 
         final AbstractChangeRecord result = em.find(AbstractChangeRecord.class, record.getUri());
         assertNotNull(result);
+        assertEquals(author, result.getAuthor());
         assertTrue(em.createNativeQuery("ASK WHERE { GRAPH ?g { ?x a ?changeRecord . } }", Boolean.class)
                      .setParameter("g", contextResolver.resolveChangeTrackingContext(vocabulary))
                      .setParameter("x", record.getUri())
+                     .setParameter("changeRecord", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_c_vytvoreni_entity))
+                     .getSingleResult());
+        assertAuthorInDefaultContext(record);
+    }
+
+    /**
+     * Author reference is stored in the default context, not in the change tracking context of the record.
+     */
+    private void assertAuthorInDefaultContext(AbstractChangeRecord record) {
+        assertTrue(em.createNativeQuery("ASK WHERE { ?x ?hasEditor ?author . " +
+                             "FILTER NOT EXISTS { GRAPH ?g { ?x ?hasEditor ?author . } } }", Boolean.class)
+                     .setParameter("x", record.getUri())
+                     .setParameter("hasEditor", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_editora))
+                     .setParameter("author", author.getUri())
                      .getSingleResult());
     }
 
@@ -152,24 +199,40 @@ class ChangeRecordDaoTest extends BaseDaoTestRunner {
         final UpdateChangeRecord record = generateUpdateRecord(Instant.now(), Generator.generateUri());
         record.setOriginalValue(Collections.singleton("original value"));
         record.setNewValue(Collections.singleton("new value"));
-        transactional(() -> sut.persist(record, vocabulary));
+        transactional(() -> sut.persistAsync(Collections.singleton(record), vocabulary));
+        journal.flush();
 
         final UpdateChangeRecord result = em.find(UpdateChangeRecord.class, record.getUri());
         assertNotNull(result);
         assertEquals(record.getOriginalValue(), result.getOriginalValue());
         assertEquals(record.getNewValue(), result.getNewValue());
+        assertTrue(em.createNativeQuery("ASK WHERE { GRAPH ?g { ?x ?hasNewValue ?value . } }", Boolean.class)
+                     .setParameter("g", contextResolver.resolveChangeTrackingContext(vocabulary))
+                     .setParameter("x", record.getUri())
+                     .setParameter("hasNewValue", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_novou_hodnotu))
+                     .setParameter("value", "new value", null)
+                     .getSingleResult());
+        assertAuthorInDefaultContext(record);
     }
 
     @Test
     void persistSavesRecordWithReferenceValueChange() {
         final UpdateChangeRecord record = generateUpdateRecord(Instant.now(), Generator.generateUri());
         record.setNewValue(Collections.singleton(Generator.generateUri()));
-        transactional(() -> sut.persist(record, vocabulary));
+        transactional(() -> sut.persistAsync(Collections.singleton(record), vocabulary));
+        journal.flush();
 
         final UpdateChangeRecord result = em.find(UpdateChangeRecord.class, record.getUri());
         assertNotNull(result);
         assertNull(result.getOriginalValue());
         assertEquals(record.getNewValue(), result.getNewValue());
+        assertTrue(em.createNativeQuery("ASK WHERE { GRAPH ?g { ?x ?hasNewValue ?value . } }", Boolean.class)
+                     .setParameter("g", contextResolver.resolveChangeTrackingContext(vocabulary))
+                     .setParameter("x", record.getUri())
+                     .setParameter("hasNewValue", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_novou_hodnotu))
+                     .setParameter("value", record.getNewValue().iterator().next())
+                     .getSingleResult());
+        assertAuthorInDefaultContext(record);
     }
 
     @Test
@@ -181,7 +244,7 @@ class ChangeRecordDaoTest extends BaseDaoTestRunner {
         newValue.set("cs", "Testovací pojem");
         record.setOriginalValue(Collections.singleton(original));
         record.setNewValue(Collections.singleton(newValue));
-        transactional(() -> sut.persist(record, vocabulary));
+        transactional(() -> sut.persistAsync(Collections.singleton(record), vocabulary));
 
         final List<AbstractChangeRecord> result = sut.findAll(vocabulary);
         assertEquals(1, result.size());
@@ -210,4 +273,65 @@ class ChangeRecordDaoTest extends BaseDaoTestRunner {
         }
         return new HashSet<>(target);
     }
+
+    @Test
+    void findAllOfContentRetrievesChangeRecordsOfTermsFromVocabularyChangeTrackingContext() {
+        enableRdfsInference(em);
+        final Term term = persistTerm();
+        final List<AbstractChangeRecord> termRecords = IntStream.range(0, 5).mapToObj(
+                i -> generateUpdateRecord(Instant.ofEpochMilli(System.currentTimeMillis() - i * 10000L),
+                        term.getUri())).collect(Collectors.toList());
+        final AbstractChangeRecord vocabularyRecord = generatePersistRecord(Instant.now(), vocabulary.getUri());
+        final AbstractChangeRecord otherContextRecord = generatePersistRecord(Instant.now(), term.getUri());
+        final AbstractChangeRecord otherAssetRecord = generatePersistRecord(Instant.now(), Generator.generateUri());
+        final URI changeContext = contextResolver.resolveChangeTrackingContext(vocabulary);
+        transactional(() -> {
+            termRecords.forEach(r -> em.persist(r, persistDescriptor(changeContext)));
+            em.persist(vocabularyRecord, persistDescriptor(changeContext));
+            em.persist(otherAssetRecord, persistDescriptor(changeContext));
+            em.persist(otherContextRecord, persistDescriptor(Generator.generateUri()));
+        });
+
+        final List<AbstractChangeRecord> result = sut
+                .findAllOfContent(vocabulary, Constants.DEFAULT_PAGE_SPEC, null, null);
+        termRecords.sort(Comparator.comparing(AbstractChangeRecord::getTimestamp).reversed());
+        assertEquals(termRecords, result);
+    }
+
+    @Test
+    void findAllOfContentReturnsSpecifiedPageOfChangeRecords() {
+        enableRdfsInference(em);
+        final Term term = persistTerm();
+        final List<AbstractChangeRecord> records = IntStream.range(0, 10).mapToObj(
+                i -> generateUpdateRecord(Instant.ofEpochMilli(System.currentTimeMillis() - i * 10000L),
+                        term.getUri())).collect(Collectors.toList());
+        final URI changeContext = contextResolver.resolveChangeTrackingContext(vocabulary);
+        transactional(() -> records.forEach(r -> em.persist(r, persistDescriptor(changeContext))));
+
+        final List<AbstractChangeRecord> result = sut.findAllOfContent(vocabulary, PageRequest.of(1, 4), null, null);
+        assertEquals(records.subList(4, 8), result);
+    }
+
+    @Test
+    void findAllOfContentReturnsChangeRecordsWithinSpecifiedTimeWindow() {
+        enableRdfsInference(em);
+        final Term term = persistTerm();
+        final Instant now = Instant.now();
+        final List<AbstractChangeRecord> records = IntStream.range(0, 10).mapToObj(
+                i -> generateUpdateRecord(now.minusSeconds(i * 60L), term.getUri())).collect(Collectors.toList());
+        final URI changeContext = contextResolver.resolveChangeTrackingContext(vocabulary);
+        transactional(() -> records.forEach(r -> em.persist(r, persistDescriptor(changeContext))));
+
+        final List<AbstractChangeRecord> result = sut
+                .findAllOfContent(vocabulary, Constants.DEFAULT_PAGE_SPEC, now.minusSeconds(5 * 60L),
+                        now.minusSeconds(60L));
+        assertEquals(records.subList(2, 6), result);
+    }
+
+    private Term persistTerm() {
+        final Term term = Generator.generateTermWithId();
+        term.setVocabulary(vocabulary.getUri());
+        transactional(() -> em.persist(term, descriptorFactory.termDescriptor(vocabulary)));
+        return term;
+    }
 }
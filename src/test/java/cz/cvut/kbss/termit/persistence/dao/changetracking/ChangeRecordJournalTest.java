@@ -0,0 +1,248 @@
+package cz.cvut.kbss.termit.persistence.dao.changetracking;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.ChangeRecordsWrittenEvent;
+import cz.cvut.kbss.termit.model.User;
+import cz.cvut.kbss.termit.model.changetracking.UpdateChangeRecord;
+import cz.cvut.kbss.termit.persistence.dao.BaseDaoTestRunner;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ChangeRecordJournalTest extends BaseDaoTestRunner {
+
+    private static final URI CONTEXT = Generator.generateUri();
+
+    @Autowired
+    private EntityManager em;
+
+    private final Configuration config = new Configuration();
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private Path spoolDir;
+
+    private Path spool;
+
+    private User author;
+
+    private ChangeRecordJournal sut;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.spoolDir = Files.createTempDirectory("termit");
+        spoolDir.toFile().deleteOnExit();
+        this.spool = spoolDir.resolve("journal");
+        config.getChangetracking().getJournal().setFile(spool.toString());
+        config.getChangetracking().getJournal().setFlushInterval(50);
+        this.author = Generator.generateUserWithId();
+        transactional(() -> em.persist(author));
+        this.sut = new ChangeRecordJournal(em, config, eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        sut.stop();
+        try (final Stream<Path> files = Files.list(spoolDir)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(spoolDir);
+    }
+
+    private List<Path> listSegments() throws Exception {
+        try (final Stream<Path> files = Files.list(spoolDir)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    private UpdateChangeRecord generateRecord() {
+        final UpdateChangeRecord record = new UpdateChangeRecord();
+        record.setAuthor(author);
+        record.setTimestamp(Instant.now());
+        record.setChangedEntity(Generator.generateUri());
+        record.setChangedAttribute(URI.create(SKOS.PREF_LABEL));
+        record.setNewValue(Collections.singleton("New\tlabel\nvalue"));
+        return record;
+    }
+
+    private boolean existsInContext(UpdateChangeRecord record) {
+        return em.createNativeQuery("ASK WHERE { GRAPH ?g { ?x ?changedEntity ?entity . } }", Boolean.class)
+                 .setParameter("g", CONTEXT)
+                 .setParameter("x", record.getUri())
+                 .setParameter("changedEntity",
+                         URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_zmenenou_entitu))
+                 .setParameter("entity", record.getChangedEntity())
+                 .getSingleResult();
+    }
+
+    @Test
+    void appendWritesRecordsIntoContextAfterTransactionCommits() {
+        sut.start();
+        final UpdateChangeRecord record = generateRecord();
+        transactional(() -> {
+            sut.append(Collections.singleton(record), CONTEXT);
+            assertNotNull(record.getUri());
+        });
+        sut.flush();
+
+        assertTrue(existsInContext(record));
+        final UpdateChangeRecord result = em.find(UpdateChangeRecord.class, record.getUri());
+        assertNotNull(result);
+        assertEquals(record.getNewValue(), result.getNewValue());
+        assertEquals(author, result.getAuthor());
+    }
+
+    @Test
+    void flushDeletesSpoolSegmentsWhenAllRecordsAreWritten() throws Exception {
+        sut.start();
+        sut.append(Collections.singleton(generateRecord()), CONTEXT);
+        sut.flush();
+
+        assertTrue(listSegments().isEmpty());
+    }
+
+    @Test
+    void writtenBatchesAreRemovedFromSpoolWhileFurtherRecordsArePending() throws Exception {
+        config.getChangetracking().getJournal().setBatchSize(2);
+        sut.start();
+        sut.append(IntStream.range(0, 2).mapToObj(i -> generateRecord()).collect(Collectors.toList()), CONTEXT);
+        sut.flush();
+        sut.append(Collections.singleton(generateRecord()), CONTEXT);
+
+        final List<Path> segments = listSegments();
+        assertTrue(segments.size() <= 1);
+        sut.flush();
+        assertTrue(listSegments().isEmpty());
+    }
+
+    @Test
+    void publishesEventAfterRecordsAreWritten() {
+        sut.start();
+        sut.append(Collections.singleton(generateRecord()), CONTEXT);
+        sut.flush();
+
+        verify(eventPublisher, timeout(5000)).publishEvent(any(ChangeRecordsWrittenEvent.class));
+    }
+
+    @Test
+    void keepsRecordsOnlyInMemoryWhenNeitherJournalFileNorFileStorageIsConfigured() {
+        config.getChangetracking().getJournal().setFile(null);
+        config.getFile().setStorage(null);
+        this.sut = new ChangeRecordJournal(em, config, eventPublisher);
+        sut.start();
+        final UpdateChangeRecord record = generateRecord();
+        sut.append(Collections.singleton(record), CONTEXT);
+        sut.flush();
+
+        assertTrue(existsInContext(record));
+    }
+
+    @Test
+    void startWritesRecordsRemainingInSpoolAndDiscardsIncompleteEntry() throws Exception {
+        final UpdateChangeRecord record = generateRecord();
+        record.setUri(Generator.generateUri());
+        final String entry = "<" + record.getUri() + ">\t<" +
+                cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_zmenenou_entitu + ">\t<" + record.getChangedEntity() +
+                ">\t<" + CONTEXT + ">\n\n";
+        final URI incomplete = Generator.generateUri();
+        final String incompleteEntry = "<" + incomplete + ">\t<" +
+                cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_zmenenou_entitu + ">\t<" + Generator.generateUri();
+        Files.write(spoolDir.resolve(spool.getFileName() + ".3"),
+                (entry + incompleteEntry).getBytes(StandardCharsets.UTF_8));
+
+        sut.start();
+        sut.flush();
+        assertTrue(existsInContext(record));
+        assertFalse(em.createNativeQuery("ASK WHERE { ?x ?y ?z . }", Boolean.class)
+                      .setParameter("x", incomplete).getSingleResult());
+        assertTrue(listSegments().isEmpty());
+    }
+
+    @Test
+    void appendWritesSameStatementsAsPersistenceProvider() {
+        sut.start();
+        final UpdateChangeRecord persisted = generateRecord();
+        persisted.setOriginalValue(new HashSet<>(Arrays.asList("original value", Generator.generateUri(),
+                MultilingualString.create("Label", "en"))));
+        final URI persistedContext = Generator.generateUri();
+        final EntityDescriptor descriptor = new EntityDescriptor(persistedContext);
+        descriptor.addAttributeContext(em.getMetamodel().entity(UpdateChangeRecord.class)
+                                         .getFieldSpecification("author"), null);
+        descriptor.setLanguage(null);
+        transactional(() -> em.persist(persisted, descriptor));
+        final UpdateChangeRecord journaled = generateRecord();
+        journaled.setTimestamp(persisted.getTimestamp());
+        journaled.setChangedEntity(persisted.getChangedEntity());
+        journaled.setOriginalValue(persisted.getOriginalValue());
+        journaled.setNewValue(persisted.getNewValue());
+        sut.append(Collections.singleton(journaled), CONTEXT);
+        sut.flush();
+
+        assertEquals(loadStatements(persisted, persistedContext), loadStatements(journaled, CONTEXT));
+    }
+
+    /**
+     * Loads statements about the specified subject as property, value and context (which is replaced with a
+     * placeholder if it is the specified one).
+     */
+    private Set<List<Value>> loadStatements(UpdateChangeRecord record, URI context) {
+        final Repository repository = em.unwrap(Repository.class);
+        final ValueFactory vf = repository.getValueFactory();
+        final IRI placeholder = vf.createIRI(CONTEXT.toString());
+        final IRI ctx = vf.createIRI(context.toString());
+        try (final RepositoryConnection connection = repository.getConnection()) {
+            final List<Statement> statements = Iterations.asList(
+                    connection.getStatements(vf.createIRI(record.getUri().toString()), null, null, false));
+            return statements.stream().map(st -> Arrays.<Value>asList(st.getPredicate(), normalize(st.getObject()),
+                    ctx.equals(st.getContext()) ? placeholder : st.getContext())).collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Normalizes date time literals, whose lexical forms may differ while denoting the same instant.
+     */
+    private static Value normalize(Value value) {
+        if (value instanceof Literal && XSD.DATETIME.equals(((Literal) value).getDatatype())) {
+            return SimpleValueFactory.getInstance().createLiteral(
+                    ((Literal) value).calendarValue().toGregorianCalendar().getTimeInMillis());
+        }
+        return value;
+    }
+}
@@ -32,7 +32,7 @@ import java.util.Optional;
 import static cz.cvut.kbss.termit.environment.config.WorkspaceTestConfig.DEFAULT_CHANGE_TRACKING_CONTEXT;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @EnableConfigurationProperties({Configuration.class})
 @ExtendWith(SpringExtension.class)
@@ -90,6 +90,18 @@ class ChangeTrackingContextResolverTest {
         assertEquals(CHANGE_TRACKING_CTX, result);
     }
 
+    @Test
+    void resolveChangeTrackingContextUsesVocabularyOfTermWhenAvailable() {
+        when(workspaceMetadataProvider.getCurrentWorkspaceMetadata()).thenReturn(metadata);
+        final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+        metadata.setVocabularies(Collections.singletonMap(vocabulary.getUri(),
+                new VocabularyInfo(vocabulary.getUri(), vocabulary.getUri(), CHANGE_TRACKING_CTX)));
+        final Term term = Generator.generateTermWithId(vocabulary.getUri());
+        final URI result = sut.resolveChangeTrackingContext(term);
+        assertEquals(CHANGE_TRACKING_CTX, result);
+        verify(vocabularyDao, never()).findVocabularyOfGlossary(any());
+    }
+
     @Test
     void resolveChangeTrackingContextThrowsNotFoundExceptionWhenTermVocabularyIsNotFound() {
         final Vocabulary vocabulary = Generator.generateVocabularyWithId();
@@ -89,6 +89,45 @@ class ChangeTrackingHelperDaoTest extends BaseDaoTestRunner {
         assertEquals(term.getLabel(), result.getLabel());
     }
 
+    @Test
+    void findStoredReturnsInstanceRegisteredInCurrentTransaction() {
+        final Vocabulary voc = Generator.generateVocabularyWithId();
+        final Vocabulary stored = Generator.generateVocabulary();
+        stored.setUri(voc.getUri());
+
+        transactional(() -> {
+            sut.registerStored(stored);
+            assertSame(stored, sut.findStored(voc));
+        });
+    }
+
+    @Test
+    void findStoredLoadsInstanceFromRepositoryAfterRegisteredInstanceIsUnregistered() {
+        final Vocabulary voc = Generator.generateVocabularyWithId();
+        transactional(() -> em.persist(voc, descriptorFactory.vocabularyDescriptor(voc)));
+        final Vocabulary stored = Generator.generateVocabulary();
+        stored.setUri(voc.getUri());
+
+        transactional(() -> {
+            sut.registerStored(stored);
+            sut.unregisterStored(voc);
+            final Vocabulary result = sut.findStored(voc);
+            assertNotSame(stored, result);
+            assertEquals(voc.getLabel(), result.getLabel());
+        });
+    }
+
+    @Test
+    void registeredInstanceIsDiscardedWhenTransactionCompletes() {
+        final Vocabulary voc = Generator.generateVocabularyWithId();
+        transactional(() -> em.persist(voc, descriptorFactory.vocabularyDescriptor(voc)));
+        final Vocabulary stored = Generator.generateVocabulary();
+        stored.setUri(voc.getUri());
+        transactional(() -> sut.registerStored(stored));
+
+        transactional(() -> assertNotSame(stored, sut.findStored(voc)));
+    }
+
     private void addTermToVocabularyInAnotherWorkspace(Term term) {
         final Vocabulary anotherWorkspaceVocabulary = Generator.generateVocabulary();
         anotherWorkspaceVocabulary.setUri(term.getVocabulary());
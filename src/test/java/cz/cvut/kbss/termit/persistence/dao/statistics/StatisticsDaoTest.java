@@ -59,6 +59,20 @@ class StatisticsDaoTest extends BaseDaoTestRunner {
         assertEquals(vocabulary.getUri(), result.get(0).getId());
     }
 
+    @Test
+    void getTermFrequencyStatisticsLoadsFrequencyStatisticsOfSpecifiedVocabulary() {
+        enableRdfsInference(em);
+        final Workspace ws = WorkspaceGenerator.generateWorkspace();
+        transactional(() -> em.persist(ws, new EntityDescriptor(ws.getUri())));
+        final Vocabulary vocabulary = saveVocabulary(ws);
+        final int matchingCount = generateTerms(vocabulary).size();
+
+        final List<TermFrequencyDto> result = sut.getTermFrequencyStatistics(ws, vocabulary.getUri());
+        assertEquals(1, result.size());
+        assertEquals(matchingCount, result.get(0).getCount());
+        assertEquals(vocabulary.getUri(), result.get(0).getId());
+    }
+
     private Vocabulary saveVocabulary(Workspace workspace) {
         final Vocabulary vocabulary = Generator.generateVocabularyWithId();
         wsMetadataProvider.loadWorkspace(workspace);
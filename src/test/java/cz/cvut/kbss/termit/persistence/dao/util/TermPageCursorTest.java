@@ -0,0 +1,28 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.exception.InvalidParameterException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TermPageCursorTest {
+
+    @Test
+    void decodeReturnsEncodedCursor() {
+        final TermPageCursor cursor = new TermPageCursor(1, "label with\nnew line and \"quotes\"",
+                Generator.generateUri());
+        assertEquals(cursor, TermPageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decodeThrowsInvalidParameterExceptionForInvalidToken() {
+        assertThrows(InvalidParameterException.class, () -> TermPageCursor.decode("%%%"));
+        final String malformed = Base64.getUrlEncoder().encodeToString("malformed".getBytes(StandardCharsets.UTF_8));
+        assertThrows(InvalidParameterException.class, () -> TermPageCursor.decode(malformed));
+    }
+}
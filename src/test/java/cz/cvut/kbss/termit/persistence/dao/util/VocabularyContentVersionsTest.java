@@ -0,0 +1,104 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.termit.dto.TermInfo;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.model.Term;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VocabularyContentVersionsTest {
+
+    private final VocabularyContentVersions sut = new VocabularyContentVersions();
+
+    @Test
+    void refreshIncreasesVersionOfRefreshedVocabularyOnly() {
+        final URI refreshed = Generator.generateUri();
+        final URI other = Generator.generateUri();
+        final long originalVersion = sut.getVersion(Collections.singleton(refreshed));
+
+        sut.refresh(Collections.singleton(refreshed));
+        assertThat(sut.getVersion(Collections.singleton(refreshed)), greaterThan(originalVersion));
+        assertEquals(originalVersion, sut.getVersion(Collections.singleton(other)));
+        assertEquals(sut.getVersion(Collections.singleton(refreshed)), sut.getVersion());
+    }
+
+    @Test
+    void refreshIncreasesVersionEvenWhenCalledRepeatedlyWithinSameMillisecond() {
+        final URI vocabulary = Generator.generateUri();
+        long previous = sut.getVersion(Collections.singleton(vocabulary));
+        for (int i = 0; i < 100; i++) {
+            sut.refresh(Collections.singleton(vocabulary));
+            final long current = sut.getVersion(Collections.singleton(vocabulary));
+            assertThat(current, greaterThan(previous));
+            previous = current;
+        }
+    }
+
+    @Test
+    void refreshNeverMakesVersionGoBackwardsWhenCalledConcurrently() throws Exception {
+        final URI vocabulary = Generator.generateUri();
+        final int threadCount = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long previous = 0;
+                    for (int j = 0; j < 1000; j++) {
+                        sut.refresh(Collections.singleton(vocabulary));
+                        final long current = sut.getVersion(Collections.singleton(vocabulary));
+                        assertThat(current, greaterThanOrEqualTo(previous));
+                        previous = current;
+                    }
+                    return previous;
+                }));
+            }
+            start.countDown();
+            long latest = 0;
+            for (Future<Long> result : results) {
+                latest = Math.max(latest, result.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(sut.getVersion(Collections.singleton(vocabulary)), greaterThanOrEqualTo(latest));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void refreshAllIncreasesVersionOfAllVocabularies() {
+        final URI vocabulary = Generator.generateUri();
+        sut.refresh(Collections.singleton(vocabulary));
+        final long refreshedVersion = sut.getVersion(Collections.singleton(vocabulary));
+        final long otherVersion = sut.getVersion(Collections.singleton(Generator.generateUri()));
+
+        sut.refreshAll();
+        assertThat(sut.getVersion(Collections.singleton(vocabulary)), greaterThan(refreshedVersion));
+        assertThat(sut.getVersion(Collections.singleton(Generator.generateUri())), greaterThan(otherVersion));
+    }
+
+    @Test
+    void resolveAffectedVocabulariesReturnsVocabulariesOfTermAndOfTermsItReferences() {
+        final Term term = Generator.generateTermWithId(Generator.generateUri());
+        final Term parent = Generator.generateTermWithId(Generator.generateUri());
+        term.addParentTerm(parent);
+        final Term related = Generator.generateTermWithId(Generator.generateUri());
+        term.addRelatedTerm(new TermInfo(related));
+        final Term inverseExactMatch = Generator.generateTermWithId(Generator.generateUri());
+        term.setInverseExactMatchTerms(Collections.singleton(new TermInfo(inverseExactMatch)));
+
+        assertThat(VocabularyContentVersions.resolveAffectedVocabularies(term),
+                containsInAnyOrder(term.getVocabulary(), parent.getVocabulary(), related.getVocabulary(),
+                        inverseExactMatch.getVocabulary()));
+    }
+}
@@ -0,0 +1,72 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.termit.environment.Generator;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VocabularyDependencyGraphTest {
+
+    private final Map<URI, Set<URI>> imports = new HashMap<>();
+
+    private void addImport(URI vocabulary, URI imported) {
+        imports.computeIfAbsent(vocabulary, k -> new HashSet<>()).add(imported);
+    }
+
+    @Test
+    void getTransitiveDependenciesReturnsDirectAndTransitivelyImportedVocabularies() {
+        final URI subject = Generator.generateUri();
+        final URI importedOne = Generator.generateUri();
+        final URI importedTwo = Generator.generateUri();
+        final URI transitive = Generator.generateUri();
+        addImport(subject, importedOne);
+        addImport(subject, importedTwo);
+        addImport(importedOne, transitive);
+        addImport(importedTwo, transitive);
+        final VocabularyDependencyGraph sut = new VocabularyDependencyGraph(imports);
+
+        assertThat(sut.getTransitiveDependencies(subject), containsInAnyOrder(importedOne, importedTwo, transitive));
+        assertEquals(Collections.singleton(transitive), sut.getTransitiveDependencies(importedOne));
+        assertTrue(sut.getTransitiveDependencies(transitive).isEmpty());
+    }
+
+    @Test
+    void getTransitiveDependenciesHandlesImportCycles() {
+        final URI first = Generator.generateUri();
+        final URI second = Generator.generateUri();
+        final URI third = Generator.generateUri();
+        addImport(first, second);
+        addImport(second, third);
+        addImport(third, first);
+        final VocabularyDependencyGraph sut = new VocabularyDependencyGraph(imports);
+
+        assertThat(sut.getTransitiveDependencies(first), containsInAnyOrder(first, second, third));
+    }
+
+    @Test
+    void getTransitiveDependenciesReturnsEmptySetForUnknownVocabulary() {
+        final VocabularyDependencyGraph sut = new VocabularyDependencyGraph(imports);
+        assertTrue(sut.getTransitiveDependencies(Generator.generateUri()).isEmpty());
+    }
+
+    @Test
+    void getDependentsReturnsVocabulariesDirectlyImportingSpecifiedOne() {
+        final URI target = Generator.generateUri();
+        final URI importingOne = Generator.generateUri();
+        final URI importingTwo = Generator.generateUri();
+        final URI transitivelyImporting = Generator.generateUri();
+        addImport(importingOne, target);
+        addImport(importingTwo, target);
+        addImport(transitivelyImporting, importingOne);
+        final VocabularyDependencyGraph sut = new VocabularyDependencyGraph(imports);
+
+        assertThat(sut.getDependents(target), containsInAnyOrder(importingOne, importingTwo));
+        assertTrue(sut.getDependents(transitivelyImporting).isEmpty());
+    }
+}
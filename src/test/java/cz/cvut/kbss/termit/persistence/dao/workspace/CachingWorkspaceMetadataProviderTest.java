@@ -6,6 +6,7 @@ import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
 import cz.cvut.kbss.termit.exception.NotFoundException;
 import cz.cvut.kbss.termit.model.Workspace;
+import cz.cvut.kbss.termit.persistence.dao.CanonicalCacheContainerDao;
 import cz.cvut.kbss.termit.workspace.WorkspaceStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,9 +14,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
+import java.net.URI;
+import java.util.*;
 
 import static cz.cvut.kbss.termit.environment.WorkspaceGenerator.generateWorkspace;
 import static org.hamcrest.CoreMatchers.hasItems;
@@ -32,6 +32,9 @@ class CachingWorkspaceMetadataProviderTest {
     @Mock
     private WorkspaceDao workspaceDao;
 
+    @Mock
+    private CanonicalCacheContainerDao canonicalCacheContainerDao;
+
     @InjectMocks
     private CachingWorkspaceMetadataProvider sut;
 
@@ -146,4 +149,49 @@ class CachingWorkspaceMetadataProviderTest {
         sut.getWorkspace(ws.getUri());
         verify(workspaceDao).find(ws.getUri());
     }
+
+    @Test
+    void getCanonicalContainerContextsRetrievesContextsFromDaoOnlyOnFirstCall() {
+        final Workspace ws = generateWorkspace();
+        final Set<URI> contexts = new HashSet<>(Arrays.asList(Generator.generateUri(), Generator.generateUri()));
+        when(canonicalCacheContainerDao.findUniqueCanonicalCacheContexts(ws)).thenReturn(new HashSet<>(contexts));
+
+        assertEquals(contexts, sut.getCanonicalContainerContexts(ws));
+        assertEquals(contexts, sut.getCanonicalContainerContexts(ws));
+        verify(canonicalCacheContainerDao).findUniqueCanonicalCacheContexts(ws);
+        assertEquals(1, sut.getCanonicalContextsCacheHits());
+        assertEquals(1, sut.getCanonicalContextsCacheMisses());
+    }
+
+    @Test
+    void getCanonicalContainerContextsReturnsCopyWhichDoesNotAffectCache() {
+        final Workspace ws = generateWorkspace();
+        final Set<URI> contexts = Collections.singleton(Generator.generateUri());
+        when(canonicalCacheContainerDao.findUniqueCanonicalCacheContexts(ws)).thenReturn(new HashSet<>(contexts));
+
+        sut.getCanonicalContainerContexts(ws).add(Generator.generateUri());
+        assertEquals(contexts, sut.getCanonicalContainerContexts(ws));
+    }
+
+    @Test
+    void invalidateCacheEvictsCanonicalContainerContextsFromCache() {
+        final Workspace ws = generateWorkspace();
+        when(canonicalCacheContainerDao.findUniqueCanonicalCacheContexts(ws)).thenReturn(new HashSet<>());
+        sut.getCanonicalContainerContexts(ws);
+
+        sut.invalidateCache(new InvalidateCachesEvent(this));
+        sut.getCanonicalContainerContexts(ws);
+        verify(canonicalCacheContainerDao, times(2)).findUniqueCanonicalCacheContexts(ws);
+    }
+
+    @Test
+    void loadWorkspaceEvictsCanonicalContainerContextsOfLoadedWorkspace() {
+        final Workspace ws = generateWorkspace();
+        when(canonicalCacheContainerDao.findUniqueCanonicalCacheContexts(ws)).thenReturn(new HashSet<>());
+        sut.getCanonicalContainerContexts(ws);
+
+        sut.loadWorkspace(ws);
+        sut.getCanonicalContainerContexts(ws);
+        verify(canonicalCacheContainerDao, times(2)).findUniqueCanonicalCacheContexts(ws);
+    }
 }
@@ -0,0 +1,145 @@
+package cz.cvut.kbss.termit.persistence.validation;
+
+import cz.cvut.kbss.termit.environment.Generator;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.model.vocabulary.SKOS;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Rdf4jToJenaGraphHandlerTest {
+
+    private final ValueFactory vf = SimpleValueFactory.getInstance();
+
+    private Repository repository;
+
+    @BeforeEach
+    void setUp() {
+        this.repository = new SailRepository(new MemoryStore());
+        repository.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutDown();
+    }
+
+    @Test
+    void handleStatementAddsTripleWithIriNodesToGraph() {
+        final IRI subject = vf.createIRI(Generator.generateUri().toString());
+        final Graph graph = GraphFactory.createDefaultGraph();
+        final Rdf4jToJenaGraphHandler sut = new Rdf4jToJenaGraphHandler(graph);
+
+        sut.handleStatement(vf.createStatement(subject, RDF.TYPE, SKOS.CONCEPT));
+        assertTrue(graph.contains(NodeFactory.createURI(subject.stringValue()),
+                NodeFactory.createURI(RDF.TYPE.stringValue()), NodeFactory.createURI(SKOS.CONCEPT.stringValue())));
+    }
+
+    @Test
+    void handleStatementPreservesLanguageTagOfLiteral() {
+        final IRI subject = vf.createIRI(Generator.generateUri().toString());
+        final Graph graph = GraphFactory.createDefaultGraph();
+        final Rdf4jToJenaGraphHandler sut = new Rdf4jToJenaGraphHandler(graph);
+
+        sut.handleStatement(vf.createStatement(subject, SKOS.PREF_LABEL, vf.createLiteral("Pojem", "cs")));
+        final List<Triple> triples = graph.find().toList();
+        assertEquals(1, triples.size());
+        final Node object = triples.get(0).getObject();
+        assertEquals("Pojem", object.getLiteralLexicalForm());
+        assertEquals("cs", object.getLiteralLanguage());
+    }
+
+    @Test
+    void handleStatementPreservesDatatypeOfLiteral() {
+        final IRI subject = vf.createIRI(Generator.generateUri().toString());
+        final Graph graph = GraphFactory.createDefaultGraph();
+        final Rdf4jToJenaGraphHandler sut = new Rdf4jToJenaGraphHandler(graph);
+
+        sut.handleStatement(vf.createStatement(subject, RDFS.COMMENT, vf.createLiteral(117)));
+        final Node object = graph.find().next().getObject();
+        assertEquals("117", object.getLiteralLexicalForm());
+        assertEquals(XSDDatatype.XSDint, object.getLiteralDatatype());
+    }
+
+    @Test
+    void handleStatementMapsSameBlankNodeToSameJenaNode() {
+        final BNode bnode = vf.createBNode();
+        final Graph graph = GraphFactory.createDefaultGraph();
+        final Rdf4jToJenaGraphHandler sut = new Rdf4jToJenaGraphHandler(graph);
+
+        sut.handleStatement(vf.createStatement(bnode, RDF.TYPE, SKOS.CONCEPT));
+        sut.handleStatement(vf.createStatement(bnode, SKOS.PREF_LABEL, vf.createLiteral("test", "en")));
+        final List<Triple> triples = graph.find().toList();
+        assertEquals(2, triples.size());
+        assertTrue(triples.get(0).getSubject().isBlank());
+        assertEquals(triples.get(0).getSubject(), triples.get(1).getSubject());
+    }
+
+    @Test
+    void exportOfRepositoryContextsProducesModelIsomorphicToTurtleRoundTrip() throws Exception {
+        final IRI context = generateVocabularyData(100);
+
+        final Model expected = loadViaTurtle(context);
+        final Model actual = loadViaHandler(context);
+        assertTrue(expected.isIsomorphicWith(actual));
+    }
+
+    private IRI generateVocabularyData(int termCount) {
+        final IRI context = vf.createIRI(Generator.generateUri().toString());
+        try (final RepositoryConnection conn = repository.getConnection()) {
+            conn.begin();
+            for (int i = 0; i < termCount; i++) {
+                final IRI term = vf.createIRI(Generator.generateUri().toString());
+                conn.add(term, RDF.TYPE, SKOS.CONCEPT, context);
+                conn.add(term, SKOS.PREF_LABEL, vf.createLiteral("Term " + i, "cs"), context);
+                conn.add(term, SKOS.DEFINITION, vf.createLiteral("Definition of term " + i, "cs"), context);
+                conn.add(term, SKOS.IN_SCHEME, context, context);
+            }
+            conn.commit();
+        }
+        return context;
+    }
+
+    private Model loadViaTurtle(IRI context) {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (final RepositoryConnection conn = repository.getConnection()) {
+            conn.export(Rio.createWriter(RDFFormat.TURTLE, bos), context);
+        }
+        final Model model = ModelFactory.createDefaultModel();
+        model.read(new ByteArrayInputStream(bos.toByteArray()), null, "TURTLE");
+        return model;
+    }
+
+    private Model loadViaHandler(IRI context) {
+        final Graph graph = GraphFactory.createDefaultGraph();
+        try (final RepositoryConnection conn = repository.getConnection()) {
+            conn.export(new Rdf4jToJenaGraphHandler(graph), context);
+        }
+        return ModelFactory.createModelForGraph(graph);
+    }
+}
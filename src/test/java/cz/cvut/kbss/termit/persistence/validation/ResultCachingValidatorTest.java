@@ -8,13 +8,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.topbraid.shacl.vocabulary.SH;
 
 import java.net.URI;
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.*;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
@@ -26,41 +29,146 @@ class ResultCachingValidatorTest {
 
     private ResultCachingValidator sut;
 
+    private final URI vocabulary = Generator.generateUri();
+
+    private final URI vocabularyContext = Generator.generateUri();
+
+    private final Set<URI> vocabularies = Collections.singleton(vocabularyContext);
+
     @BeforeEach
     void setUp() {
         this.sut = spy(new ResultCachingValidator());
-        when(sut.getValidator()).thenReturn(validator);
+        lenient().when(sut.getValidator()).thenReturn(validator);
+    }
+
+    private static ValidationResult result(URI term) {
+        return new ValidationResult().setTermUri(term).setSeverity(URI.create(SH.Violation.getURI()));
+    }
+
+    private static Map<URI, Validator.ContextResults> results(URI context, URI vocabulary,
+                                                              ValidationResult... results) {
+        final Validator.ContextResults contextResults = new Validator.ContextResults(vocabulary);
+        for (ValidationResult r : results) {
+            contextResults.getTermResults().computeIfAbsent(r.getTermUri(), k -> new ArrayList<>()).add(r);
+        }
+        return Collections.singletonMap(context, contextResults);
     }
 
     @Test
     void invokesInternalValidatorWhenNoResultsAreCached() {
-        final List<ValidationResult> results = Collections.singletonList(new ValidationResult());
-        when(validator.validate(anyCollection())).thenReturn(results);
-        final Set<URI> vocabularies = Collections.singleton(Generator.generateUri());
+        final ValidationResult vr = result(Generator.generateUri());
+        when(validator.validate(anyCollection(), anyCollection(), anyCollection()))
+                .thenReturn(results(vocabularyContext, vocabulary, vr));
         final List<ValidationResult> result = sut.validate(vocabularies);
-        assertEquals(results, result);
-        verify(validator).validate(vocabularies);
+        assertEquals(Collections.singletonList(vr), result);
+        verify(validator).validate(vocabularies, vocabularies, Collections.emptySet());
     }
 
     @Test
     void returnsCachedResultsWhenArgumentsMatch() {
-        final List<ValidationResult> results = Collections.singletonList(new ValidationResult());
-        when(validator.validate(anyCollection())).thenReturn(results);
-        final Set<URI> vocabularies = Collections.singleton(Generator.generateUri());
+        when(validator.validate(anyCollection(), anyCollection(), anyCollection()))
+                .thenReturn(results(vocabularyContext, vocabulary, result(Generator.generateUri())));
         final List<ValidationResult> resultOne = sut.validate(vocabularies);
         final List<ValidationResult> resultTwo = sut.validate(vocabularies);
         assertEquals(resultOne, resultTwo);
-        verify(validator).validate(vocabularies);
+        verify(validator).validate(anyCollection(), anyCollection(), anyCollection());
     }
 
     @Test
-    void evictCacheClearsCachedValidationResults() {
-        final List<ValidationResult> results = Collections.singletonList(new ValidationResult());
-        when(validator.validate(anyCollection())).thenReturn(results);
-        final Set<URI> vocabularies = Collections.singleton(Generator.generateUri());
-        final List<ValidationResult> resultOne = sut.validate(vocabularies);
+    void validateDoesNotReuseResultsCachedForDifferentSetOfValidatedVocabularies() {
+        final Set<URI> withImport = new HashSet<>(Arrays.asList(vocabularyContext, Generator.generateUri()));
+        when(validator.validate(anyCollection(), anyCollection(), anyCollection()))
+                .thenReturn(results(vocabularyContext, vocabulary, result(Generator.generateUri())));
+        sut.validate(vocabularies);
+        sut.validate(withImport);
+        verify(validator).validate(vocabularies, vocabularies, Collections.emptySet());
+        verify(validator).validate(withImport, withImport, Collections.emptySet());
+    }
+
+    @Test
+    void validateReturnsResultsOfNodesWhichAreNotTerms() {
+        final ValidationResult vr = result(vocabulary);
+        final Map<URI, Validator.ContextResults> results = results(vocabularyContext, vocabulary);
+        results.get(vocabularyContext).getOtherResults().put(vocabulary, Collections.singletonList(vr));
+        when(validator.validate(anyCollection(), anyCollection(), anyCollection())).thenReturn(results);
+        assertEquals(Collections.singletonList(vr), sut.validate(vocabularies));
+        assertEquals(Collections.singletonList(vr), sut.validate(vocabularies));
+    }
+
+    @Test
+    void evictCacheClearsCachedValidationResultsWhenVocabularyIsNotSpecified() {
+        when(validator.validate(anyCollection(), anyCollection(), anyCollection()))
+                .thenReturn(results(vocabularyContext, vocabulary, result(Generator.generateUri())));
+        sut.validate(vocabularies);
         sut.evictCache(new VocabularyContentModified(this));
-        final List<ValidationResult> resultTwo = sut.validate(vocabularies);
-        verify(validator, times(2)).validate(vocabularies);
+        sut.validate(vocabularies);
+        verify(validator, times(2)).validate(vocabularies, vocabularies, Collections.emptySet());
+    }
+
+    @Test
+    void evictCacheEvictsResultsOfModifiedVocabularyOnly() {
+        final URI otherContext = Generator.generateUri();
+        final Set<URI> closure = new HashSet<>(Arrays.asList(vocabularyContext, otherContext));
+        final Map<URI, Validator.ContextResults> results = new HashMap<>(results(vocabularyContext, vocabulary));
+        results.putAll(results(otherContext, Generator.generateUri()));
+        when(validator.validate(anyCollection(), anyCollection(), anyCollection())).thenReturn(results);
+        sut.validate(closure);
+
+        sut.evictCache(new VocabularyContentModified(this, vocabulary, null));
+        sut.validate(closure);
+        verify(validator).validate(closure, closure, Collections.emptySet());
+        verify(validator).validate(closure, Collections.singleton(vocabularyContext), Collections.emptySet());
+    }
+
+    @Test
+    void validateRevalidatesOnlyModifiedTermAndMergesResultsWithCachedOnes() {
+        final URI termOne = Generator.generateUri();
+        final URI termTwo = Generator.generateUri();
+        final ValidationResult vrOne = result(termOne);
+        final ValidationResult vrTwo = result(termTwo);
+        when(validator.validate(vocabularies, vocabularies, Collections.emptySet()))
+                .thenReturn(results(vocabularyContext, vocabulary, vrOne, vrTwo));
+        sut.validate(vocabularies);
+
+        final ValidationResult vrTwoUpdated = result(termTwo);
+        doReturn(results(vocabularyContext, vocabulary, vrTwoUpdated)).when(validator)
+                .validate(vocabularies, Collections.emptySet(), Collections.singleton(termTwo));
+        sut.evictCache(new VocabularyContentModified(this, vocabulary, termTwo));
+        final List<ValidationResult> result = sut.validate(vocabularies);
+        assertThat(result, containsInAnyOrder(vrOne, vrTwoUpdated));
+        verify(validator).validate(vocabularies, Collections.emptySet(), Collections.singleton(termTwo));
+    }
+
+    @Test
+    void validateDropsResultsOfModifiedTermWhichNoLongerExists() {
+        final URI term = Generator.generateUri();
+        when(validator.validate(vocabularies, vocabularies, Collections.emptySet()))
+                .thenReturn(results(vocabularyContext, vocabulary, result(term)));
+        sut.validate(vocabularies);
+
+        doReturn(Collections.emptyMap()).when(validator)
+                .validate(vocabularies, Collections.emptySet(), Collections.singleton(term));
+        sut.evictCache(new VocabularyContentModified(this, vocabulary, term));
+        assertEquals(Collections.emptyList(), sut.validate(vocabularies));
+    }
+
+    @Test
+    void validateOfTheSameVocabulariesIsSerialized() throws Exception {
+        final CountDownLatch validating = new CountDownLatch(1);
+        when(validator.validate(anyCollection(), anyCollection(), anyCollection())).thenAnswer(inv -> {
+            validating.countDown();
+            Thread.sleep(200);
+            return results(vocabularyContext, vocabulary, result(Generator.generateUri()));
+        });
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<List<ValidationResult>> first = executor.submit(() -> sut.validate(vocabularies));
+            assertTrue(validating.await(10, TimeUnit.SECONDS));
+            final List<ValidationResult> second = sut.validate(vocabularies);
+            assertEquals(first.get(10, TimeUnit.SECONDS), second);
+            verify(validator).validate(anyCollection(), anyCollection(), anyCollection());
+        } finally {
+            executor.shutdownNow();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package cz.cvut.kbss.termit.persistence.validation;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.shared.AddDeniedException;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.topbraid.shacl.validation.ValidationEngine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationRulesProviderTest {
+
+    private ValidationRulesProvider sut;
+
+    @BeforeEach
+    void setUp() {
+        this.sut = new ValidationRulesProvider();
+        sut.reload();
+    }
+
+    @Test
+    void reloadLoadsSelectedRulesIntoShapesModel() {
+        assertFalse(sut.getRules().isEmpty());
+        assertFalse(sut.getShapes().isEmpty());
+        assertTrue(sut.getRules().stream().noneMatch(r -> r.toString().contains("g1.ttl")));
+    }
+
+    @Test
+    void getShapesReturnsReadOnlyModel() {
+        final Model shapes = sut.getShapes();
+        assertThrows(AddDeniedException.class, () -> shapes.add(ResourceFactory.createResource("http://example.org"),
+                RDF.type, ResourceFactory.createResource("http://example.org/Shape")));
+    }
+
+    @Test
+    void getShapesReturnsSameModelUntilReload() {
+        final Model shapes = sut.getShapes();
+        assertSame(shapes, sut.getShapes());
+        sut.reload();
+        assertNotSame(shapes, sut.getShapes());
+        assertEquals(shapes.size(), sut.getShapes().size());
+    }
+
+    @Test
+    void createValidationEngineReusesShapesGraphUntilReload() {
+        final ValidationEngine one = sut.createValidationEngine(ModelFactory.createDefaultModel());
+        final ValidationEngine two = sut.createValidationEngine(ModelFactory.createDefaultModel());
+        assertSame(one.getShapesGraph(), two.getShapesGraph());
+        sut.reload();
+        assertNotSame(one.getShapesGraph(), sut.createValidationEngine(ModelFactory.createDefaultModel())
+                                               .getShapesGraph());
+    }
+}
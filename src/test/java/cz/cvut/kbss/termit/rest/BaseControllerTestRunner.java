@@ -47,7 +47,8 @@ public class BaseControllerTestRunner {
         this.mockMvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(new RestExceptionHandler())
                                       .setMessageConverters(createJsonLdMessageConverter(),
                                               createDefaultMessageConverter(), createStringEncodingMessageConverter(),
-                                              createResourceMessageConverter())
+                                              createResourceMessageConverter(),
+                                              createResourceRegionMessageConverter())
                                       .setUseSuffixPatternMatch(false)
                                       .setContentNegotiationManager(new ContentNegotiationManager())
                                       .build();
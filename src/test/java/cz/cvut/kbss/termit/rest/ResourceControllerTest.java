@@ -13,6 +13,7 @@ package cz.cvut.kbss.termit.rest;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.termit.dto.TextAnalysisJob;
 import cz.cvut.kbss.termit.dto.assignment.ResourceTermAssignments;
 import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.environment.Generator;
@@ -305,6 +306,23 @@ class ResourceControllerTest extends BaseControllerTestRunner {
         assertEquals(MediaType.TEXT_HTML_VALUE, mvcResult.getResponse().getHeader(HttpHeaders.CONTENT_TYPE));
     }
 
+    @Test
+    void getContentReturnsPartialContentWhenRangeIsRequested() throws Exception {
+        final File file = generateFile();
+        when(identifierResolverMock.resolveIdentifier(any(), eq(FILE_NAME)))
+                .thenReturn(file.getUri());
+        when(resourceServiceMock.findRequired(file.getUri())).thenReturn(file);
+        final java.io.File content = createTemporaryHtmlFile();
+        when(resourceServiceMock.getContent(file))
+                .thenReturn(new TypeAwareFileSystemResource(content, MediaType.TEXT_HTML_VALUE));
+        final MvcResult mvcResult = mockMvc
+                .perform(get(PATH + "/" + FILE_NAME + "/content").header(HttpHeaders.RANGE, "bytes=0-9"))
+                .andExpect(status().isPartialContent()).andReturn();
+        assertEquals(HTML_CONTENT.substring(0, 10), mvcResult.getResponse().getContentAsString());
+        assertEquals("bytes 0-9/" + HTML_CONTENT.length(),
+                mvcResult.getResponse().getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
     private static java.io.File createTemporaryHtmlFile() throws Exception {
         final java.io.File file = Files.createTempFile("document", ".html").toFile();
         file.deleteOnExit();
@@ -357,6 +375,38 @@ class ResourceControllerTest extends BaseControllerTestRunner {
                 .runTextAnalysis(file, vocabularies.stream().map(URI::create).collect(Collectors.toSet()));
     }
 
+    @Test
+    void submitTextAnalysisSubmitsTextAnalysisJobAndReturnsItWithLocation() throws Exception {
+        final Document document = Generator.generateDocumentWithId();
+        when(identifierResolverMock.resolveIdentifier(RESOURCE_NAMESPACE, RESOURCE_NAME)).thenReturn(document.getUri());
+        when(resourceServiceMock.findRequired(document.getUri())).thenReturn(document);
+        final TextAnalysisJob job = new TextAnalysisJob(UUID.randomUUID().toString(), document.getUri(), 5);
+        when(resourceServiceMock.submitTextAnalysis(document, Collections.emptySet())).thenReturn(job);
+
+        final MvcResult mvcResult = mockMvc.perform(post(PATH + "/" + RESOURCE_NAME + "/text-analysis/jobs")
+                                                            .param(QueryParams.NAMESPACE, RESOURCE_NAMESPACE))
+                                           .andExpect(status().isAccepted()).andReturn();
+        verifyLocationEquals(PATH + "/text-analysis/jobs/" + job.getId(), mvcResult);
+        final Map<?, ?> result = readValue(mvcResult, Map.class);
+        assertEquals(job.getId(), result.get("id"));
+        assertEquals(5, result.get("totalFiles"));
+        verify(resourceServiceMock).submitTextAnalysis(document, Collections.emptySet());
+    }
+
+    @Test
+    void getTextAnalysisJobReturnsJobWithSpecifiedId() throws Exception {
+        final TextAnalysisJob job = new TextAnalysisJob(UUID.randomUUID().toString(), Generator.generateUri(), 2);
+        job.start();
+        job.fileAnalyzed();
+        when(resourceServiceMock.findTextAnalysisJob(job.getId())).thenReturn(job);
+
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + "/text-analysis/jobs/" + job.getId()))
+                                           .andExpect(status().isOk()).andReturn();
+        final Map<?, ?> result = readValue(mvcResult, Map.class);
+        assertEquals(TextAnalysisJob.Status.RUNNING.name(), result.get("status"));
+        assertEquals(1, result.get("analyzedFiles"));
+    }
+
     @Test
     void getResourceSupportsUriWithFileExtension() throws Exception {
         final String normLabel = "CZ-00025712-CUZK_RUIAN-CSV-ADR-OB_554782.xml";
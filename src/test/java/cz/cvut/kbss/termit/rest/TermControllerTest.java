@@ -56,9 +56,11 @@ import static cz.cvut.kbss.termit.util.Constants.QueryParams.PAGE;
 import static cz.cvut.kbss.termit.util.Constants.QueryParams.PAGE_SIZE;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -141,6 +143,58 @@ class TermControllerTest extends BaseControllerTestRunner {
         assertEquals(term, result);
     }
 
+    @Test
+    void getByIdSetsEntityTagAndLastModifiedHeadersBasedOnVocabularyContentVersion() throws Exception {
+        final URI termUri = initTermUriResolution();
+        final Term term = Generator.generateTerm();
+        term.setUri(termUri);
+        when(termServiceMock.findRequired(termUri)).thenReturn(term);
+        final long lastModified = System.currentTimeMillis();
+        when(termServiceMock.getLastModified(URI.create(VOCABULARY_URI))).thenReturn(lastModified);
+        when(termServiceMock.getContentTag(lastModified)).thenReturn("tag");
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms/" + TERM_NAME))
+                                           .andExpect(status().isOk()).andReturn();
+        assertThat(mvcResult.getResponse().getHeader(HttpHeaders.ETAG), startsWith("W/\"tag-"));
+        assertNotNull(mvcResult.getResponse().getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void getByIdReturnsNotModifiedWithoutLoadingTermWhenEntityTagMatches() throws Exception {
+        final URI termUri = initTermUriResolution();
+        final Term term = Generator.generateTerm();
+        term.setUri(termUri);
+        when(termServiceMock.findRequired(termUri)).thenReturn(term);
+        final long lastModified = System.currentTimeMillis();
+        when(termServiceMock.getLastModified(URI.create(VOCABULARY_URI))).thenReturn(lastModified);
+        when(termServiceMock.getContentTag(lastModified)).thenReturn("tag");
+        final String etag = mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms/" + TERM_NAME))
+                                   .andExpect(status().isOk()).andReturn().getResponse()
+                                   .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms/" + TERM_NAME).header(HttpHeaders.IF_NONE_MATCH, etag))
+               .andExpect(status().isNotModified());
+        verify(termServiceMock).findRequired(termUri);
+    }
+
+    @Test
+    void getAllRootsReturnsNotModifiedWithoutLoadingVocabularyWhenEntityTagMatches() throws Exception {
+        initNamespaceAndIdentifierResolution();
+        final long lastModified = System.currentTimeMillis();
+        when(termServiceMock.getLastModified(URI.create(VOCABULARY_URI))).thenReturn(lastModified);
+        when(termServiceMock.getContentTag(lastModified)).thenReturn("tag");
+        when(termServiceMock.findVocabularyRequired(vocabulary.getUri())).thenReturn(vocabulary);
+        when(termServiceMock.findAllRoots(eq(vocabulary), any(Pageable.class), anyCollection()))
+                .thenReturn(termsToDtos(Generator.generateTermsWithIds(5)));
+        final String etag = mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms/roots"))
+                                   .andExpect(status().isOk()).andReturn().getResponse()
+                                   .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms/roots").header(HttpHeaders.IF_NONE_MATCH, etag))
+               .andExpect(status().isNotModified());
+        verify(termServiceMock).findVocabularyRequired(vocabulary.getUri());
+        verify(termServiceMock).findAllRoots(eq(vocabulary), any(Pageable.class), anyCollection());
+    }
+
     @Test
     void updateUpdatesTerm() throws Exception {
         final URI termUri = initTermUriResolution();
@@ -315,11 +369,11 @@ class TermControllerTest extends BaseControllerTestRunner {
         final TypeAwareByteArrayResource export = new TypeAwareByteArrayResource(content.getBytes(),
             CsvUtils.MEDIA_TYPE,
             CsvUtils.FILE_EXTENSION);
-        when(termServiceMock.exportGlossary(vocabulary, CsvUtils.MEDIA_TYPE)).thenReturn(Optional.of(export));
+        when(termServiceMock.streamGlossary(vocabulary, CsvUtils.MEDIA_TYPE)).thenReturn(Optional.of(toStreamingOutput(export)));
 
         mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms").accept(CsvUtils.MEDIA_TYPE)).andExpect(
             status().isOk());
-        verify(termServiceMock).exportGlossary(vocabulary, CsvUtils.MEDIA_TYPE);
+        verify(termServiceMock).streamGlossary(vocabulary, CsvUtils.MEDIA_TYPE);
     }
 
     @Test
@@ -333,14 +387,21 @@ class TermControllerTest extends BaseControllerTestRunner {
         final TypeAwareByteArrayResource export = new TypeAwareByteArrayResource(content.getBytes(),
             CsvUtils.MEDIA_TYPE,
             CsvUtils.FILE_EXTENSION);
-        when(termServiceMock.exportGlossary(vocabulary, CsvUtils.MEDIA_TYPE)).thenReturn(Optional.of(export));
+        when(termServiceMock.streamGlossary(vocabulary, CsvUtils.MEDIA_TYPE)).thenReturn(Optional.of(toStreamingOutput(export)));
 
         final MvcResult mvcResult = mockMvc
-            .perform(get(PATH + VOCABULARY_NAME + "/terms").accept(CsvUtils.MEDIA_TYPE)).andReturn();
+            .perform(get(PATH + VOCABULARY_NAME + "/terms").accept(CsvUtils.MEDIA_TYPE))
+            .andExpect(request().asyncStarted()).andReturn();
         assertThat(mvcResult.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION), containsString("attachment"));
         assertThat(mvcResult.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION),
             containsString("filename=\"" + VOCABULARY_NAME + CsvUtils.FILE_EXTENSION + "\""));
-        assertEquals(content, mvcResult.getResponse().getContentAsString());
+        final MvcResult result = mockMvc.perform(asyncDispatch(mvcResult)).andReturn();
+        assertEquals(content, result.getResponse().getContentAsString());
+    }
+
+    private static TypeAwareStreamingOutput toStreamingOutput(TypeAwareByteArrayResource resource) {
+        return new TypeAwareStreamingOutput(resource.getMediaType().orElse(null),
+            resource.getFileExtension().orElse(null), out -> out.write(resource.getByteArray()));
     }
 
     @Test
@@ -350,11 +411,11 @@ class TermControllerTest extends BaseControllerTestRunner {
         vocabulary.setUri(URI.create(VOCABULARY_URI));
         when(termServiceMock.findVocabularyRequired(vocabulary.getUri())).thenReturn(vocabulary);
         final TypeAwareByteArrayResource export = prepareExcel();
-        when(termServiceMock.exportGlossary(vocabulary, Excel.MEDIA_TYPE)).thenReturn(Optional.of(export));
+        when(termServiceMock.streamGlossary(vocabulary, Excel.MEDIA_TYPE)).thenReturn(Optional.of(toStreamingOutput(export)));
 
         mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms").accept(Excel.MEDIA_TYPE)).andExpect(
             status().isOk());
-        verify(termServiceMock).exportGlossary(vocabulary, Excel.MEDIA_TYPE);
+        verify(termServiceMock).streamGlossary(vocabulary, Excel.MEDIA_TYPE);
     }
 
     private TypeAwareByteArrayResource prepareExcel() throws Exception {
@@ -373,7 +434,7 @@ class TermControllerTest extends BaseControllerTestRunner {
         vocabulary.setUri(URI.create(VOCABULARY_URI));
         when(termServiceMock.findVocabularyRequired(vocabulary.getUri())).thenReturn(vocabulary);
         final TypeAwareByteArrayResource export = prepareExcel();
-        when(termServiceMock.exportGlossary(vocabulary, Excel.MEDIA_TYPE)).thenReturn(Optional.of(export));
+        when(termServiceMock.streamGlossary(vocabulary, Excel.MEDIA_TYPE)).thenReturn(Optional.of(toStreamingOutput(export)));
 
         final MvcResult mvcResult = mockMvc
             .perform(get(PATH + VOCABULARY_NAME + "/terms").accept(Excel.MEDIA_TYPE)).andReturn();
@@ -489,11 +550,11 @@ class TermControllerTest extends BaseControllerTestRunner {
         vocabulary.setUri(URI.create(VOCABULARY_URI));
         when(termServiceMock.findVocabularyRequired(vocabulary.getUri())).thenReturn(vocabulary);
         final TypeAwareByteArrayResource export = prepareTurtle();
-        when(termServiceMock.exportGlossary(vocabulary, Turtle.MEDIA_TYPE)).thenReturn(Optional.of(export));
+        when(termServiceMock.streamGlossary(vocabulary, Turtle.MEDIA_TYPE)).thenReturn(Optional.of(toStreamingOutput(export)));
 
         mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms").accept(Turtle.MEDIA_TYPE)).andExpect(
             status().isOk());
-        verify(termServiceMock).exportGlossary(vocabulary, Turtle.MEDIA_TYPE);
+        verify(termServiceMock).streamGlossary(vocabulary, Turtle.MEDIA_TYPE);
     }
 
     private TypeAwareByteArrayResource prepareTurtle() {
@@ -517,7 +578,7 @@ class TermControllerTest extends BaseControllerTestRunner {
         vocabulary.setUri(URI.create(VOCABULARY_URI));
         when(termServiceMock.findVocabularyRequired(vocabulary.getUri())).thenReturn(vocabulary);
         final TypeAwareByteArrayResource export = prepareTurtle();
-        when(termServiceMock.exportGlossary(vocabulary, Turtle.MEDIA_TYPE)).thenReturn(Optional.of(export));
+        when(termServiceMock.streamGlossary(vocabulary, Turtle.MEDIA_TYPE)).thenReturn(Optional.of(toStreamingOutput(export)));
 
         final MvcResult mvcResult = mockMvc
             .perform(get(PATH + VOCABULARY_NAME + "/terms").accept(Turtle.MEDIA_TYPE)).andReturn();
@@ -1002,6 +1063,40 @@ class TermControllerTest extends BaseControllerTestRunner {
         verify(termServiceMock).findAll(DEFAULT_PAGE_SPEC);
     }
 
+    @Test
+    void getAllStandaloneWithCursorRetrievesPageFollowingCursorAndReturnsNextCursorInHeader() throws Exception {
+        final List<TermDto> terms = termsToDtos(Generator.generateTermsWithIds(5));
+        final String cursor = "current";
+        final String nextCursor = "next";
+        when(termServiceMock.findAllAfter(anyString(), anyInt())).thenReturn(new CursorPage<>(terms, nextCursor));
+        final int pageSize = 5;
+        final MvcResult mvcResult = mockMvc.perform(get("/terms")
+                .queryParam(QueryParams.CURSOR, cursor)
+                .queryParam(PAGE_SIZE, Integer.toString(pageSize))
+                .accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk()).andReturn();
+        final List<TermDto> result = readValue(mvcResult, new TypeReference<List<TermDto>>() {
+        });
+        assertEquals(terms, result);
+        assertEquals(nextCursor, mvcResult.getResponse().getHeader(Constants.X_NEXT_CURSOR_HEADER));
+        verify(termServiceMock).findAllAfter(cursor, pageSize);
+        verify(termServiceMock, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void getAllStandaloneWithEmptyCursorAndOnlyRootsRetrievesFirstPageOfRootTermsWithoutNextCursorHeader() throws Exception {
+        final List<TermDto> terms = termsToDtos(Generator.generateTermsWithIds(5));
+        when(termServiceMock.findAllRootsAfter(anyString(), anyInt())).thenReturn(new CursorPage<>(terms, null));
+        final MvcResult mvcResult = mockMvc.perform(get("/terms")
+                .queryParam("rootsOnly", Boolean.TRUE.toString())
+                .queryParam(QueryParams.CURSOR, "")
+                .accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk()).andReturn();
+        final List<TermDto> result = readValue(mvcResult, new TypeReference<List<TermDto>>() {
+        });
+        assertEquals(terms, result);
+        assertNull(mvcResult.getResponse().getHeader(Constants.X_NEXT_CURSOR_HEADER));
+        verify(termServiceMock).findAllRootsAfter("", DEFAULT_PAGE_SPEC.getPageSize());
+    }
+
     @Test
     void getAllStandaloneWithSearchStringRetrievesMatchingTermsFromService() throws Exception {
         final List<TermDto> terms = termsToDtos(Generator.generateTermsWithIds(5));
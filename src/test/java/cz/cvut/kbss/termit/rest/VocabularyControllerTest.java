@@ -1,8 +1,13 @@
 package cz.cvut.kbss.termit.rest;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import cz.cvut.kbss.termit.dto.TextAnalysisJob;
+import cz.cvut.kbss.termit.dto.validation.ValidationJob;
 import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.exception.NotFoundException;
+import cz.cvut.kbss.termit.exception.ValidationJobNotFinishedException;
+import cz.cvut.kbss.termit.exception.ValidationJobRejectedException;
 import cz.cvut.kbss.termit.exception.VocabularyImportException;
 import cz.cvut.kbss.termit.exception.VocabularyRemovalException;
 import cz.cvut.kbss.termit.exception.workspace.VocabularyNotInWorkspaceException;
@@ -13,6 +18,7 @@ import cz.cvut.kbss.termit.model.changetracking.AbstractChangeRecord;
 import cz.cvut.kbss.termit.model.validation.ValidationResult;
 import cz.cvut.kbss.termit.rest.handler.ErrorInfo;
 import cz.cvut.kbss.termit.service.IdentifierResolver;
+import cz.cvut.kbss.termit.service.business.ResourceService;
 import cz.cvut.kbss.termit.service.business.VocabularyService;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Constants;
@@ -22,17 +28,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.net.URI;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -56,6 +66,9 @@ class VocabularyControllerTest extends BaseControllerTestRunner {
     @Mock
     private VocabularyService serviceMock;
 
+    @Mock
+    private ResourceService resourceServiceMock;
+
     @Mock
     private IdentifierResolver idResolverMock;
 
@@ -367,7 +380,8 @@ class VocabularyControllerTest extends BaseControllerTestRunner {
         when(serviceMock.getRequiredReference(VOCABULARY_URI)).thenReturn(vocabulary);
         final Term term = generateTerm();
         final List<AbstractChangeRecord> records = Generator.generateChangeRecords(term, user);
-        when(serviceMock.getChangesOfContent(vocabulary)).thenReturn(records);
+        when(serviceMock.getChangesOfContent(vocabulary, Constants.DEFAULT_PAGE_SPEC, null, null))
+                .thenReturn(records);
         final MvcResult mvcResult =
                 mockMvc.perform(get(PATH + "/" + FRAGMENT + "/history-of-content"))
                        .andExpect(status().isOk())
@@ -377,7 +391,26 @@ class VocabularyControllerTest extends BaseControllerTestRunner {
                 });
         assertNotNull(result);
         assertEquals(records, result);
-        verify(serviceMock).getChangesOfContent(vocabulary);
+        verify(serviceMock).getChangesOfContent(vocabulary, Constants.DEFAULT_PAGE_SPEC, null, null);
+    }
+
+    @Test
+    void getHistoryOfContentPassesPageSpecificationAndTimeWindowToService() throws Exception {
+        final Vocabulary vocabulary = generateVocabulary();
+        vocabulary.setUri(VOCABULARY_URI);
+        when(idResolverMock.resolveIdentifier(configMock.getNamespace().getVocabulary(), FRAGMENT))
+                .thenReturn(VOCABULARY_URI);
+        when(serviceMock.getRequiredReference(VOCABULARY_URI)).thenReturn(vocabulary);
+        final Instant from = Instant.parse("2021-01-01T00:00:00Z");
+        final Instant to = Instant.parse("2021-02-01T00:00:00Z");
+        when(serviceMock.getChangesOfContent(any(), any(), any(), any())).thenReturn(Collections.emptyList());
+        mockMvc.perform(get(PATH + "/" + FRAGMENT + "/history-of-content")
+                .param(QueryParams.PAGE_SIZE, "20")
+                .param(QueryParams.PAGE, "2")
+                .param("from", from.toString())
+                .param("to", to.toString()))
+               .andExpect(status().isOk());
+        verify(serviceMock).getChangesOfContent(vocabulary, PageRequest.of(2, 20), from, to);
     }
 
     @Test
@@ -403,6 +436,93 @@ class VocabularyControllerTest extends BaseControllerTestRunner {
         verify(serviceMock).validateContents(vocabulary);
     }
 
+    @Test
+    void submitValidationSubmitsValidationJobAndReturnsItWithLocation() throws Exception {
+        final Vocabulary vocabulary = generateVocabulary();
+        vocabulary.setUri(VOCABULARY_URI);
+        when(idResolverMock.resolveIdentifier(configMock.getNamespace().getVocabulary(), FRAGMENT))
+                .thenReturn(VOCABULARY_URI);
+        when(serviceMock.getRequiredReference(VOCABULARY_URI)).thenReturn(vocabulary);
+        final ValidationJob job = new ValidationJob(UUID.randomUUID().toString(), VOCABULARY_URI);
+        when(serviceMock.submitContentValidation(vocabulary)).thenReturn(job);
+
+        final MvcResult mvcResult = mockMvc.perform(post(PATH + "/" + FRAGMENT + "/validate"))
+                                           .andExpect(status().isAccepted())
+                                           .andReturn();
+        verifyLocationEquals(PATH + "/validation/" + job.getId(), mvcResult);
+        final Map<?, ?> result = readValue(mvcResult, Map.class);
+        assertEquals(job.getId(), result.get("id"));
+        assertEquals(ValidationJob.Status.QUEUED.name(), result.get("status"));
+        verify(serviceMock).submitContentValidation(vocabulary);
+    }
+
+    @Test
+    void getValidationJobReturnsValidationJobWithSpecifiedId() throws Exception {
+        final ValidationJob job = new ValidationJob(UUID.randomUUID().toString(), VOCABULARY_URI);
+        job.start();
+        when(serviceMock.findValidationJob(job.getId())).thenReturn(job);
+
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + "/validation/" + job.getId()))
+                                           .andExpect(status().isOk())
+                                           .andReturn();
+        final Map<?, ?> result = readValue(mvcResult, Map.class);
+        assertEquals(job.getId(), result.get("id"));
+        assertEquals(ValidationJob.Status.RUNNING.name(), result.get("status"));
+    }
+
+    @Test
+    void getValidationJobReturnsNotFoundForUnknownJob() throws Exception {
+        final String jobId = UUID.randomUUID().toString();
+        when(serviceMock.findValidationJob(jobId)).thenThrow(NotFoundException.create("Validation job", jobId));
+        mockMvc.perform(get(PATH + "/validation/" + jobId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getValidationJobResultsReturnsResultsOfSpecifiedJob() throws Exception {
+        final String jobId = UUID.randomUUID().toString();
+        final List<ValidationResult> records = Generator.generateValidationRecords();
+        when(serviceMock.getValidationJobResults(jobId)).thenReturn(records);
+
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + "/validation/" + jobId + "/results"))
+                                           .andExpect(status().isOk())
+                                           .andReturn();
+        final List<ValidationResult> result =
+                readValue(mvcResult, new TypeReference<List<ValidationResult>>() {
+                });
+        assertEquals(records.stream().map(ValidationResult::getId).collect(Collectors.toList()),
+                result.stream().map(ValidationResult::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void submitValidationReturnsServiceUnavailableWhenValidationJobIsRejected() throws Exception {
+        final Vocabulary vocabulary = generateVocabulary();
+        vocabulary.setUri(VOCABULARY_URI);
+        when(idResolverMock.resolveIdentifier(configMock.getNamespace().getVocabulary(), FRAGMENT))
+                .thenReturn(VOCABULARY_URI);
+        when(serviceMock.getRequiredReference(VOCABULARY_URI)).thenReturn(vocabulary);
+        when(serviceMock.submitContentValidation(vocabulary))
+                .thenThrow(new ValidationJobRejectedException("Validation queue is full."));
+
+        mockMvc.perform(post(PATH + "/" + FRAGMENT + "/validate")).andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void getValidationJobResultsReturnsConflictWhenJobHasNotFinishedYet() throws Exception {
+        final String jobId = UUID.randomUUID().toString();
+        when(serviceMock.getValidationJobResults(jobId))
+                .thenThrow(new ValidationJobNotFinishedException("Validation job is RUNNING."));
+
+        mockMvc.perform(get(PATH + "/validation/" + jobId + "/results")).andExpect(status().isConflict());
+    }
+
+    @Test
+    void getValidationJobResultsReturnsNotFoundForUnknownJob() throws Exception {
+        final String jobId = UUID.randomUUID().toString();
+        when(serviceMock.getValidationJobResults(jobId)).thenThrow(NotFoundException.create("Validation job", jobId));
+
+        mockMvc.perform(get(PATH + "/validation/" + jobId + "/results")).andExpect(status().isNotFound());
+    }
+
     @Test
     void getByIdReturnsNotFoundWhenVocabularyDoesNotExistInCurrentWorkspaceExceptionIsThrown() throws Exception {
         when(idResolverMock.resolveIdentifier(configMock.getNamespace().getVocabulary(), FRAGMENT))
@@ -410,4 +530,23 @@ class VocabularyControllerTest extends BaseControllerTestRunner {
         when(serviceMock.findRequired(VOCABULARY_URI)).thenThrow(VocabularyNotInWorkspaceException.class);
         mockMvc.perform(get(PATH + "/" + FRAGMENT)).andExpect(status().isNotFound());
     }
+
+    @Test
+    void submitTextAnalysisSubmitsTextAnalysisOfVocabularyDocumentAndReturnsJobWithLocation() throws Exception {
+        final Vocabulary vocabulary = generateVocabulary();
+        vocabulary.setUri(VOCABULARY_URI);
+        when(idResolverMock.resolveIdentifier(configMock.getNamespace().getVocabulary(), FRAGMENT))
+                .thenReturn(VOCABULARY_URI);
+        when(serviceMock.findRequired(VOCABULARY_URI)).thenReturn(vocabulary);
+        final TextAnalysisJob job = new TextAnalysisJob(UUID.randomUUID().toString(), VOCABULARY_URI, 3);
+        when(resourceServiceMock.submitTextAnalysis(vocabulary)).thenReturn(job);
+
+        final MvcResult mvcResult = mockMvc.perform(post(PATH + "/" + FRAGMENT + "/text-analysis/jobs"))
+                                           .andExpect(status().isAccepted())
+                                           .andReturn();
+        verifyLocationEquals("/resources/text-analysis/jobs/" + job.getId(), mvcResult);
+        final Map<?, ?> result = readValue(mvcResult, Map.class);
+        assertEquals(job.getId(), result.get("id"));
+        verify(resourceServiceMock).submitTextAnalysis(vocabulary);
+    }
 }
@@ -19,14 +19,19 @@ import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static cz.cvut.kbss.termit.environment.Environment.termsToDtos;
 import static cz.cvut.kbss.termit.util.Constants.DEFAULT_PAGE_SPEC;
@@ -34,10 +39,14 @@ import static cz.cvut.kbss.termit.util.Constants.QueryParams.PAGE;
 import static cz.cvut.kbss.termit.util.Constants.QueryParams.PAGE_SIZE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -58,6 +67,10 @@ class ReadOnlyTermControllerTest extends BaseControllerTestRunner {
     @Mock
     private IdentifierResolver idResolver;
 
+    @Spy
+    private TermSnapshotCache snapshotCache = new TermSnapshotCache(Environment.getObjectMapper(),
+            Environment.getJsonLdObjectMapper(), new Configuration());
+
     private Vocabulary vocabulary;
 
     @InjectMocks
@@ -77,15 +90,68 @@ class ReadOnlyTermControllerTest extends BaseControllerTestRunner {
         final List<TermDto> terms = generateTerms();
         when(termService.findVocabularyRequired(URI.create(VOCABULARY_URI))).thenReturn(vocabulary);
         when(termService.findAll(any())).thenReturn(terms);
+        when(termService.getContentTag(anyLong())).thenReturn("tag");
 
-        final MvcResult mvcResult = mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms")).andExpect(status().isOk())
-                .andReturn();
-        final List<TermDto> result = readValue(mvcResult, new TypeReference<List<TermDto>>() {
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms"))
+                                           .andExpect(request().asyncStarted()).andReturn();
+        final MvcResult result = mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk()).andReturn();
+        final List<TermDto> content = readValue(result, new TypeReference<List<TermDto>>() {
         });
-        assertEquals(terms, result);
+        assertEquals(terms, content);
+        verify(termService).findAll(vocabulary);
+    }
+
+    @Test
+    void getAllReusesRenderedSnapshotWhileVocabularyContentIsUnchanged() throws Exception {
+        when(idResolver.resolveIdentifier(config.getNamespace().getVocabulary(), VOCABULARY_NAME)).thenReturn(URI.create(VOCABULARY_URI));
+        final List<TermDto> terms = generateTerms();
+        when(termService.findVocabularyRequired(URI.create(VOCABULARY_URI))).thenReturn(vocabulary);
+        when(termService.findAll(any())).thenReturn(terms);
+        when(termService.getContentTag(anyLong())).thenReturn("tag");
+
+        for (int i = 0; i < 2; i++) {
+            final MvcResult mvcResult = mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms"))
+                                               .andExpect(request().asyncStarted()).andReturn();
+            final MvcResult result = mockMvc.perform(asyncDispatch(mvcResult)).andReturn();
+            assertEquals(terms, readValue(result, new TypeReference<List<TermDto>>() {
+            }));
+        }
         verify(termService).findAll(vocabulary);
     }
 
+    @Test
+    void getAllReturnsNotModifiedWithoutLoadingTermsWhenEntityTagMatches() throws Exception {
+        when(idResolver.resolveIdentifier(config.getNamespace().getVocabulary(), VOCABULARY_NAME)).thenReturn(URI.create(VOCABULARY_URI));
+        final long lastModified = System.currentTimeMillis();
+        when(termService.getLastModified(URI.create(VOCABULARY_URI))).thenReturn(lastModified);
+        when(termService.getContentTag(lastModified)).thenReturn("tag");
+
+        mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms").header(HttpHeaders.IF_NONE_MATCH, "W/\"tag-json\""))
+               .andExpect(status().isNotModified());
+        verify(termService, never()).findVocabularyRequired(any());
+        verify(termService, never()).findAll(any());
+    }
+
+    @Test
+    void getAllReturnsGzipCompressedTermsWhenClientAcceptsGzipEncoding() throws Exception {
+        when(idResolver.resolveIdentifier(config.getNamespace().getVocabulary(), VOCABULARY_NAME)).thenReturn(URI.create(VOCABULARY_URI));
+        final List<TermDto> terms = generateTerms();
+        when(termService.findVocabularyRequired(URI.create(VOCABULARY_URI))).thenReturn(vocabulary);
+        when(termService.findAll(any())).thenReturn(terms);
+        when(termService.getContentTag(anyLong())).thenReturn("tag");
+
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms")
+                                                            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                                           .andExpect(request().asyncStarted()).andReturn();
+        final MvcResult result = mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk()).andReturn();
+        assertEquals("gzip", result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (final InputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertEquals(terms, Environment.getObjectMapper().readValue(in, new TypeReference<List<TermDto>>() {
+            }));
+        }
+    }
+
     private List<TermDto> generateTerms() {
         return termsToDtos(Generator.generateTermsWithIds(5));
     }
@@ -0,0 +1,140 @@
+package cz.cvut.kbss.termit.rest.readonly;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.termit.dto.listing.TermDto;
+import cz.cvut.kbss.termit.environment.Environment;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.exception.NotFoundException;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static cz.cvut.kbss.termit.environment.Environment.termsToDtos;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermSnapshotCacheTest {
+
+    private static final URI VOCABULARY = Generator.generateUri();
+
+    private static final URI WORKSPACE = Generator.generateUri();
+
+    private final Configuration config = new Configuration();
+
+    private final TermSnapshotCache sut = new TermSnapshotCache(Environment.getObjectMapper(),
+            Environment.getJsonLdObjectMapper(), config);
+
+    private final List<TermDto> terms = termsToDtos(Generator.generateTermsWithIds(5));
+
+    @Test
+    void getRendersTermsAsJson() throws Exception {
+        final TermSnapshotCache.Snapshot result = sut.get(VOCABULARY, WORKSPACE, MediaType.APPLICATION_JSON_VALUE, "1",
+                () -> terms);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        result.write(out);
+        assertEquals(terms, Environment.getObjectMapper().readValue(out.toByteArray(),
+                new TypeReference<List<TermDto>>() {
+                }));
+    }
+
+    @Test
+    void getRendersGzipCompressedContent() throws Exception {
+        final TermSnapshotCache.Snapshot result = sut.get(VOCABULARY, WORKSPACE, JsonLd.MEDIA_TYPE, "1", () -> terms);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        result.writeCompressed(compressed);
+        final ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+        result.write(uncompressed);
+        final ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        try (final GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                decompressed.write(buffer, 0, read);
+            }
+        }
+        assertArrayEquals(uncompressed.toByteArray(), decompressed.toByteArray());
+    }
+
+    @Test
+    void getReusesSnapshotForSameContentTag() {
+        final AtomicInteger loads = new AtomicInteger();
+        final TermSnapshotCache.Snapshot one = sut.get(VOCABULARY, WORKSPACE, MediaType.APPLICATION_JSON_VALUE, "1",
+                () -> {
+                    loads.incrementAndGet();
+                    return terms;
+                });
+        final TermSnapshotCache.Snapshot two = sut.get(VOCABULARY, WORKSPACE, MediaType.APPLICATION_JSON_VALUE, "1",
+                () -> {
+                    loads.incrementAndGet();
+                    return terms;
+                });
+        assertSame(one, two);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getRendersNewSnapshotWhenContentTagChanges() {
+        final TermSnapshotCache.Snapshot one = sut.get(VOCABULARY, WORKSPACE, MediaType.APPLICATION_JSON_VALUE, "1",
+                () -> terms);
+        final TermSnapshotCache.Snapshot two = sut.get(VOCABULARY, WORKSPACE, MediaType.APPLICATION_JSON_VALUE, "2",
+                () -> terms);
+        assertNotSame(one, two);
+    }
+
+    @Test
+    void getRendersSeparateSnapshotsForDifferentWorkspaces() {
+        final TermSnapshotCache.Snapshot one = sut.get(VOCABULARY, WORKSPACE, MediaType.APPLICATION_JSON_VALUE, "1",
+                () -> terms);
+        final TermSnapshotCache.Snapshot two = sut.get(VOCABULARY, Generator.generateUri(),
+                MediaType.APPLICATION_JSON_VALUE, "1", () -> terms);
+        assertNotSame(one, two);
+    }
+
+    @Test
+    void getLoadsTermsOnlyOnceForConcurrentRequests() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Callable<TermSnapshotCache.Snapshot> task = () -> sut.get(VOCABULARY, WORKSPACE,
+                    MediaType.APPLICATION_JSON_VALUE, "1", () -> {
+                        loads.incrementAndGet();
+                        loading.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return terms;
+                    });
+            final Future<TermSnapshotCache.Snapshot> first = executor.submit(task);
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            final Future<TermSnapshotCache.Snapshot> second = executor.submit(task);
+            final Future<TermSnapshotCache.Snapshot> third = executor.submit(task);
+            release.countDown();
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertSame(first.get(), third.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getDoesNotKeepFailedRendering() {
+        assertThrows(NotFoundException.class,
+                () -> sut.get(VOCABULARY, WORKSPACE, MediaType.APPLICATION_JSON_VALUE, "1", () -> {
+                    throw NotFoundException.create("Vocabulary", VOCABULARY);
+                }));
+        assertNotNull(sut.get(VOCABULARY, WORKSPACE, MediaType.APPLICATION_JSON_VALUE, "1", () -> terms));
+    }
+}
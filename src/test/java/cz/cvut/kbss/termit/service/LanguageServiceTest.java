@@ -11,6 +11,8 @@
  */
 package cz.cvut.kbss.termit.service;
 
+import cz.cvut.kbss.termit.dto.TermInfo;
+import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.exception.CannotFetchTypesException;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.service.language.LanguageServiceJena;
@@ -25,9 +27,8 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class LanguageServiceTest {
@@ -59,4 +60,41 @@ class LanguageServiceTest {
         assertThrows(CannotFetchTypesException.class,
                 () -> sut.getTypes());
     }
+
+    @Test
+    void getTypesReadsLanguageSpecificationOnlyOnce() throws IOException {
+        final URL url = ClassLoader.getSystemResource("languages/language.ttl");
+        when(languageTtlUrl.getURL()).thenReturn(url);
+        final List<Term> types = sut.getTypes();
+        sut.getLeafTypes();
+        assertEquals(types, sut.getTypes());
+        verify(languageTtlUrl).getURL();
+    }
+
+    @Test
+    void getTypesReturnsCopiesWhoseModificationDoesNotAffectLoadedTypes() throws IOException {
+        final URL url = ClassLoader.getSystemResource("languages/language.ttl");
+        when(languageTtlUrl.getURL()).thenReturn(url);
+        final Term type = sut.getTypes().get(0);
+        final String label = type.getLabel().get("en");
+        final int subTermCount = type.getSubTerms().size();
+        type.getLabel().set("en", "Modified");
+        type.getSubTerms().add(new TermInfo(Generator.generateUri()));
+        sut.getTypes().clear();
+
+        final Term reloaded = sut.getTypes().stream().filter(t -> t.getUri().equals(type.getUri())).findFirst().get();
+        assertEquals(label, reloaded.getLabel().get("en"));
+        assertEquals(subTermCount, reloaded.getSubTerms().size());
+        assertEquals(10, sut.getTypes().size());
+    }
+
+    @Test
+    void reloadCausesLanguageSpecificationToBeReadAgain() throws IOException {
+        final URL url = ClassLoader.getSystemResource("languages/language.ttl");
+        when(languageTtlUrl.getURL()).thenReturn(url);
+        sut.getTypes();
+        sut.reload();
+        assertEquals(10, sut.getTypes().size());
+        verify(languageTtlUrl, times(2)).getURL();
+    }
 }
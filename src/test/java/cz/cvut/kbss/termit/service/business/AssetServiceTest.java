@@ -16,16 +16,22 @@ import cz.cvut.kbss.termit.dto.RecentlyCommentedAsset;
 import cz.cvut.kbss.termit.dto.RecentlyModifiedAsset;
 import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.environment.WorkspaceGenerator;
+import cz.cvut.kbss.termit.event.AssetModifiedEvent;
+import cz.cvut.kbss.termit.event.ChangeRecordsWrittenEvent;
+import cz.cvut.kbss.termit.event.InvalidateCachesEvent;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.User;
 import cz.cvut.kbss.termit.model.UserAccount;
 import cz.cvut.kbss.termit.model.comment.Comment;
 import cz.cvut.kbss.termit.model.resource.Resource;
+import cz.cvut.kbss.termit.service.comment.LastCommentIndex;
 import cz.cvut.kbss.termit.service.repository.ResourceRepositoryService;
 import cz.cvut.kbss.termit.service.repository.TermRepositoryService;
 import cz.cvut.kbss.termit.service.repository.VocabularyRepositoryService;
 import cz.cvut.kbss.termit.service.security.SecurityUtils;
 import cz.cvut.kbss.termit.util.Vocabulary;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -58,9 +64,20 @@ class AssetServiceTest {
     @Mock
     private SecurityUtils securityUtils;
 
+    @Mock
+    private WorkspaceService workspaceService;
+
+    @Mock
+    private LastCommentIndex lastCommentIndex;
+
     @InjectMocks
     private AssetService sut;
 
+    @BeforeEach
+    void setUp() {
+        when(workspaceService.getCurrentWorkspace()).thenReturn(WorkspaceGenerator.generateWorkspace());
+    }
+
     @Test
     void findRecentlyEditedCombinesOutputOfAllAssetServices() {
         final List<RecentlyModifiedAsset> allExpected = generateRecentlyModifiedAssets(15);
@@ -143,6 +160,73 @@ class AssetServiceTest {
         verify(vocabularyService, never()).findLastEdited(anyInt());
     }
 
+    @Test
+    void findLastEditedReusesPreviouslyLoadedAssetsForSameOrLowerLimit() {
+        final List<RecentlyModifiedAsset> allExpected = generateRecentlyModifiedAssets(10);
+        allExpected.sort(Comparator.comparing(RecentlyModifiedAsset::getModified).reversed());
+        assertEquals(allExpected.subList(0, 6), sut.findLastEdited(6));
+        assertEquals(allExpected.subList(0, 6), sut.findLastEdited(6));
+        assertEquals(allExpected.subList(0, 3), sut.findLastEdited(3));
+        verify(resourceService).findLastEdited(anyInt());
+        verify(termService).findLastEdited(anyInt());
+        verify(vocabularyService).findLastEdited(anyInt());
+    }
+
+    @Test
+    void findLastEditedLoadsAssetsAgainForHigherLimit() {
+        final List<RecentlyModifiedAsset> allExpected = generateRecentlyModifiedAssets(10);
+        allExpected.sort(Comparator.comparing(RecentlyModifiedAsset::getModified).reversed());
+        sut.findLastEdited(3);
+        assertEquals(allExpected.subList(0, 6), sut.findLastEdited(6));
+        verify(termService).findLastEdited(3);
+        verify(termService).findLastEdited(6);
+    }
+
+    @Test
+    void findLastEditedLoadsAssetsAgainAfterAssetModification() {
+        generateRecentlyModifiedAssets(10);
+        sut.findLastEdited(5);
+        sut.onAssetModified(new AssetModifiedEvent(this, Generator.generateUri()));
+        sut.findLastEdited(5);
+        verify(termService, times(2)).findLastEdited(5);
+    }
+
+    @Test
+    void findLastEditedLoadsAssetsAgainAfterCacheInvalidation() {
+        generateRecentlyModifiedAssets(10);
+        sut.findLastEdited(5);
+        sut.onInvalidateCaches(new InvalidateCachesEvent(this));
+        sut.findLastEdited(5);
+        verify(termService, times(2)).findLastEdited(5);
+    }
+
+    @Test
+    void findLastEditedLoadsAssetsAgainAfterChangeRecordsAreWritten() {
+        generateRecentlyModifiedAssets(10);
+        sut.findLastEdited(5);
+        sut.onChangeRecordsWritten(new ChangeRecordsWrittenEvent(this));
+        sut.findLastEdited(5);
+        verify(termService, times(2)).findLastEdited(5);
+    }
+
+    @Test
+    void findLastEditedKeepsAssetsSeparatelyForEachWorkspace() {
+        generateRecentlyModifiedAssets(10);
+        sut.findLastEdited(5);
+        when(workspaceService.getCurrentWorkspace()).thenReturn(WorkspaceGenerator.generateWorkspace());
+        sut.findLastEdited(5);
+        verify(termService, times(2)).findLastEdited(5);
+    }
+
+    @Test
+    void findLastEditedAlwaysLoadsAssetsWhenLimitExceedsCacheCapacity() {
+        generateRecentlyModifiedAssets(10);
+        final int limit = AssetService.RECENTLY_EDITED_CACHE_CAPACITY + 1;
+        sut.findLastEdited(limit);
+        sut.findLastEdited(limit);
+        verify(termService, times(2)).findLastEdited(limit);
+    }
+
     @Test
     void findMyLastEditedGetsLastEditedByCurrentUser() {
         final List<RecentlyModifiedAsset> allExpected = generateRecentlyModifiedAssets(15);
@@ -171,9 +255,9 @@ class AssetServiceTest {
             rca.setLastComment(comment);
             assets.add(rca);
         }
-        when(termService.findLastCommented(anyInt())).thenReturn(assets);
-        when(termService.findMyLastCommented(any(User.class), anyInt())).thenReturn(assets);
-        when(termService.findLastCommentedInReaction(any(User.class), anyInt())).thenReturn(assets);
+        when(lastCommentIndex.findLastCommented(anyInt())).thenReturn(assets);
+        when(lastCommentIndex.findMyLastCommented(any(User.class), anyInt())).thenReturn(assets);
+        when(lastCommentIndex.findLastCommentedInReaction(any(User.class), anyInt())).thenReturn(assets);
         return assets;
     }
 
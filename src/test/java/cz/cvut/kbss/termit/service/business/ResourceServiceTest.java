@@ -11,8 +11,10 @@
  */
 package cz.cvut.kbss.termit.service.business;
 
+import cz.cvut.kbss.termit.dto.TextAnalysisJob;
 import cz.cvut.kbss.termit.dto.assignment.ResourceTermAssignments;
 import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.AssetModifiedEvent;
 import cz.cvut.kbss.termit.event.DocumentRenameEvent;
 import cz.cvut.kbss.termit.event.FileRenameEvent;
 import cz.cvut.kbss.termit.exception.NotFoundException;
@@ -25,6 +27,7 @@ import cz.cvut.kbss.termit.model.resource.Document;
 import cz.cvut.kbss.termit.model.resource.File;
 import cz.cvut.kbss.termit.model.resource.Resource;
 import cz.cvut.kbss.termit.service.document.DocumentManager;
+import cz.cvut.kbss.termit.service.document.TextAnalysisJobService;
 import cz.cvut.kbss.termit.service.document.TextAnalysisService;
 import cz.cvut.kbss.termit.service.repository.ChangeRecordService;
 import cz.cvut.kbss.termit.service.repository.ResourceRepositoryService;
@@ -60,6 +63,9 @@ class ResourceServiceTest {
     @Mock
     private TextAnalysisService textAnalysisService;
 
+    @Mock
+    private TextAnalysisJobService textAnalysisJobService;
+
     @Mock
     private ChangeRecordService changeRecordService;
 
@@ -132,6 +138,16 @@ class ResourceServiceTest {
         verify(resourceRepositoryService).remove(resource);
     }
 
+    @Test
+    void removePublishesAssetModifiedEvent() {
+        final Resource resource = Generator.generateResourceWithId();
+        when(resourceRepositoryService.getRequiredReference(resource.getUri())).thenReturn(resource);
+        sut.remove(resource);
+        final ArgumentCaptor<AssetModifiedEvent> captor = ArgumentCaptor.forClass(AssetModifiedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(resource.getUri(), captor.getValue().getAssetIri());
+    }
+
     // Bug #1356
     @Test
     void removeEnsuresAttributesForDocumentManagerArePresent() {
@@ -284,6 +300,49 @@ class ResourceServiceTest {
         verify(vocabularyService).getTransitiveDependencies(vTwo);
     }
 
+    @Test
+    void submitTextAnalysisSubmitsAllDocumentFilesWithDocumentVocabularyAndItsImports() {
+        final Document document = Generator.generateDocumentWithId();
+        final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+        document.setVocabulary(vocabulary.getUri());
+        final File fOne = Generator.generateFileWithId("b.html");
+        final File fTwo = Generator.generateFileWithId("a.html");
+        document.addFile(fOne);
+        document.addFile(fTwo);
+        final Set<URI> imported = Collections.singleton(Generator.generateUri());
+        when(resourceRepositoryService.findRequired(document.getUri())).thenReturn(document);
+        when(vocabularyService.getRequiredReference(vocabulary.getUri())).thenReturn(vocabulary);
+        when(vocabularyService.getTransitiveDependencies(vocabulary)).thenReturn(imported);
+        final TextAnalysisJob job = new TextAnalysisJob(UUID.randomUUID().toString(), document.getUri(), 2);
+        when(textAnalysisJobService.submit(eq(document.getUri()), anyMap())).thenReturn(job);
+
+        assertSame(job, sut.submitTextAnalysis(document, Collections.emptySet()));
+        final ArgumentCaptor<Map<File, Set<URI>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(textAnalysisJobService).submit(eq(document.getUri()), captor.capture());
+        assertEquals(Arrays.asList(fTwo, fOne), new ArrayList<>(captor.getValue().keySet()));
+        final Set<URI> expected = new HashSet<>(imported);
+        expected.add(vocabulary.getUri());
+        captor.getValue().values().forEach(v -> assertEquals(expected, v));
+    }
+
+    @Test
+    void submitTextAnalysisThrowsUnsupportedAssetOperationWhenDocumentHasNoFiles() {
+        final Document document = Generator.generateDocumentWithId();
+        when(resourceRepositoryService.findRequired(document.getUri())).thenReturn(document);
+        final Set<URI> vocabularies = Collections.singleton(Generator.generateUri());
+        when(vocabularyService.getRequiredReference(any())).thenReturn(Generator.generateVocabularyWithId());
+        assertThrows(UnsupportedAssetOperationException.class, () -> sut.submitTextAnalysis(document, vocabularies));
+        verify(textAnalysisJobService, never()).submit(any(), anyMap());
+    }
+
+    @Test
+    void submitTextAnalysisOfVocabularyThrowsUnsupportedAssetOperationWhenVocabularyHasNoDocument() {
+        final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+        vocabulary.setDocument(null);
+        assertThrows(UnsupportedAssetOperationException.class, () -> sut.submitTextAnalysis(vocabulary));
+        verify(textAnalysisJobService, never()).submit(any(), anyMap());
+    }
+
     @Test
     void findAssignmentsDelegatesCallToRepositoryService() {
         final Resource resource = Generator.generateResourceWithId();
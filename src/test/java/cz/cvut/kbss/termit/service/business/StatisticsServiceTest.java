@@ -1,28 +1,30 @@
 package cz.cvut.kbss.termit.service.business;
 
 import cz.cvut.kbss.termit.dto.statistics.TermFrequencyDto;
+import cz.cvut.kbss.termit.dto.workspace.VocabularyInfo;
+import cz.cvut.kbss.termit.dto.workspace.WorkspaceMetadata;
 import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.environment.WorkspaceGenerator;
+import cz.cvut.kbss.termit.event.AssetModifiedEvent;
+import cz.cvut.kbss.termit.event.VocabularyContentModified;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.model.Workspace;
 import cz.cvut.kbss.termit.persistence.dao.statistics.StatisticsDao;
 import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceMetadataProvider;
 import cz.cvut.kbss.termit.service.language.LanguageService;
-import java.util.ArrayList;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.util.Collections;
-import java.util.List;
+import java.net.URI;
+import java.util.*;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class StatisticsServiceTest {
 
@@ -43,10 +45,22 @@ class StatisticsServiceTest {
         MockitoAnnotations.initMocks(this);
     }
 
-    @Test
-    void getTermFrequencyStatisticsUsesCurrentWorkspaceToGetStatisticsFromDao() {
+    private Workspace initWorkspace(Vocabulary... vocabularies) {
         final Workspace ws = WorkspaceGenerator.generateWorkspace();
+        final WorkspaceMetadata metadata = new WorkspaceMetadata(ws);
+        final Map<URI, VocabularyInfo> infos = new HashMap<>();
+        for (Vocabulary v : vocabularies) {
+            infos.put(v.getUri(), new VocabularyInfo(v.getUri(), v.getUri(), v.getUri()));
+        }
+        metadata.setVocabularies(infos);
+        when(wsMetadataProvider.getCurrentWorkspaceMetadata()).thenReturn(metadata);
         when(wsMetadataProvider.getCurrentWorkspace()).thenReturn(ws);
+        return ws;
+    }
+
+    @Test
+    void getTermFrequencyStatisticsUsesCurrentWorkspaceToGetStatisticsFromDao() {
+        final Workspace ws = initWorkspace();
         final List<TermFrequencyDto> expected = Collections
                 .singletonList(new TermFrequencyDto(Generator.generateUri(), 1, "test"));
         when(dao.getTermFrequencyStatistics(any())).thenReturn(expected);
@@ -54,7 +68,120 @@ class StatisticsServiceTest {
         final List<TermFrequencyDto> result = sut.getTermFrequencyStatistics();
         assertEquals(expected, result);
         verify(dao).getTermFrequencyStatistics(ws);
-        verify(wsMetadataProvider).getCurrentWorkspace();
+        verify(wsMetadataProvider).getCurrentWorkspaceMetadata();
+
+        // Statistics are cached per workspace
+        final Workspace other = initWorkspace();
+        sut.getTermFrequencyStatistics();
+        verify(dao).getTermFrequencyStatistics(other);
+    }
+
+    @Test
+    void getTermFrequencyStatisticsSetsComputationTimestamp() {
+        initWorkspace();
+        when(dao.getTermFrequencyStatistics(any())).thenReturn(
+                Collections.singletonList(new TermFrequencyDto(Generator.generateUri(), 1, "test")));
+
+        final List<TermFrequencyDto> result = sut.getTermFrequencyStatistics();
+        assertNotNull(result.get(0).getComputedAt());
+    }
+
+    @Test
+    void getTermFrequencyStatisticsReturnsCachedStatisticsOnSubsequentCalls() {
+        initWorkspace();
+        final List<TermFrequencyDto> expected = Collections
+                .singletonList(new TermFrequencyDto(Generator.generateUri(), 1, "test"));
+        when(dao.getTermFrequencyStatistics(any())).thenReturn(expected);
+
+        sut.getTermFrequencyStatistics();
+        final List<TermFrequencyDto> result = sut.getTermFrequencyStatistics();
+        assertEquals(expected, result);
+        verify(dao).getTermFrequencyStatistics(any());
+    }
+
+    @Test
+    void getTermFrequencyStatisticsRecomputesOnlyStatisticsOfVocabularyWhoseContentWasModified() {
+        final Vocabulary vOne = Generator.generateVocabularyWithId();
+        final Vocabulary vTwo = Generator.generateVocabularyWithId();
+        final Workspace ws = initWorkspace(vOne, vTwo);
+        final TermFrequencyDto one = new TermFrequencyDto(vOne.getUri(), 2, "one");
+        final TermFrequencyDto two = new TermFrequencyDto(vTwo.getUri(), 1, "two");
+        when(dao.getTermFrequencyStatistics(any())).thenReturn(Arrays.asList(one, two));
+        sut.getTermFrequencyStatistics();
+        final TermFrequencyDto updated = new TermFrequencyDto(vTwo.getUri(), 3, "two");
+        when(dao.getTermFrequencyStatistics(ws, vTwo.getUri())).thenReturn(Collections.singletonList(updated));
+
+        sut.onVocabularyContentModified(new VocabularyContentModified(this, vTwo.getUri(), null));
+        final List<TermFrequencyDto> result = sut.getTermFrequencyStatistics();
+        assertEquals(Arrays.asList(updated, one), result);
+        verify(dao).getTermFrequencyStatistics(any());
+        verify(dao).getTermFrequencyStatistics(ws, vTwo.getUri());
+        verify(dao, never()).getTermFrequencyStatistics(ws, vOne.getUri());
+    }
+
+    @Test
+    void getTermFrequencyStatisticsRemovesVocabularyWithoutTermsAfterContentModification() {
+        final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+        final Workspace ws = initWorkspace(vocabulary);
+        when(dao.getTermFrequencyStatistics(any())).thenReturn(
+                Collections.singletonList(new TermFrequencyDto(vocabulary.getUri(), 1, "test")));
+        sut.getTermFrequencyStatistics();
+        when(dao.getTermFrequencyStatistics(ws, vocabulary.getUri())).thenReturn(Collections.emptyList());
+
+        sut.onVocabularyContentModified(new VocabularyContentModified(this, vocabulary.getUri(), null));
+        assertTrue(sut.getTermFrequencyStatistics().isEmpty());
+    }
+
+    @Test
+    void getTermFrequencyStatisticsRecomputesAllStatisticsWhenModifiedVocabularyIsNotKnown() {
+        initWorkspace();
+        when(dao.getTermFrequencyStatistics(any())).thenReturn(Collections.emptyList());
+        sut.getTermFrequencyStatistics();
+
+        sut.onVocabularyContentModified(new VocabularyContentModified(this));
+        sut.getTermFrequencyStatistics();
+        verify(dao, times(2)).getTermFrequencyStatistics(any());
+    }
+
+    @Test
+    void getTermFrequencyStatisticsRecomputesStatisticsOfVocabularyWhenVocabularyIsModified() {
+        final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+        final Workspace ws = initWorkspace(vocabulary);
+        when(dao.getTermFrequencyStatistics(any())).thenReturn(
+                Collections.singletonList(new TermFrequencyDto(vocabulary.getUri(), 1, "original")));
+        sut.getTermFrequencyStatistics();
+        final TermFrequencyDto renamed = new TermFrequencyDto(vocabulary.getUri(), 1, "renamed");
+        when(dao.getTermFrequencyStatistics(ws, vocabulary.getUri())).thenReturn(Collections.singletonList(renamed));
+
+        sut.onAssetModified(new AssetModifiedEvent(this, vocabulary.getUri()));
+        assertEquals(Collections.singletonList(renamed), sut.getTermFrequencyStatistics());
+    }
+
+    @Test
+    void getTermFrequencyStatisticsIgnoresModificationOfAssetsOtherThanVocabularies() {
+        final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+        initWorkspace(vocabulary);
+        when(dao.getTermFrequencyStatistics(any())).thenReturn(
+                Collections.singletonList(new TermFrequencyDto(vocabulary.getUri(), 1, "test")));
+        sut.getTermFrequencyStatistics();
+
+        sut.onAssetModified(new AssetModifiedEvent(this, Generator.generateUri()));
+        sut.getTermFrequencyStatistics();
+        verify(dao).getTermFrequencyStatistics(any());
+        verify(dao, never()).getTermFrequencyStatistics(any(), any());
+    }
+
+    @Test
+    void getTermFrequencyStatisticsReturnsCopiesOfCachedStatistics() {
+        initWorkspace();
+        when(dao.getTermFrequencyStatistics(any())).thenReturn(
+                Collections.singletonList(new TermFrequencyDto(Generator.generateUri(), 1, "test")));
+        sut.getTermFrequencyStatistics().get(0).setLabel("modified");
+        sut.getTermFrequencyStatistics().get(0).setCount(117);
+
+        final TermFrequencyDto result = sut.getTermFrequencyStatistics().get(0);
+        assertEquals("test", result.getLabel());
+        assertEquals(Integer.valueOf(1), result.getCount());
     }
 
     @Test
@@ -73,4 +200,20 @@ class StatisticsServiceTest {
         verify(dao).getTermTypeFrequencyStatistics(ws, vocabulary, types);
         verify(wsMetadataProvider).getCurrentWorkspace();
     }
+
+    @Test
+    void getTermTypeFrequencyStatisticsCachesStatisticsUntilVocabularyContentIsModified() {
+        final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+        initWorkspace(vocabulary);
+        final List<TermFrequencyDto> expected = Collections
+                .singletonList(new TermFrequencyDto(Generator.generateUri(), 1, "test"));
+        when(dao.getTermTypeFrequencyStatistics(any(), any(), any())).thenReturn(expected);
+
+        assertEquals(expected, sut.getTermTypeFrequencyStatistics(vocabulary));
+        assertEquals(expected, sut.getTermTypeFrequencyStatistics(vocabulary));
+        verify(dao).getTermTypeFrequencyStatistics(any(), any(), any());
+        sut.onVocabularyContentModified(new VocabularyContentModified(this, vocabulary.getUri(), null));
+        sut.getTermTypeFrequencyStatistics(vocabulary);
+        verify(dao, times(2)).getTermTypeFrequencyStatistics(any(), any(), any());
+    }
 }
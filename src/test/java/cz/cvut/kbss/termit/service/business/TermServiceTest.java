@@ -5,9 +5,11 @@ import cz.cvut.kbss.termit.dto.assignment.TermAssignments;
 import cz.cvut.kbss.termit.dto.listing.TermDto;
 import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.environment.WorkspaceGenerator;
 import cz.cvut.kbss.termit.exception.NotFoundException;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.model.Workspace;
 import cz.cvut.kbss.termit.model.assignment.FileOccurrenceTarget;
 import cz.cvut.kbss.termit.model.assignment.TermDefinitionSource;
 import cz.cvut.kbss.termit.model.comment.Comment;
@@ -20,6 +22,7 @@ import cz.cvut.kbss.termit.service.repository.TermRepositoryService;
 import cz.cvut.kbss.termit.util.Constants;
 import cz.cvut.kbss.termit.util.CsvUtils;
 import cz.cvut.kbss.termit.util.TypeAwareResource;
+import cz.cvut.kbss.termit.util.TypeAwareStreamingOutput;
 import cz.cvut.kbss.termit.util.Configuration;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,7 +33,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigInteger;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -61,6 +67,9 @@ class TermServiceTest {
     @Mock
     private CommentService commentService;
 
+    @Mock
+    private WorkspaceService workspaceService;
+
     @Mock(answer = Answers.RETURNS_DEEP_STUBS)
     private Configuration configuration;
 
@@ -69,6 +78,34 @@ class TermServiceTest {
 
     private final Vocabulary vocabulary = Generator.generateVocabularyWithId();
 
+    @Test
+    void getLastModifiedReturnsLaterOfVocabularyContentVersionAndVocabulariesLastModified() {
+        when(termRepositoryService.getContentVersion(vocabulary.getUri())).thenReturn(200L);
+        when(vocabularyService.getLastModified()).thenReturn(100L);
+        assertEquals(200L, sut.getLastModified(vocabulary.getUri()));
+        when(vocabularyService.getLastModified()).thenReturn(300L);
+        assertEquals(300L, sut.getLastModified(vocabulary.getUri()));
+    }
+
+    @Test
+    void getContentTagDiffersForDifferentWorkspaces() {
+        final Workspace workspaceOne = WorkspaceGenerator.generateWorkspace();
+        final Workspace workspaceTwo = WorkspaceGenerator.generateWorkspace();
+        when(workspaceService.getCurrentWorkspace()).thenReturn(workspaceOne).thenReturn(workspaceTwo);
+        final long lastModified = System.currentTimeMillis();
+        assertNotEquals(sut.getContentTag(lastModified), sut.getContentTag(lastModified));
+    }
+
+    @Test
+    void getContentTagUsesTruncatedSha256DigestOfWorkspaceIdentifier() throws Exception {
+        final Workspace workspace = WorkspaceGenerator.generateWorkspace();
+        when(workspaceService.getCurrentWorkspace()).thenReturn(workspace);
+        final byte[] digest = MessageDigest.getInstance("SHA-256")
+                                           .digest(workspace.getUri().toString().getBytes(StandardCharsets.UTF_8));
+        final String expected = String.format("%032x", new BigInteger(1, Arrays.copyOf(digest, 16)));
+        assertEquals(Long.toHexString(117L) + "-" + expected, sut.getContentTag(117L));
+    }
+
     @Test
     void exportGlossaryGetsGlossaryExportForSpecifiedVocabularyFromExporters() {
         final TypeAwareByteArrayResource resource = new TypeAwareByteArrayResource("test".getBytes(),
@@ -80,6 +117,17 @@ class TermServiceTest {
         verify(exporters).exportVocabularyGlossary(vocabulary, CsvUtils.MEDIA_TYPE);
     }
 
+    @Test
+    void streamGlossaryGetsGlossaryStreamingOutputForSpecifiedVocabularyFromExporters() {
+        final TypeAwareStreamingOutput output = new TypeAwareStreamingOutput(CsvUtils.MEDIA_TYPE,
+                CsvUtils.FILE_EXTENSION, out -> out.write("test".getBytes()));
+        when(exporters.streamVocabularyGlossary(vocabulary, CsvUtils.MEDIA_TYPE)).thenReturn(Optional.of(output));
+        final Optional<TypeAwareStreamingOutput> result = sut.streamGlossary(vocabulary, CsvUtils.MEDIA_TYPE);
+        assertTrue(result.isPresent());
+        assertEquals(output, result.get());
+        verify(exporters).streamVocabularyGlossary(vocabulary, CsvUtils.MEDIA_TYPE);
+    }
+
     @Test
     void findVocabularyLoadsVocabularyFromRepositoryService() {
         when(vocabularyService.find(vocabulary.getUri())).thenReturn(Optional.of(vocabulary));
@@ -14,6 +14,7 @@ import cz.cvut.kbss.termit.model.changetracking.PersistChangeRecord;
 import cz.cvut.kbss.termit.model.changetracking.UpdateChangeRecord;
 import cz.cvut.kbss.termit.model.util.HasIdentifier;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.persistence.dao.changetracking.ChangeRecordJournal;
 import cz.cvut.kbss.termit.service.BaseServiceTestRunner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,6 +37,9 @@ class ChangeTrackerTest extends BaseServiceTestRunner {
     @Autowired
     private DescriptorFactory descriptorFactory;
 
+    @Autowired
+    private ChangeRecordJournal journal;
+
     @Autowired
     private ChangeTracker sut;
 
@@ -74,6 +78,7 @@ class ChangeTrackerTest extends BaseServiceTestRunner {
     }
 
     private List<AbstractChangeRecord> findRecords(HasIdentifier entity) {
+        journal.flush();
         return em.createNativeQuery("SELECT ?x WHERE { ?x a ?changeRecord ; ?concerns ?entity . }", AbstractChangeRecord.class)
                  .setParameter("changeRecord", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_c_zmena))
                  .setParameter("concerns", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_zmenenou_entitu))
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -444,4 +445,35 @@ class MetamodelBasedChangeCalculatorTest extends BaseServiceTestRunner {
         assertEquals(original.getLabel(), record.getOriginalValue().iterator().next());
         assertEquals(changed.getLabel(), record.getNewValue().iterator().next());
     }
+
+    @Test
+    void calculateChangesReturnsNoChangeForPluralReferenceAttributeReferencingSameEntitiesViaDifferentInstances() {
+        final Term original = Generator.generateTermWithId();
+        final Term changed = cloneOf(original);
+        final Set<Term> parents = IntStream.range(0, 3).mapToObj(i -> Generator.generateTermWithId())
+                                           .collect(Collectors.toSet());
+        original.setParentTerms(parents);
+        changed.setParentTerms(parents.stream().map(MetamodelBasedChangeCalculatorTest::cloneOf)
+                                      .collect(Collectors.toSet()));
+
+        final Collection<UpdateChangeRecord> result = sut.calculateChanges(changed, original);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void calculateChangesDiscoversChangeInPluralReferenceAttributeOfSameSize() {
+        final Term original = Generator.generateTermWithId();
+        final Term changed = cloneOf(original);
+        final Term parent = Generator.generateTermWithId();
+        original.setParentTerms(new HashSet<>(Arrays.asList(parent, Generator.generateTermWithId())));
+        changed.setParentTerms(new HashSet<>(Arrays.asList(parent, Generator.generateTermWithId())));
+
+        final Collection<UpdateChangeRecord> result = sut.calculateChanges(changed, original);
+        assertEquals(1, result.size());
+        final UpdateChangeRecord record = result.iterator().next();
+        assertEquals(original.getParentTerms().stream().map(Term::getUri).collect(Collectors.toSet()),
+                record.getOriginalValue());
+        assertEquals(changed.getParentTerms().stream().map(Term::getUri).collect(Collectors.toSet()),
+                record.getNewValue());
+    }
 }
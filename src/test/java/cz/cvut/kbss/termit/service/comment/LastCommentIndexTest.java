@@ -0,0 +1,165 @@
+package cz.cvut.kbss.termit.service.comment;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
+import cz.cvut.kbss.termit.dto.RecentlyCommentedAsset;
+import cz.cvut.kbss.termit.environment.Environment;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.User;
+import cz.cvut.kbss.termit.model.changetracking.PersistChangeRecord;
+import cz.cvut.kbss.termit.model.comment.Comment;
+import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.service.BaseServiceTestRunner;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class LastCommentIndexTest extends BaseServiceTestRunner {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private Configuration config;
+
+    @Autowired
+    private DescriptorFactory descriptorFactory;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private LastCommentIndex sut;
+
+    private User author;
+
+    private List<Term> terms;
+
+    @BeforeEach
+    void setUp() {
+        this.author = Generator.generateUserWithId();
+        transactional(() -> em.persist(author));
+        Environment.setCurrentUser(author);
+        this.terms = IntStream.range(0, 3).mapToObj(i -> Generator.generateTermWithId()).collect(Collectors.toList());
+    }
+
+    private Comment persistComment(User user, Term asset, int minutesAgo) {
+        final Comment comment = Generator.generateComment(user, asset);
+        comment.setModified(new Date(System.currentTimeMillis() - minutesAgo * 60 * 1000L));
+        transactional(() -> {
+            final EntityDescriptor descriptor = new EntityDescriptor(URI.create(config.getComments().getContext()));
+            descriptor.addAttributeContext(descriptorFactory.fieldSpec(Comment.class, "author"), null);
+            em.persist(comment, descriptor);
+        });
+        return comment;
+    }
+
+    private static List<URI> assetUris(List<RecentlyCommentedAsset> assets) {
+        return assets.stream().map(RecentlyCommentedAsset::getUri).collect(Collectors.toList());
+    }
+
+    @Test
+    void findLastCommentedReturnsAssetsOrderedByTheirLastCommentWithLastCommentLoaded() {
+        persistComment(author, terms.get(0), 30);
+        persistComment(author, terms.get(1), 20);
+        final Comment last = persistComment(author, terms.get(0), 10);
+        persistComment(author, terms.get(2), 40);
+
+        final List<RecentlyCommentedAsset> result = sut.findLastCommented(2);
+        assertEquals(Arrays.asList(terms.get(0).getUri(), terms.get(1).getUri()), assetUris(result));
+        assertEquals(last.getUri(), result.get(0).getLastComment().getUri());
+        assertNull(result.get(0).getMyLastComment());
+    }
+
+    @Test
+    void findLastCommentedReflectsCommentAddedAfterIndexWasLoaded() {
+        persistComment(author, terms.get(0), 20);
+        persistComment(author, terms.get(1), 10);
+        sut.findLastCommented(2);
+
+        final Comment comment = new Comment();
+        comment.setContent("New comment");
+        commentService.addToAsset(comment, terms.get(0));
+
+        final List<RecentlyCommentedAsset> result = sut.findLastCommented(2);
+        assertEquals(Arrays.asList(terms.get(0).getUri(), terms.get(1).getUri()), assetUris(result));
+        assertEquals(comment.getUri(), result.get(0).getLastCommentUri());
+    }
+
+    @Test
+    void findLastCommentedDoesNotReflectCommentAddedInRolledBackTransaction() {
+        persistComment(author, terms.get(0), 20);
+        persistComment(author, terms.get(1), 10);
+        sut.findLastCommented(3);
+
+        final Comment comment = new Comment();
+        comment.setContent("New comment");
+        new TransactionTemplate(txManager).execute(status -> {
+            commentService.addToAsset(comment, terms.get(2));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        final List<RecentlyCommentedAsset> result = sut.findLastCommented(3);
+        assertEquals(Arrays.asList(terms.get(1).getUri(), terms.get(0).getUri()), assetUris(result));
+    }
+
+    @Test
+    void findLastCommentedReflectsCommentRemovedAfterIndexWasLoaded() {
+        final Comment remaining = persistComment(author, terms.get(0), 30);
+        persistComment(author, terms.get(1), 20);
+        final Comment removed = persistComment(author, terms.get(0), 10);
+        sut.findLastCommented(2);
+
+        commentService.remove(removed);
+
+        final List<RecentlyCommentedAsset> result = sut.findLastCommented(2);
+        assertEquals(Arrays.asList(terms.get(1).getUri(), terms.get(0).getUri()), assetUris(result));
+        assertEquals(remaining.getUri(), result.get(1).getLastCommentUri());
+    }
+
+    @Test
+    void findLastCommentedInReactionReturnsAssetsLastCommentedBySomeoneElseAfterSpecifiedUser() {
+        final User anotherUser = Generator.generateUserWithId();
+        transactional(() -> em.persist(anotherUser));
+        final Comment mine = persistComment(author, terms.get(0), 30);
+        final Comment reaction = persistComment(anotherUser, terms.get(0), 20);
+        persistComment(anotherUser, terms.get(1), 15);
+        persistComment(anotherUser, terms.get(2), 25);
+        persistComment(author, terms.get(2), 10);
+
+        final List<RecentlyCommentedAsset> result = sut.findLastCommentedInReaction(author, 5);
+        assertEquals(1, result.size());
+        assertEquals(terms.get(0).getUri(), result.get(0).getUri());
+        assertEquals(reaction.getUri(), result.get(0).getLastComment().getUri());
+        assertEquals(mine.getUri(), result.get(0).getMyLastComment().getUri());
+    }
+
+    @Test
+    void findMyLastCommentedReturnsCommentedAssetsModifiedBySpecifiedUser() {
+        persistComment(author, terms.get(0), 30);
+        persistComment(author, terms.get(1), 20);
+        persistComment(author, terms.get(2), 10);
+        final List<PersistChangeRecord> records = Arrays.asList(Generator.generatePersistChange(terms.get(0)),
+                Generator.generatePersistChange(terms.get(1)));
+        transactional(() -> records.forEach(em::persist));
+
+        final List<RecentlyCommentedAsset> result = sut.findMyLastCommented(author, 5);
+        assertEquals(Arrays.asList(terms.get(1).getUri(), terms.get(0).getUri()), assetUris(result));
+        result.forEach(a -> assertNotNull(a.getLastComment()));
+    }
+}
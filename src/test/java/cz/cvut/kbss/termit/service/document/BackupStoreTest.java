@@ -0,0 +1,199 @@
+package cz.cvut.kbss.termit.service.document;
+
+import cz.cvut.kbss.termit.exception.NotFoundException;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StreamUtils;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackupStoreTest {
+
+    private final Configuration config = new Configuration();
+
+    private Path storage;
+
+    private Path file;
+
+    private BackupStore sut;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.storage = Files.createTempDirectory("termit");
+        storage.toFile().deleteOnExit();
+        config.getFile().setStorage(storage.toString());
+        config.getFile().setMaxBackups(3);
+        final Path directory = Files.createDirectory(storage.resolve("document"));
+        this.file = directory.resolve("test.html");
+        write("<html><body>Version 0</body></html>");
+        this.sut = new BackupStore(config);
+    }
+
+    private void write(String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(BackupStore.Version version) throws Exception {
+        try (final InputStream in = sut.open(version)) {
+            return new String(StreamUtils.copyToByteArray(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    private List<Path> blobs() throws Exception {
+        try (final Stream<Path> paths = Files.walk(storage.resolve(BackupStore.STORE_DIRECTORY))) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void backupRecordsVersionWithContentOfFile() throws Exception {
+        final BackupStore.Version result = sut.backup(file);
+        assertEquals(Files.size(file), result.getSize());
+        assertEquals(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), read(result));
+        assertEquals(result, sut.getVersions(file).get(0));
+    }
+
+    @Test
+    void backupStoresContentCompressed() throws Exception {
+        final StringBuilder sb = new StringBuilder("<html><body>");
+        for (int i = 0; i < 1000; i++) {
+            sb.append("<p>Repetitive content</p>");
+        }
+        write(sb.append("</body></html>").toString());
+        sut.backup(file);
+        final List<Path> blobs = blobs();
+        assertEquals(1, blobs.size());
+        assertTrue(Files.size(blobs.get(0)) < Files.size(file));
+    }
+
+    @Test
+    void backupStoresIdenticalContentOnlyOnce() throws Exception {
+        final BackupStore.Version first = sut.backup(file);
+        final BackupStore.Version second = sut.backup(file);
+        assertEquals(first.getHash(), second.getHash());
+        assertEquals(2, sut.getVersions(file).size());
+        assertEquals(1, blobs().size());
+    }
+
+    @Test
+    void backupKeepsVersionsOfChangedContent() throws Exception {
+        final BackupStore.Version first = sut.backup(file);
+        write("<html><body>Version 1</body></html>");
+        final BackupStore.Version second = sut.backup(file);
+        assertNotEquals(first.getHash(), second.getHash());
+        assertEquals("<html><body>Version 0</body></html>", read(first));
+        assertEquals("<html><body>Version 1</body></html>", read(second));
+        assertEquals(2, blobs().size());
+    }
+
+    @Test
+    void backupRemovesOldestVersionsExceedingMaximumNumberOfBackups() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            write("<html><body>Version " + i + "</body></html>");
+            sut.backup(file);
+        }
+        final List<BackupStore.Version> result = sut.getVersions(file);
+        assertEquals(3, result.size());
+        assertEquals("<html><body>Version 2</body></html>", read(result.get(0)));
+        assertEquals("<html><body>Version 4</body></html>", read(result.get(2)));
+    }
+
+    @Test
+    void getVersionsReturnsEmptyListForFileWithoutBackups() {
+        assertTrue(sut.getVersions(file).isEmpty());
+    }
+
+    @Test
+    void cleanupRemovesContentOfVersionsExceedingMaximumNumberOfBackups() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            write("<html><body>Version " + i + "</body></html>");
+            sut.backup(file);
+        }
+        assertEquals(5, blobs().size());
+        sut.cleanup();
+        assertEquals(3, blobs().size());
+        for (BackupStore.Version v : sut.getVersions(file)) {
+            assertNotNull(read(v));
+        }
+    }
+
+    @Test
+    void cleanupRemovesVersionsOlderThanRetentionPeriod() throws Exception {
+        sut.backup(file);
+        final Path index = file.resolveSibling(file.getFileName() + BackupStore.INDEX_SUFFIX);
+        final String entry = new String(Files.readAllBytes(index), StandardCharsets.UTF_8).trim();
+        final long old = Instant.now().minusSeconds(5 * 24 * 3600).toEpochMilli();
+        Files.write(index, entry.replaceFirst("^\\d+", Long.toString(old)).getBytes(StandardCharsets.UTF_8));
+        config.getFile().setBackupRetentionDays(2);
+
+        sut.cleanup();
+        assertTrue(sut.getVersions(file).isEmpty());
+        assertFalse(Files.exists(index));
+        assertTrue(blobs().isEmpty());
+    }
+
+    @Test
+    void cleanupRemovesContentNoLongerReferencedByRemovedFile() throws Exception {
+        final BackupStore.Version version = sut.backup(file);
+        Files.delete(file.resolveSibling(file.getFileName() + BackupStore.INDEX_SUFFIX));
+        sut.cleanup();
+        assertTrue(blobs().isEmpty());
+        assertThrows(NotFoundException.class, () -> sut.open(version));
+    }
+
+    @Test
+    void moveVersionsMovesVersionsToTargetFile() throws Exception {
+        final BackupStore.Version version = sut.backup(file);
+        final Path target = file.resolveSibling("renamed.html");
+        sut.moveVersions(file, target);
+        assertTrue(sut.getVersions(file).isEmpty());
+        assertEquals(Collections.singletonList(version), sut.getVersions(target));
+    }
+
+    @Test
+    void removeVersionsRemovesVersionIndexOfFile() throws Exception {
+        sut.backup(file);
+        sut.removeVersions(file);
+        assertTrue(sut.getVersions(file).isEmpty());
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + BackupStore.INDEX_SUFFIX)));
+    }
+
+    @Test
+    void migrateLegacyBackupsImportsTimestampedCopiesAndRemovesThem() throws Exception {
+        final Path older = file.resolveSibling(file.getFileName() + "~2020-01-01_101010_5");
+        Files.write(older, "<html><body>Old</body></html>".getBytes(StandardCharsets.UTF_8));
+        final Path newer = file.resolveSibling(file.getFileName() + "~2020-02-01_101010_123");
+        Files.write(newer, "<html><body>Newer</body></html>".getBytes(StandardCharsets.UTF_8));
+
+        sut.migrateLegacyBackups();
+        assertFalse(Files.exists(older));
+        assertFalse(Files.exists(newer));
+        final List<BackupStore.Version> result = sut.getVersions(file);
+        assertEquals(2, result.size());
+        assertEquals("<html><body>Old</body></html>", read(result.get(0)));
+        assertEquals("<html><body>Newer</body></html>", read(result.get(1)));
+        assertTrue(result.get(0).getCreated().isBefore(result.get(1).getCreated()));
+    }
+
+    @Test
+    void migrateLegacyBackupsRunsOnlyOnce() throws Exception {
+        sut.migrateLegacyBackups();
+        final Path copy = file.resolveSibling(file.getFileName() + "~2020-01-01_101010_5");
+        Files.write(copy, "<html><body>Old</body></html>".getBytes(StandardCharsets.UTF_8));
+
+        sut.migrateLegacyBackups();
+        assertTrue(Files.exists(copy));
+        assertTrue(sut.getVersions(file).isEmpty());
+    }
+}
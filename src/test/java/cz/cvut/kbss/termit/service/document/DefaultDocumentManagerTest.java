@@ -15,6 +15,7 @@ import static cz.cvut.kbss.termit.environment.Environment.loadFile;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -35,17 +36,21 @@ import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.TypeAwareResource;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StreamUtils;
 
 @ContextConfiguration(initializers = {PropertyMockingApplicationContextInitializer.class})
 class DefaultDocumentManagerTest extends BaseServiceTestRunner {
@@ -56,6 +61,9 @@ class DefaultDocumentManagerTest extends BaseServiceTestRunner {
     @Autowired
     private Configuration configuration;
 
+    @Autowired
+    private BackupStore backupStore;
+
     @Autowired
     private DefaultDocumentManager sut;
 
@@ -194,20 +202,21 @@ class DefaultDocumentManagerTest extends BaseServiceTestRunner {
     }
 
     @Test
-    void createBackupCreatesBackupFileWithIdenticalContent() throws Exception {
+    void createBackupStoresBackupWithIdenticalContent() throws Exception {
         final File file = new File();
         final java.io.File physicalFile = generateFile();
         file.setLabel(physicalFile.getName());
         document.addFile(file);
         file.setDocument(document);
-        final java.io.File docDir = physicalFile.getParentFile();
-        assertNotNull(docDir.listFiles());
-        assertEquals(1, docDir.listFiles().length);
         sut.createBackup(file);
-        assertEquals(2, docDir.listFiles().length);
-        for (java.io.File f : docDir.listFiles()) {
-            f.deleteOnExit();
-            assertEquals(CONTENT, String.join("\n", Files.readAllLines(f.toPath())));
+        final List<BackupStore.Version> versions = backupStore.getVersions(physicalFile.toPath());
+        assertEquals(1, versions.size());
+        assertArrayEquals(Files.readAllBytes(physicalFile.toPath()), readBackup(versions.get(0)));
+    }
+
+    private byte[] readBackup(BackupStore.Version version) throws Exception {
+        try (final InputStream in = backupStore.open(version)) {
+            return StreamUtils.copyToByteArray(in);
         }
     }
 
@@ -223,16 +232,69 @@ class DefaultDocumentManagerTest extends BaseServiceTestRunner {
         file.setLabel(withoutExtension.getName());
         document.addFile(file);
         file.setDocument(document);
-        assertNotNull(docDir.listFiles());
         sut.createBackup(file);
-        final java.io.File[] files = docDir.listFiles((d, name) -> name.startsWith("withoutExtension"));
-        assertEquals(2, files.length);
-        for (java.io.File f : files) {
-            f.deleteOnExit();
-            assertEquals(CONTENT, String.join("\n", Files.readAllLines(f.toPath())));
+        final List<BackupStore.Version> versions = backupStore.getVersions(withoutExtension.toPath());
+        assertEquals(1, versions.size());
+        assertArrayEquals(Files.readAllBytes(withoutExtension.toPath()), readBackup(versions.get(0)));
+    }
+
+    @Test
+    void createBackupPreservesBackupContentWhenFileContentIsSavedAfterwards() throws Exception {
+        final File file = new File();
+        final java.io.File physicalFile = generateFile();
+        file.setLabel(physicalFile.getName());
+        document.addFile(file);
+        file.setDocument(document);
+        final byte[] original = Files.readAllBytes(physicalFile.toPath());
+        sut.createBackup(file);
+        final String newContent = "<html><body>Updated content</body></html>";
+        sut.saveFileContent(file, new ByteArrayInputStream(newContent.getBytes()));
+        assertEquals(newContent, String.join("\n", Files.readAllLines(physicalFile.toPath())));
+        final List<BackupStore.Version> versions = backupStore.getVersions(physicalFile.toPath());
+        assertEquals(1, versions.size());
+        assertArrayEquals(original, readBackup(versions.get(0)));
+    }
+
+    @Test
+    void createBackupStoresIdenticalContentOnlyOnce() throws Exception {
+        final File file = new File();
+        final java.io.File physicalFile = generateFile();
+        file.setLabel(physicalFile.getName());
+        document.addFile(file);
+        file.setDocument(document);
+        sut.createBackup(file);
+        sut.createBackup(file);
+        final List<BackupStore.Version> versions = backupStore.getVersions(physicalFile.toPath());
+        assertEquals(2, versions.size());
+        assertEquals(versions.get(0).getHash(), versions.get(1).getHash());
+        final java.io.File store = new java.io.File(configuration.getFile().getStorage(), BackupStore.STORE_DIRECTORY);
+        try (final Stream<Path> blobs = Files.walk(store.toPath())) {
+            assertEquals(1, blobs.filter(Files::isRegularFile).count());
         }
     }
 
+    @Test
+    void getContentSourceProvidesFileContent() throws Exception {
+        final File file = new File();
+        final java.io.File physicalFile = generateFile();
+        file.setLabel(physicalFile.getName());
+        document.addFile(file);
+        file.setDocument(document);
+        final InputStreamSource result = sut.getContentSource(file);
+        try (final InputStream in = result.getInputStream()) {
+            assertEquals(CONTENT, new String(StreamUtils.copyToByteArray(in), StandardCharsets.UTF_8).trim());
+        }
+    }
+
+    @Test
+    void getContentSourceThrowsNotFoundExceptionIfFileCannotBeFound() {
+        final File file = new File();
+        file.setLabel("unknown.html");
+        document.addFile(file);
+        file.setDocument(document);
+        assertThrows(NotFoundException.class, () -> sut.getContentSource(file));
+    }
+
     @Test
     void existsReturnsTrueForExistingFile() throws Exception {
         final File file = new File();
@@ -393,16 +455,17 @@ class DefaultDocumentManagerTest extends BaseServiceTestRunner {
         assertEquals(0, docDir.list().length);
     }
 
+    /**
+     * Creates backups of the specified file and returns the backup version index.
+     */
     private List<java.io.File> createTestBackups(java.io.File file) throws Exception {
-        final List<java.io.File> backupFiles = new ArrayList<>(3);
         for (int i = 0; i < 3; i++) {
-            final String path = file.getAbsolutePath();
-            final String newPath = path + "~" + System.currentTimeMillis() + "-" + i;
-            final java.io.File target = new java.io.File(newPath);
-            Files.copy(file.toPath(), target.toPath());
-            backupFiles.add(target);
+            Files.write(file.toPath(), Collections.singletonList(CONTENT + i));
+            backupStore.backup(file.toPath());
         }
-        return backupFiles;
+        final java.io.File index = new java.io.File(file.getAbsolutePath() + BackupStore.INDEX_SUFFIX);
+        assertTrue(index.exists());
+        return Collections.singletonList(index);
     }
 
     @Test
@@ -0,0 +1,121 @@
+package cz.cvut.kbss.termit.service.document;
+
+import cz.cvut.kbss.termit.dto.TextAnalysisInput;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.VocabularyContentModified;
+import cz.cvut.kbss.termit.persistence.dao.TermDao;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DictionaryTextAnalysisEngineTest {
+
+    private static final String LANGUAGE = "en";
+
+    @Mock
+    private TermDao termDao;
+
+    private final URI context = Generator.generateUri();
+
+    private final URI plan = Generator.generateUri();
+
+    private final URI metropolitanPlan = Generator.generateUri();
+
+    private DictionaryTextAnalysisEngine sut;
+
+    @BeforeEach
+    void setUp() {
+        final Map<URI, Set<String>> labels = new HashMap<>();
+        labels.put(plan, Collections.singleton("plan"));
+        labels.put(metropolitanPlan, new HashSet<>(Arrays.asList("Metropolitan plan", "MP")));
+        when(termDao.findAllLabels(anyCollection(), anyString())).thenReturn(labels);
+        this.sut = new DictionaryTextAnalysisEngine(termDao);
+    }
+
+    private Document analyze(String content) throws Exception {
+        final TextAnalysisInput input = new TextAnalysisInput(content, LANGUAGE, Generator.generateUri());
+        input.addVocabularyContext(context);
+        try (InputStream result = sut.analyze(input)) {
+            return Jsoup.parse(result, StandardCharsets.UTF_8.name(), "");
+        }
+    }
+
+    @Test
+    void analyzeAnnotatesLongestWholeWordOccurrencesOfTermLabels() throws Exception {
+        final Document result = analyze(
+                "<html><body><h1>Metropolitan plan</h1><p>Description of the metropolitan   plan, a planned plan.</p></body></html>");
+        final Elements occurrences = result.select("span[property]");
+        assertEquals(3, occurrences.size());
+        assertEquals(metropolitanPlan.toString(), occurrences.get(0).attr("resource"));
+        assertEquals("Metropolitan plan", occurrences.get(0).text());
+        // Sequence of whitespace in text matches a single space in label
+        assertEquals(metropolitanPlan.toString(), occurrences.get(1).attr("resource"));
+        assertEquals("metropolitan   plan", occurrences.get(1).wholeText());
+        assertEquals(plan.toString(), occurrences.get(2).attr("resource"));
+        assertThat(result.select("p").first().text(), containsString("a planned plan."));
+    }
+
+    @Test
+    void analyzeMatchesLabelsAcrossLineBreaksAndPreservesOriginalText() throws Exception {
+        final Document result = analyze("<html><body><p>The Metropolitan\n\t plan is a plan.</p></body></html>");
+        final Elements occurrences = result.select("span[property]");
+        assertEquals(2, occurrences.size());
+        assertEquals(metropolitanPlan.toString(), occurrences.get(0).attr("resource"));
+        assertEquals("Metropolitan\n\t plan", occurrences.get(0).wholeText());
+        assertEquals(plan.toString(), occurrences.get(1).attr("resource"));
+        assertEquals("The Metropolitan\n\t plan is a plan.", result.select("p").first().wholeText());
+    }
+
+    @Test
+    void analyzeGeneratesRdfaOccurrencesWithUniqueIdentifiersAndRegistersPrefix() throws Exception {
+        final Document result = analyze(
+                "<html><body><span about=\"_:3\" property=\"termit:je-výskytem-termu\">plan</span> MP plan</body></html>");
+        final Elements occurrences = result.select("span[property]");
+        assertEquals(3, occurrences.size());
+        final Element first = occurrences.get(1);
+        assertEquals("_:4", first.attr("about"));
+        assertEquals(DictionaryTextAnalysisEngine.OCCURRENCE_PROPERTY, first.attr("property"));
+        assertEquals(DictionaryTextAnalysisEngine.OCCURRENCE_TYPE, first.attr("typeof"));
+        assertEquals(metropolitanPlan.toString(), first.attr("resource"));
+        assertEquals("_:5", occurrences.get(2).attr("about"));
+        assertEquals(DictionaryTextAnalysisEngine.TERMIT_PREFIX, result.body().attr("prefix"));
+    }
+
+    @Test
+    void analyzeSkipsScriptsAndExistingAnnotations() throws Exception {
+        final Document result = analyze(
+                "<html><head><title>plan</title><script>var plan = 1;</script></head><body>" +
+                        "<span about=\"_:1\" property=\"termit:je-výskytem-termu\">plan</span></body></html>");
+        assertEquals(1, result.select("span[property]").size());
+        assertEquals("", result.body().attr("prefix"));
+    }
+
+    @Test
+    void analyzeReusesAutomatonUntilVocabularyContentIsModified() throws Exception {
+        analyze("<html><body>plan</body></html>");
+        analyze("<html><body>plan</body></html>");
+        verify(termDao).findAllLabels(Collections.singleton(context), LANGUAGE);
+        sut.onVocabularyContentModified(new VocabularyContentModified(this));
+        analyze("<html><body>plan</body></html>");
+        verify(termDao, times(2)).findAllLabels(Collections.singleton(context), LANGUAGE);
+    }
+}
@@ -0,0 +1,153 @@
+package cz.cvut.kbss.termit.service.document;
+
+import cz.cvut.kbss.termit.dto.TextAnalysisJob;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.exception.NotFoundException;
+import cz.cvut.kbss.termit.exception.TextAnalysisJobRejectedException;
+import cz.cvut.kbss.termit.exception.WebServiceIntegrationException;
+import cz.cvut.kbss.termit.model.resource.File;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TextAnalysisJobServiceTest {
+
+    private static final long TIMEOUT = 5000L;
+
+    @Mock
+    private TextAnalysisService textAnalysisService;
+
+    private final Configuration config = new Configuration();
+
+    private final URI target = Generator.generateUri();
+
+    private final Set<URI> vocabularies = Collections.singleton(Generator.generateUri());
+
+    private TextAnalysisJobService sut;
+
+    @BeforeEach
+    void setUp() {
+        config.getTextAnalysis().setParallelism(2);
+        config.getTextAnalysis().setMaxAttempts(2);
+        config.getTextAnalysis().setRetryDelay(0);
+        config.getTextAnalysis().setRetainedJobs(1);
+        config.getTextAnalysis().setQueueCapacity(2);
+        this.sut = new TextAnalysisJobService(textAnalysisService, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.shutdown();
+    }
+
+    private Map<File, Set<URI>> files(int count) {
+        final Map<File, Set<URI>> result = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            result.put(Generator.generateFileWithId("test" + i + ".html"), vocabularies);
+        }
+        return result;
+    }
+
+    private static TextAnalysisJob awaitDone(TextAnalysisJob job) throws Exception {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!job.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isDone());
+        return job;
+    }
+
+    @Test
+    void submitAnalyzesAllFilesAndFinishesJob() throws Exception {
+        final Map<File, Set<URI>> files = files(5);
+        final TextAnalysisJob job = awaitDone(sut.submit(target, files));
+        assertEquals(TextAnalysisJob.Status.FINISHED, job.getStatus());
+        assertEquals(5, job.getTotalFiles());
+        assertEquals(5, job.getAnalyzedFiles());
+        assertTrue(job.getFailedFiles().isEmpty());
+        files.keySet().forEach(f -> verify(textAnalysisService).analyzeFile(f, vocabularies));
+    }
+
+    @Test
+    void submitRetriesAnalysisOfFileFailingDueToServiceIntegrationError() throws Exception {
+        final Map<File, Set<URI>> files = files(1);
+        doThrow(new WebServiceIntegrationException("Text analysis invocation failed.")).doNothing()
+                .when(textAnalysisService).analyzeFile(any(), anySet());
+        final TextAnalysisJob job = awaitDone(sut.submit(target, files));
+        assertEquals(TextAnalysisJob.Status.FINISHED, job.getStatus());
+        verify(textAnalysisService, times(2)).analyzeFile(any(), anySet());
+    }
+
+    @Test
+    void submitRecordsFileFailedInAllAttemptsAndMarksJobAsFailed() throws Exception {
+        final Map<File, Set<URI>> files = files(2);
+        final File failing = files.keySet().iterator().next();
+        doThrow(new WebServiceIntegrationException("Text analysis invocation failed."))
+                .when(textAnalysisService).analyzeFile(eq(failing), anySet());
+        final TextAnalysisJob job = awaitDone(sut.submit(target, files));
+        assertEquals(TextAnalysisJob.Status.FAILED, job.getStatus());
+        assertEquals(1, job.getAnalyzedFiles());
+        assertEquals(Collections.singleton(failing.getUri()), job.getFailedFiles().keySet());
+        verify(textAnalysisService, times(2)).analyzeFile(eq(failing), anySet());
+    }
+
+    @Test
+    void submitReturnsExistingJobWhenAnalysisOfSameTargetIsRunning() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> release.await(TIMEOUT, TimeUnit.MILLISECONDS)).when(textAnalysisService)
+                                                                        .analyzeFile(any(), anySet());
+        final TextAnalysisJob first = sut.submit(target, files(1));
+        final TextAnalysisJob second = sut.submit(target, files(1));
+        assertSame(first, second);
+        release.countDown();
+        awaitDone(first);
+        verify(textAnalysisService).analyzeFile(any(), anySet());
+    }
+
+    @Test
+    void findRequiredThrowsNotFoundExceptionForUnknownJob() {
+        assertThrows(NotFoundException.class, () -> sut.findRequired("unknown"));
+    }
+
+    @Test
+    void jobsFinishedBeyondRetainedCountAreDiscarded() throws Exception {
+        final TextAnalysisJob first = awaitDone(sut.submit(target, files(1)));
+        final TextAnalysisJob second = awaitDone(sut.submit(Generator.generateUri(), files(1)));
+        assertThrows(NotFoundException.class, () -> sut.findRequired(first.getId()));
+        assertSame(second, sut.findRequired(second.getId()));
+    }
+
+    @Test
+    void submitRejectsJobWhenTooManyFilesAreWaitingForAnalysis() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> release.await(TIMEOUT, TimeUnit.MILLISECONDS)).when(textAnalysisService)
+                                                                        .analyzeFile(any(), anySet());
+        final TextAnalysisJob first = sut.submit(target, files(2));
+        assertThrows(TextAnalysisJobRejectedException.class, () -> sut.submit(Generator.generateUri(), files(1)));
+        release.countDown();
+        awaitDone(first);
+        final TextAnalysisJob next = awaitDone(sut.submit(Generator.generateUri(), files(1)));
+        assertEquals(TextAnalysisJob.Status.FINISHED, next.getStatus());
+    }
+
+    @Test
+    void submitAcceptsJobLargerThanQueueCapacityWhenNoFilesAreWaiting() throws Exception {
+        final TextAnalysisJob job = awaitDone(sut.submit(target, files(3)));
+        assertEquals(3, job.getAnalyzedFiles());
+    }
+}
@@ -105,8 +105,8 @@ class TextAnalysisServiceTest extends BaseServiceTestRunner {
         this.documentManagerSpy = spy(documentManager);
         doCallRealMethod().when(documentManagerSpy).loadFileContent(any());
         doNothing().when(documentManagerSpy).createBackup(any());
-        this.sut = new TextAnalysisService(restTemplate, config, documentManagerSpy,
-                textAnalysisRecordDao);
+        this.sut = new TextAnalysisService(new RemoteTextAnalysisEngine(restTemplate, config), config,
+                documentManagerSpy, textAnalysisRecordDao);
     }
 
     @Test
@@ -0,0 +1,62 @@
+package cz.cvut.kbss.termit.service.document.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AhoCorasickAutomatonTest {
+
+    private static AhoCorasickAutomaton<Integer> automaton(String... keywords) {
+        final Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < keywords.length; i++) {
+            map.put(keywords[i], i);
+        }
+        return new AhoCorasickAutomaton<>(map);
+    }
+
+    private static List<String> matchedText(String text, List<AhoCorasickAutomaton.Match<Integer>> matches) {
+        return matches.stream().map(m -> text.substring(m.getStart(), m.getEnd())).collect(Collectors.toList());
+    }
+
+    @Test
+    void findAllReturnsAllOccurrencesIncludingOverlappingOnes() {
+        final AhoCorasickAutomaton<Integer> sut = automaton("he", "she", "his", "hers");
+        final String text = "ushers";
+        final List<AhoCorasickAutomaton.Match<Integer>> result = sut.findAll(text);
+        assertThat(matchedText(text, result), containsInAnyOrder("she", "he", "hers"));
+    }
+
+    @Test
+    void findAllReportsValueAndPositionOfMatch() {
+        final AhoCorasickAutomaton<Integer> sut = automaton("metropolitan plan", "plan");
+        final String text = "the metropolitan plan";
+        final List<AhoCorasickAutomaton.Match<Integer>> result = sut.findAll(text);
+        assertEquals(2, result.size());
+        assertEquals(4, result.get(0).getStart());
+        assertEquals(text.length(), result.get(0).getEnd());
+        assertEquals(Integer.valueOf(0), result.get(0).getValue());
+        assertEquals(Integer.valueOf(1), result.get(1).getValue());
+    }
+
+    @Test
+    void findAllFindsRepeatedOccurrencesFollowingFailureLinks() {
+        final AhoCorasickAutomaton<Integer> sut = automaton("aa", "aab");
+        final String text = "aaaab";
+        assertThat(matchedText(text, sut.findAll(text)), containsInAnyOrder("aa", "aa", "aa", "aab"));
+    }
+
+    @Test
+    void findAllReturnsEmptyListWhenNoKeywordOccurs() {
+        final AhoCorasickAutomaton<Integer> sut = automaton("plan", "");
+        assertEquals(1, sut.size());
+        assertTrue(sut.findAll("nothing to see here").isEmpty());
+    }
+}
@@ -20,6 +20,7 @@ package cz.cvut.kbss.termit.service.export;
 import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.util.CsvUtils;
+import cz.cvut.kbss.termit.util.TypeAwareStreamingOutput;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,8 +28,11 @@ import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -85,6 +89,23 @@ class CsvVocabularyExporterTest extends VocabularyExporterTestBase {
         }
     }
 
+    @Test
+    void streamVocabularyGlossaryWritesTermsOrderedByLabelIntoOutputStream() throws Exception {
+        final List<Term> terms = generateTerms();
+        terms.sort(Comparator.comparing((Term t) -> t.getLabel().get(Environment.LANGUAGE)));
+        final TypeAwareStreamingOutput result = sut.streamVocabularyGlossary(vocabulary);
+        assertEquals(CsvUtils.MEDIA_TYPE, result.getMediaType().get());
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        result.writeTo(bos);
+        final List<String> lines = Arrays.asList(bos.toString(StandardCharsets.UTF_8.name()).split("\n"));
+        assertEquals(String.join(",", Term.EXPORT_COLUMNS), lines.get(0));
+        assertEquals(terms.size() + 1, lines.size());
+        for (int i = 0; i < terms.size(); i++) {
+            final String line = lines.get(i + 1);
+            assertEquals(terms.get(i).getUri(), URI.create(line.substring(0, line.indexOf(','))));
+        }
+    }
+
     @Test
     void supportsReturnsTrueForCsvMediaType() {
         assertTrue(sut.supports(CsvUtils.MEDIA_TYPE));
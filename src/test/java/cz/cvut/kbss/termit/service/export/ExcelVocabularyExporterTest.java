@@ -20,6 +20,7 @@ package cz.cvut.kbss.termit.service.export;
 import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.util.Constants;
+import cz.cvut.kbss.termit.util.TypeAwareStreamingOutput;
 import org.apache.poi.xssf.usermodel.XSSFRow;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -29,6 +30,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.Comparator;
 import java.util.List;
 
@@ -100,6 +103,24 @@ class ExcelVocabularyExporterTest extends VocabularyExporterTestBase {
         }
     }
 
+    @Test
+    void streamVocabularyGlossaryWritesWorkbookWithGlossaryTermsIntoOutputStream() throws Exception {
+        final List<Term> terms = generateTerms();
+        terms.sort(Comparator.comparing((Term t) -> t.getLabel().get(Environment.LANGUAGE)));
+        final TypeAwareStreamingOutput result = sut.streamVocabularyGlossary(vocabulary);
+        assertEquals(Constants.Excel.MEDIA_TYPE, result.getMediaType().get());
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        result.writeTo(bos);
+        final XSSFWorkbook wb = new XSSFWorkbook(new ByteArrayInputStream(bos.toByteArray()));
+        final XSSFSheet sheet = wb.getSheet(SHEET_NAME);
+        assertNotNull(sheet);
+        // Plus header row
+        assertEquals(terms.size(), sheet.getLastRowNum());
+        for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+            assertEquals(terms.get(i - 1).getUri().toString(), sheet.getRow(i).getCell(0).getStringCellValue());
+        }
+    }
+
     @Test
     void supportsReturnsTrueForExcelMediaType() {
         assertTrue(sut.supports(Constants.Excel.MEDIA_TYPE));
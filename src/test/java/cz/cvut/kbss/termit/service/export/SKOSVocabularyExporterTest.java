@@ -8,6 +8,7 @@ import cz.cvut.kbss.termit.util.ConfigParam;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Constants;
 import cz.cvut.kbss.termit.util.TypeAwareResource;
+import cz.cvut.kbss.termit.util.TypeAwareStreamingOutput;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.ValueFactory;
@@ -22,17 +23,24 @@ import org.eclipse.rdf4j.rio.Rio;
 import org.eclipse.rdf4j.rio.helpers.StatementCollector;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -64,6 +72,17 @@ class SKOSVocabularyExporterTest extends VocabularyExporterTestBase {
         assertFalse(sut.supports(MediaType.APPLICATION_JSON_VALUE));
     }
 
+    @Test
+    void supportsReturnsFalseForQuadBasedRdfSerializationMediaType() {
+        assertFalse(sut.supports(RDFFormat.NQUADS.getDefaultMIMEType()));
+    }
+
+    @Test
+    void streamVocabularyGlossaryUsesFileExtensionOfSpecifiedFormat() {
+        final TypeAwareStreamingOutput result = sut.streamVocabularyGlossary(vocabulary, Constants.NTriples.MEDIA_TYPE);
+        assertEquals(Optional.of(Constants.NTriples.FILE_EXTENSION), result.getFileExtension());
+    }
+
     @Test
     void exportVocabularyGlossaryExportsGlossaryInfo() throws IOException {
         final TypeAwareResource result = sut.exportVocabularyGlossary(vocabulary);
@@ -378,4 +397,36 @@ class SKOSVocabularyExporterTest extends VocabularyExporterTestBase {
                 not(hasItem(vf.createStatement(vf.createIRI(withOwl.getUri().toString()), SKOS.BROADER,
                         OWL.OBJECTPROPERTY))));
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {Constants.Turtle.MEDIA_TYPE, Constants.NTriples.MEDIA_TYPE, Constants.BinaryRdf.MEDIA_TYPE})
+    void supportsReturnsTrueForSupportedRdfSerializationMediaTypes(String mediaType) {
+        assertTrue(sut.supports(mediaType));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {Constants.Turtle.MEDIA_TYPE, Constants.NTriples.MEDIA_TYPE, Constants.BinaryRdf.MEDIA_TYPE})
+    void streamVocabularyGlossaryWritesSameDataAsExportVocabularyGlossaryInSpecifiedFormat(String mediaType)
+            throws Exception {
+        generateTerms();
+        final Model expected = loadAsModel(sut.exportVocabularyGlossary(vocabulary));
+        final TypeAwareStreamingOutput result = sut.streamVocabularyGlossary(vocabulary, mediaType);
+        assertEquals(Optional.of(mediaType), result.getMediaType());
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        result.writeTo(bos);
+
+        final RDFFormat format = Rio.getParserFormatForMIMEType(mediaType).orElseThrow(AssertionError::new);
+        final Model actual = Rio.parse(new ByteArrayInputStream(bos.toByteArray()), "", format);
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+    }
+
+    @Test
+    void streamVocabularyGlossaryWritesNamespacesBeforeStatements() throws Exception {
+        generateTerms();
+        final TypeAwareStreamingOutput result = sut.streamVocabularyGlossary(vocabulary, Constants.Turtle.MEDIA_TYPE);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        result.writeTo(bos);
+        final Model model = Rio.parse(new ByteArrayInputStream(bos.toByteArray()), "", RDFFormat.TURTLE);
+        assertTrue(model.getNamespace(SKOS.PREFIX).isPresent());
+    }
 }
@@ -18,6 +18,8 @@ import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.event.RefreshLastModifiedEvent;
 import cz.cvut.kbss.termit.event.VocabularyContentModified;
 import cz.cvut.kbss.termit.model.User;
+import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceMetadataProvider;
+import cz.cvut.kbss.termit.persistence.validation.ValidationRulesProvider;
 import cz.cvut.kbss.termit.service.BaseServiceTestRunner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,6 +45,12 @@ class AppAdminBeanTest extends BaseServiceTestRunner {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private WorkspaceMetadataProvider workspaceMetadataProvider;
+
+    @Mock
+    private ValidationRulesProvider validationRulesProviderMock;
+
     @Mock
     private ApplicationEventPublisher eventPublisherMock;
 
@@ -50,7 +58,7 @@ class AppAdminBeanTest extends BaseServiceTestRunner {
 
     @BeforeEach
     void setUp() {
-        this.sut = new AppAdminBean(eventPublisherMock, emf);
+        this.sut = new AppAdminBean(eventPublisherMock, emf, workspaceMetadataProvider, validationRulesProviderMock);
     }
 
     @Test
@@ -77,4 +85,13 @@ class AppAdminBeanTest extends BaseServiceTestRunner {
         verify(eventPublisherMock, atLeastOnce()).publishEvent(captor.capture());
         assertTrue(captor.getAllValues().stream().anyMatch(VocabularyContentModified.class::isInstance));
     }
+
+    @Test
+    void reloadValidationRulesReloadsRulesAndPublishesVocabularyContentModifiedEventToEvictValidationResults() {
+        sut.reloadValidationRules();
+        verify(validationRulesProviderMock).reload();
+        final ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(eventPublisherMock).publishEvent(captor.capture());
+        assertTrue(captor.getValue() instanceof VocabularyContentModified);
+    }
 }
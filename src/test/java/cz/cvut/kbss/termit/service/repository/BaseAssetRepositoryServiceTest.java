@@ -12,20 +12,16 @@
 package cz.cvut.kbss.termit.service.repository;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
-import cz.cvut.kbss.jopa.model.MultilingualString;
 import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
-import cz.cvut.kbss.termit.dto.RecentlyCommentedAsset;
 import cz.cvut.kbss.termit.dto.RecentlyModifiedAsset;
 import cz.cvut.kbss.termit.dto.workspace.WorkspaceMetadata;
 import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.exception.ValidationException;
-import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.User;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.model.changetracking.AbstractChangeRecord;
 import cz.cvut.kbss.termit.model.changetracking.PersistChangeRecord;
-import cz.cvut.kbss.termit.model.comment.Comment;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
 import cz.cvut.kbss.termit.persistence.dao.VocabularyDao;
 import cz.cvut.kbss.termit.persistence.dao.workspace.WorkspaceMetadataProvider;
@@ -45,7 +41,6 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -147,88 +142,6 @@ class BaseAssetRepositoryServiceTest extends BaseServiceTestRunner {
                 result.stream().map(RecentlyModifiedAsset::getUri).collect(Collectors.toList()));
     }
 
-    @Test
-    void findLastCommentedLoadsLastCommentedItems() {
-        enableRdfsInference(em);
-        final List<Term> terms = IntStream.range(0, 5).mapToObj(i -> Generator.generateTermWithId())
-            .collect(Collectors.toList());
-        AtomicInteger i = new AtomicInteger(0);
-        terms.forEach( t -> t.setLabel(MultilingualString.create("Term " + i.incrementAndGet(),"cs")));
-        transactional(() -> terms.forEach(em::persist));
-
-        final List<Comment> comments = terms.stream().map(t -> Generator.generateComment(author,t)).collect(
-            Collectors.toList());
-        transactional(() -> comments.forEach(em::persist));
-
-        em.getEntityManagerFactory().getCache().evictAll();
-
-        final int count = 2;
-        final List<RecentlyCommentedAsset> result = sut.findLastCommented(count);
-        assertEquals(count, result.size());
-    }
-
-    @Test
-    void findMyLastCommentedLoadsLastCommentedItems() {
-        enableRdfsInference(em);
-        final List<Term> terms = IntStream.range(0, 5).mapToObj(i -> Generator.generateTermWithId())
-            .collect(Collectors.toList());
-        AtomicInteger i = new AtomicInteger(0);
-        terms.forEach( t -> t.setLabel(MultilingualString.create("Term " + i.incrementAndGet(),"cs")));
-        transactional(() -> terms.forEach(em::persist));
-
-        final List<PersistChangeRecord> persistRecords = terms.stream().map(Generator::generatePersistChange)
-            .collect(
-                Collectors.toList());
-        setCreated(persistRecords);
-        transactional(() -> persistRecords.forEach(em::persist));
-
-        final List<Comment> comments = terms.stream().map(t -> Generator.generateComment(author,t)).collect(
-            Collectors.toList());
-        transactional(() -> comments.forEach(em::persist));
-
-        em.getEntityManagerFactory().getCache().evictAll();
-
-        final int count = 2;
-        final List<RecentlyCommentedAsset> result = sut.findMyLastCommented(author, count);
-        assertEquals(count, result.size());
-    }
-
-    @Test
-    void findLastCommentedInReactionLoadsLastCommentedItems() {
-        enableRdfsInference(em);
-        final List<Term> terms = IntStream.range(0, 5).mapToObj(i -> Generator.generateTermWithId())
-            .collect(Collectors.toList());
-        AtomicInteger i = new AtomicInteger(0);
-        terms.forEach( t -> t.setLabel(MultilingualString.create("Term " + i.incrementAndGet(),"cs")));
-        transactional(() -> terms.forEach(em::persist));
-
-        final List<PersistChangeRecord> persistRecords = terms.stream().map(Generator::generatePersistChange)
-            .collect(
-                Collectors.toList());
-        setCreated(persistRecords);
-        transactional(() -> persistRecords.forEach(em::persist));
-
-        final List<Comment> comments = terms.stream().map(t -> Generator.generateComment(author,t)).collect(
-            Collectors.toList());
-        transactional(() -> comments.forEach(em::persist));
-
-        User anotherUser = Generator.generateUserWithId();
-        transactional(() -> em.persist(anotherUser));
-
-        final List<Comment> otherComments = terms.stream().map(t -> Generator.generateComment(anotherUser,t)).collect(
-            Collectors.toList());
-        transactional(() -> otherComments.forEach(em::persist));
-
-        em.getEntityManagerFactory().getCache().evictAll();
-
-        final int count = 2;
-        final List<RecentlyCommentedAsset> result = sut.findLastCommentedInReaction(author, count);
-        assertEquals(count, result.size());
-        result.stream().forEach(a ->
-            assertNotNull(a.getMyLastComment())
-        );
-    }
-
     @Test
     void persistThrowsValidationExceptionWhenIdentifierDoesNotMatchValidationPattern() {
         final Vocabulary vocabulary = Generator.generateVocabulary();
@@ -760,4 +760,33 @@ class TermRepositoryServiceTest extends BaseServiceTestRunner {
         final Term inverseResult = em.find(Term.class, inverseExactMatch.getUri());
         assertThat(inverseResult.getExactMatchTerms(), anyOf(emptyCollectionOf(TermInfo.class), nullValue()));
     }
+
+    @Test
+    void updateDeletesOrphanedInverseRelationshipsOfMultipleTypes() {
+        final Term term = Generator.generateTermWithId(vocabulary.getUri());
+        term.setGlossary(vocabulary.getGlossary().getUri());
+        final Term inverseRelated = Generator.generateTermWithId(vocabulary.getUri());
+        inverseRelated.setGlossary(vocabulary.getGlossary().getUri());
+        final Term inverseExactMatch = Generator.generateTermWithId(childVocabulary.getUri());
+        inverseExactMatch.setGlossary(childVocabulary.getGlossary().getUri());
+        vocabulary.getGlossary().addRootTerm(term);
+        transactional(() -> {
+            em.persist(term, descriptorFactory.termDescriptor(vocabulary));
+            em.persist(inverseRelated, descriptorFactory.termDescriptor(vocabulary));
+            em.persist(inverseExactMatch, descriptorFactory.termDescriptor(childVocabulary));
+            em.merge(vocabulary.getGlossary(), descriptorFactory.glossaryDescriptor(vocabulary));
+            Generator.addTermInVocabularyRelationship(term, vocabulary.getUri(), em);
+            Generator.addTermInVocabularyRelationship(inverseRelated, vocabulary.getUri(), em);
+            Generator.addTermInVocabularyRelationship(inverseExactMatch, childVocabulary.getUri(), em);
+            generateRelatedInverse(term, inverseRelated, SKOS.RELATED);
+            generateRelatedInverse(term, inverseExactMatch, SKOS.EXACT_MATCH);
+        });
+        term.setRelated(Collections.emptySet());
+        term.setExactMatchTerms(Collections.emptySet());
+        sut.update(term);
+        final Term relatedResult = em.find(Term.class, inverseRelated.getUri());
+        assertThat(relatedResult.getRelated(), anyOf(emptyCollectionOf(TermInfo.class), nullValue()));
+        final Term exactMatchResult = em.find(Term.class, inverseExactMatch.getUri());
+        assertThat(exactMatchResult.getExactMatchTerms(), anyOf(emptyCollectionOf(TermInfo.class), nullValue()));
+    }
 }
@@ -0,0 +1,154 @@
+package cz.cvut.kbss.termit.service.validation;
+
+import cz.cvut.kbss.termit.dto.validation.ValidationJob;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.exception.NotFoundException;
+import cz.cvut.kbss.termit.exception.ValidationJobNotFinishedException;
+import cz.cvut.kbss.termit.exception.TermItException;
+import cz.cvut.kbss.termit.exception.ValidationJobRejectedException;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.model.validation.ValidationResult;
+import cz.cvut.kbss.termit.persistence.dao.VocabularyDao;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ValidationJobServiceTest {
+
+    private static final long TIMEOUT = 5000L;
+
+    @Mock
+    private VocabularyDao vocabularyDao;
+
+    private final Configuration config = new Configuration();
+
+    private final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+
+    private final Set<URI> contexts = Collections.singleton(Generator.generateUri());
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ValidationJobService sut;
+
+    @BeforeEach
+    void setUp() {
+        config.getValidation().setPoolSize(1);
+        config.getValidation().setQueueCapacity(1);
+        config.getValidation().setRetainedJobs(1);
+        this.sut = new ValidationJobService(vocabularyDao, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        sut.shutdown();
+    }
+
+    private void blockValidation() {
+        when(vocabularyDao.validateContents(anyCollection())).then(inv -> {
+            release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+            return Generator.generateValidationRecords();
+        });
+    }
+
+    private ValidationJob awaitDone(ValidationJob job) throws Exception {
+        final long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!job.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isDone());
+        return job;
+    }
+
+    @Test
+    void validateReturnsResultsOfBackgroundValidation() {
+        final List<ValidationResult> results = Generator.generateValidationRecords();
+        when(vocabularyDao.validateContents(contexts)).thenReturn(results);
+        assertEquals(results, sut.validate(vocabulary, contexts));
+    }
+
+    @Test
+    void submitReturnsQueuedJobWithResultsAvailableAfterItFinishes() throws Exception {
+        final List<ValidationResult> results = Generator.generateValidationRecords();
+        when(vocabularyDao.validateContents(contexts)).thenReturn(results);
+        final ValidationJob job = sut.submit(vocabulary, contexts);
+        assertEquals(vocabulary.getUri(), job.getVocabulary());
+        awaitDone(job);
+        assertEquals(ValidationJob.Status.FINISHED, sut.findRequired(job.getId()).getStatus());
+        assertNotNull(job.getStarted());
+        assertNotNull(job.getFinished());
+        assertEquals(results, sut.getResults(job.getId()));
+    }
+
+    @Test
+    void submitReturnsExistingJobWhenValidationOfSameContextsIsInProgress() throws Exception {
+        blockValidation();
+        final ValidationJob first = sut.submit(vocabulary, contexts);
+        final ValidationJob second = sut.submit(vocabulary, contexts);
+        assertSame(first, second);
+        release.countDown();
+        awaitDone(first);
+        verify(vocabularyDao).validateContents(contexts);
+    }
+
+    @Test
+    void getResultsThrowsValidationJobNotFinishedExceptionWhenJobHasNotFinishedYet() {
+        blockValidation();
+        final ValidationJob job = sut.submit(vocabulary, contexts);
+        assertThrows(ValidationJobNotFinishedException.class, () -> sut.getResults(job.getId()));
+    }
+
+    @Test
+    void getResultsThrowsNotFoundExceptionForUnknownJob() {
+        assertThrows(NotFoundException.class, () -> sut.getResults("unknown"));
+    }
+
+    @Test
+    void findRequiredThrowsNotFoundExceptionForUnknownJob() {
+        assertThrows(NotFoundException.class, () -> sut.findRequired("unknown"));
+    }
+
+    @Test
+    void submitThrowsValidationJobRejectedExceptionWhenQueueIsFull() {
+        blockValidation();
+        sut.submit(vocabulary, contexts);
+        sut.submit(vocabulary, Collections.singleton(Generator.generateUri()));
+        assertThrows(ValidationJobRejectedException.class,
+                () -> sut.submit(vocabulary, Collections.singleton(Generator.generateUri())));
+    }
+
+    @Test
+    void failedJobIsMarkedAsFailedAndValidateRethrowsItsException() throws Exception {
+        when(vocabularyDao.validateContents(contexts)).thenThrow(new TermItException("Validation failed."));
+        final ValidationJob job = sut.submit(vocabulary, contexts);
+        awaitDone(job);
+        assertEquals(ValidationJob.Status.FAILED, job.getStatus());
+        assertEquals("Validation failed.", job.getError());
+        assertThrows(TermItException.class, () -> sut.validate(vocabulary, contexts));
+    }
+
+    @Test
+    void jobsFinishedBeyondRetainedCountAreDiscarded() throws Exception {
+        when(vocabularyDao.validateContents(anyCollection())).thenReturn(Collections.emptyList());
+        final ValidationJob first = awaitDone(sut.submit(vocabulary, contexts));
+        final ValidationJob second = awaitDone(sut.submit(vocabulary, Collections.singleton(Generator.generateUri())));
+        assertThrows(NotFoundException.class, () -> sut.findRequired(first.getId()));
+        assertSame(second, sut.findRequired(second.getId()));
+    }
+}